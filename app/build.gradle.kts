@@ -75,6 +75,18 @@ android {
         buildConfigField("String", "OPENAI_API_KEY", "\"$openAiKey\"")
         buildConfigField("String", "MAPS_API_KEY", "\"$mapsKey\"")
         manifestPlaceholders["MAPS_API_KEY"] = mapsKey.ifEmpty { "YOUR_API_KEY_HERE" }
+
+        // Export Room schemas to app/schemas; commit them so migrations can be tested against them
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
+    }
+
+    // Migration tests read the exported schemas as assets
+    sourceSets {
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 
     buildTypes {
@@ -336,9 +348,15 @@ dependencies {
 
     // --- Room Database ---
     implementation(libs.androidx.room.runtime)
+    implementation(libs.androidx.room.paging)
     implementation(libs.androidx.junit.ktx)
     implementation(libs.androidx.swiperefreshlayout)
     annotationProcessor(libs.androidx.room.compiler)
+    androidTestImplementation(libs.androidx.room.testing)
+
+    // --- Paging ---
+    implementation(libs.androidx.paging.runtime)
+    implementation(libs.androidx.paging.guava)
 
     // --- Media & Image Loading ---
     implementation(libs.picasso)
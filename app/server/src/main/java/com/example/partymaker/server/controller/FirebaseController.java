@@ -13,9 +13,12 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -38,6 +41,11 @@ public class FirebaseController {
 
     private static final Logger logger = LoggerFactory.getLogger(FirebaseController.class);
     
+    // Batch endpoints accept paths under these collections only
+    private static final Set<String> BATCH_ROOTS =
+        new HashSet<>(Arrays.asList("Groups", "Users", "GroupsMessages", "UserGroups"));
+    private static final int MAX_BATCH_PATHS = 100;
+
     private final FirebaseService firebaseService;
 
     @Autowired
@@ -146,6 +154,93 @@ public class FirebaseController {
         }
     }
 
+    /**
+     * Retrieves the values at several paths in one request. Used by the Android client to merge
+     * concurrent single-item reads.
+     *
+     * @param request Body with a "paths" list, e.g. ["Groups/abc", "Users/def"]
+     * @return ResponseEntity with a map of path to value (paths without data are omitted),
+     *         400 for invalid input, 500 on server error
+     */
+    @PostMapping("/batch/get")
+    public ResponseEntity<Object> batchGet(@RequestBody Map<String, List<String>> request) {
+        List<String> paths = request.get("paths");
+        if (paths == null || paths.isEmpty() || paths.size() > MAX_BATCH_PATHS) {
+            logger.warn("Invalid batch read of {} paths", paths == null ? 0 : paths.size());
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse("Batch must contain 1 to " + MAX_BATCH_PATHS + " paths"));
+        }
+        for (String path : paths) {
+            if (!isBatchablePath(path)) {
+                logger.warn("Rejected batch read path: {}", path);
+                return ResponseEntity.badRequest().body(createErrorResponse("Invalid path: " + path));
+            }
+        }
+
+        logger.info("Batch reading {} paths", paths.size());
+        try {
+            return ResponseEntity.ok(firebaseService.getValues(paths).get());
+        } catch (InterruptedException e) {
+            logger.error("Thread interrupted during batch read", e);
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("Request was interrupted"));
+        } catch (ExecutionException e) {
+            logger.error("Execution error during batch read", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("Failed to read batch"));
+        }
+    }
+
+    /**
+     * Applies several writes as one atomic multi-path update. Used by the Android client to merge
+     * concurrent writes.
+     *
+     * @param updates Map of path to new value, e.g. {"Groups/abc/groupName": "Party"}; null deletes
+     * @return ResponseEntity with 200 OK on success, 400 for invalid input, 500 on server error
+     */
+    @PostMapping("/batch/update")
+    public ResponseEntity<Object> batchUpdate(@RequestBody Map<String, Object> updates) {
+        if (updates.isEmpty() || updates.size() > MAX_BATCH_PATHS) {
+            logger.warn("Invalid batch update of {} paths", updates.size());
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse("Batch must contain 1 to " + MAX_BATCH_PATHS + " paths"));
+        }
+        for (String path : updates.keySet()) {
+            if (!isBatchablePath(path)) {
+                logger.warn("Rejected batch update path: {}", path);
+                return ResponseEntity.badRequest().body(createErrorResponse("Invalid path: " + path));
+            }
+        }
+
+        logger.info("Applying batch update of {} paths", updates.size());
+        try {
+            firebaseService.updateMultiPath(updates).get();
+            return ResponseEntity.ok().build();
+        } catch (InterruptedException e) {
+            logger.error("Thread interrupted during batch update", e);
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("Request was interrupted"));
+        } catch (ExecutionException e) {
+            logger.error("Execution error during batch update", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("Failed to apply batch update"));
+        }
+    }
+
+    /**
+     * Checks that a batch path stays inside the collections the API exposes, so a batch cannot
+     * reach data the single-item endpoints would not.
+     */
+    private boolean isBatchablePath(String path) {
+        if (path == null || path.contains("..")) {
+            return false;
+        }
+        String root = path.split("/", 2)[0];
+        return BATCH_ROOTS.contains(root) && path.length() > root.length() + 1;
+    }
+
     /**
      * Retrieves user groups for a specific user.
      *
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -56,6 +57,56 @@ public class FirebaseService {
         return future;
     }
 
+    /**
+     * Retrieves the value at the specified path, whatever its type.
+     *
+     * @param path The path in Firebase.
+     * @return CompletableFuture with the value, or null if there is no data at the path.
+     */
+    public CompletableFuture<Object> getValue(String path) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+
+        DatabaseReference ref = firebaseDatabase.getReference(path);
+        ref.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                future.complete(dataSnapshot.getValue());
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                future.completeExceptionally(databaseError.toException());
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Retrieves the values at several paths concurrently.
+     *
+     * @param paths The paths in Firebase.
+     * @return CompletableFuture with a map of path to value; paths without data are omitted.
+     */
+    public CompletableFuture<Map<String, Object>> getValues(List<String> paths) {
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        for (String path : paths) {
+            futures.put(path, getValue(path));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                Map<String, Object> result = new HashMap<>();
+                futures.forEach((path, future) -> {
+                    Object value = future.join();
+                    if (value != null) {
+                        result.put(path, value);
+                    }
+                });
+                return result;
+            });
+    }
+
     /**
      * Retrieves data from Firebase at the specified path as a List of Maps.
      *
@@ -136,6 +187,27 @@ public class FirebaseService {
         return future;
     }
 
+    /**
+     * Applies a multi-path update from the database root. All paths are written atomically;
+     * a null value deletes the path.
+     *
+     * @param updates Map of absolute path to new value.
+     * @return CompletableFuture that completes when the operation finishes.
+     */
+    public CompletableFuture<Void> updateMultiPath(Map<String, Object> updates) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        firebaseDatabase.getReference().updateChildren(updates, (databaseError, databaseReference) -> {
+            if (databaseError != null) {
+                future.completeExceptionally(databaseError.toException());
+            } else {
+                future.complete(null);
+            }
+        });
+
+        return future;
+    }
+
     /**
      * Deletes data at the specified path in Firebase (sets value to null).
      *
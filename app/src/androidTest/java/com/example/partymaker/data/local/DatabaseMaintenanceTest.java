@@ -0,0 +1,148 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for DatabaseMaintenance, on a file-backed database.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Every group keeps its newest messages
+ *   <li>Messages and chat summaries of groups that are no longer stored are deleted
+ *   <li>The pass enables incremental auto_vacuum, shrinks the file and truncates the WAL
+ *   <li>Full-text search finds the right messages after the vacuum
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMaintenanceTest {
+
+  private static final int GROUP_COUNT = 20;
+  private static final int MESSAGES_PER_GROUP = 1000;
+  private static final int KEEP_PER_GROUP = 100;
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("maintenance_test.db");
+
+  private AppDatabase database;
+  private ChatMessageDao chatMessageDao;
+
+  @Before
+  public void setUp() {
+    database = databaseRule.open();
+    chatMessageDao = database.chatMessageDao();
+  }
+
+  @Test
+  public void testRunPass_KeepsNewestMessagesPerGroup() {
+    // Arrange
+    insertGroupsWithMessages(GROUP_COUNT);
+
+    // Act
+    DatabaseMaintenance.runPass(database, KEEP_PER_GROUP);
+
+    // Assert
+    for (int g = 0; g < GROUP_COUNT; g++) {
+      List<ChatMessage> messages = chatMessageDao.getMessagesForGroup("group-" + g);
+      assertEquals(KEEP_PER_GROUP, messages.size());
+      assertEquals(MESSAGES_PER_GROUP - KEEP_PER_GROUP, messages.get(0).getTimestamp());
+      assertEquals(MESSAGES_PER_GROUP - 1, messages.get(KEEP_PER_GROUP - 1).getTimestamp());
+    }
+  }
+
+  @Test
+  public void testRunPass_DeletesOrphanedMessages() {
+    // Arrange
+    insertGroupsWithMessages(2);
+    database.groupDao().deleteGroupByKey("group-1");
+
+    // Act
+    DatabaseMaintenance.runPass(database, KEEP_PER_GROUP);
+
+    // Assert
+    assertEquals(KEEP_PER_GROUP, chatMessageDao.getMessagesForGroup("group-0").size());
+    assertTrue(chatMessageDao.getMessagesForGroup("group-1").isEmpty());
+    assertNotNull(chatMessageDao.getChatSummary("group-0"));
+    assertNull(chatMessageDao.getChatSummary("group-1"));
+  }
+
+  @Test
+  public void testRunPass_CompactsFileAndTruncatesWal() {
+    // Arrange
+    insertGroupsWithMessages(GROUP_COUNT);
+    File databaseFile =
+        databaseRule.getContext().getDatabasePath(databaseRule.getDatabaseName());
+    File walFile = new File(databaseFile.getPath() + "-wal");
+    long sizeBefore = databaseFile.length() + walFile.length();
+
+    // Act
+    long start = System.nanoTime();
+    long reclaimed = DatabaseMaintenance.runPass(database, KEEP_PER_GROUP);
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    // Assert
+    TestDatabaseRule.report(
+        "DatabaseMaintenance: %d -> %d bytes, reclaimed %d bytes in %d ms",
+        sizeBefore, databaseFile.length() + walFile.length(), reclaimed, elapsedMs);
+    assertTrue(reclaimed > 0);
+    assertEquals(0, walFile.length());
+    assertEquals(2, queryLong("PRAGMA auto_vacuum"));
+    assertEquals(0, queryLong("PRAGMA freelist_count"));
+  }
+
+  @Test
+  public void testRunPass_SearchFindsKeptMessagesAfterVacuum() {
+    // Arrange - trimming leaves rowid gaps that the first full VACUUM may close
+    insertGroupsWithMessages(GROUP_COUNT);
+
+    // Act
+    DatabaseMaintenance.runPass(database, KEEP_PER_GROUP);
+
+    // Assert
+    List<ChatMessage> kept =
+        chatMessageDao.searchGroupMessagesFts("group-3", FtsQuery.prefixMatch("999"), 10);
+    assertEquals(1, kept.size());
+    assertEquals("group-3-message-999", kept.get(0).getMessageKey());
+    assertTrue(
+        chatMessageDao.searchGroupMessagesFts("group-3", FtsQuery.prefixMatch("5"), 10).isEmpty());
+  }
+
+  private void insertGroupsWithMessages(int groupCount) {
+    for (int g = 0; g < groupCount; g++) {
+      String groupKey = "group-" + g;
+      Group group = new Group();
+      group.setGroupKey(groupKey);
+      group.setGroupName("Party " + g);
+      group.setAdminKey("user-0");
+      database.groupDao().insertGroup(group);
+
+      List<ChatMessage> messages = new ArrayList<>(MESSAGES_PER_GROUP);
+      for (int i = 0; i < MESSAGES_PER_GROUP; i++) {
+        ChatMessage message =
+            new ChatMessage(groupKey, "user-" + (i % 5), "User", "Message number " + i);
+        message.setMessageKey(groupKey + "-message-" + i);
+        message.setTimestamp(i);
+        messages.add(message);
+      }
+      chatMessageDao.insertMessages(messages, "user-0");
+    }
+  }
+
+  private long queryLong(String sql) {
+    try (Cursor cursor = database.query(sql, null)) {
+      return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+    }
+  }
+}
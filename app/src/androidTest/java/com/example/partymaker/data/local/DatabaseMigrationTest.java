@@ -0,0 +1,337 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupChatSummary;
+import com.example.partymaker.data.model.User;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for the upgrade path of AppDatabase, on file-backed databases built with the
+ * version 7 schema, the last one before the migrations in DatabaseMigrations.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Versions 7, 8 and 9 migrate to the current version and keep the cached rows
+ *   <li>Every step from version 8 leaves the schema exported for its target version
+ *   <li>Migrated rows are backfilled into the membership, full-text and chat summary tables
+ *   <li>The decrypted message table starts empty
+ *   <li>Versions 1 to 6 are recreated empty instead of failing to open
+ *   <li>The exported schema of the current version matches the entities
+ *   <li>Migration time of a warm cache of 1000 groups
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationTest {
+
+  private static final String DATABASE_NAME = "migration_test.db";
+  private static final int BENCHMARK_GROUP_COUNT = 1000;
+
+  // The version 7 schema, as Room created it from the entities, plus the indexes onCreate added
+  private static final String[] VERSION_7_SCHEMA = {
+    "CREATE TABLE IF NOT EXISTS `groups` (`group_name` TEXT, `groupKey` TEXT NOT NULL,"
+        + " `group_location` TEXT, `admin_key` TEXT, `created_at` TEXT, `group_days` TEXT,"
+        + " `group_months` TEXT, `group_years` TEXT, `group_hours` TEXT, `group_minutes` TEXT,"
+        + " `group_image_url` TEXT, `group_price` TEXT, `group_type` INTEGER NOT NULL,"
+        + " `can_add` INTEGER NOT NULL, `group_description` TEXT, `friend_keys` TEXT,"
+        + " `coming_keys` TEXT, `message_keys` TEXT, PRIMARY KEY(`groupKey`))",
+    "CREATE INDEX IF NOT EXISTS `idx_group_created` ON `groups` (`created_at`)",
+    "CREATE INDEX IF NOT EXISTS `idx_group_admin` ON `groups` (`admin_key`)",
+    "CREATE INDEX IF NOT EXISTS `idx_group_type_created` ON `groups` (`group_type`, `created_at`)",
+    "CREATE INDEX IF NOT EXISTS `idx_group_user` ON `groups` (`admin_key`)",
+    "CREATE INDEX IF NOT EXISTS `idx_group_user_type` ON `groups` (`admin_key`, `group_type`)",
+    "CREATE INDEX IF NOT EXISTS `idx_group_name` ON `groups` (`group_name`)",
+    "CREATE TABLE IF NOT EXISTS `users` (`userKey` TEXT NOT NULL, `username` TEXT,"
+        + " `email` TEXT, `profile_image_url` TEXT, `friend_keys` TEXT, `full_name` TEXT,"
+        + " `created_at` TEXT, PRIMARY KEY(`userKey`))",
+    "CREATE UNIQUE INDEX IF NOT EXISTS `idx_user_email` ON `users` (`email`)",
+    "CREATE INDEX IF NOT EXISTS `idx_user_name` ON `users` (`username`)",
+    "CREATE INDEX IF NOT EXISTS `idx_user_created` ON `users` (`created_at`)",
+    "CREATE INDEX IF NOT EXISTS `idx_user_search` ON `users` (`username`, `email`)",
+    "CREATE TABLE IF NOT EXISTS `chat_messages` (`messageKey` TEXT NOT NULL, `groupKey` TEXT,"
+        + " `senderKey` TEXT, `senderName` TEXT, `message` TEXT, `timestamp` INTEGER NOT NULL,"
+        + " `imageUrl` TEXT, `encrypted` INTEGER NOT NULL, `metadata` TEXT, `messageUser` TEXT,"
+        + " `messageText` TEXT, `messageTime` TEXT, `groupId` TEXT, `messageContent` TEXT,"
+        + " PRIMARY KEY(`messageKey`))",
+    "CREATE INDEX IF NOT EXISTS `idx_message_group` ON `chat_messages` (`groupKey`)",
+    "CREATE INDEX IF NOT EXISTS `idx_message_group_time` ON `chat_messages` (`groupKey`,"
+        + " `timestamp`)",
+    "CREATE INDEX IF NOT EXISTS `idx_message_sender` ON `chat_messages` (`senderKey`)",
+    "CREATE INDEX IF NOT EXISTS `idx_message_time` ON `chat_messages` (`timestamp`)",
+    "CREATE INDEX IF NOT EXISTS `idx_message_group_encrypted` ON `chat_messages` (`groupKey`,"
+        + " `encrypted`)",
+    "CREATE INDEX IF NOT EXISTS idx_group_search ON groups(group_name COLLATE NOCASE,"
+        + " group_location COLLATE NOCASE)",
+    "CREATE INDEX IF NOT EXISTS idx_message_unread ON chat_messages(groupKey, encrypted,"
+        + " timestamp)"
+  };
+
+  @Rule
+  public final MigrationTestHelper helper =
+      new MigrationTestHelper(InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule(DATABASE_NAME);
+
+  private AppDatabase database;
+
+  @Test
+  public void testMigrateFromVersion7_KeepsCachedData() {
+    // Arrange
+    createVersion7Database(1);
+
+    // Act
+    database = openAppDatabase();
+
+    // Assert
+    assertCachedDataKept();
+  }
+
+  @Test
+  public void testMigrateFromVersion8_KeepsCachedData() {
+    // Arrange
+    createVersion7Database(1);
+    migrateRaw(8);
+
+    // Act
+    database = openAppDatabase();
+
+    // Assert
+    assertCachedDataKept();
+  }
+
+  @Test
+  public void testMigrateFromVersion9_KeepsCachedData() {
+    // Arrange
+    createVersion7Database(1);
+    migrateRaw(9);
+
+    // Act
+    database = openAppDatabase();
+
+    // Assert
+    assertCachedDataKept();
+  }
+
+  @Test
+  public void testMigrateStepByStep_MatchesExportedSchemas() throws Exception {
+    // Arrange: version 7 has no exported schema, and its extra indexes are only dropped at 11,
+    // so the step by step path starts from the exported version 8 schema
+    try (SupportSQLiteDatabase db = helper.createDatabase(DATABASE_NAME, 8)) {
+      insertVersion8Rows(db);
+    }
+
+    // Act: each step is validated against the exported schema of its target version
+    for (Migration migration : DatabaseMigrations.getSchemaMigrations()) {
+      if (migration.startVersion >= 8) {
+        helper
+            .runMigrationsAndValidate(DATABASE_NAME, migration.endVersion, true, migration)
+            .close();
+      }
+    }
+    database = openAppDatabase();
+
+    // Assert
+    assertCachedDataKept();
+  }
+
+  @Test
+  public void testMigrateFromVersions1To6_RecreatedEmpty() {
+    for (int version = 1; version <= 6; version++) {
+      // Arrange
+      databaseRule.delete();
+      try (SQLiteDatabase db = openRaw()) {
+        db.execSQL("CREATE TABLE groups (groupKey TEXT PRIMARY KEY NOT NULL, groupName TEXT)");
+        db.execSQL("INSERT INTO groups VALUES ('group-0', 'Old party')");
+        db.setVersion(version);
+      }
+
+      // Act
+      database = openAppDatabase();
+
+      // Assert
+      assertNull(database.groupDao().getGroupByKey("group-0"));
+      assertEquals(0, database.groupDao().getAllGroupKeys().size());
+    }
+  }
+
+  @Test
+  public void testExportedSchema_MatchesEntities() throws Exception {
+    // Arrange: create the database from the exported schema of the current version
+    helper.createDatabase(DATABASE_NAME, AppDatabase.DATABASE_VERSION).close();
+
+    // Act: Room fails to open it if the schema differs from the entities
+    database = openAppDatabase();
+
+    // Assert
+    assertEquals(0, database.groupDao().getAllGroupKeys().size());
+  }
+
+  @Test
+  public void testBenchmark_MigrateWarmCache() {
+    // Arrange
+    createVersion7Database(BENCHMARK_GROUP_COUNT);
+
+    // Act
+    long start = System.nanoTime();
+    database = openAppDatabase();
+    List<String> groupKeys = database.groupDao().getAllGroupKeys();
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    // Assert
+    TestDatabaseRule.report(
+        "Migration 7 -> %d of %d groups: %d ms",
+        AppDatabase.DATABASE_VERSION, BENCHMARK_GROUP_COUNT, elapsedMs);
+    assertEquals(BENCHMARK_GROUP_COUNT, groupKeys.size());
+  }
+
+  private void assertCachedDataKept() {
+    Group group = database.groupDao().getGroupByKey("group-0");
+    assertNotNull(group);
+    assertEquals("Beach party", group.getGroupName());
+    assertNotNull(group.getEventEpochMillis());
+    assertTrue(group.getCreatedAtMillis() > 0);
+    assertEquals(2, group.getFriendKeys().size());
+
+    assertEquals(3, database.groupMemberDao().getMembers("group-0").size());
+    assertEquals(1, database.groupMemberDao().getComingUserKeys("group-0").size());
+    assertEquals(1, database.groupDao().getUserGroupKeys("bob@gmail com").size());
+
+    User user = database.userDao().getUserByKey("user-0");
+    assertNotNull(user);
+    assertEquals("alice@gmail.com", user.getEmail());
+
+    List<ChatMessage> messages = database.chatMessageDao().getMessagesForGroup("group-0");
+    assertEquals(1, messages.size());
+    assertEquals(
+        1,
+        database.chatMessageDao().searchMessagesFts(FtsQuery.prefixMatch("sunscreen"), 10).size());
+    GroupChatSummary summary = database.chatMessageDao().getChatSummary("group-0");
+    assertNotNull(summary);
+    assertEquals("Bring sunscreen", summary.getLastSnippet());
+    assertEquals(0, summary.getUnreadCount());
+    assertTrue(
+        database
+            .chatMessageDao()
+            .getDecryptedMessages(Collections.singletonList(messages.get(0).getMessageKey()))
+            .isEmpty());
+    List<Group> found =
+        database
+            .groupDao()
+            .findGroupsFts(
+                FtsQuery.prefixMatch("beach"), FtsQuery.prefixMatch("group_name", "beach"), 10);
+    assertEquals(1, found.size());
+  }
+
+  /** Creates a version 7 database with groups, a user and a message, as the app cached them. */
+  private void createVersion7Database(int groupCount) {
+    try (SQLiteDatabase db = openRaw()) {
+      for (String statement : VERSION_7_SCHEMA) {
+        db.execSQL(statement);
+      }
+      db.beginTransaction();
+      try {
+        for (int i = 0; i < groupCount; i++) {
+          db.execSQL(
+              "INSERT INTO groups (groupKey, group_name, group_location, admin_key, created_at,"
+                  + " group_days, group_months, group_years, group_hours, group_type, can_add,"
+                  + " friend_keys, coming_keys, message_keys)"
+                  + " VALUES (?, ?, 'Tel Aviv', 'alice@gmail com', '1760000000000', '20', '10',"
+                  + " '2026', '18:30', 0, 1, ?, ?, ?)",
+              new Object[] {
+                "group-" + i,
+                i == 0 ? "Beach party" : "Party " + i,
+                "{\"alice@gmail com\":true,\"bob@gmail com\":true}",
+                "{\"carol@gmail com\":true}",
+                "{\"message-" + i + "\":true}"
+              });
+        }
+        db.execSQL(
+            "INSERT INTO users (userKey, username, email, friend_keys)"
+                + " VALUES ('user-0', 'alice', 'alice@gmail.com', '{}')");
+        db.execSQL(
+            "INSERT INTO chat_messages (messageKey, groupKey, senderKey, senderName, message,"
+                + " timestamp, encrypted) VALUES ('message-0', 'group-0', 'user-0', 'alice',"
+                + " 'Bring sunscreen', 1760000000000, 0)");
+        db.setTransactionSuccessful();
+      } finally {
+        db.endTransaction();
+      }
+      db.setVersion(7);
+    }
+  }
+
+  /** Inserts a group, a user and a message into a version 8 database, as the app cached them. */
+  private static void insertVersion8Rows(SupportSQLiteDatabase db) {
+    db.execSQL(
+        "INSERT INTO groups (groupKey, group_name, group_location, admin_key, created_at,"
+            + " created_at_millis, event_epoch_millis, group_days, group_months, group_years,"
+            + " group_hours, group_type, can_add, friend_keys, coming_keys, message_keys)"
+            + " VALUES ('group-0', 'Beach party', 'Tel Aviv', 'alice@gmail com', '1760000000000',"
+            + " 1760000000000, 1792520000000, '20', '10', '2026', '18:30', 0, 1, ?, ?, ?)",
+        new Object[] {
+          "{\"alice@gmail com\":true,\"bob@gmail com\":true}",
+          "{\"carol@gmail com\":true}",
+          "{\"message-0\":true}"
+        });
+    db.execSQL(
+        "INSERT INTO users (userKey, username, email, friend_keys)"
+            + " VALUES ('user-0', 'alice', 'alice@gmail.com', '{}')");
+    db.execSQL(
+        "INSERT INTO chat_messages (messageKey, groupKey, senderKey, senderName, message,"
+            + " timestamp, encrypted) VALUES ('message-0', 'group-0', 'user-0', 'alice',"
+            + " 'Bring sunscreen', 1760000000000, 0)");
+  }
+
+  /** Runs the migrations from version 7 on the raw database, to create a later version. */
+  private void migrateRaw(int toVersion) {
+    SupportSQLiteOpenHelper openHelper =
+        new FrameworkSQLiteOpenHelperFactory()
+            .create(
+                SupportSQLiteOpenHelper.Configuration.builder(databaseRule.getContext())
+                    .name(DATABASE_NAME)
+                    .callback(
+                        new SupportSQLiteOpenHelper.Callback(7) {
+                          @Override
+                          public void onCreate(@NonNull SupportSQLiteDatabase db) {}
+
+                          @Override
+                          public void onUpgrade(
+                              @NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {}
+                        })
+                    .build());
+    SupportSQLiteDatabase db = openHelper.getWritableDatabase();
+    for (Migration migration : DatabaseMigrations.getSchemaMigrations()) {
+      if (migration.endVersion <= toVersion) {
+        migration.migrate(db);
+      }
+    }
+    db.setVersion(toVersion);
+    openHelper.close();
+  }
+
+  private SQLiteDatabase openRaw() {
+    return SQLiteDatabase.openOrCreateDatabase(
+        databaseRule.getContext().getDatabasePath(DATABASE_NAME), null);
+  }
+
+  private AppDatabase openAppDatabase() {
+    return databaseRule.open();
+  }
+}
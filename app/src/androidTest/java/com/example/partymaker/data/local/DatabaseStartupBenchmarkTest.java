@@ -0,0 +1,166 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.paging.PagingSource;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented benchmark for opening AppDatabase with each {@link DatabaseTuning}, on a warm cache
+ * of 1000 groups. Each open runs the app's open callback, so its pragmas are part of the time.
+ * Files stay in the OS page cache between runs, so the timings compare settings rather than measure
+ * a cold start.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Open, first query and first page of the group list, for the default and low-end settings
+ *       and without memory-mapped I/O
+ *   <li>The settings a database opened with {@link DatabaseTuning} runs with
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseStartupBenchmarkTest {
+
+  private static final String USER_KEY = "user-0";
+  private static final int GROUP_COUNT = 1000;
+  private static final int PAGE_SIZE = 20;
+  private static final int RUNS = 5;
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("startup_benchmark.db");
+
+  private AppDatabase database;
+
+  @Test
+  public void testOpen_AppliesTuning() {
+    // Arrange
+    DatabaseTuning tuning =
+        new DatabaseTuning.Builder().cacheSizePages(1234).statementCacheSize(60).build();
+
+    // Act
+    database = openDatabase(tuning);
+
+    // Assert
+    assertEquals(1234, queryLong("PRAGMA cache_size"));
+    assertEquals("wal", queryString("PRAGMA journal_mode"));
+  }
+
+  @Test
+  public void testBenchmark_StartupPerTuning() throws Exception {
+    // Arrange
+    database = openDatabase(DatabaseTuning.DEFAULT);
+    List<Group> groups = new ArrayList<>(GROUP_COUNT);
+    for (int i = 0; i < GROUP_COUNT; i++) {
+      groups.add(buildGroup("group-" + i, i));
+    }
+    database.groupDao().replaceAllGroups(groups);
+    databaseRule.close();
+
+    DatabaseTuning noMmap =
+        new DatabaseTuning.Builder()
+            .readConnections(DatabaseTuning.DEFAULT.getReadConnections())
+            .cacheSizePages(DatabaseTuning.DEFAULT.getCacheSizePages())
+            .statementCacheSize(DatabaseTuning.DEFAULT.getStatementCacheSize())
+            .build();
+    DatabaseTuning[] tunings = {DatabaseTuning.DEFAULT, DatabaseTuning.LOW_END, noMmap};
+    String[] names = {"default", "low-end", "default without mmap"};
+
+    // Act
+    for (int t = 0; t < tunings.length; t++) {
+      long openNanos = 0;
+      long queryNanos = 0;
+      long pageNanos = 0;
+      long appliedMmap = 0;
+      for (int run = 0; run < RUNS; run++) {
+        long start = System.nanoTime();
+        database = openDatabase(tunings[t]);
+        database.getOpenHelper().getWritableDatabase();
+        long opened = System.nanoTime();
+        int groupCount = database.groupDao().getUserGroupKeys(USER_KEY).size();
+        long queried = System.nanoTime();
+        List<GroupListItem> page = loadFirstPage();
+        long paged = System.nanoTime();
+
+        openNanos += opened - start;
+        queryNanos += queried - opened;
+        pageNanos += paged - queried;
+        appliedMmap = queryLong("PRAGMA mmap_size");
+
+        // Assert - every run reads the same rows; timings are reported only, as they depend on
+        // the device
+        assertEquals(GROUP_COUNT, groupCount);
+        assertEquals(PAGE_SIZE, page.size());
+        databaseRule.close();
+      }
+
+      TestDatabaseRule.report(
+          "Startup with %s settings (%s, mmap applied %d bytes), average of %d runs:%n"
+              + "  open:             %.1f ms%n"
+              + "  first query:      %.1f ms%n"
+              + "  first list page:  %.1f ms",
+          names[t],
+          tunings[t],
+          appliedMmap,
+          RUNS,
+          openNanos / 1e6 / RUNS,
+          queryNanos / 1e6 / RUNS,
+          pageNanos / 1e6 / RUNS);
+    }
+  }
+
+  /** Loads the first page of the user's group list, the rows the main screen shows first. */
+  private List<GroupListItem> loadFirstPage() throws InterruptedException {
+    PagingSource<Integer, GroupListItem> source =
+        database.groupDao().pageUserGroups(USER_KEY, GroupListQuery.DEFAULT);
+    PagingSource.LoadResult<Integer, GroupListItem> result =
+        BuildersKt.runBlocking(
+            EmptyCoroutineContext.INSTANCE,
+            (scope, continuation) ->
+                source.load(
+                    new PagingSource.LoadParams.Refresh<>(null, PAGE_SIZE, false),
+                    continuation));
+    assertTrue(result instanceof PagingSource.LoadResult.Page);
+    return ((PagingSource.LoadResult.Page<Integer, GroupListItem>) result).getData();
+  }
+
+  private AppDatabase openDatabase(DatabaseTuning tuning) {
+    return databaseRule.open(tuning);
+  }
+
+  private long queryLong(String sql) {
+    try (Cursor cursor = database.query(sql, null)) {
+      return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+    }
+  }
+
+  private String queryString(String sql) {
+    try (Cursor cursor = database.query(sql, null)) {
+      return cursor.moveToFirst() ? cursor.getString(0) : null;
+    }
+  }
+
+  private static Group buildGroup(String groupKey, int index) {
+    Group group = new Group();
+    group.setGroupKey(groupKey);
+    group.setGroupName("Party " + index);
+    group.setAdminKey(USER_KEY);
+    group.setGroupLocation("Tel Aviv");
+    group.setGroupDays(String.valueOf(index % 28 + 1));
+    group.setGroupMonths("October");
+    group.setGroupYears("2025");
+    group.setGroupHours(String.format(Locale.ROOT, "%02d:00", index % 24));
+    return group;
+  }
+}
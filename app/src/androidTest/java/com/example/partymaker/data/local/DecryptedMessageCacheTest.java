@@ -0,0 +1,210 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.DecryptedMessage;
+import com.example.partymaker.utils.security.encryption.GroupMessageEncryption;
+import com.example.partymaker.utils.security.encryption.LocalTextCipher;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for DecryptedMessageCache and the decrypted_messages table.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Encrypted messages are decrypted and their text stored sealed; plain messages pass through
+ *   <li>Stored texts are read back without decrypting
+ *   <li>A message encrypted again is decrypted again; text that fails to decrypt is not stored
+ *   <li>Deleting a group's messages deletes its decrypted texts
+ *   <li>Only the texts of the newest messages of each group are kept
+ *   <li>Showing a chat of 500 encrypted messages from stored texts against decrypting them
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class DecryptedMessageCacheTest {
+
+  private static final String USER_KEY = "decrypted-cache-test-user";
+  private static final String GROUP_KEY = "group-0";
+  private static final int BENCHMARK_MESSAGE_COUNT = 500;
+  private static final int RUNS = 5;
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("decrypted_message_test.db");
+
+  private ChatMessageDao chatMessageDao;
+  private GroupMessageEncryption encryption;
+  private LocalTextCipher textCipher;
+  private DecryptedMessageCache cache;
+
+  @Before
+  public void setUp() {
+    Context context = databaseRule.getContext();
+    chatMessageDao = databaseRule.open().chatMessageDao();
+    encryption = new GroupMessageEncryption(context, USER_KEY);
+    assertNotNull(encryption.generateGroupKey(GROUP_KEY));
+    textCipher = LocalTextCipher.getInstance(context);
+    cache = new DecryptedMessageCache(chatMessageDao, encryption, textCipher);
+  }
+
+  @After
+  public void tearDown() {
+    encryption.clearAllGroupKeys();
+  }
+
+  @Test
+  public void testDecryptMessages_StoresDecryptedText() {
+    // Arrange
+    ChatMessage plain = buildMessage("m1", "Plain text", 100);
+    List<ChatMessage> messages =
+        Arrays.asList(plain, encrypt(buildMessage("m2", "Bring the speakers", 200)));
+
+    // Act
+    List<ChatMessage> shown = cache.decryptMessages(messages);
+
+    // Assert
+    assertSame(plain, shown.get(0));
+    assertEquals("Bring the speakers", shown.get(1).getMessage());
+    assertFalse(shown.get(1).isEncrypted());
+    assertEquals("m2", shown.get(1).getMessageKey());
+    List<DecryptedMessage> stored = chatMessageDao.getDecryptedMessages(Arrays.asList("m1", "m2"));
+    assertEquals(1, stored.size());
+    byte[] sealedText = stored.get(0).getSealedText();
+    assertFalse(new String(sealedText, StandardCharsets.UTF_8).contains("Bring the speakers"));
+    assertEquals("Bring the speakers", textCipher.open(sealedText));
+    assertEquals(GROUP_KEY, stored.get(0).getGroupKey());
+    assertEquals(200, stored.get(0).getTimestamp());
+  }
+
+  @Test
+  public void testDecryptMessages_ReadsStoredTextWithoutKey() {
+    // Arrange
+    List<ChatMessage> messages =
+        Collections.singletonList(encrypt(buildMessage("m1", "See you at eight", 100)));
+    cache.decryptMessages(messages);
+
+    // Act - without the group key, the text can only come from the database
+    encryption.removeGroupKey(GROUP_KEY);
+    List<ChatMessage> shown = cache.decryptMessages(messages);
+
+    // Assert
+    assertEquals("See you at eight", shown.get(0).getMessage());
+  }
+
+  @Test
+  public void testDecryptMessages_ReencryptedAndUndecryptable() {
+    // Arrange
+    cache.decryptMessages(Collections.singletonList(encrypt(buildMessage("m1", "Old text", 100))));
+    ChatMessage garbage = buildMessage("m2", "QUJDREVGR0hJSktMTU5PUFFSU1RVVldYWVo=", 200);
+    garbage.setEncrypted(true);
+
+    // Act
+    List<ChatMessage> shown =
+        cache.decryptMessages(Arrays.asList(encrypt(buildMessage("m1", "New text", 100)), garbage));
+
+    // Assert
+    assertEquals("New text", shown.get(0).getMessage());
+    assertEquals(garbage.getMessage(), shown.get(1).getMessage());
+    List<DecryptedMessage> stored = chatMessageDao.getDecryptedMessages(Arrays.asList("m1", "m2"));
+    assertEquals(1, stored.size());
+    assertEquals("New text", textCipher.open(stored.get(0).getSealedText()));
+  }
+
+  @Test
+  public void testDeleteMessagesForGroup_DeletesDecryptedText() {
+    // Arrange
+    cache.decryptMessages(
+        Collections.singletonList(encrypt(buildMessage("m1", "Secret plans", 100))));
+
+    // Act
+    chatMessageDao.deleteMessagesForGroup(GROUP_KEY);
+
+    // Assert
+    assertTrue(chatMessageDao.getDecryptedMessages(Collections.singletonList("m1")).isEmpty());
+  }
+
+  @Test
+  public void testTrimDecryptedMessages_KeepsNewestPerGroup() {
+    // Arrange
+    List<ChatMessage> messages = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      messages.add(encrypt(buildMessage("m" + i, "Message " + i, i)));
+    }
+    cache.decryptMessages(messages);
+
+    // Act
+    int deleted = chatMessageDao.trimDecryptedMessages(2);
+
+    // Assert
+    assertEquals(3, deleted);
+    List<DecryptedMessage> kept =
+        chatMessageDao.getDecryptedMessages(Arrays.asList("m0", "m1", "m2", "m3", "m4"));
+    assertEquals(2, kept.size());
+    for (DecryptedMessage row : kept) {
+      assertTrue(row.getTimestamp() >= 3);
+    }
+  }
+
+  @Test
+  public void testBenchmark_StoredTextVsDecrypting() {
+    // Arrange
+    List<ChatMessage> messages = new ArrayList<>(BENCHMARK_MESSAGE_COUNT);
+    for (int i = 0; i < BENCHMARK_MESSAGE_COUNT; i++) {
+      messages.add(encrypt(buildMessage("m" + i, "Message number " + i + " of the chat", i)));
+    }
+    cache.decryptMessages(messages);
+
+    // Act
+    long start = System.nanoTime();
+    int decryptedChars = 0;
+    for (int run = 0; run < RUNS; run++) {
+      for (ChatMessage message : messages) {
+        decryptedChars += encryption.decryptChatMessage(message).getMessage().length();
+      }
+    }
+    long decryptMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    start = System.nanoTime();
+    int storedChars = 0;
+    for (int run = 0; run < RUNS; run++) {
+      for (ChatMessage message : cache.decryptMessages(messages)) {
+        storedChars += message.getMessage().length();
+      }
+    }
+    long storedMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    TestDatabaseRule.report(
+        "Showing %d encrypted messages, average of %d runs:%n"
+            + "  decrypting:   %d ms%n"
+            + "  stored texts: %d ms",
+        BENCHMARK_MESSAGE_COUNT, RUNS, decryptMs, storedMs);
+
+    // Assert - timings are reported only, as they depend on the device
+    assertEquals(decryptedChars, storedChars);
+  }
+
+  private ChatMessage encrypt(ChatMessage message) {
+    ChatMessage encrypted = encryption.encryptChatMessage(message);
+    assertNotEquals(message.getMessage(), encrypted.getMessage());
+    return encrypted;
+  }
+
+  private static ChatMessage buildMessage(String messageKey, String text, long timestamp) {
+    ChatMessage message = new ChatMessage(GROUP_KEY, "user-1", "User", text);
+    message.setMessageKey(messageKey);
+    message.setTimestamp(timestamp);
+    return message;
+  }
+}
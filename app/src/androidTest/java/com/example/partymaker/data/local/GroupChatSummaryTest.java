@@ -0,0 +1,226 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupChatSummary;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for the group_chat_summary table written by ChatMessageDao.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Inserting messages writes the newest message and counts other users' messages as unread
+ *   <li>Marking a chat read clears the count until a newer message arrives
+ *   <li>Messages a chat shows are stored and read up to the newest shown, not past it
+ *   <li>Encrypted messages have no snippet
+ *   <li>Syncing and deleting a group's messages refresh or delete its summary
+ *   <li>Reading the chat status of 200 groups from the summaries against counting their messages
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class GroupChatSummaryTest {
+
+  private static final String CURRENT_USER = "user-0";
+  private static final int BENCHMARK_GROUP_COUNT = 200;
+  private static final int BENCHMARK_MESSAGES_PER_GROUP = 500;
+  private static final int RUNS = 5;
+
+  // The unread count the group list used to need per group, before the summary table
+  private static final String COUNT_UNREAD_MESSAGES =
+      "SELECT COUNT(*) FROM chat_messages WHERE groupKey = ? AND encrypted = 0 AND senderKey != ?";
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("chat_summary_test.db");
+
+  private AppDatabase database;
+  private ChatMessageDao chatMessageDao;
+
+  @Before
+  public void setUp() {
+    database = databaseRule.open();
+    chatMessageDao = database.chatMessageDao();
+  }
+
+  @Test
+  public void testInsertMessages_WritesSummary() {
+    // Act
+    chatMessageDao.insertMessages(
+        Arrays.asList(
+            buildMessage("group-0", "m1", "user-1", "Who brings drinks?", 100),
+            buildMessage("group-0", "m2", CURRENT_USER, "I do", 200),
+            buildMessage("group-0", "m3", "user-2", "See you there", 300)),
+        CURRENT_USER);
+
+    // Assert - the current user's own message is not unread
+    GroupChatSummary summary = chatMessageDao.getChatSummary("group-0");
+    assertNotNull(summary);
+    assertEquals(300, summary.getLastMessageTs());
+    assertEquals("See you there", summary.getLastSnippet());
+    assertEquals(2, summary.getUnreadCount());
+    assertEquals(0, summary.getLastReadTs());
+  }
+
+  @Test
+  public void testMarkAllMessagesAsRead_ClearsUntilNewerMessage() {
+    // Arrange
+    chatMessageDao.insertMessages(
+        Arrays.asList(
+            buildMessage("group-0", "m1", "user-1", "First", 100),
+            buildMessage("group-0", "m2", "user-1", "Second", 200)),
+        CURRENT_USER);
+
+    // Act
+    int marked = chatMessageDao.markAllMessagesAsRead("group-0");
+    GroupChatSummary read = chatMessageDao.getChatSummary("group-0");
+    chatMessageDao.insertMessage(
+        buildMessage("group-0", "m3", "user-1", "Third", 300), CURRENT_USER);
+    GroupChatSummary updated = chatMessageDao.getChatSummary("group-0");
+
+    // Assert
+    assertEquals(2, marked);
+    assertEquals(0, read.getUnreadCount());
+    assertEquals(200, read.getLastReadTs());
+    assertEquals(1, updated.getUnreadCount());
+    assertEquals("Third", updated.getLastSnippet());
+    assertEquals(0, chatMessageDao.markAllMessagesAsRead("no-messages"));
+  }
+
+  @Test
+  public void testInsertShownMessages_ReadUpToNewestShown() {
+    // Arrange - m3 was synced after the chat fetched its messages
+    chatMessageDao.insertMessage(
+        buildMessage("group-0", "m3", "user-1", "Synced meanwhile", 300), CURRENT_USER);
+
+    // Act
+    chatMessageDao.insertShownMessages(
+        "group-0",
+        Arrays.asList(
+            buildMessage("group-0", "m1", "user-1", "First", 100),
+            buildMessage("group-0", "m2", "user-2", "Second", 200)),
+        CURRENT_USER);
+
+    // Assert
+    GroupChatSummary summary = chatMessageDao.getChatSummary("group-0");
+    assertEquals(3, chatMessageDao.getMessagesForGroup("group-0").size());
+    assertEquals(200, summary.getLastReadTs());
+    assertEquals(1, summary.getUnreadCount());
+    assertEquals("Synced meanwhile", summary.getLastSnippet());
+  }
+
+  @Test
+  public void testInsertMessages_EncryptedHasNoSnippet() {
+    // Arrange
+    ChatMessage encrypted = buildMessage("group-0", "m1", "user-1", "c2VjcmV0", 100);
+    encrypted.setEncrypted(true);
+
+    // Act
+    chatMessageDao.insertMessage(encrypted, CURRENT_USER);
+
+    // Assert
+    GroupChatSummary summary = chatMessageDao.getChatSummary("group-0");
+    assertNull(summary.getLastSnippet());
+    assertEquals(1, summary.getUnreadCount());
+  }
+
+  @Test
+  public void testSyncAndDelete_RefreshSummary() {
+    // Arrange
+    chatMessageDao.insertMessages(
+        Arrays.asList(
+            buildMessage("group-0", "m1", "user-1", "Kept", 100),
+            buildMessage("group-0", "m2", "user-1", "Deleted on the server", 200)),
+        CURRENT_USER);
+
+    // Act - the server no longer has m2
+    chatMessageDao.syncGroupMessages(
+        "group-0",
+        Collections.singletonList(buildMessage("group-0", "m1", "user-1", "Kept", 100)),
+        100,
+        CURRENT_USER);
+    GroupChatSummary synced = chatMessageDao.getChatSummary("group-0");
+    chatMessageDao.deleteMessagesForGroup("group-0");
+
+    // Assert
+    assertEquals(100, synced.getLastMessageTs());
+    assertEquals("Kept", synced.getLastSnippet());
+    assertEquals(1, synced.getUnreadCount());
+    assertNull(chatMessageDao.getChatSummary("group-0"));
+  }
+
+  @Test
+  public void testBenchmark_SummaryVsCountingMessages() {
+    // Arrange
+    List<String> groupKeys = new ArrayList<>(BENCHMARK_GROUP_COUNT);
+    for (int g = 0; g < BENCHMARK_GROUP_COUNT; g++) {
+      String groupKey = "group-" + g;
+      groupKeys.add(groupKey);
+      Group group = new Group();
+      group.setGroupKey(groupKey);
+      group.setGroupName("Party " + g);
+      database.groupDao().insertGroup(group);
+
+      List<ChatMessage> messages = new ArrayList<>(BENCHMARK_MESSAGES_PER_GROUP);
+      for (int i = 0; i < BENCHMARK_MESSAGES_PER_GROUP; i++) {
+        messages.add(
+            buildMessage(groupKey, groupKey + "-" + i, "user-" + (i % 5), "Message " + i, i));
+      }
+      chatMessageDao.insertMessages(messages, CURRENT_USER);
+    }
+
+    // Act - the chat status of every row of the group list
+    long start = System.nanoTime();
+    int summaryUnread = 0;
+    for (int run = 0; run < RUNS; run++) {
+      for (String groupKey : groupKeys) {
+        summaryUnread += chatMessageDao.getChatSummary(groupKey).getUnreadCount();
+      }
+    }
+    long summaryMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    start = System.nanoTime();
+    int countedUnread = 0;
+    for (int run = 0; run < RUNS; run++) {
+      for (String groupKey : groupKeys) {
+        countedUnread += countUnreadMessages(groupKey);
+      }
+    }
+    long countMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    TestDatabaseRule.report(
+        "Chat status of %d groups of %d messages, average of %d runs:%n"
+            + "  summary rows:      %d ms%n"
+            + "  counting messages: %d ms",
+        BENCHMARK_GROUP_COUNT, BENCHMARK_MESSAGES_PER_GROUP, RUNS, summaryMs, countMs);
+
+    // Assert - timings are reported only, as they depend on the device
+    assertEquals(countedUnread, summaryUnread);
+  }
+
+  private int countUnreadMessages(String groupKey) {
+    try (Cursor cursor =
+        database.query(COUNT_UNREAD_MESSAGES, new Object[] {groupKey, CURRENT_USER})) {
+      return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+    }
+  }
+
+  private static ChatMessage buildMessage(
+      String groupKey, String messageKey, String senderKey, String text, long timestamp) {
+    ChatMessage message = new ChatMessage(groupKey, senderKey, "User", text);
+    message.setMessageKey(messageKey);
+    message.setTimestamp(timestamp);
+    return message;
+  }
+}
@@ -0,0 +1,166 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.paging.PagingSource;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for the SQL a {@link GroupListQuery} builds, checked with EXPLAIN QUERY PLAN
+ * on the device's SQLite.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Date sorts reading idx_group_event_time in order, without a temporary sort
+ *   <li>The upcoming filter searching idx_group_event_time by range
+ *   <li>Pages of the date sorts listing only the user's groups, with undated groups last
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class GroupListQueryPlanTest {
+
+  private static final String USER_KEY = "user-0";
+  private static final String EVENT_INDEX = "idx_group_event_time";
+  private static final String TEMP_SORT = "TEMP B-TREE";
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("group_list_query_test.db");
+
+  private AppDatabase database;
+
+  @Before
+  public void setUp() {
+    database = databaseRule.open();
+  }
+
+  @Test
+  public void testPlan_DateNearest_ReadsEventIndexInOrder() {
+    // Act
+    String plan = explain(GroupListQuery.DEFAULT);
+
+    // Assert
+    assertTrue(plan, plan.contains(EVENT_INDEX));
+    assertFalse(plan, plan.contains(TEMP_SORT));
+  }
+
+  @Test
+  public void testPlan_DateFarthest_ReadsEventIndexInOrder() {
+    // Act
+    String plan =
+        explain(new GroupListQuery.Builder().sortOrder(GroupListQuery.SORT_DATE_FARTHEST).build());
+
+    // Assert
+    assertTrue(plan, plan.contains(EVENT_INDEX));
+    assertFalse(plan, plan.contains(TEMP_SORT));
+  }
+
+  @Test
+  public void testPlan_UpcomingOnly_SearchesEventIndexByRange() {
+    // Act
+    String plan = explain(new GroupListQuery.Builder().upcomingOnly(true).build());
+
+    // Assert
+    assertTrue(plan, plan.contains(EVENT_INDEX + " (event_epoch_millis>?)"));
+    assertFalse(plan, plan.contains(TEMP_SORT));
+  }
+
+  @Test
+  public void testPage_DateSorts_ListUserGroupsWithUndatedLast() throws Exception {
+    // Arrange
+    database
+        .groupDao()
+        .replaceAllGroups(
+            Arrays.asList(
+                buildGroup("late", USER_KEY, "20"),
+                buildGroup("undated", USER_KEY, null),
+                buildGroup("early", USER_KEY, "5"),
+                buildGroup("other", "user-1", "1")));
+
+    // Act
+    List<String> nearest = loadKeys(GroupListQuery.DEFAULT);
+    List<String> farthest =
+        loadKeys(new GroupListQuery.Builder().sortOrder(GroupListQuery.SORT_DATE_FARTHEST).build());
+
+    // Assert
+    assertEquals(Arrays.asList("early", "late", "undated"), nearest);
+    assertEquals(Arrays.asList("late", "early", "undated"), farthest);
+  }
+
+  /** Gets the details of the query plan of a list query, one step per line. */
+  private String explain(GroupListQuery query) {
+    SupportSQLiteQuery listQuery = query.toUserGroupsSql(USER_KEY);
+    SupportSQLiteQuery planQuery =
+        new SupportSQLiteQuery() {
+          @Override
+          public String getSql() {
+            return "EXPLAIN QUERY PLAN " + listQuery.getSql();
+          }
+
+          @Override
+          public void bindTo(SupportSQLiteProgram statement) {
+            listQuery.bindTo(statement);
+          }
+
+          @Override
+          public int getArgCount() {
+            return listQuery.getArgCount();
+          }
+        };
+    StringBuilder plan = new StringBuilder();
+    try (Cursor cursor = database.query(planQuery)) {
+      int detail = cursor.getColumnIndexOrThrow("detail");
+      while (cursor.moveToNext()) {
+        plan.append(cursor.getString(detail)).append('\n');
+      }
+    }
+    return plan.toString();
+  }
+
+  /** Loads the first page of the user's list and returns its group keys. */
+  private List<String> loadKeys(GroupListQuery query) throws InterruptedException {
+    PagingSource<Integer, GroupListItem> source =
+        database.groupDao().pageUserGroups(USER_KEY, query);
+    PagingSource.LoadResult<Integer, GroupListItem> result =
+        BuildersKt.runBlocking(
+            EmptyCoroutineContext.INSTANCE,
+            (scope, continuation) ->
+                source.load(
+                    new PagingSource.LoadParams.Refresh<>(null, 20, false), continuation));
+    assertTrue(result instanceof PagingSource.LoadResult.Page);
+    List<String> keys = new ArrayList<>();
+    for (GroupListItem item :
+        ((PagingSource.LoadResult.Page<Integer, GroupListItem>) result).getData()) {
+      keys.add(item.getGroupKey());
+    }
+    return keys;
+  }
+
+  private static Group buildGroup(String groupKey, String adminKey, String day) {
+    Group group = new Group();
+    group.setGroupKey(groupKey);
+    group.setGroupName("Party " + groupKey);
+    group.setAdminKey(adminKey);
+    if (day != null) {
+      group.setGroupDays(day);
+      group.setGroupMonths("October");
+      group.setGroupYears("2030");
+      group.setGroupHours("20:00");
+    }
+    return group;
+  }
+}
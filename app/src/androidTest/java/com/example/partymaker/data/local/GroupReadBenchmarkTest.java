@@ -0,0 +1,135 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.Group;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented benchmark for reading groups through the map converters.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Reading 10k groups with {@code GroupDao.getAllGroups}, with and without using the maps,
+ *       against parsing every map column eagerly as the converters used to
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class GroupReadBenchmarkTest {
+
+  private static final int GROUP_COUNT = 10_000;
+  private static final int RUNS = 5;
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("group_read_benchmark.db");
+
+  private AppDatabase database;
+  private GroupDao groupDao;
+
+  @Before
+  public void setUp() {
+    database = databaseRule.open();
+    groupDao = database.groupDao();
+  }
+
+  @Test
+  public void testBenchmark_10kGroups_LazyVsEagerMaps() {
+    // Arrange
+    List<Group> groups = new ArrayList<>(GROUP_COUNT);
+    for (int i = 0; i < GROUP_COUNT; i++) {
+      groups.add(buildGroup("group-" + i));
+    }
+    groupDao.replaceAllGroups(groups);
+    groupDao.getAllGroups(); // Warm up
+
+    // Act - rows only, as a list screen reads them
+    long start = System.nanoTime();
+    for (int run = 0; run < RUNS; run++) {
+      assertEquals(GROUP_COUNT, groupDao.getAllGroups().size());
+    }
+    long lazyMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    // Rows and every map, as a membership check over all groups reads them
+    start = System.nanoTime();
+    int keys = 0;
+    for (int run = 0; run < RUNS; run++) {
+      for (Group group : groupDao.getAllGroups()) {
+        keys +=
+            group.getFriendKeys().size()
+                + group.getComingKeys().size()
+                + group.getMessageKeys().size();
+      }
+    }
+    long usedMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    // The old converters: a TypeToken and a reflective parse per map column per row
+    start = System.nanoTime();
+    int eagerKeys = 0;
+    for (int run = 0; run < RUNS; run++) {
+      eagerKeys += parseAllMapsEagerly();
+    }
+    long eagerMs = (System.nanoTime() - start) / 1_000_000 / RUNS;
+
+    TestDatabaseRule.report(
+        "Reading %d groups, average of %d runs:%n"
+            + "  getAllGroups, maps unused: %d ms%n"
+            + "  getAllGroups, maps used:   %d ms%n"
+            + "  map columns parsed eagerly as before, without building groups: %d ms",
+        GROUP_COUNT, RUNS, lazyMs, usedMs, eagerMs);
+
+    // Assert - timings are reported only, as they depend on the device
+    assertEquals(eagerKeys, keys);
+  }
+
+  /** Parses the three map columns of every row the way the converters used to. */
+  private int parseAllMapsEagerly() {
+    Gson gson = new Gson();
+    int keys = 0;
+    try (Cursor cursor =
+        database.query("SELECT friend_keys, coming_keys, message_keys FROM `groups`", null)) {
+      while (cursor.moveToNext()) {
+        for (int column = 0; column < 3; column++) {
+          Type mapType = new TypeToken<HashMap<String, Object>>() {}.getType();
+          HashMap<String, Object> map = gson.fromJson(cursor.getString(column), mapType);
+          keys += map.size();
+        }
+      }
+    }
+    return keys;
+  }
+
+  private static Group buildGroup(String groupKey) {
+    Group group = new Group();
+    group.setGroupKey(groupKey);
+    group.setGroupName("Party " + groupKey);
+    group.setAdminKey("user-0");
+    HashMap<String, Object> friendKeys = new HashMap<>();
+    HashMap<String, Object> comingKeys = new HashMap<>();
+    for (int f = 0; f < 12; f++) {
+      friendKeys.put("friend" + f + "@gmail com", true);
+      if (f % 2 == 0) {
+        comingKeys.put("friend" + f + "@gmail com", true);
+      }
+    }
+    HashMap<String, Object> messageKeys = new HashMap<>();
+    for (int m = 0; m < 20; m++) {
+      messageKeys.put("-Nmsg" + groupKey + "-" + m, true);
+    }
+    group.setFriendKeys(friendKeys);
+    group.setComingKeys(comingKeys);
+    group.setMessageKeys(messageKeys);
+    return group;
+  }
+}
@@ -0,0 +1,229 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for the transactional sync methods of the DAOs, on a file-backed database so
+ * that journal writes are real.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Write amplification of per-group writes against one sync transaction for 1k groups
+ *   <li>Full syncs delete groups the server no longer returns
+ *   <li>Scoped syncs only delete stale groups inside their scope
+ *   <li>Message syncs keep cached messages older than the synced range
+ *   <li>User syncs find the user's groups through group_members, which follows every write
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class GroupSyncBenchmarkTest {
+
+  private static final int GROUP_COUNT = 1000;
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("group_sync_benchmark.db");
+
+  private AppDatabase database;
+  private GroupDao groupDao;
+
+  @Before
+  public void setUp() {
+    database = databaseRule.open();
+    groupDao = database.groupDao();
+  }
+
+  @Test
+  public void testBenchmark_1kGroups_PerGroupWritesVsOneTransaction() {
+    // Arrange
+    List<Group> groups = buildGroups(GROUP_COUNT, "user-0");
+
+    // Act - first sync into an empty table, then a re-sync where every group already exists
+    startWalMeasurement();
+    long perGroupStart = System.nanoTime();
+    for (Group group : groups) {
+      groupDao.insertGroup(group);
+    }
+    long perGroupFirstMs = (System.nanoTime() - perGroupStart) / 1_000_000;
+    long perGroupFirstFrames = walFrames();
+
+    startWalMeasurement();
+    perGroupStart = System.nanoTime();
+    for (Group group : groups) {
+      groupDao.insertGroup(group);
+    }
+    long perGroupResyncMs = (System.nanoTime() - perGroupStart) / 1_000_000;
+    long perGroupResyncFrames = walFrames();
+
+    groupDao.deleteAllGroups();
+
+    startWalMeasurement();
+    long batchedStart = System.nanoTime();
+    groupDao.replaceAllGroups(groups);
+    long batchedFirstMs = (System.nanoTime() - batchedStart) / 1_000_000;
+    long batchedFirstFrames = walFrames();
+
+    startWalMeasurement();
+    batchedStart = System.nanoTime();
+    groupDao.replaceAllGroups(groups);
+    long batchedResyncMs = (System.nanoTime() - batchedStart) / 1_000_000;
+    long batchedResyncFrames = walFrames();
+
+    TestDatabaseRule.report(
+        "Sync of %d groups (WAL pages written, time):%n"
+            + "  first sync: per group %d pages, %d ms; one transaction %d pages, %d ms%n"
+            + "  re-sync:    per group %d pages, %d ms; one transaction %d pages, %d ms",
+        GROUP_COUNT,
+        perGroupFirstFrames,
+        perGroupFirstMs,
+        batchedFirstFrames,
+        batchedFirstMs,
+        perGroupResyncFrames,
+        perGroupResyncMs,
+        batchedResyncFrames,
+        batchedResyncMs);
+
+    // Assert - timings are reported only, as they depend on the device
+    assertEquals(GROUP_COUNT, groupDao.getAllGroupKeys().size());
+    assertTrue(batchedFirstFrames < perGroupFirstFrames);
+    assertTrue(batchedResyncFrames < perGroupResyncFrames);
+  }
+
+  @Test
+  public void testReplaceAllGroups_DeletesGroupsMissingFromServer() {
+    // Arrange
+    groupDao.insertGroups(buildGroups(3, "user-0"));
+    List<Group> fromServer = buildGroups(2, "user-0");
+    fromServer.get(1).setGroupName("Renamed");
+
+    // Act
+    int deleted = groupDao.replaceAllGroups(fromServer);
+
+    // Assert
+    assertEquals(1, deleted);
+    assertNull(groupDao.getGroupByKey("group-2"));
+    assertEquals("Renamed", groupDao.getGroupByKey("group-1").getGroupName());
+  }
+
+  @Test
+  public void testSyncGroups_OnlyDeletesInsideScope() {
+    // Arrange - two public groups and one private group
+    List<Group> cached = buildGroups(2, "user-0");
+    Group privateGroup = buildGroup("private-group", "user-9");
+    privateGroup.setGroupType(Group.GROUP_TYPE_PRIVATE);
+    cached.add(privateGroup);
+    groupDao.insertGroups(cached);
+
+    // Act - the server only has group-0 as a public group now
+    int deleted = groupDao.syncGroupsOfType(buildGroups(1, "user-0"), Group.GROUP_TYPE_PUBLIC);
+
+    // Assert
+    assertEquals(1, deleted);
+    assertNull(groupDao.getGroupByKey("group-1"));
+    assertNotNull(groupDao.getGroupByKey("group-0"));
+    assertNotNull(groupDao.getGroupByKey("private-group"));
+  }
+
+  @Test
+  public void testSyncGroupMessages_KeepsMessagesOlderThanRange() {
+    // Arrange
+    ChatMessageDao messageDao = database.chatMessageDao();
+    messageDao.insertMessages(
+        Arrays.asList(
+            buildMessage("old", 100), buildMessage("deleted", 200), buildMessage("kept", 300)),
+        "user-0");
+
+    // Act - the server's latest messages start at 200 and no longer include "deleted"
+    int deleted =
+        messageDao.syncGroupMessages(
+            "group-0",
+            Arrays.asList(buildMessage("kept", 300), buildMessage("new", 400)),
+            200,
+            "user-0");
+
+    // Assert
+    assertEquals(1, deleted);
+    assertNotNull(messageDao.getMessageByKey("old"));
+    assertNull(messageDao.getMessageByKey("deleted"));
+    assertNotNull(messageDao.getMessageByKey("new"));
+  }
+
+  @Test
+  public void testSyncUserGroups_UsesMembershipTable() {
+    // Arrange - user-0 administers two groups; friend3 is a member of both
+    groupDao.syncUserGroups(buildGroups(2, "user-0"), "user-0");
+    GroupMemberDao memberDao = database.groupMemberDao();
+
+    // Act - the server says user-0 is only in group-0 now
+    int deleted = groupDao.syncUserGroups(buildGroups(1, "user-0"), "user-0");
+
+    // Assert - the stale group's memberships went with it
+    assertEquals(1, deleted);
+    assertEquals(Arrays.asList("group-0"), groupDao.getUserGroupKeys("user-0"));
+    assertEquals(1, memberDao.getUserGroupCount("friend3@gmail com"));
+    assertTrue(memberDao.isMember("group-0", "friend3@gmail com"));
+    assertEquals(13, memberDao.getMemberCount("group-0"));
+    assertEquals(0, memberDao.getMemberCount("group-1"));
+  }
+
+  /** Empties the WAL and stops automatic checkpoints, so the WAL holds every page written next. */
+  private void startWalMeasurement() {
+    SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+    db.query("PRAGMA wal_autocheckpoint = 0").close();
+    db.query("PRAGMA wal_checkpoint(TRUNCATE)").close();
+  }
+
+  /** Gets the number of pages written to the WAL since {@link #startWalMeasurement()}. */
+  private long walFrames() {
+    SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+    try (Cursor cursor = db.query("PRAGMA wal_checkpoint(PASSIVE)")) {
+      assertTrue(cursor.moveToFirst());
+      return cursor.getLong(1);
+    }
+  }
+
+  private static List<Group> buildGroups(int count, String adminKey) {
+    List<Group> groups = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      groups.add(buildGroup("group-" + i, adminKey));
+    }
+    return groups;
+  }
+
+  private static Group buildGroup(String groupKey, String adminKey) {
+    Group group = new Group();
+    group.setGroupKey(groupKey);
+    group.setGroupName("Party " + groupKey);
+    group.setAdminKey(adminKey);
+    group.setCreatedAt("2025-08-15 20:30");
+    group.setGroupLocation("32.0853,34.7818");
+    group.setGroupDescription("Bring snacks and good vibes to " + groupKey);
+    HashMap<String, Object> friendKeys = new HashMap<>();
+    for (int f = 0; f < 12; f++) {
+      friendKeys.put("friend" + f + "@gmail com", true);
+    }
+    group.setFriendKeys(friendKeys);
+    return group;
+  }
+
+  private static ChatMessage buildMessage(String messageKey, long timestamp) {
+    ChatMessage message = new ChatMessage("group-0", "user-0", "User", "Message " + messageKey);
+    message.setMessageKey(messageKey);
+    message.setTimestamp(timestamp);
+    return message;
+  }
+}
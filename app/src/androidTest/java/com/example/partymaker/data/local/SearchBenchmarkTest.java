@@ -0,0 +1,191 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import android.database.Cursor;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for the full-text indexes, on a file-backed database.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>FTS prefix search against the LIKE search on 50k groups
+ *   <li>Name matches rank before location and description matches
+ *   <li>The index follows updates, REPLACE inserts and deletes
+ *   <li>Message search skips encrypted messages
+ * </ul>
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmarkTest {
+
+  private static final int GROUP_COUNT = 50_000;
+  private static final int RUNS = 20;
+  private static final String[] WORDS = {
+    "beach", "birthday", "rooftop", "karaoke", "picnic", "festival", "bbq", "wedding", "hike",
+    "jazz"
+  };
+  private static final String[] CITIES = {
+    "Tel Aviv", "Haifa", "Jerusalem", "Eilat", "Netanya", "Ashdod", "Herzliya", "Beersheba"
+  };
+
+  @Rule
+  public final TestDatabaseRule databaseRule = new TestDatabaseRule("search_benchmark.db");
+
+  private AppDatabase database;
+  private GroupDao groupDao;
+
+  @Before
+  public void setUp() {
+    database = databaseRule.open();
+    groupDao = database.groupDao();
+  }
+
+  @Test
+  public void testBenchmark_50kGroups_LikeVsFts() {
+    // Arrange
+    List<Group> groups = new ArrayList<>(GROUP_COUNT);
+    for (int i = 0; i < GROUP_COUNT; i++) {
+      groups.add(
+          buildGroup(
+              "group-" + i,
+              WORDS[i % WORDS.length] + " night " + i,
+              CITIES[i % CITIES.length],
+              "Bring a friend to the " + WORDS[(i / 7) % WORDS.length]));
+    }
+    groupDao.replaceAllGroups(groups);
+    String term = "karaoke";
+    String match = FtsQuery.prefixMatch(term);
+    String nameMatch = FtsQuery.prefixMatch("group_name", term);
+    SimpleSQLiteQuery likeQuery =
+        new SimpleSQLiteQuery(
+            "SELECT * FROM `groups` WHERE group_name LIKE '%' || ? || '%'"
+                + " OR group_location LIKE '%' || ? || '%' ORDER BY created_at DESC LIMIT 50",
+            new Object[] {term, term});
+
+    // Act - warm up both paths once, then time them
+    Set<String> likeKeys = runLike(likeQuery);
+    List<Group> ftsResults = groupDao.findGroupsFts(match, nameMatch, 50);
+
+    long likeStart = System.nanoTime();
+    for (int run = 0; run < RUNS; run++) {
+      runLike(likeQuery);
+    }
+    long likeUs = (System.nanoTime() - likeStart) / 1_000 / RUNS;
+
+    long ftsStart = System.nanoTime();
+    for (int run = 0; run < RUNS; run++) {
+      groupDao.findGroupsFts(match, nameMatch, 50);
+    }
+    long ftsUs = (System.nanoTime() - ftsStart) / 1_000 / RUNS;
+
+    TestDatabaseRule.report(
+        "Search for \"%s\" in %d groups, average of %d runs:%n"
+            + "  LIKE: %d us, %d results%n"
+            + "  FTS:  %d us, %d results",
+        term, GROUP_COUNT, RUNS, likeUs, likeKeys.size(), ftsUs, ftsResults.size());
+
+    // Assert - timings are reported only, as they depend on the device
+    assertEquals(50, ftsResults.size());
+    for (Group group : ftsResults) {
+      assertTrue(group.getGroupName().startsWith(term));
+    }
+  }
+
+  @Test
+  public void testFindGroupsFts_NameMatchesRankFirst() {
+    // Arrange
+    groupDao.replaceAllGroups(
+        Arrays.asList(
+            buildGroup("a", "Sunset drinks", "Beach bar", "Chill"),
+            buildGroup("b", "Beach volleyball", "Gordon", "Games"),
+            buildGroup("c", "Movie night", "Cinema", "Then the beach")));
+
+    // Act
+    List<Group> results =
+        groupDao.findGroupsFts(
+            FtsQuery.prefixMatch("bea"), FtsQuery.prefixMatch("group_name", "bea"), 10);
+
+    // Assert
+    assertEquals(3, results.size());
+    assertEquals("b", results.get(0).getGroupKey());
+  }
+
+  @Test
+  public void testFindGroupsFts_FollowsWrites() {
+    // Arrange
+    groupDao.insertGroup(buildGroup("a", "Beach party", "Haifa", null));
+    groupDao.insertGroup(buildGroup("b", "Birthday", "Eilat", null));
+
+    // Act - rename through REPLACE, then delete the other group
+    groupDao.insertGroup(buildGroup("a", "Pool party", "Haifa", null));
+    groupDao.deleteGroupByKey("b");
+
+    // Assert
+    assertTrue(find("beach").isEmpty());
+    assertTrue(find("birthday").isEmpty());
+    assertEquals(1, find("pool").size());
+  }
+
+  @Test
+  public void testSearchMessagesFts_SkipsEncrypted() {
+    // Arrange
+    groupDao.insertGroup(buildGroup("group-0", "Party", null, null));
+    ChatMessage plain = new ChatMessage("group-0", "user-0", "User", "See you at the beach");
+    plain.setMessageKey("plain");
+    ChatMessage encrypted = new ChatMessage("group-0", "user-0", "User", "beach c2VjcmV0");
+    encrypted.setMessageKey("encrypted");
+    encrypted.setEncrypted(true);
+    database.chatMessageDao().insertMessages(Arrays.asList(plain, encrypted), "user-0");
+
+    // Act
+    List<ChatMessage> results =
+        database
+            .chatMessageDao()
+            .searchGroupMessagesFts("group-0", FtsQuery.prefixMatch("beach"), 10);
+
+    // Assert
+    assertEquals(1, results.size());
+    assertEquals("plain", results.get(0).getMessageKey());
+  }
+
+  private List<Group> find(String text) {
+    return groupDao.findGroupsFts(
+        FtsQuery.prefixMatch(text), FtsQuery.prefixMatch("group_name", text), 10);
+  }
+
+  private Set<String> runLike(SimpleSQLiteQuery query) {
+    Set<String> keys = new HashSet<>();
+    try (Cursor cursor = database.query(query)) {
+      int keyColumn = cursor.getColumnIndexOrThrow("groupKey");
+      while (cursor.moveToNext()) {
+        keys.add(cursor.getString(keyColumn));
+      }
+    }
+    return keys;
+  }
+
+  private static Group buildGroup(
+      String groupKey, String groupName, String location, String description) {
+    Group group = new Group();
+    group.setGroupKey(groupKey);
+    group.setGroupName(groupName);
+    group.setAdminKey("user-0");
+    group.setGroupLocation(location);
+    group.setGroupDescription(description);
+    return group;
+  }
+}
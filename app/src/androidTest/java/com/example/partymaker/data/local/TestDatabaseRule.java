@@ -0,0 +1,122 @@
+package com.example.partymaker.data.local;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+import androidx.room.Room;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.util.Locale;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Test rule for instrumented tests of AppDatabase on a database file. The file is deleted before
+ * and after each test, and the database is opened the way the app opens it, with foreign keys and
+ * recursive triggers on.
+ */
+public class TestDatabaseRule extends ExternalResource {
+
+  private static final String TAG = "TestDatabase";
+
+  // Status code the test runner passes through as progress output
+  private static final int STATUS_IN_PROGRESS = 2;
+
+  private final String databaseName;
+  private Context context;
+  private AppDatabase database;
+
+  /**
+   * Creates the rule.
+   *
+   * @param databaseName The name of the database file, unique to the test class
+   */
+  public TestDatabaseRule(String databaseName) {
+    this.databaseName = databaseName;
+  }
+
+  @Override
+  protected void before() {
+    context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    context.deleteDatabase(databaseName);
+  }
+
+  @Override
+  protected void after() {
+    close();
+    context.deleteDatabase(databaseName);
+  }
+
+  /**
+   * Gets the context of the app under test.
+   *
+   * @return The target context
+   */
+  public Context getContext() {
+    return context;
+  }
+
+  /**
+   * Gets the name of the database file.
+   *
+   * @return The database name
+   */
+  public String getDatabaseName() {
+    return databaseName;
+  }
+
+  /**
+   * Opens the database with the default connection settings, closing the one open before.
+   *
+   * @return The database
+   */
+  public AppDatabase open() {
+    return open(DatabaseTuning.DEFAULT);
+  }
+
+  /**
+   * Opens the database with the given connection settings, closing the one open before.
+   *
+   * @param tuning The connection settings
+   * @return The database
+   */
+  public AppDatabase open(DatabaseTuning tuning) {
+    close();
+    database =
+        AppDatabase.configure(
+                Room.databaseBuilder(context, AppDatabase.class, databaseName), tuning)
+            .build();
+    return database;
+  }
+
+  /** Closes the open database, if any; the file is kept. */
+  public void close() {
+    if (database != null) {
+      database.close();
+      database = null;
+    }
+  }
+
+  /**
+   * Deletes the database file, closing the open database first.
+   *
+   * @return true if a file was deleted
+   */
+  public boolean delete() {
+    close();
+    return context.deleteDatabase(databaseName);
+  }
+
+  /**
+   * Reports a measurement to logcat and to the output of the instrumentation run.
+   *
+   * @param format The message format, as for {@link String#format}
+   * @param args The arguments
+   */
+  public static void report(String format, Object... args) {
+    String message = String.format(Locale.ROOT, format, args);
+    Log.i(TAG, message);
+    Bundle status = new Bundle();
+    status.putString(Instrumentation.REPORT_KEY_STREAMRESULT, message + "\n");
+    InstrumentationRegistry.getInstrumentation().sendStatus(STATUS_IN_PROGRESS, status);
+  }
+}
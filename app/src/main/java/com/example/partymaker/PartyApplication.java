@@ -10,8 +10,12 @@ import com.example.partymaker.BuildConfig;
 import com.example.partymaker.data.api.ConnectivityManager;
 import com.example.partymaker.data.api.FirebaseServerClient;
 import com.example.partymaker.data.api.NetworkManager;
+import com.example.partymaker.data.api.SyncEngine;
 import com.example.partymaker.data.firebase.DBRef;
+import com.example.partymaker.data.local.DatabaseMaintenance;
+import com.example.partymaker.data.local.DatabaseMonitor;
 import com.example.partymaker.data.repository.GroupRepository;
+import com.example.partymaker.data.repository.PrefetchScheduler;
 import com.example.partymaker.data.repository.UserRepository;
 import com.example.partymaker.utils.infrastructure.system.MemoryManager;
 import com.example.partymaker.utils.infrastructure.PerformanceMonitor;
@@ -70,6 +74,9 @@ public class PartyApplication extends Application {
     NetworkManager networkManager = NetworkManager.getInstance();
     networkManager.initialize(getApplicationContext());
 
+    // Decides when network work may run, draining queued work on reconnect
+    SyncEngine.getInstance().initialize(getApplicationContext());
+
     // Initialize ConnectivityManager
     ConnectivityManager.getInstance().init(getApplicationContext());
     Log.d(TAG, "ConnectivityManager initialized successfully");
@@ -125,6 +132,12 @@ public class PartyApplication extends Application {
     UserRepository userRepository = UserRepository.getInstance();
     userRepository.initialize(getApplicationContext());
 
+    // Initialize prefetching into the local database
+    PrefetchScheduler.getInstance().initialize(getApplicationContext());
+
+    // Initialize retention and compaction of the local database
+    DatabaseMaintenance.getInstance().initialize(getApplicationContext());
+
     // Add more repositories here as needed
 
     Log.d(TAG, "Repositories initialized with application context");
@@ -315,5 +328,12 @@ public class PartyApplication extends Application {
     MemoryManager.getInstance().emergencyCleanup();
     // Also trim image cache memory
     ImageOptimizationManager.trimMemory(this, level);
+    // The UI is hidden, so the app is idle: maintain the local database
+    if (level >= TRIM_MEMORY_UI_HIDDEN) {
+      DatabaseMaintenance.getInstance().requestMaintenance();
+      if (BuildConfig.DEBUG) {
+        DatabaseMonitor.logQueryReport(this);
+      }
+    }
   }
 }
@@ -0,0 +1,384 @@
+package com.example.partymaker.data.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Converts between CBOR (RFC 8949) and Gson trees.
+ *
+ * <p>The server encodes responses with Jackson's CBOR support when the client asks for {@code
+ * application/cbor}. Decoding straight into a {@link JsonElement} lets callers bind models with
+ * {@code gson.fromJson(element, type)} without going through JSON text. Only the data model shared
+ * with JSON is supported: byte strings are turned into Base64 text and tags are ignored. Nesting
+ * is limited to {@link #MAX_DEPTH} levels, so hostile data cannot overflow the stack.
+ */
+final class CborCodec {
+  static final String MEDIA_TYPE = "application/cbor";
+
+  /** Deepest nesting of arrays, maps and tags accepted when decoding. */
+  static final int MAX_DEPTH = 64;
+
+  // Major types
+  private static final int MAJOR_UNSIGNED = 0;
+  private static final int MAJOR_NEGATIVE = 1;
+  private static final int MAJOR_BYTES = 2;
+  private static final int MAJOR_TEXT = 3;
+  private static final int MAJOR_ARRAY = 4;
+  private static final int MAJOR_MAP = 5;
+  private static final int MAJOR_TAG = 6;
+  private static final int MAJOR_SIMPLE = 7;
+
+  // Additional information values
+  private static final int INDEFINITE = 31;
+  private static final int SIMPLE_FALSE = 20;
+  private static final int SIMPLE_TRUE = 21;
+  private static final int SIMPLE_NULL = 22;
+  private static final int SIMPLE_UNDEFINED = 23;
+  private static final int FLOAT_16 = 25;
+  private static final int FLOAT_32 = 26;
+  private static final int FLOAT_64 = 27;
+  private static final int BREAK = 0xff;
+
+  private CborCodec() {
+    throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+  }
+
+  /** Whether a Content-Type header value denotes CBOR. */
+  static boolean isCbor(String contentType) {
+    return contentType != null && contentType.startsWith(MEDIA_TYPE);
+  }
+
+  /**
+   * Encodes a Gson tree as CBOR. Whole numbers are written as integers, others as doubles.
+   *
+   * @param element The tree to encode
+   * @return The CBOR bytes
+   */
+  static byte[] encode(JsonElement element) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    write(element, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Decodes one CBOR data item into a Gson tree.
+   *
+   * @param data The CBOR bytes
+   * @return The decoded tree
+   * @throws IOException if the data is truncated or malformed
+   */
+  static JsonElement decode(byte[] data) throws IOException {
+    Reader reader = new Reader(data);
+    JsonElement element = reader.readItem();
+    if (element == null) {
+      throw new IOException("Unexpected CBOR break");
+    }
+    return element;
+  }
+
+  private static void write(JsonElement element, ByteArrayOutputStream out) {
+    if (element == null || element.isJsonNull()) {
+      out.write(MAJOR_SIMPLE << 5 | SIMPLE_NULL);
+    } else if (element.isJsonObject()) {
+      JsonObject object = element.getAsJsonObject();
+      writeHeader(MAJOR_MAP, object.size(), out);
+      for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+        writeText(entry.getKey(), out);
+        write(entry.getValue(), out);
+      }
+    } else if (element.isJsonArray()) {
+      JsonArray array = element.getAsJsonArray();
+      writeHeader(MAJOR_ARRAY, array.size(), out);
+      for (JsonElement item : array) {
+        write(item, out);
+      }
+    } else {
+      writePrimitive(element.getAsJsonPrimitive(), out);
+    }
+  }
+
+  private static void writePrimitive(JsonPrimitive primitive, ByteArrayOutputStream out) {
+    if (primitive.isBoolean()) {
+      out.write(MAJOR_SIMPLE << 5 | (primitive.getAsBoolean() ? SIMPLE_TRUE : SIMPLE_FALSE));
+    } else if (primitive.isString()) {
+      writeText(primitive.getAsString(), out);
+    } else {
+      String number = primitive.getAsString();
+      if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+        try {
+          long value = Long.parseLong(number);
+          if (value >= 0) {
+            writeHeader(MAJOR_UNSIGNED, value, out);
+          } else {
+            writeHeader(MAJOR_NEGATIVE, -1 - value, out);
+          }
+          return;
+        } catch (NumberFormatException e) {
+          // Too large for a long, written as a double below
+        }
+      }
+      long bits = Double.doubleToLongBits(primitive.getAsDouble());
+      out.write(MAJOR_SIMPLE << 5 | FLOAT_64);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        out.write((int) (bits >>> shift));
+      }
+    }
+  }
+
+  private static void writeText(String text, ByteArrayOutputStream out) {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    writeHeader(MAJOR_TEXT, bytes.length, out);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  /** Writes a major type with its argument in the shortest form. */
+  private static void writeHeader(int majorType, long argument, ByteArrayOutputStream out) {
+    int major = majorType << 5;
+    if (argument < 24) {
+      out.write(major | (int) argument);
+    } else if (argument <= 0xffL) {
+      out.write(major | 24);
+      out.write((int) argument);
+    } else if (argument <= 0xffffL) {
+      out.write(major | 25);
+      out.write((int) (argument >>> 8));
+      out.write((int) argument);
+    } else if (argument <= 0xffffffffL) {
+      out.write(major | 26);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        out.write((int) (argument >>> shift));
+      }
+    } else {
+      out.write(major | 27);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        out.write((int) (argument >>> shift));
+      }
+    }
+  }
+
+  /** Cursor over a CBOR buffer. */
+  private static final class Reader {
+    private final byte[] data;
+    private int position;
+    private int depth;
+
+    Reader(byte[] data) {
+      this.data = data;
+    }
+
+    /** Reads the next data item, or returns null if it is a break marker. */
+    JsonElement readItem() throws IOException {
+      int initial = readByte();
+      if (initial == BREAK) {
+        return null;
+      }
+      int major = initial >>> 5;
+      int info = initial & 0x1f;
+
+      switch (major) {
+        case MAJOR_UNSIGNED:
+          return unsigned(readArgument(info));
+        case MAJOR_NEGATIVE:
+          long argument = readArgument(info);
+          return argument >= 0
+              ? new JsonPrimitive(-1 - argument)
+              : new JsonPrimitive(BigInteger.ONE.negate().subtract(toUnsigned(argument)));
+        case MAJOR_BYTES:
+          return new JsonPrimitive(Base64.getEncoder().encodeToString(readString(major, info)));
+        case MAJOR_TEXT:
+          return new JsonPrimitive(new String(readString(major, info), StandardCharsets.UTF_8));
+        case MAJOR_ARRAY:
+          enter();
+          JsonArray array = readArray(info);
+          depth--;
+          return array;
+        case MAJOR_MAP:
+          enter();
+          JsonObject object = readMap(info);
+          depth--;
+          return object;
+        case MAJOR_TAG:
+          readArgument(info);
+          enter();
+          JsonElement tagged = readItem();
+          depth--;
+          return tagged;
+        default:
+          return readSimple(info);
+      }
+    }
+
+    /** Goes one nesting level down. Levels are not restored on failure, which ends decoding. */
+    private void enter() throws IOException {
+      if (++depth > MAX_DEPTH) {
+        throw new IOException("CBOR nested deeper than " + MAX_DEPTH + " levels at " + position);
+      }
+    }
+
+    private JsonArray readArray(int info) throws IOException {
+      JsonArray array = new JsonArray();
+      if (info == INDEFINITE) {
+        JsonElement item;
+        while ((item = readItem()) != null) {
+          array.add(item);
+        }
+      } else {
+        long size = readArgument(info);
+        for (long i = 0; i < size; i++) {
+          array.add(readRequiredItem());
+        }
+      }
+      return array;
+    }
+
+    private JsonObject readMap(int info) throws IOException {
+      JsonObject object = new JsonObject();
+      if (info == INDEFINITE) {
+        JsonElement key;
+        while ((key = readItem()) != null) {
+          object.add(keyOf(key), readRequiredItem());
+        }
+      } else {
+        long size = readArgument(info);
+        for (long i = 0; i < size; i++) {
+          object.add(keyOf(readRequiredItem()), readRequiredItem());
+        }
+      }
+      return object;
+    }
+
+    private JsonElement readSimple(int info) throws IOException {
+      switch (info) {
+        case SIMPLE_FALSE:
+          return new JsonPrimitive(false);
+        case SIMPLE_TRUE:
+          return new JsonPrimitive(true);
+        case SIMPLE_NULL:
+        case SIMPLE_UNDEFINED:
+          return JsonNull.INSTANCE;
+        case FLOAT_16:
+          return new JsonPrimitive(halfToDouble((int) readBytes(2)));
+        case FLOAT_32:
+          return new JsonPrimitive((double) Float.intBitsToFloat((int) readBytes(4)));
+        case FLOAT_64:
+          return new JsonPrimitive(Double.longBitsToDouble(readBytes(8)));
+        default:
+          throw new IOException("Unsupported CBOR simple value: " + info);
+      }
+    }
+
+    private JsonElement readRequiredItem() throws IOException {
+      JsonElement item = readItem();
+      if (item == null) {
+        throw new IOException("Unexpected CBOR break at " + position);
+      }
+      return item;
+    }
+
+    /** Reads a byte or text string, joining the chunks of an indefinite-length one. */
+    private byte[] readString(int major, int info) throws IOException {
+      if (info != INDEFINITE) {
+        int length = toLength(readArgument(info));
+        ensureAvailable(length);
+        byte[] bytes = new byte[length];
+        System.arraycopy(data, position, bytes, 0, length);
+        position += length;
+        return bytes;
+      }
+      ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+      while (true) {
+        int initial = readByte();
+        if (initial == BREAK) {
+          return chunks.toByteArray();
+        }
+        // Chunks are definite-length strings of the same type, so they do not nest
+        if (initial >>> 5 != major || (initial & 0x1f) == INDEFINITE) {
+          throw new IOException("Mismatched CBOR string chunk at " + position);
+        }
+        byte[] chunk = readString(major, initial & 0x1f);
+        chunks.write(chunk, 0, chunk.length);
+      }
+    }
+
+    private long readArgument(int info) throws IOException {
+      if (info < 24) {
+        return info;
+      }
+      switch (info) {
+        case 24:
+          return readBytes(1);
+        case 25:
+          return readBytes(2);
+        case 26:
+          return readBytes(4);
+        case 27:
+          return readBytes(8);
+        default:
+          throw new IOException("Invalid CBOR argument encoding: " + info);
+      }
+    }
+
+    private long readBytes(int count) throws IOException {
+      ensureAvailable(count);
+      long value = 0;
+      for (int i = 0; i < count; i++) {
+        value = value << 8 | (data[position++] & 0xff);
+      }
+      return value;
+    }
+
+    private int readByte() throws IOException {
+      ensureAvailable(1);
+      return data[position++] & 0xff;
+    }
+
+    private void ensureAvailable(int count) throws IOException {
+      // Compared as remaining bytes, since position + count can overflow
+      if (count < 0 || count > data.length - position) {
+        throw new IOException("Truncated CBOR data at " + position);
+      }
+    }
+
+    private static int toLength(long argument) throws IOException {
+      if (argument < 0 || argument > Integer.MAX_VALUE) {
+        throw new IOException("CBOR string too long: " + argument);
+      }
+      return (int) argument;
+    }
+
+    private static JsonPrimitive unsigned(long value) {
+      return value >= 0 ? new JsonPrimitive(value) : new JsonPrimitive(toUnsigned(value));
+    }
+
+    private static BigInteger toUnsigned(long value) {
+      return new BigInteger(Long.toUnsignedString(value));
+    }
+
+    private static String keyOf(JsonElement key) {
+      return key.isJsonPrimitive() ? key.getAsString() : key.toString();
+    }
+
+    private static double halfToDouble(int half) {
+      int exponent = (half >>> 10) & 0x1f;
+      int mantissa = half & 0x3ff;
+      double value;
+      if (exponent == 0) {
+        value = mantissa * Math.pow(2, -24);
+      } else if (exponent == 31) {
+        value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+      } else {
+        value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+      }
+      return (half & 0x8000) != 0 ? -value : value;
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.example.partymaker.data.api;
+
+import com.example.partymaker.data.model.ChatMessageGpt;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps the chatbot history that is sent with each request under a token budget.
+ *
+ * <p>Leading system messages are always kept. When the conversation outgrows the budget, the oldest
+ * turns are dropped and the questions the user asked in them are folded into one short summary, so
+ * the model keeps the gist of the conversation. The summary is an assistant note that quotes the
+ * questions, so text the user wrote never gains the authority of a system message. Token counts
+ * are estimated once per message and the compacted history is cached until the next message is
+ * added.
+ */
+public final class ChatHistoryManager {
+
+  /** Default budget, leaving room for the reply within the model's context window. */
+  public static final int DEFAULT_TOKEN_BUDGET = 3000;
+
+  // Estimation, following OpenAI's rule of thumb of about 4 characters per English token
+  private static final int CHARS_PER_TOKEN = 4;
+  private static final int TOKENS_PER_MESSAGE = 4; // Role and message separators
+
+  // Summary of dropped turns
+  private static final int SUMMARY_SHARE_PERCENT = 15;
+  private static final int SUMMARY_SNIPPET_CHARS = 120;
+  private static final String SUMMARY_PREFIX =
+      "Note on earlier turns, quoting the user's questions as data: ";
+  private static final String SUMMARY_SEPARATOR = "; ";
+
+  /** A message with its token estimate. */
+  private static final class Entry {
+    final ChatMessageGpt message;
+    final int tokens;
+
+    Entry(ChatMessageGpt message) {
+      this.message = message;
+      this.tokens = estimateTokens(message);
+    }
+  }
+
+  private final int tokenBudget;
+  private final int summaryBudget;
+
+  private final List<Entry> pinned = new ArrayList<>();
+  private final ArrayDeque<Entry> window = new ArrayDeque<>();
+  private final ArrayDeque<String> droppedQuestions = new ArrayDeque<>(); // Oldest first
+  private int pinnedTokens;
+  private int windowTokens;
+  private Entry summary;
+
+  /** Compacted history, or null when it has to be rebuilt. */
+  private List<ChatMessageGpt> compacted;
+
+  /** Creates a manager with the {@link #DEFAULT_TOKEN_BUDGET}. */
+  public ChatHistoryManager() {
+    this(DEFAULT_TOKEN_BUDGET);
+  }
+
+  /**
+   * Creates a manager with the given budget.
+   *
+   * @param tokenBudget the most tokens the history may use
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public ChatHistoryManager(int tokenBudget) {
+    if (tokenBudget <= 0) {
+      throw new IllegalArgumentException("Token budget must be positive");
+    }
+    this.tokenBudget = tokenBudget;
+    this.summaryBudget = tokenBudget * SUMMARY_SHARE_PERCENT / 100;
+  }
+
+  /**
+   * Estimates how many tokens a message uses in a request.
+   *
+   * @param message the message
+   * @return the estimated token count
+   */
+  public static int estimateTokens(ChatMessageGpt message) {
+    int contentTokens = (message.content.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    return TOKENS_PER_MESSAGE + contentTokens;
+  }
+
+  /**
+   * Adds a message, dropping older turns if the history no longer fits the budget. System messages
+   * added before any other message are kept for the whole conversation.
+   *
+   * @param message the message
+   */
+  public synchronized void add(ChatMessageGpt message) {
+    if (message == null) {
+      return;
+    }
+    Entry entry = new Entry(message);
+    if (message.isSystemMessage() && window.isEmpty() && summary == null) {
+      pinned.add(entry);
+      pinnedTokens += entry.tokens;
+    } else {
+      window.addLast(entry);
+      windowTokens += entry.tokens;
+    }
+    compact();
+    compacted = null;
+  }
+
+  /**
+   * Gets the history to send: pinned system messages, the summary of dropped turns if any, then
+   * the most recent messages. The same list is returned until a message is added.
+   *
+   * @return an unmodifiable list of messages
+   */
+  public synchronized List<ChatMessageGpt> getHistory() {
+    if (compacted == null) {
+      List<ChatMessageGpt> messages = new ArrayList<>(pinned.size() + window.size() + 1);
+      for (Entry entry : pinned) {
+        messages.add(entry.message);
+      }
+      if (summary != null) {
+        messages.add(summary.message);
+      }
+      for (Entry entry : window) {
+        messages.add(entry.message);
+      }
+      compacted = Collections.unmodifiableList(messages);
+    }
+    return compacted;
+  }
+
+  /**
+   * Gets the estimated token count of {@link #getHistory()}.
+   *
+   * @return the estimated token count
+   */
+  public synchronized int getTokenEstimate() {
+    return pinnedTokens + (summary != null ? summary.tokens : 0) + windowTokens;
+  }
+
+  /** Removes every message. */
+  public synchronized void clear() {
+    pinned.clear();
+    window.clear();
+    droppedQuestions.clear();
+    pinnedTokens = 0;
+    windowTokens = 0;
+    summary = null;
+    compacted = null;
+  }
+
+  /** Drops the oldest turns until the history fits. The latest message is always kept. */
+  private void compact() {
+    while (getTokenEstimate() > tokenBudget && window.size() > 1) {
+      Entry oldest = window.pollFirst();
+      windowTokens -= oldest.tokens;
+      if (oldest.message.isUserMessage()) {
+        droppedQuestions.addLast(quote(snippet(oldest.message.content)));
+      }
+      rebuildSummary();
+    }
+  }
+
+  /**
+   * Rebuilds the summary from the most recent dropped questions that fit its budget, and forgets
+   * the older ones.
+   */
+  private void rebuildSummary() {
+    int availableChars = (summaryBudget - TOKENS_PER_MESSAGE) * CHARS_PER_TOKEN;
+    availableChars -= SUMMARY_PREFIX.length();
+
+    List<String> kept = new ArrayList<>();
+    int usedChars = 0;
+    for (Iterator<String> it = droppedQuestions.descendingIterator(); it.hasNext(); ) {
+      String question = it.next();
+      int needed = question.length() + (kept.isEmpty() ? 0 : SUMMARY_SEPARATOR.length());
+      if (usedChars + needed > availableChars) {
+        break;
+      }
+      kept.add(question);
+      usedChars += needed;
+    }
+    while (droppedQuestions.size() > kept.size()) {
+      droppedQuestions.pollFirst();
+    }
+
+    if (kept.isEmpty()) {
+      summary = null;
+      return;
+    }
+    Collections.reverse(kept);
+    summary =
+        new Entry(
+            ChatMessageGpt.createAssistantMessage(
+                SUMMARY_PREFIX + String.join(SUMMARY_SEPARATOR, kept)));
+  }
+
+  /** Wraps a question in double quotes it cannot close. */
+  private static String quote(String question) {
+    return '"' + question.replace('"', '\'') + '"';
+  }
+
+  private static String snippet(String content) {
+    String singleLine = content.replaceAll("\\s+", " ");
+    if (singleLine.length() <= SUMMARY_SNIPPET_CHARS) {
+      return singleLine;
+    }
+    return singleLine.substring(0, SUMMARY_SNIPPET_CHARS - 3) + "...";
+  }
+}
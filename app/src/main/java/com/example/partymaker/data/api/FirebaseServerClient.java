@@ -14,33 +14,50 @@ import com.example.partymaker.utils.core.AppConstants;
 import com.example.partymaker.utils.infrastructure.async.AsyncTaskReplacement;
 import com.example.partymaker.utils.infrastructure.NetworkOptimizationManager;
 import com.example.partymaker.utils.infrastructure.RequestMetrics;
+import com.example.partymaker.utils.infrastructure.network.AdaptiveTimeoutPolicy;
+import com.example.partymaker.utils.infrastructure.network.CircuitBreaker;
+import com.example.partymaker.utils.infrastructure.network.CircuitBreakerOpenException;
 import com.example.partymaker.utils.security.network.SSLPinningManager;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.ref.WeakReference;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import okhttp3.Call;
+import okhttp3.EventListener;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -53,8 +70,7 @@ public class FirebaseServerClient {
   /** Tag for logging. */
   private static final String TAG = "FirebaseServerClient";
 
-  /* Default timeout values moved to Constants */
-  // Using constants from Constants.Network class
+  /* Timeouts are derived per request by AdaptiveTimeoutPolicy */
 
   /** Singleton instance. */
   private static FirebaseServerClient instance;
@@ -68,11 +84,16 @@ public class FirebaseServerClient {
   /** Request deduplication map */
   private final Map<String, CompletableFuture<String>> ongoingRequests = new ConcurrentHashMap<>();
 
+  /** Merges concurrent item reads and writes into batched calls. */
+  private final RequestBatcher requestBatcher =
+      new RequestBatcher(this::executeOptimizedHttpRequest, executor);
+
   /** Handler for posting to main thread. */
   private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
   /** NetworkManager instance for network operations. */
   private final NetworkManager networkManager = NetworkManager.getInstance();
+  private final SyncEngine syncEngine = SyncEngine.getInstance();
 
   /** Secure OkHttpClient for network requests. */
   private OkHttpClient secureClient;
@@ -80,15 +101,33 @@ public class FirebaseServerClient {
   /** Optimized OkHttpClient for general requests. */
   private OkHttpClient optimizedClient;
 
+  /** The optimized client's cache and interceptors, pinned like secureClient. */
+  private OkHttpClient apiClient;
+
+  /** Response body bytes apiClient received from the server; cache hits read none. */
+  private final AtomicLong bytesReceived = new AtomicLong();
+
   /** The current server URL. */
   private String serverUrl = AppConstants.Network.DEFAULT_SERVER_URL;
 
   /** Application context - using WeakReference to prevent memory leaks. */
   private WeakReference<Context> contextRef;
 
+  /** Circuit breakers per endpoint family, so a failing messages endpoint does not block groups. */
+  private final Map<EndpointFamily, CircuitBreaker> circuitBreakers =
+      new EnumMap<>(EndpointFamily.class);
+
+  /** Whether slow idempotent GETs may be duplicated after the endpoint's p95 delay. */
+  private volatile boolean hedgedReadsEnabled = true;
+
+  /** Whether list reads ask the server for CBOR instead of JSON. */
+  private volatile boolean binaryWireFormatEnabled = true;
+
   /** Private constructor for singleton pattern. */
   private FirebaseServerClient() {
-    // Private constructor for singleton
+    for (EndpointFamily family : EndpointFamily.values()) {
+      circuitBreakers.put(family, new CircuitBreaker(family.breakerName));
+    }
   }
 
   /**
@@ -121,6 +160,23 @@ public class FirebaseServerClient {
     // Initialize optimized client for general requests
     optimizedClient = NetworkOptimizationManager.getOptimizedHttpClient(context);
 
+    // Shares the optimized client's response cache, without following redirects
+    apiClient =
+        optimizedClient
+            .newBuilder()
+            .certificatePinner(secureClient.certificatePinner())
+            .hostnameVerifier(secureClient.hostnameVerifier())
+            .followRedirects(false)
+            .followSslRedirects(false)
+            .eventListener(
+                new EventListener() {
+                  @Override
+                  public void responseBodyEnd(Call call, long byteCount) {
+                    bytesReceived.addAndGet(byteCount);
+                  }
+                })
+            .build();
+
     Log.i(
         TAG,
         "FirebaseServerClient initialized with server URL: "
@@ -156,6 +212,75 @@ public class FirebaseServerClient {
     }
   }
 
+  /**
+   * Enables or disables hedged reads. When enabled, an idempotent GET that has not answered
+   * within its endpoint's rolling p95 on a mobile connection is sent a second time, and the
+   * first response wins.
+   *
+   * @param enabled true to allow hedged reads
+   */
+  public void setHedgedReadsEnabled(boolean enabled) {
+    this.hedgedReadsEnabled = enabled;
+  }
+
+  /**
+   * Enables or disables the CBOR wire format for list reads. JSON is always accepted as the
+   * fallback, so this only needs turning off to compare formats or debug raw traffic.
+   *
+   * @param enabled Whether to ask the server for CBOR
+   */
+  public void setBinaryWireFormatEnabled(boolean enabled) {
+    this.binaryWireFormatEnabled = enabled;
+  }
+
+  /** Gets the circuit breaker for the endpoint family of an API path or URL. */
+  private CircuitBreaker breakerFor(String pathOrUrl) {
+    return circuitBreakers.get(EndpointFamily.of(pathOrUrl));
+  }
+
+  /**
+   * Fails fast when the device is offline or the breaker for the path's endpoint family is open,
+   * so repositories fall back to Room right away instead of starting I/O that is bound to fail.
+   *
+   * @param path API path the operation will hit
+   * @param onError Receives the error on the main thread if the call is rejected, may be null
+   * @return true if the call was rejected
+   */
+  private boolean rejectIfUnavailable(String path, Consumer<String> onError) {
+    if (!syncEngine.isOnline()) {
+      Log.w(TAG, "Offline, not requesting " + path);
+      if (onError != null) {
+        String message = NetworkUtils.getErrorMessage(NetworkUtils.ErrorType.NO_NETWORK);
+        mainHandler.post(() -> onError.accept(message));
+      }
+      return true;
+    }
+
+    CircuitBreaker breaker = breakerFor(path);
+    if (!breaker.isRejecting()) {
+      return false;
+    }
+    Log.w(TAG, "Fast-failing " + path + ": " + breaker.getName() + " " + breaker.getStatus());
+    if (onError != null) {
+      String message = NetworkUtils.getErrorMessage(NetworkUtils.ErrorType.CIRCUIT_OPEN);
+      mainHandler.post(() -> onError.accept(message));
+    }
+    return true;
+  }
+
+  /**
+   * Gets the status of every endpoint family's circuit breaker.
+   *
+   * @return Map of breaker name to status
+   */
+  public Map<String, String> getCircuitStatus() {
+    Map<String, String> status = new HashMap<>();
+    for (CircuitBreaker breaker : circuitBreakers.values()) {
+      status.put(breaker.getName(), breaker.getStatus());
+    }
+    return status;
+  }
+
   // Helper method to log API calls
   private void logApiCall(String method, String path) {
     Log.d(
@@ -166,6 +291,9 @@ public class FirebaseServerClient {
 
   // Groups methods
   public void getGroups(final DataCallback<Map<String, Group>> callback) {
+    if (rejectIfUnavailable("Groups", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "getGroups called");
     logApiCall("GET", "Groups");
 
@@ -176,31 +304,16 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
-          String result = makeGetRequest("Groups");
-          if (result == null) {
+          JsonElement result = makeHedgedGetTreeRequest("Groups");
+          if (result == null || !result.isJsonObject()) {
             throw new IOException("Failed to fetch groups data");
           }
 
           Map<String, Group> groups = new HashMap<>();
-          JSONObject jsonObject = new JSONObject(result);
-          Iterator<String> keys = jsonObject.keys();
-
-          while (keys.hasNext()) {
-            String key = keys.next();
-            JSONObject groupJson = jsonObject.getJSONObject(key);
-            Group group = gson.fromJson(groupJson.toString(), Group.class);
-            groups.put(key, group);
+          for (Map.Entry<String, JsonElement> entry : result.getAsJsonObject().entrySet()) {
+            groups.put(entry.getKey(), gson.fromJson(entry.getValue(), Group.class));
           }
 
           Log.d(TAG, "Successfully parsed " + groups.size() + " groups");
@@ -228,6 +341,9 @@ public class FirebaseServerClient {
   }
 
   public void getGroup(String groupId, final DataCallback<Group> callback) {
+    if (rejectIfUnavailable("Groups", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "Starting getGroup for groupId: " + groupId);
 
     // Check if groupId is null or empty
@@ -244,20 +360,11 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
           // First try to fetch the group directly
           Log.d(TAG, "Fetching group directly: " + groupId);
-          String groupJson = makeGetRequest("Groups/" + groupId, 15000);
+          String groupJson = makeItemRequest("Groups/" + groupId);
 
           // If direct fetch fails, try to get it from the general groups list
           if (groupJson == null || groupJson.contains("\"status\":404")) {
@@ -314,6 +421,9 @@ public class FirebaseServerClient {
   }
 
   public void saveGroup(String groupId, Group group, final OperationCallback callback) {
+    if (rejectIfUnavailable("Groups", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "saveGroup called for groupId: " + groupId);
 
     Context context = getContext();
@@ -329,15 +439,6 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
           String jsonBody = gson.toJson(group);
@@ -371,6 +472,9 @@ public class FirebaseServerClient {
 
   public void updateGroup(
       String groupId, Map<String, Object> updates, final OperationCallback callback) {
+    if (rejectIfUnavailable("Groups", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "updateGroup called for groupId: " + groupId);
 
     Context context = getContext();
@@ -386,15 +490,6 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
           String jsonBody = gson.toJson(updates);
@@ -426,6 +521,9 @@ public class FirebaseServerClient {
   }
 
   public void deleteGroup(String groupId, final OperationCallback callback) {
+    if (rejectIfUnavailable("Groups", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "deleteGroup called for groupId: " + groupId);
 
     Context context = getContext();
@@ -441,15 +539,6 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
           boolean success = makeDeleteRequest("Groups/" + groupId);
@@ -481,6 +570,9 @@ public class FirebaseServerClient {
 
   public void updateGroup(
       String groupId, String field, Object value, final DataCallback<Void> callback) {
+    if (rejectIfUnavailable("Groups", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "updateGroup field called for groupId: " + groupId + ", field: " + field);
 
     Context context = getContext();
@@ -517,6 +609,9 @@ public class FirebaseServerClient {
 
   // Users methods
   public void getUsers(final DataCallback<Map<String, User>> callback) {
+    if (rejectIfUnavailable("Users", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "getUsers called");
     logApiCall("GET", "Users");
 
@@ -527,31 +622,16 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
-          String result = makeGetRequest("Users");
-          if (result == null) {
+          JsonElement result = makeHedgedGetTreeRequest("Users");
+          if (result == null || !result.isJsonObject()) {
             throw new IOException("Failed to fetch users data");
           }
 
           Map<String, User> users = new HashMap<>();
-          JSONObject jsonObject = new JSONObject(result);
-          Iterator<String> keys = jsonObject.keys();
-
-          while (keys.hasNext()) {
-            String key = keys.next();
-            JSONObject userJson = jsonObject.getJSONObject(key);
-            User user = gson.fromJson(userJson.toString(), User.class);
-            users.put(key, user);
+          for (Map.Entry<String, JsonElement> entry : result.getAsJsonObject().entrySet()) {
+            users.put(entry.getKey(), gson.fromJson(entry.getValue(), User.class));
           }
 
           Log.d(TAG, "Successfully parsed " + users.size() + " users");
@@ -579,7 +659,9 @@ public class FirebaseServerClient {
   }
 
   public void getUser(String userId, final DataCallback<User> callback) {
-    final String serverUrl = this.serverUrl;
+    if (rejectIfUnavailable("Users", callback != null ? callback::onError : null)) {
+      return;
+    }
     final Gson gson = this.gson;
 
     AsyncTaskReplacement.execute(
@@ -593,8 +675,10 @@ public class FirebaseServerClient {
                     .replace("/", "%2F")
                     .replace("?", "%3F")
                     .replace("#", "%23");
-            String url = serverUrl + "/api/firebase/Users/" + encodedUserId;
-            String response = makeHttpRequest(url, "GET", null);
+            String response = makeItemRequest("Users/" + encodedUserId);
+            if (response == null) {
+              throw new IOException("User not found or request failed");
+            }
             return gson.fromJson(response, User.class);
           } catch (Exception e) {
             throw new RuntimeException("Failed to get user", e);
@@ -619,6 +703,9 @@ public class FirebaseServerClient {
   }
 
   public void saveUser(String userId, User user, final OperationCallback callback) {
+    if (rejectIfUnavailable("Users", callback != null ? callback::onError : null)) {
+      return;
+    }
     final String serverUrl = this.serverUrl;
     final Gson gson = this.gson;
 
@@ -664,6 +751,9 @@ public class FirebaseServerClient {
   }
 
   public void createUser(User user, final DataCallback<User> callback) {
+    if (rejectIfUnavailable("Users", callback != null ? callback::onError : null)) {
+      return;
+    }
     final String serverUrl = this.serverUrl;
     final Gson gson = this.gson;
 
@@ -703,6 +793,9 @@ public class FirebaseServerClient {
 
   public void updateUser(
       String userId, Map<String, Object> updates, final OperationCallback callback) {
+    if (rejectIfUnavailable("Users", callback != null ? callback::onError : null)) {
+      return;
+    }
     final String serverUrl = this.serverUrl;
     final Gson gson = this.gson;
 
@@ -786,6 +879,9 @@ public class FirebaseServerClient {
   }
 
   public void getMessages(String groupId, final DataCallback<List<ChatMessage>> callback) {
+    if (rejectIfUnavailable("GroupsMessages", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "Starting getMessages for groupId: " + groupId);
 
     // Check if groupId is null or empty
@@ -802,20 +898,11 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
           // First, try to fetch the group to get message keys
           Log.d(TAG, "Fetching group to get message keys: " + groupId);
-          String groupJson = makeGetRequest("Groups/" + groupId, 15000);
+          String groupJson = makeItemRequest("Groups/" + groupId);
 
           // If direct fetch fails, try to get it from the general groups list
           if (groupJson == null || groupJson.contains("\"status\":404")) {
@@ -863,27 +950,26 @@ public class FirebaseServerClient {
             return new ArrayList<>(); // No messages to fetch
           }
 
-          // Try to fetch messages directly for this group
+          // Try to fetch messages directly for this group. Message payloads are the bulk of the
+          // response, so they are decoded from CBOR when the binary wire format is enabled
           Log.d(TAG, "Fetching messages for group: " + groupId);
           String messagesPath = "GroupsMessages?groupId=" + groupId;
-          String messagesJson = makeGetRequest(messagesPath, 15000);
+          JsonElement messagesTree = makeHedgedGetTreeRequest(messagesPath);
 
           // If direct query doesn't work (depends on server implementation),
           // fall back to fetching specific messages by keys
-          if (messagesJson == null
-              || messagesJson.trim().equals("{}")
-              || messagesJson.trim().equals("[]")) {
+          if (isEmptyTree(messagesTree)) {
             Log.d(TAG, "No messages found with direct query, fetching by keys");
             List<ChatMessage> messages = new ArrayList<>();
 
             // Fetch each message individually by key
             for (String messageKey : messageKeys.keySet()) {
               String messagePath = "GroupsMessages/" + messageKey;
-              String messageJson = makeGetRequest(messagePath, 5000);
+              JsonElement messageTree = makeGetTreeRequest(messagePath);
 
-              if (messageJson != null && !messageJson.trim().equals("{}")) {
+              if (!isEmptyTree(messageTree)) {
                 try {
-                  ChatMessage message = gson.fromJson(messageJson, ChatMessage.class);
+                  ChatMessage message = gson.fromJson(messageTree, ChatMessage.class);
                   if (message != null) {
                     // Ensure the message has the key set
                     if (message.getMessageKey().isEmpty()) {
@@ -906,60 +992,28 @@ public class FirebaseServerClient {
           List<ChatMessage> messages = new ArrayList<>();
 
           try {
-            // Check if we have a JSON object or array
-            if (messagesJson.trim().startsWith("{")) {
-              // JSON Object - process each key as a potential message
-              JSONObject messagesObj = new JSONObject(messagesJson);
-
-              Iterator<String> keys = messagesObj.keys();
-              while (keys.hasNext()) {
-                String key = keys.next();
-                Object value = messagesObj.get(key);
-
-                if (value instanceof JSONObject) {
-                  JSONObject messageObj = (JSONObject) value;
-
-                  // Check if this message belongs to our group
-                  String msgGroupId = messageObj.optString("groupId", "");
-                  // Check both messageKey and MessageKey fields
-                  String messageKey = messageObj.optString("messageKey", "");
-                  if (messageKey.isEmpty()) {
-                    messageKey = messageObj.optString("MessageKey", "");
-                  }
-
-                  if (groupId.equals(msgGroupId)
-                      || messageKeys.containsKey(messageKey)
-                      || messageKeys.containsKey(key)) {
-                    ChatMessage message = gson.fromJson(messageObj.toString(), ChatMessage.class);
-                    messages.add(message);
-                    Log.d(TAG, "Added message with key: " + messageKey + " to results");
-                  }
+            // Check if we have an object or an array
+            if (messagesTree.isJsonObject()) {
+              // Object - process each key as a potential message
+              for (Map.Entry<String, JsonElement> entry :
+                  messagesTree.getAsJsonObject().entrySet()) {
+                if (entry.getValue().isJsonObject()) {
+                  addGroupMessage(
+                      entry.getValue().getAsJsonObject(),
+                      entry.getKey(),
+                      groupId,
+                      messageKeys,
+                      messages);
                 }
               }
-            } else if (messagesJson.trim().startsWith("[")) {
+            } else if (messagesTree.isJsonArray()) {
               // Array of messages
-              JSONArray messagesArray = new JSONArray(messagesJson);
-
-              for (int i = 0; i < messagesArray.length(); i++) {
-                JSONObject messageObj = messagesArray.getJSONObject(i);
-
-                // Check if this message belongs to our group
-                String msgGroupId = messageObj.optString("groupId", "");
-                // Check both messageKey and MessageKey fields
-                String messageKey = messageObj.optString("messageKey", "");
-                if (messageKey.isEmpty()) {
-                  messageKey = messageObj.optString("MessageKey", "");
-                }
-
-                if (groupId.equals(msgGroupId) || messageKeys.containsKey(messageKey)) {
-                  ChatMessage message = gson.fromJson(messageObj.toString(), ChatMessage.class);
-                  messages.add(message);
-                  Log.d(TAG, "Added message with key: " + messageKey + " to results");
-                }
+              for (JsonElement item : messagesTree.getAsJsonArray()) {
+                addGroupMessage(item.getAsJsonObject(), null, groupId, messageKeys, messages);
               }
             }
-          } catch (JSONException e) {
-            Log.e(TAG, "Error parsing messages JSON", e);
+          } catch (JsonParseException | IllegalStateException e) {
+            Log.e(TAG, "Error parsing messages", e);
             return new ArrayList<>();
           }
 
@@ -990,6 +1044,9 @@ public class FirebaseServerClient {
 
   public void saveMessage(
       String groupId, String messageId, ChatMessage message, final OperationCallback callback) {
+    if (rejectIfUnavailable("GroupsMessages", callback::onError)) {
+      return;
+    }
 
     // Check if groupId or messageId is null or empty
     if (groupId == null || groupId.isEmpty()) {
@@ -1041,7 +1098,7 @@ public class FirebaseServerClient {
                     + " with body: "
                     + gson.toJson(message));
             boolean messageSaved =
-                makePostRequest("GroupsMessages/" + messageId, gson.toJson(message), 15000);
+                makePostRequest("GroupsMessages/" + messageId, gson.toJson(message));
 
             if (!messageSaved) {
               Log.e(TAG, "Failed to save message: " + messageId);
@@ -1052,7 +1109,7 @@ public class FirebaseServerClient {
               try {
                 // Get the current group first
                 Log.d(TAG, "Fetching group to update message keys: " + groupId);
-                String groupJson = makeGetRequest("Groups/" + groupId, 15000);
+                String groupJson = makeHedgedGetRequest("Groups/" + groupId);
                 if (groupJson == null) {
                   Log.e(TAG, "Failed to fetch group for updating message keys");
                   errorMessage = "Failed to fetch group";
@@ -1082,7 +1139,7 @@ public class FirebaseServerClient {
 
                   Log.d(TAG, "Updating group with new MessageKeys: " + gson.toJson(updates));
                   boolean groupUpdated =
-                      makePutRequest("Groups/" + groupId, gson.toJson(updates), 15000);
+                      makePutRequest("Groups/" + groupId, gson.toJson(updates));
 
                   if (!groupUpdated) {
                     Log.e(TAG, "Failed to update group message keys for: " + groupId);
@@ -1132,6 +1189,9 @@ public class FirebaseServerClient {
 
   // Add a new saveMessage method that takes just a ChatMessage and DataCallback<Boolean>
   public void saveMessage(ChatMessage message, final DataCallback<Boolean> callback) {
+    if (rejectIfUnavailable("GroupsMessages", callback::onError)) {
+      return;
+    }
     Log.d(TAG, "saveMessage called with ChatMessage: " + message.getMessageText());
 
     // Extract groupId and messageKey from the message
@@ -1178,6 +1238,9 @@ public class FirebaseServerClient {
       callback.onError("Invalid path");
       return;
     }
+    if (rejectIfUnavailable(path, callback::onError)) {
+      return;
+    }
 
     AsyncTaskReplacement.execute(
         () -> makeDeleteRequest(path),
@@ -1207,6 +1270,9 @@ public class FirebaseServerClient {
    * @param callback the callback to handle success or failure
    */
   public void updateData(String path, Object value, final OperationCallback callback) {
+    if (rejectIfUnavailable(path, callback != null ? callback::onError : null)) {
+      return;
+    }
     Log.d(TAG, "updateData called for path: " + path);
 
     Context context = getContext();
@@ -1222,15 +1288,6 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () ->
-              callback.onError(
-                  "No network connection available. Please check your internet connection."));
-      return;
-    }
-
     NetworkUtils.executeWithRetry(
         () -> {
           boolean success;
@@ -1275,7 +1332,9 @@ public class FirebaseServerClient {
 
   @SuppressLint("StaticFieldLeak")
   public void getUserGroups(String userId, final DataCallback<Map<String, Group>> callback) {
-    // Check network availability first
+    if (rejectIfUnavailable("UserGroups", callback::onError)) {
+      return;
+    }
     Context context = getContext();
     if (context == null) {
       Log.e(TAG, "Context is null");
@@ -1283,13 +1342,6 @@ public class FirebaseServerClient {
       return;
     }
 
-    if (!NetworkUtils.isNetworkAvailable(context)) {
-      Log.e(TAG, "Network not available");
-      mainHandler.post(
-          () -> callback.onError(NetworkUtils.getErrorMessage(NetworkUtils.ErrorType.NO_NETWORK)));
-      return;
-    }
-
     AsyncTaskReplacement.execute(
         () -> {
           // Keep original userId for filtering (no URL encoding for data comparison)
@@ -1299,32 +1351,26 @@ public class FirebaseServerClient {
           Log.d(
               TAG,
               "TEMPORARILY skipping UserGroups endpoint and going directly to all groups for debugging");
-          String result = makeGetRequest("Groups", 5000); // Reduced timeout for faster response
+          JsonElement result = makeHedgedGetTreeRequest("Groups");
           Log.d(
               TAG,
               "All groups endpoint result: "
-                  + (result != null ? "Got " + result.length() + " chars" : "null"));
-          if (result != null && !result.equals("null") && !result.trim().isEmpty()) {
-            Log.d(
-                TAG,
-                "All groups result preview: "
-                    + (result.length() > 100 ? result.substring(0, 100) + "..." : result));
-          }
+                  + (result != null ? "Got " + typeOf(result) : "null"));
 
           if (result != null) {
             try {
-              JSONObject jsonObject = new JSONObject(result);
+              if (!result.isJsonObject()) {
+                throw new JSONException("Expected an object of groups, got " + typeOf(result));
+              }
               Map<String, Group> userGroupsMap = new HashMap<>();
 
               // Filter groups that the user is part of
-              Iterator<String> keys = jsonObject.keys();
               int totalGroups = 0;
               int userGroupsCount = 0;
-              while (keys.hasNext()) {
-                String key = keys.next();
+              for (Map.Entry<String, JsonElement> entry : result.getAsJsonObject().entrySet()) {
+                String key = entry.getKey();
                 totalGroups++;
-                JSONObject groupJson = jsonObject.getJSONObject(key);
-                Group group = gson.fromJson(groupJson.toString(), Group.class);
+                Group group = gson.fromJson(entry.getValue(), Group.class);
 
                 // Debug the group and user relationship
                 boolean isAdmin = group.getAdminKey() != null && group.getAdminKey().equals(userId);
@@ -1401,296 +1447,401 @@ public class FirebaseServerClient {
         });
   }
 
+  private static String typeOf(JsonElement element) {
+    if (element.isJsonObject()) {
+      return element.getAsJsonObject().size() + " entries";
+    }
+    return element.isJsonArray() ? "array" : "primitive";
+  }
+
   // Helper methods for HTTP requests
-  private String makeGetRequest(String path) {
-    return makeGetRequest(path, AppConstants.Network.DEFAULT_TIMEOUT_MS);
+  private String apiUrl(String path) {
+    return serverUrl + AppConstants.Network.API_BASE_PATH + path;
   }
 
-  private String makeGetRequest(String path, int timeout) {
-    logApiCall("GET", path);
-    HttpURLConnection connection = null;
-    BufferedReader reader = null;
+  /** Gets the timeout for a path from its observed latency and the current network quality. */
+  private int adaptiveTimeout(String path) {
+    return AdaptiveTimeoutPolicy.timeoutFor(apiUrl(path), networkManager.getNetworkQuality());
+  }
 
+  private String makeGetRequest(String path) {
+    return makeGetRequest(path, adaptiveTimeout(path));
+  }
+
+  /**
+   * Reads a single group or user. Concurrent reads of the same item share one request, and reads
+   * of different items made within a few milliseconds are sent as one batch call by {@link
+   * RequestBatcher}.
+   *
+   * @return The item's JSON, or null if the request failed or the item does not exist
+   */
+  private String makeItemRequest(String path) {
     try {
-      URL url = new URL(serverUrl + AppConstants.Network.API_BASE_PATH + path);
-      Log.d(TAG, "Making GET request to URL: " + url);
+      return makeOptimizedRequest(path).get();
+    } catch (ExecutionException e) {
+      return null; // Already logged by makeOptimizedRequest
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
 
-      connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("GET");
-      connection.setConnectTimeout(timeout);
-      connection.setReadTimeout(timeout);
+  /**
+   * Makes an idempotent GET that may be hedged: if the first request has not answered within
+   * the endpoint's rolling p95, an identical second request is sent and whichever returns a
+   * result first wins. Falls back to a plain GET when hedging is disabled or there is not
+   * enough latency data.
+   */
+  private String makeHedgedGetRequest(String path) {
+    return makeHedgedRequest(path, this::makeGetRequest);
+  }
 
-      // Set security headers
-      connection.setRequestProperty("User-Agent", "PartyMaker-Android/" + BuildConfig.VERSION_NAME);
-      connection.setRequestProperty("Accept", "application/json");
+  /** Hedged variant of {@link #makeGetTreeRequest(String)}. */
+  private JsonElement makeHedgedGetTreeRequest(String path) {
+    return makeHedgedRequest(path, this::makeGetTreeRequest);
+  }
 
-      // Disable automatic redirects for security
-      connection.setInstanceFollowRedirects(false);
+  private <T> T makeHedgedRequest(String path, Function<String, T> get) {
+    long hedgeDelay =
+        hedgedReadsEnabled
+            ? AdaptiveTimeoutPolicy.hedgeDelayFor(apiUrl(path), networkManager.getNetworkQuality())
+            : -1;
+    if (hedgeDelay < 0) {
+      return get.apply(path);
+    }
 
-      Log.d(TAG, "Executing GET request to " + url + " with timeout: " + timeout + "ms");
-      int responseCode = connection.getResponseCode();
-      Log.d(TAG, "GET response code: " + responseCode + " for URL: " + url);
+    CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> get.apply(path), executor);
+    try {
+      return primary.get(hedgeDelay, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      Log.d(TAG, "GET " + path + " slower than " + hedgeDelay + "ms, sending hedged request");
+    } catch (ExecutionException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
 
-      if (responseCode == HttpURLConnection.HTTP_OK) {
-        reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
+    CompletableFuture<T> hedge = CompletableFuture.supplyAsync(() -> get.apply(path), executor);
+
+    // First non-null result wins; null only if both requests fail
+    CompletableFuture<T> winner = new CompletableFuture<>();
+    AtomicInteger pending = new AtomicInteger(2);
+    for (CompletableFuture<T> attempt : Arrays.asList(primary, hedge)) {
+      attempt.whenComplete(
+          (result, throwable) -> {
+            if (result != null) {
+              winner.complete(result);
+            } else if (pending.decrementAndGet() == 0) {
+              winner.complete(null);
+            }
+          });
+    }
+    return winner.join();
+  }
 
-        while ((line = reader.readLine()) != null) {
-          response.append(line);
-        }
+  private String makeGetRequest(String path, int timeout) {
+    return makeGetRequest(path, timeout, "application/json", FirebaseServerClient::readText);
+  }
 
-        String result = response.toString();
-        Log.d(TAG, "GET response length: " + result.length() + " chars for URL: " + url);
-        return result;
-      } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-        Log.e(TAG, "GET request returned 404 Not Found for URL: " + url);
-        return null;
-      } else {
-        Log.e(TAG, "GET request failed with response code: " + responseCode + " for URL: " + url);
+  /**
+   * Makes a GET whose response is decoded straight into a Gson tree. When the binary wire format
+   * is enabled the server is asked for CBOR, which is smaller on the wire and skips JSON text
+   * parsing; a server that only speaks JSON answers with JSON, which is parsed as before.
+   *
+   * @return The response tree, or null if the request failed or the resource does not exist
+   */
+  private JsonElement makeGetTreeRequest(String path) {
+    String accept =
+        binaryWireFormatEnabled
+            ? CborCodec.MEDIA_TYPE + ", application/json;q=0.9"
+            : "application/json";
+    return makeGetRequest(path, adaptiveTimeout(path), accept, FirebaseServerClient::readTree);
+  }
 
-        // Try to read error stream if available
-        try {
-          reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-          StringBuilder errorResponse = new StringBuilder();
-          String line;
+  /** Whether a response tree is missing or an empty object or array. */
+  private static boolean isEmptyTree(JsonElement tree) {
+    return tree == null
+        || tree.isJsonNull()
+        || (tree.isJsonObject() && tree.getAsJsonObject().size() == 0)
+        || (tree.isJsonArray() && tree.getAsJsonArray().isEmpty());
+  }
 
-          while ((line = reader.readLine()) != null) {
-            errorResponse.append(line);
-          }
+  /**
+   * Adds a message from a GroupsMessages response if it belongs to the group, by its group id or
+   * by one of the group's message keys.
+   *
+   * @param key The key the message is stored under, or null for an array item
+   */
+  private void addGroupMessage(
+      JsonObject messageObj,
+      String key,
+      String groupId,
+      Map<String, Boolean> messageKeys,
+      List<ChatMessage> messages) {
+    String msgGroupId = stringField(messageObj, "groupId");
+    // Check both messageKey and MessageKey fields
+    String messageKey = stringField(messageObj, "messageKey");
+    if (messageKey.isEmpty()) {
+      messageKey = stringField(messageObj, "MessageKey");
+    }
 
-          if (errorResponse.length() > 0) {
-            Log.e(TAG, "Error response: " + errorResponse);
-          }
-        } catch (Exception e) {
-          Log.e(TAG, "Could not read error stream", e);
-        }
+    if (groupId.equals(msgGroupId)
+        || messageKeys.containsKey(messageKey)
+        || (key != null && messageKeys.containsKey(key))) {
+      messages.add(gson.fromJson(messageObj, ChatMessage.class));
+      Log.d(TAG, "Added message with key: " + messageKey + " to results");
+    }
+  }
 
-        return null;
-      }
-    } catch (Exception e) {
-      Log.e(TAG, "Error making GET request to path: " + path, e);
-      return null;
-    } finally {
-      if (connection != null) {
-        connection.disconnect();
-      }
-      if (reader != null) {
-        try {
-          reader.close();
-        } catch (IOException e) {
-          Log.e(TAG, "Error closing reader", e);
-        }
+  /** Gets a field as text, or an empty string if it is missing or not a value. */
+  private static String stringField(JsonObject object, String name) {
+    JsonElement field = object.get(name);
+    return field != null && field.isJsonPrimitive() ? field.getAsString() : "";
+  }
+
+  private static String readText(InputStream body, String contentType) throws IOException {
+    StringBuilder response = new StringBuilder();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(body))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        response.append(line);
       }
     }
+    return response.toString();
   }
 
-  private boolean makePostRequest(String path, String jsonBody) {
-    return makePostRequest(path, jsonBody, AppConstants.Network.DEFAULT_TIMEOUT_MS);
+  private static JsonElement readTree(InputStream body, String contentType) throws IOException {
+    if (CborCodec.isCbor(contentType)) {
+      return CborCodec.decode(readBytes(body));
+    }
+    try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+      return JsonParser.parseReader(reader);
+    }
   }
 
-  private boolean makePostRequest(String path, String jsonBody, int timeout) {
-    logApiCall("POST", path);
-    HttpURLConnection connection = null;
-
-    try {
-      URL url = new URL(serverUrl + AppConstants.Network.API_BASE_PATH + path);
-      Log.d(TAG, "Making POST request to URL: " + url + " with body: " + jsonBody);
-
-      connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("POST");
-      connection.setRequestProperty("Content-Type", "application/json");
-      connection.setRequestProperty("User-Agent", "PartyMaker-Android/" + BuildConfig.VERSION_NAME);
-      connection.setRequestProperty("Accept", "application/json");
-      connection.setConnectTimeout(timeout);
-      connection.setReadTimeout(timeout);
-      connection.setDoOutput(true);
-      connection.setInstanceFollowRedirects(false);
-
-      try (OutputStream os = connection.getOutputStream()) {
-        byte[] input = jsonBody.getBytes(StandardCharsets.UTF_8);
-        os.write(input, 0, input.length);
+  private static byte[] readBytes(InputStream body) throws IOException {
+    try (InputStream in = body) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
       }
+      return out.toByteArray();
+    }
+  }
 
-      int responseCode = connection.getResponseCode();
-      Log.d(TAG, "POST response code: " + responseCode + " for URL: " + url);
-
-      if (responseCode != HttpURLConnection.HTTP_OK
-          && responseCode != HttpURLConnection.HTTP_CREATED) {
-        // Try to read error stream if available
-        try {
-          BufferedReader reader =
-              new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-          StringBuilder errorResponse = new StringBuilder();
-          String line;
+  /** Decodes a successful response body. */
+  private interface ResponseDecoder<T> {
+    T decode(InputStream body, String contentType) throws IOException;
+  }
 
-          while ((line = reader.readLine()) != null) {
-            errorResponse.append(line);
-          }
+  /**
+   * Makes a GET through {@link #apiClient}, so the response may come from the memory or disk
+   * cache of {@link NetworkOptimizationManager}. Only responses from the server are recorded in
+   * {@link RequestMetrics} and the circuit breaker; a cache hit says nothing about the endpoint's
+   * latency or health.
+   */
+  private <T> T makeGetRequest(
+      String path, int timeout, String accept, ResponseDecoder<T> decoder) {
+    logApiCall("GET", path);
+    long startTime = System.currentTimeMillis();
+    CircuitBreaker breaker = acquireCircuit(path);
+    boolean healthy = false;
+    boolean fromCache = false;
+    String url = apiUrl(path);
 
-          if (errorResponse.length() > 0) {
-            Log.e(TAG, "Error response: " + errorResponse);
-          }
-        } catch (Exception e) {
-          Log.e(TAG, "Could not read error stream", e);
-        }
+    try {
+      if (apiClient == null) {
+        throw new IOException("HTTP client not initialized - call initialize() first");
+      }
+      Request request =
+          new Request.Builder()
+              .url(url)
+              .header("User-Agent", "PartyMaker-Android/" + BuildConfig.VERSION_NAME)
+              .header("Accept", accept)
+              .get()
+              .build();
+      Call call = apiClient.newCall(request);
+      call.timeout().timeout(timeout, TimeUnit.MILLISECONDS);
 
-        // Try to read response headers
-        try {
-          Log.d(TAG, "Response headers:");
-          for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
-            if (header.getKey() != null) {
-              Log.d(TAG, header.getKey() + ": " + header.getValue());
-            }
-          }
-        } catch (Exception e) {
-          Log.e(TAG, "Could not read response headers", e);
+      Log.d(TAG, "Executing GET request to " + url + " with timeout: " + timeout + "ms");
+      try (Response response = call.execute()) {
+        int responseCode = response.code();
+        healthy = isHealthyResponse(responseCode);
+        fromCache = response.networkResponse() == null;
+        Log.d(TAG, "GET response code: " + responseCode + " for URL: " + url);
+
+        if (responseCode == HttpURLConnection.HTTP_OK) {
+          String contentType = response.header("Content-Type");
+          T result = decoder.decode(response.body().byteStream(), contentType);
+          Log.d(TAG, "GET response (" + contentType + ") decoded for URL: " + url);
+          if (!fromCache) {
+            RequestMetrics.recordRequestTime(url, System.currentTimeMillis() - startTime);
+          }
+          return result;
+        } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+          Log.e(TAG, "GET request returned 404 Not Found for URL: " + url);
+          RequestMetrics.recordRequestTime(url, System.currentTimeMillis() - startTime);
+          return null;
         }
-      } else {
-        // Read successful response
-        try {
-          BufferedReader reader =
-              new BufferedReader(new InputStreamReader(connection.getInputStream()));
-          StringBuilder response = new StringBuilder();
-          String line;
-
-          while ((line = reader.readLine()) != null) {
-            response.append(line);
-          }
 
-          if (response.length() > 0) {
-            Log.d(TAG, "Success response: " + response);
-          }
-        } catch (Exception e) {
-          Log.e(TAG, "Could not read response", e);
+        Log.e(TAG, "GET request failed with response code: " + responseCode + " for URL: " + url);
+        recordFailedRequest(path, startTime);
+        String errorResponse = response.body().string();
+        if (!errorResponse.isEmpty()) {
+          Log.e(TAG, "Error response: " + errorResponse);
         }
+        return null;
       }
-
-      return responseCode == HttpURLConnection.HTTP_OK
-          || responseCode == HttpURLConnection.HTTP_CREATED;
     } catch (Exception e) {
-      Log.e(TAG, "Error making POST request to path: " + path, e);
-      return false;
+      Log.e(TAG, "Error making GET request to path: " + path, e);
+      recordFailedRequest(path, startTime);
+      return null;
     } finally {
-      if (connection != null) {
-        connection.disconnect();
-      }
+      releaseCircuit(breaker, healthy, fromCache);
     }
   }
 
-  private boolean makePutRequest(String path, String jsonBody) {
-    return makePutRequest(path, jsonBody, AppConstants.Network.DEFAULT_TIMEOUT_MS);
+  /**
+   * Gets permission from the circuit breaker of the path's endpoint family.
+   *
+   * @throws CircuitBreakerOpenException if the breaker is open or already probing
+   */
+  private CircuitBreaker acquireCircuit(String path) {
+    CircuitBreaker breaker = breakerFor(path);
+    if (!breaker.tryAcquirePermission()) {
+      throw new CircuitBreakerOpenException(breaker.getName());
+    }
+    return breaker;
   }
 
-  private boolean makePutRequest(String path, String jsonBody, int timeout) {
-    logApiCall("PUT", path);
-    HttpURLConnection connection = null;
-
-    try {
-      URL url = new URL(serverUrl + AppConstants.Network.API_BASE_PATH + path);
-
-      connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("PUT");
-      connection.setRequestProperty("Content-Type", "application/json");
-      connection.setConnectTimeout(timeout);
-      connection.setReadTimeout(timeout);
-      connection.setDoOutput(true);
-
-      try (OutputStream os = connection.getOutputStream()) {
-        byte[] input = jsonBody.getBytes(StandardCharsets.UTF_8);
-        os.write(input, 0, input.length);
-      }
-
-      int responseCode = connection.getResponseCode();
-      return responseCode == HttpURLConnection.HTTP_OK
-          || responseCode == HttpURLConnection.HTTP_CREATED;
-    } catch (Exception e) {
-      Log.e(TAG, "Error making PUT request", e);
-      return false;
-    } finally {
-      if (connection != null) {
-        connection.disconnect();
-      }
+  /**
+   * Reports a permitted request to its circuit breaker. Only answers from the server count; a
+   * request answered from a cache just returns its permission.
+   */
+  private static void releaseCircuit(CircuitBreaker breaker, boolean healthy, boolean fromCache) {
+    if (fromCache) {
+      breaker.releasePermission();
+    } else {
+      breaker.recordResult(healthy);
     }
   }
 
-  private boolean makeDeleteRequest(String path) {
-    return makeDeleteRequest(path, AppConstants.Network.DEFAULT_TIMEOUT_MS);
+  /**
+   * Whether a response shows the server is healthy. Client errors such as 400 or 404 are the
+   * caller's problem and must not trip the breaker.
+   */
+  private static boolean isHealthyResponse(int responseCode) {
+    return responseCode < 500
+        && responseCode != HttpURLConnection.HTTP_CLIENT_TIMEOUT
+        && responseCode != 429;
   }
 
-  private boolean makeDeleteRequest(String path, int timeout) {
-    logApiCall("DELETE", path);
-    HttpURLConnection connection = null;
+  /** Records the duration and failure of a request that did not succeed. */
+  private void recordFailedRequest(String path, long startTime) {
+    RequestMetrics.recordFailedRequest(apiUrl(path), System.currentTimeMillis() - startTime);
+  }
 
-    try {
-      URL url = new URL(serverUrl + AppConstants.Network.API_BASE_PATH + path);
+  private boolean makePostRequest(String path, String jsonBody) {
+    return makeBatchedWrite(path, "POST", jsonBody);
+  }
 
-      connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("DELETE");
-      connection.setConnectTimeout(timeout);
-      connection.setReadTimeout(timeout);
+  private boolean makePutRequest(String path, String jsonBody) {
+    return makeBatchedWrite(path, "PUT", jsonBody);
+  }
 
-      int responseCode = connection.getResponseCode();
-      return responseCode == HttpURLConnection.HTTP_OK
-          || responseCode == HttpURLConnection.HTTP_NO_CONTENT;
-    } catch (Exception e) {
-      Log.e(TAG, "Error making DELETE request", e);
-      return false;
-    } finally {
-      if (connection != null) {
-        connection.disconnect();
+  private boolean makeDeleteRequest(String path) {
+    return makeBatchedWrite(path, "DELETE", null);
+  }
+
+  /**
+   * Sends a write through {@link RequestBatcher}, so writes made within a few milliseconds of each
+   * other are stored by one multi-path update. Each write gets its own result, and a write that
+   * cannot be merged is sent on its own. Blocks until the write is stored or has failed.
+   *
+   * @return true if the write was stored
+   * @throws CircuitBreakerOpenException if the endpoint's circuit is open, so retries stop
+   */
+  private boolean makeBatchedWrite(String path, String method, String jsonBody) {
+    logApiCall(method, path);
+    try {
+      requestBatcher.write(path, method, jsonBody).get();
+      return true;
+    } catch (ExecutionException e) {
+      // Failures are already recorded in executeOptimizedHttpRequest
+      if (e.getCause() instanceof CircuitBreakerOpenException) {
+        throw (CircuitBreakerOpenException) e.getCause();
       }
+      Log.e(TAG, "Error making " + method + " request to path: " + path, e.getCause());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
     }
   }
 
   /**
-   * Makes an optimized HTTP request with deduplication and enhanced error handling.
-   * 
+   * Makes an optimized GET with deduplication and micro-batching.
+   *
+   * <p>Concurrent GETs of the same endpoint share one in-flight request. Single group and user
+   * reads go through {@link RequestBatcher}, which merges reads arriving in the same few
+   * milliseconds into one round trip; writes go through it in {@link #makeBatchedWrite}.
+   *
    * @param endpoint The API endpoint
-   * @param method The HTTP method (GET, POST, PUT, DELETE)
-   * @param jsonBody The request body (for POST/PUT requests)
    * @return CompletableFuture containing the response string
    */
-  private CompletableFuture<String> makeOptimizedRequest(String endpoint, String method, String jsonBody) {
-    // Create request key for deduplication
-    String requestKey = method + ":" + endpoint + ":" + (jsonBody != null ? jsonBody.hashCode() : 0);
-    
-    // Return existing request if in progress (for GET requests only)
-    if ("GET".equals(method) && ongoingRequests.containsKey(requestKey)) {
+  private CompletableFuture<String> makeOptimizedRequest(String endpoint) {
+    // Single-flight: the map decides atomically which caller sends the request
+    String requestKey = "GET:" + endpoint;
+    CompletableFuture<String> created = new CompletableFuture<>();
+    CompletableFuture<String> shared = ongoingRequests.computeIfAbsent(requestKey, key -> created);
+    if (shared != created) {
       Log.d(TAG, "Returning existing request for: " + endpoint);
-      return ongoingRequests.get(requestKey);
+      return shared;
     }
-    
-    CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
-      return executeOptimizedHttpRequest(endpoint, method, jsonBody);
-    }, executor).whenComplete((result, throwable) -> {
-      ongoingRequests.remove(requestKey);
-      
-      if (throwable != null) {
-        RequestMetrics.recordFailure(serverUrl + AppConstants.Network.API_BASE_PATH + endpoint);
-        Log.e(TAG, "Request failed: " + endpoint, throwable);
-      }
-    });
-    
-    // Store only GET requests for deduplication
-    if ("GET".equals(method)) {
-      ongoingRequests.put(requestKey, future);
-    }
-    
-    return future;
+
+    CompletableFuture<String> response =
+        RequestBatcher.isBatchableRead(endpoint)
+            ? requestBatcher.read(endpoint)
+            : CompletableFuture.supplyAsync(
+                () -> executeOptimizedHttpRequest(endpoint, "GET", null), executor);
+    response.whenComplete(
+        (result, throwable) -> {
+          // Remove before completing so callers woken by the result start a fresh request
+          ongoingRequests.remove(requestKey, created);
+
+          // Failures are already recorded in executeOptimizedHttpRequest
+          if (throwable != null) {
+            Log.e(TAG, "Request failed: " + endpoint, throwable);
+            created.completeExceptionally(throwable);
+          } else {
+            created.complete(result);
+          }
+        });
+    return created;
   }
   
   /**
-   * Executes an optimized HTTP request using the optimized client.
+   * Executes an optimized HTTP request using the optimized client. Request bodies are gzipped by
+   * the client's compression interceptor and decompressed by the server's request filter.
    */
   private String executeOptimizedHttpRequest(String endpoint, String method, String jsonBody) {
     long startTime = System.currentTimeMillis();
     String fullUrl = serverUrl + AppConstants.Network.API_BASE_PATH + endpoint;
+    CircuitBreaker breaker = acquireCircuit(endpoint);
+    boolean healthy = false;
+    boolean fromCache = false;
     
     try {
+      if (apiClient == null) {
+        throw new IOException("HTTP client not initialized - call initialize() first");
+      }
       Request.Builder requestBuilder = new Request.Builder()
           .url(fullUrl)
           .addHeader("Content-Type", "application/json")
+          .addHeader("Accept", "application/json")
           .addHeader("User-Agent", "PartyMaker-Android/" + BuildConfig.VERSION_NAME);
       
       // Add method and body
@@ -1707,13 +1858,26 @@ public class FirebaseServerClient {
       }
       
       Request request = requestBuilder.build();
+      Call call = apiClient.newCall(request);
+      call.timeout().timeout(adaptiveTimeout(endpoint), TimeUnit.MILLISECONDS);
       
-      try (Response response = optimizedClient.newCall(request).execute()) {
+      try (Response response = call.execute()) {
+        healthy = isHealthyResponse(response.code());
+        fromCache = response.networkResponse() == null;
         long duration = System.currentTimeMillis() - startTime;
-        RequestMetrics.recordRequestTime(fullUrl, duration);
-        
         if (!response.isSuccessful()) {
-          throw new IOException("HTTP " + response.code() + ": " + response.message());
+          RequestMetrics.recordFailedRequest(fullUrl, duration);
+          throw new RuntimeException(
+              "Network request failed: " + endpoint,
+              new IOException("HTTP " + response.code() + ": " + response.message()));
+        }
+        
+        // Responses served from the cache are not server timings
+        if (!fromCache) {
+          RequestMetrics.recordRequestTime(fullUrl, duration);
+        }
+        if (!"GET".equals(method)) {
+          NetworkOptimizationManager.invalidate(endpoint);
         }
         
         ResponseBody responseBody = response.body();
@@ -1721,72 +1885,13 @@ public class FirebaseServerClient {
       }
       
     } catch (IOException e) {
-      long duration = System.currentTimeMillis() - startTime;
-      RequestMetrics.recordRequestTime(fullUrl, duration);
-      RequestMetrics.recordFailure(fullUrl);
+      RequestMetrics.recordFailedRequest(fullUrl, System.currentTimeMillis() - startTime);
       throw new RuntimeException("Network request failed: " + endpoint, e);
+    } finally {
+      releaseCircuit(breaker, healthy, fromCache);
     }
   }
   
-  /**
-   * Batch request helper class for grouping multiple requests.
-   */
-  public static class BatchRequest {
-    final String endpoint;
-    final String method;
-    final String body;
-    
-    public BatchRequest(String endpoint, String method, String body) {
-      this.endpoint = endpoint;
-      this.method = method;
-      this.body = body;
-    }
-  }
-  
-  /**
-   * Makes multiple requests in batch for improved performance.
-   * 
-   * @param requests List of batch requests
-   * @return CompletableFuture containing list of response strings
-   */
-  public CompletableFuture<List<String>> makeBatchRequests(List<BatchRequest> requests) {
-    List<CompletableFuture<String>> futures = requests.stream()
-        .map(req -> makeOptimizedRequest(req.endpoint, req.method, req.body))
-        .collect(Collectors.toList());
-        
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-        .thenApply(v -> futures.stream()
-            .map(CompletableFuture::join)
-            .collect(Collectors.toList()));
-  }
-  
-  /**
-   * Prefetches common data for improved user experience.
-   * 
-   * @param userId The user ID to prefetch data for
-   */
-  public void prefetchCommonData(String userId) {
-    if (userId == null || userId.isEmpty()) {
-      return;
-    }
-    
-    executor.execute(() -> {
-      try {
-        Log.d(TAG, "Prefetching common data for user: " + userId);
-        
-        // Prefetch user groups (fire and forget)
-        makeOptimizedRequest("Groups", "GET", null);
-        
-        // Prefetch user data
-        makeOptimizedRequest("Users/" + userId.replace("@", "%40"), "GET", null);
-        
-        Log.d(TAG, "Prefetch requests initiated for user: " + userId);
-      } catch (Exception e) {
-        Log.w(TAG, "Failed to prefetch data", e);
-      }
-    });
-  }
-  
   /**
    * Clears all network state and caches.
    */
@@ -1804,6 +1909,7 @@ public class FirebaseServerClient {
   public String getNetworkStats() {
     StringBuilder stats = new StringBuilder();
     stats.append("Ongoing requests: ").append(ongoingRequests.size()).append("\n");
+    stats.append("Circuit breakers: ").append(getCircuitStatus()).append("\n");
     stats.append(RequestMetrics.getCacheStats()).append("\n");
     
     // Print detailed stats to log
@@ -1812,16 +1918,31 @@ public class FirebaseServerClient {
     return stats.toString();
   }
 
+  /**
+   * Gets the number of response body bytes received from the server so far, as sent on the wire.
+   * Responses served from the memory or disk cache are not counted.
+   *
+   * @return The bytes received since the client was created
+   */
+  public long getBytesReceived() {
+    return bytesReceived.get();
+  }
+
   /** Cleanup resources when the app is shutting down */
   public void cleanup() {
     Log.d(TAG, "Cleaning up FirebaseServerClient resources");
     ongoingRequests.clear();
+    requestBatcher.shutdown();
     executor.shutdownNow();
     NetworkOptimizationManager.clearAllCaches();
     NetworkUtils.cancelAllOperations();
   }
 
-  /** Generic HTTP request method using secure OkHttpClient with SSL pinning */
+  /**
+   * Generic HTTP request method using secure OkHttpClient with SSL pinning. The connect and read
+   * timeouts adapt to the endpoint's recent latency and the network quality, like the other
+   * requests, and the outcome is recorded in {@link RequestMetrics} so the timeouts can adapt.
+   */
   private String makeHttpRequest(String url, String method, String jsonBody) throws Exception {
     if (secureClient == null) {
       throw new Exception("HTTP client not initialized - call initialize() first");
@@ -1846,14 +1967,31 @@ public class FirebaseServerClient {
     }
 
     Request request = requestBuilder.build();
+    int timeout = AdaptiveTimeoutPolicy.timeoutFor(url, networkManager.getNetworkQuality());
+    // Derived clients share the connection pool and certificate pinning of the secure client
+    OkHttpClient client =
+        secureClient
+            .newBuilder()
+            .connectTimeout(timeout, TimeUnit.MILLISECONDS)
+            .readTimeout(timeout, TimeUnit.MILLISECONDS)
+            .build();
+    long startTime = System.currentTimeMillis();
+    CircuitBreaker breaker = acquireCircuit(url);
+    boolean healthy = false;
 
-    try (Response response = secureClient.newCall(request).execute()) {
+    try (Response response = client.newCall(request).execute()) {
       int responseCode = response.code();
+      healthy = isHealthyResponse(responseCode);
       Log.d(TAG, method + " response code: " + responseCode + " for URL: " + url);
 
       if (response.isSuccessful()) {
+        if (!method.equals("GET")) {
+          NetworkOptimizationManager.invalidate(url);
+        }
+        RequestMetrics.recordRequestTime(url, System.currentTimeMillis() - startTime);
         return response.body() != null ? response.body().string() : "";
       } else {
+        RequestMetrics.recordFailedRequest(url, System.currentTimeMillis() - startTime);
         String errorBody = response.body().string();
         Log.e(
             TAG,
@@ -1871,7 +2009,40 @@ public class FirebaseServerClient {
       }
     } catch (IOException e) {
       Log.e(TAG, "Network error during " + method + " request to " + url, e);
+      RequestMetrics.recordFailedRequest(url, System.currentTimeMillis() - startTime);
       throw new Exception("Network error: " + e.getMessage(), e);
+    } finally {
+      breaker.recordResult(healthy);
+    }
+  }
+
+  /** Endpoint families that get their own circuit breaker. */
+  private enum EndpointFamily {
+    GROUPS("groups"),
+    USERS("users"),
+    MESSAGES("messages");
+
+    final String breakerName;
+
+    EndpointFamily(String breakerName) {
+      this.breakerName = breakerName;
+    }
+
+    static EndpointFamily of(String pathOrUrl) {
+      if (pathOrUrl == null) {
+        return GROUPS;
+      }
+      String path = pathOrUrl;
+      int base = path.indexOf(AppConstants.Network.API_BASE_PATH);
+      if (base >= 0) {
+        path = path.substring(base + AppConstants.Network.API_BASE_PATH.length());
+      }
+      if (path.startsWith("GroupsMessages")) {
+        return MESSAGES;
+      } else if (path.startsWith("Users") || path.startsWith("UserGroups")) {
+        return USERS;
+      }
+      return GROUPS;
     }
   }
 
@@ -149,6 +149,16 @@ public class NetworkManager {
             if (hasInternet && wasOffline) {
               retryPendingRequests();
             }
+            if (hasInternet) {
+              // E.g. a network that becomes unmetered, which may let waiting work run
+              for (NetworkStateListener listener : listeners) {
+                try {
+                  listener.onNetworkCapabilitiesChanged();
+                } catch (Exception e) {
+                  Log.e(TAG, "Error notifying network listener of capabilities", e);
+                }
+              }
+            }
           }
         };
 
@@ -345,6 +355,9 @@ public class NetworkManager {
   public interface NetworkStateListener {
     void onNetworkAvailable();
     void onNetworkLost();
+
+    /** Called when a connected network's capabilities change, such as whether it is metered. */
+    default void onNetworkCapabilitiesChanged() {}
   }
   
   /**
@@ -375,6 +388,21 @@ public class NetworkManager {
     return networkType;
   }
   
+  /**
+   * Checks whether the active network is unmetered, e.g. WiFi or Ethernet without a data cap.
+   *
+   * @return true if traffic on the active network is not billed by volume
+   */
+  public boolean isNetworkUnmetered() {
+    if (!isNetworkAvailable() || connectivityManager == null) {
+      return false;
+    }
+    NetworkCapabilities capabilities =
+        connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork());
+    return capabilities != null
+        && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+  }
+
   /**
    * Updates network type information.
    */
@@ -6,6 +6,7 @@ import android.net.NetworkCapabilities;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
+import com.example.partymaker.utils.infrastructure.network.CircuitBreakerOpenException;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
@@ -134,7 +135,8 @@ public class NetworkUtils {
         Log.w(TAG, "Attempt " + currentAttempt + " failed: " + e.getMessage());
         lastException = e;
 
-        if (currentAttempt >= maxRetries) {
+        // An open circuit will not close during the backoff, so retrying only adds latency
+        if (currentAttempt >= maxRetries || e instanceof CircuitBreakerOpenException) {
           throw e;
         }
 
@@ -162,7 +164,9 @@ public class NetworkUtils {
    * @return The error type
    */
   public static ErrorType categorizeError(Exception e) {
-    if (e instanceof UnknownHostException) {
+    if (e instanceof CircuitBreakerOpenException) {
+      return ErrorType.CIRCUIT_OPEN;
+    } else if (e instanceof UnknownHostException) {
       return ErrorType.NO_NETWORK;
     } else if (e instanceof SocketTimeoutException) {
       return ErrorType.TIMEOUT;
@@ -196,6 +200,8 @@ public class NetworkUtils {
         return "Server error. Our team has been notified and is working on a fix.";
       case CLIENT_ERROR:
         return "Something went wrong with your request. Please try again.";
+      case CIRCUIT_OPEN:
+        return "The server is temporarily unavailable. Showing saved data where possible.";
       case UNKNOWN:
       default:
         return "An unexpected error occurred. Please try again later.";
@@ -253,6 +259,7 @@ public class NetworkUtils {
     NOT_FOUND_ERROR,
     NETWORK_ERROR,
     UNKNOWN_ERROR,
+    CIRCUIT_OPEN,
     UNKNOWN
   }
 
@@ -1,18 +1,27 @@
 package com.example.partymaker.data.api;
 
+import androidx.annotation.NonNull;
 import com.example.partymaker.data.model.ChatMessageGpt;
+import com.example.partymaker.utils.infrastructure.LatencyHistogram;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.BufferedSource;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
  * API client for interacting with OpenAI's GPT chat completion endpoint. Supports sending single
- * messages and message history.
+ * messages and message history, either waiting for the whole reply or streaming it token by token
+ * as server-sent events.
  */
 public class OpenAiApi {
 
@@ -29,6 +38,13 @@ public class OpenAiApi {
   private static final String FIELD_MESSAGES = "messages";
   private static final String FIELD_CHOICES = "choices";
   private static final String FIELD_MESSAGE = "message";
+  private static final String FIELD_STREAM = "stream";
+  private static final String FIELD_DELTA = "delta";
+  private static final String FIELD_FINISH_REASON = "finish_reason";
+
+  // Server-sent events
+  private static final String SSE_DATA_PREFIX = "data:";
+  private static final String SSE_DONE = "[DONE]";
 
   // Role Constants
   private static final String ROLE_USER = "user";
@@ -38,11 +54,24 @@ public class OpenAiApi {
   private static final String HEADER_CONTENT_TYPE = "Content-Type";
   private static final String BEARER_PREFIX = "Bearer ";
 
+  // Streamed tokens can be seconds apart while the model is thinking
+  private static final long READ_TIMEOUT_SECONDS = 60;
+
+  /**
+   * OkHttp client shared by every instance, so connections to the API stay pooled across chats
+   * instead of each screen opening its own.
+   */
+  private static final OkHttpClient client =
+      new OkHttpClient.Builder().readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS).build();
+
+  /** Time from sending a streamed request until its first token arrives, in milliseconds. */
+  private static final LatencyHistogram timeToFirstToken = new LatencyHistogram();
+
   /** The API key for authentication. */
   private final String apiKey;
 
-  /** OkHttp client for HTTP requests. */
-  private final OkHttpClient client = new OkHttpClient();
+  /** The chat completions endpoint. */
+  private final String apiUrl;
 
   /**
    * Constructs the API client with the given API key.
@@ -50,7 +79,61 @@ public class OpenAiApi {
    * @param apiKey the OpenAI API key
    */
   public OpenAiApi(String apiKey) {
+    this(apiKey, API_URL);
+  }
+
+  /**
+   * Constructs the API client against another endpoint, such as a local stub server in tests.
+   *
+   * @param apiKey the OpenAI API key
+   * @param apiUrl the chat completions URL
+   */
+  OpenAiApi(String apiKey, String apiUrl) {
     this.apiKey = apiKey;
+    this.apiUrl = apiUrl;
+  }
+
+  /** Receives a streamed reply. Methods are called on an OkHttp thread. */
+  public interface StreamCallback {
+    /**
+     * Called for each piece of the reply, in order.
+     *
+     * @param token the new text
+     */
+    void onToken(String token);
+
+    /**
+     * Called once the reply is complete.
+     *
+     * @param fullText the whole reply
+     */
+    void onComplete(String fullText);
+
+    /**
+     * Called if the request fails. No further methods are called afterwards.
+     *
+     * @param error the failure
+     */
+    void onError(Exception error);
+  }
+
+  /**
+   * Gets the time-to-first-token of streamed replies at the given percentile.
+   *
+   * @param percentile percentile between 0 and 100
+   * @return the time in milliseconds, or 0 if nothing was streamed yet
+   */
+  public static long getTimeToFirstTokenPercentile(double percentile) {
+    return timeToFirstToken.getPercentile(percentile);
+  }
+
+  /**
+   * Gets the number of streamed replies that produced a first token.
+   *
+   * @return the number of measured replies
+   */
+  public static long getTimeToFirstTokenCount() {
+    return timeToFirstToken.getCount();
   }
 
   /**
@@ -102,6 +185,42 @@ public class OpenAiApi {
     return sendMessagesToApi(messages);
   }
 
+  /**
+   * Streams the reply to a single user message.
+   *
+   * @param userMessage the user's message
+   * @param callback receives the reply as it arrives
+   * @return the running call, which can be cancelled
+   * @throws Exception if the request cannot be built
+   */
+  public Call streamMessage(String userMessage, StreamCallback callback) throws Exception {
+    if (userMessage == null || userMessage.trim().isEmpty()) {
+      throw new IllegalArgumentException("User message cannot be null or empty");
+    }
+
+    JSONArray messages = new JSONArray();
+    messages.put(createUserMessage(userMessage));
+    return streamMessagesFromApi(messages, callback);
+  }
+
+  /**
+   * Streams the reply to a chat history. The history is read before this method returns, so the
+   * caller may change it while the reply streams.
+   *
+   * @param history the list of chat messages
+   * @param callback receives the reply as it arrives
+   * @return the running call, which can be cancelled
+   * @throws Exception if the request cannot be built
+   */
+  public Call streamMessageWithHistory(List<ChatMessageGpt> history, StreamCallback callback)
+      throws Exception {
+    if (history == null || history.isEmpty()) {
+      throw new IllegalArgumentException("Message history cannot be null or empty");
+    }
+
+    return streamMessagesFromApi(convertHistoryToJsonArray(history), callback);
+  }
+
   /**
    * Converts chat message history to JSON array
    *
@@ -142,6 +261,104 @@ public class OpenAiApi {
     }
   }
 
+  /**
+   * Sends messages with streaming enabled and reads the reply as server-sent events.
+   *
+   * @param messages JSON array of messages
+   * @param callback receives the reply as it arrives
+   * @return the running call
+   * @throws Exception if JSON creation fails
+   */
+  private Call streamMessagesFromApi(JSONArray messages, StreamCallback callback)
+      throws Exception {
+    JSONObject body = createRequestBody(messages);
+    body.put(FIELD_STREAM, true);
+    Call call = client.newCall(buildApiRequest(body));
+    long startNanos = System.nanoTime();
+
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(@NonNull Call call, @NonNull IOException e) {
+            if (!call.isCanceled()) {
+              callback.onError(e);
+            }
+          }
+
+          @Override
+          public void onResponse(@NonNull Call call, @NonNull Response response) {
+            try (Response streamed = response) {
+              if (!streamed.isSuccessful()) {
+                throw new Exception("API request failed with code: " + streamed.code());
+              }
+              String fullText = readEventStream(streamed.body().source(), callback, startNanos);
+              callback.onComplete(fullText);
+            } catch (Exception e) {
+              if (!call.isCanceled()) {
+                callback.onError(e);
+              }
+            }
+          }
+        });
+    return call;
+  }
+
+  /**
+   * Reads {@code data:} events until {@code [DONE]} or the end of the stream, passing each content
+   * delta to the callback.
+   *
+   * @return the concatenated reply
+   * @throws IOException if the stream ends before {@code [DONE]} or a finish reason, so a reply cut
+   *     off by a dropped connection is not taken as complete
+   */
+  private static String readEventStream(
+      BufferedSource source, StreamCallback callback, long startNanos)
+      throws IOException, JSONException {
+    StringBuilder fullText = new StringBuilder();
+    boolean finished = false;
+    String line;
+    while ((line = source.readUtf8Line()) != null) {
+      if (!line.startsWith(SSE_DATA_PREFIX)) {
+        continue; // Blank separators, comments and other event fields
+      }
+      String data = line.substring(SSE_DATA_PREFIX.length()).trim();
+      if (SSE_DONE.equals(data)) {
+        finished = true;
+        break;
+      }
+      JSONObject choice = firstChoice(data);
+      if (choice == null) {
+        continue;
+      }
+      finished |= !choice.isNull(FIELD_FINISH_REASON);
+      String token = contentOf(choice);
+      if (token.isEmpty()) {
+        continue; // The first chunk only carries the role
+      }
+      if (fullText.length() == 0) {
+        timeToFirstToken.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      }
+      fullText.append(token);
+      callback.onToken(token);
+    }
+    if (!finished) {
+      throw new IOException("Stream ended before the reply was complete");
+    }
+    return fullText.toString();
+  }
+
+  /** Gets the first choice of a streamed chunk, or null if it has none. */
+  private static JSONObject firstChoice(String data) throws JSONException {
+    JSONArray choices = new JSONObject(data).optJSONArray(FIELD_CHOICES);
+    return choices != null && choices.length() > 0 ? choices.getJSONObject(0) : null;
+  }
+
+  /** Extracts the content delta of a streamed choice, or an empty string if it has none. */
+  private static String contentOf(JSONObject choice) {
+    JSONObject delta = choice.optJSONObject(FIELD_DELTA);
+    return delta != null && !delta.isNull(FIELD_CONTENT) ? delta.optString(FIELD_CONTENT) : "";
+  }
+
   /**
    * Creates request body for API call
    *
@@ -167,7 +384,7 @@ public class OpenAiApi {
         RequestBody.create(MediaType.parse(CONTENT_TYPE_CHARSET), body.toString());
 
     return new Request.Builder()
-        .url(API_URL)
+        .url(apiUrl)
         .addHeader(HEADER_AUTHORIZATION, BEARER_PREFIX + apiKey)
         .addHeader(HEADER_CONTENT_TYPE, CONTENT_TYPE)
         .post(requestBody)
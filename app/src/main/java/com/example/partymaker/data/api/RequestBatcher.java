@@ -0,0 +1,338 @@
+package com.example.partymaker.data.api;
+
+import android.util.Log;
+import com.example.partymaker.utils.infrastructure.NetworkOptimizationManager;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Merges requests that arrive within a few milliseconds of each other into one round trip.
+ *
+ * <p>Concurrent single-item reads of {@code Groups/{id}} and {@code Users/{id}} are sent as one
+ * {@code batch/get} call, and concurrent writes are sent as one atomic multi-path {@code
+ * batch/update}. A window that ends up holding a single request sends it unchanged, so a lone
+ * request only pays the window delay. Writes are always sent in the order they were made.
+ */
+final class RequestBatcher {
+  private static final String TAG = "RequestBatcher";
+
+  /** How long to wait for more requests before sending a batch. */
+  static final long BATCH_WINDOW_MS = 8;
+
+  /** A batch is sent right away once it holds this many requests. */
+  static final int MAX_BATCH_SIZE = 50;
+
+  private static final String BATCH_GET_ENDPOINT = "batch/get";
+  private static final String BATCH_UPDATE_ENDPOINT = "batch/update";
+
+  private static final Pattern BATCHABLE_READ = Pattern.compile("^(Groups|Users)/[^/?]+$");
+
+  // Writes that map onto a server route with plain set, update or delete semantics
+  private static final Pattern UPDATABLE = Pattern.compile("^(Groups|Users)/[^/?]+$");
+  private static final Pattern SETTABLE =
+      Pattern.compile("^(Users|GroupsMessages|UserGroups)/[^/?]+$");
+
+  /** Sends one request and returns the response body, throwing on failure. */
+  interface Transport {
+    String execute(String endpoint, String method, String jsonBody);
+  }
+
+  /** A write waiting for its batch. */
+  private static final class PendingWrite {
+    final String endpoint;
+    final String method;
+    final String jsonBody;
+    final Map<String, Object> updates; // null when the write cannot be merged
+    final CompletableFuture<String> future = new CompletableFuture<>();
+
+    PendingWrite(String endpoint, String method, String jsonBody, Map<String, Object> updates) {
+      this.endpoint = endpoint;
+      this.method = method;
+      this.jsonBody = jsonBody;
+      this.updates = updates;
+    }
+  }
+
+  private final Transport transport;
+  private final Executor executor;
+  private final Gson gson = new Gson();
+  // Deletes are sent as null values, which the default Gson would drop
+  private final Gson multiPathGson = new GsonBuilder().serializeNulls().create();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final Object lock = new Object();
+  private Map<String, CompletableFuture<String>> pendingReads = new LinkedHashMap<>();
+  private List<PendingWrite> pendingWrites = new ArrayList<>();
+  private CompletableFuture<Void> writeChain = CompletableFuture.completedFuture(null);
+
+  RequestBatcher(Transport transport, Executor executor) {
+    this.transport = transport;
+    this.executor = executor;
+  }
+
+  /** Whether a GET of this endpoint can be merged with other reads. */
+  static boolean isBatchableRead(String endpoint) {
+    return BATCHABLE_READ.matcher(endpoint).matches();
+  }
+
+  /**
+   * Queues a read of a single group or user.
+   *
+   * @param endpoint API path such as {@code Groups/abc}
+   * @return Future completed with the JSON of the item, or failed if it does not exist
+   */
+  CompletableFuture<String> read(String endpoint) {
+    synchronized (lock) {
+      CompletableFuture<String> existing = pendingReads.get(endpoint);
+      if (existing != null) {
+        return existing;
+      }
+      CompletableFuture<String> future = new CompletableFuture<>();
+      pendingReads.put(endpoint, future);
+      if (pendingReads.size() >= MAX_BATCH_SIZE) {
+        flushReadsLocked();
+      } else if (pendingReads.size() == 1) {
+        scheduler.schedule(this::flushReads, BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+      }
+      return future;
+    }
+  }
+
+  /**
+   * Queues a write. Writes that overlap a queued path, or that cannot be expressed as a multi-path
+   * update, close the current batch so the order of writes is kept.
+   *
+   * @return Future completed with the response body once the write is stored
+   */
+  CompletableFuture<String> write(String endpoint, String method, String jsonBody) {
+    PendingWrite write =
+        new PendingWrite(endpoint, method, jsonBody, toMultiPathUpdates(endpoint, method, jsonBody));
+    synchronized (lock) {
+      if (write.updates == null || overlapsPending(write.updates)) {
+        flushWritesLocked();
+      }
+      pendingWrites.add(write);
+      if (write.updates == null || pendingWrites.size() >= MAX_BATCH_SIZE) {
+        flushWritesLocked();
+      } else if (pendingWrites.size() == 1) {
+        scheduler.schedule(this::flushWrites, BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+      }
+    }
+    return write.future;
+  }
+
+  /** Fails every queued request and stops the window timer. */
+  void shutdown() {
+    List<CompletableFuture<String>> abandoned = new ArrayList<>();
+    synchronized (lock) {
+      abandoned.addAll(pendingReads.values());
+      for (PendingWrite write : pendingWrites) {
+        abandoned.add(write.future);
+      }
+      pendingReads = new LinkedHashMap<>();
+      pendingWrites = new ArrayList<>();
+    }
+    scheduler.shutdownNow();
+    IllegalStateException error = new IllegalStateException("Request batcher shut down");
+    for (CompletableFuture<String> future : abandoned) {
+      future.completeExceptionally(error);
+    }
+  }
+
+  private void flushReads() {
+    synchronized (lock) {
+      flushReadsLocked();
+    }
+  }
+
+  private void flushReadsLocked() {
+    if (pendingReads.isEmpty()) {
+      return;
+    }
+    Map<String, CompletableFuture<String>> batch = pendingReads;
+    pendingReads = new LinkedHashMap<>();
+    executor.execute(() -> sendReads(batch));
+  }
+
+  private void flushWrites() {
+    synchronized (lock) {
+      flushWritesLocked();
+    }
+  }
+
+  private void flushWritesLocked() {
+    if (pendingWrites.isEmpty()) {
+      return;
+    }
+    List<PendingWrite> batch = pendingWrites;
+    pendingWrites = new ArrayList<>();
+    writeChain =
+        writeChain
+            .thenRunAsync(() -> sendWrites(batch), executor)
+            .exceptionally(
+                throwable -> {
+                  Log.e(TAG, "Write batch failed", throwable);
+                  return null;
+                });
+  }
+
+  private void sendReads(Map<String, CompletableFuture<String>> batch) {
+    if (batch.size() == 1) {
+      Map.Entry<String, CompletableFuture<String>> only = batch.entrySet().iterator().next();
+      complete(only.getValue(), () -> transport.execute(only.getKey(), "GET", null));
+      return;
+    }
+
+    Map<String, String> endpointsByPath = new LinkedHashMap<>();
+    for (String endpoint : batch.keySet()) {
+      endpointsByPath.put(decodePath(endpoint), endpoint);
+    }
+    Log.d(TAG, "Sending " + batch.size() + " reads in one batch");
+
+    try {
+      Map<String, Object> body = new HashMap<>();
+      body.put("paths", new ArrayList<>(endpointsByPath.keySet()));
+      String response = transport.execute(BATCH_GET_ENDPOINT, "POST", gson.toJson(body));
+      JsonObject values = gson.fromJson(response, JsonObject.class);
+
+      for (Map.Entry<String, String> entry : endpointsByPath.entrySet()) {
+        CompletableFuture<String> future = batch.get(entry.getValue());
+        JsonElement value = values != null ? values.get(entry.getKey()) : null;
+        if (value == null || value.isJsonNull()) {
+          // Same failure a single GET of a missing item produces
+          future.completeExceptionally(
+              new RuntimeException(
+                  "Network request failed: " + entry.getValue(),
+                  new IOException("HTTP 404: Not Found")));
+        } else {
+          future.complete(value.toString());
+        }
+      }
+    } catch (RuntimeException e) {
+      for (CompletableFuture<String> future : batch.values()) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private void sendWrites(List<PendingWrite> batch) {
+    if (batch.size() == 1) {
+      PendingWrite only = batch.get(0);
+      complete(only.future, () -> transport.execute(only.endpoint, only.method, only.jsonBody));
+      return;
+    }
+
+    Map<String, Object> merged = new LinkedHashMap<>();
+    for (PendingWrite write : batch) {
+      merged.putAll(write.updates);
+    }
+    Log.d(TAG, "Sending " + batch.size() + " writes as one multi-path update");
+
+    try {
+      String response =
+          transport.execute(BATCH_UPDATE_ENDPOINT, "POST", multiPathGson.toJson(merged));
+      for (PendingWrite write : batch) {
+        NetworkOptimizationManager.invalidate(write.endpoint);
+        write.future.complete(response);
+      }
+    } catch (RuntimeException e) {
+      for (PendingWrite write : batch) {
+        write.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private interface Call {
+    String run();
+  }
+
+  private static void complete(CompletableFuture<String> future, Call call) {
+    try {
+      future.complete(call.run());
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  private boolean overlapsPending(Map<String, Object> updates) {
+    for (PendingWrite pending : pendingWrites) {
+      for (String queued : pending.updates.keySet()) {
+        for (String path : updates.keySet()) {
+          if (overlaps(queued, path)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Firebase rejects a multi-path update in which one path contains another. */
+  private static boolean overlaps(String a, String b) {
+    return a.equals(b) || a.startsWith(b + "/") || b.startsWith(a + "/");
+  }
+
+  /**
+   * Expresses a write as multi-path update entries with the same effect as the server route it
+   * targets. Values are kept as parsed JSON so numbers are sent back exactly as written.
+   *
+   * @return The entries, or null if the write has to be sent on its own
+   */
+  private Map<String, Object> toMultiPathUpdates(String endpoint, String method, String jsonBody) {
+    Map<String, Object> updates = new LinkedHashMap<>();
+    String path = decodePath(endpoint);
+    try {
+      if ("PUT".equals(method) && UPDATABLE.matcher(endpoint).matches()) {
+        JsonObject fields = gson.fromJson(jsonBody, JsonObject.class);
+        if (fields == null || fields.size() == 0) {
+          return null;
+        }
+        for (Map.Entry<String, JsonElement> field : fields.entrySet()) {
+          updates.put(path + "/" + field.getKey(), field.getValue());
+        }
+        return updates;
+      } else if ("DELETE".equals(method) && UPDATABLE.matcher(endpoint).matches()) {
+        updates.put(path, null);
+        return updates;
+      } else if ("POST".equals(method) && SETTABLE.matcher(endpoint).matches()) {
+        updates.put(path, gson.fromJson(jsonBody != null ? jsonBody : "{}", JsonElement.class));
+        return updates;
+      }
+    } catch (JsonSyntaxException | ClassCastException e) {
+      Log.w(TAG, "Write to " + endpoint + " has no JSON object body, sending it alone");
+    }
+    return null;
+  }
+
+  /** Turns an encoded endpoint such as {@code Users/a%40b} into a database path. */
+  private static String decodePath(String endpoint) {
+    try {
+      return URLDecoder.decode(endpoint.replace("+", "%2B"), "UTF-8");
+    } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+      return endpoint;
+    }
+  }
+}
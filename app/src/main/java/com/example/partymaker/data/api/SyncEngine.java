@@ -0,0 +1,237 @@
+package com.example.partymaker.data.api;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.PowerManager;
+import android.util.Log;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decides when network work may run, so nothing starts I/O that is bound to fail.
+ *
+ * <p>The engine listens to {@link NetworkManager} once for the whole app. Work is submitted with a
+ * priority:
+ *
+ * <ul>
+ *   <li>{@link Priority#USER} work, such as writes the user made, runs as soon as there is a
+ *       connection. Offline it is queued and sent in submission order on reconnect.
+ *   <li>{@link Priority#BACKGROUND} work, such as prefetching, only runs on an unmetered network
+ *       that is not poor, while battery saver is off. Until then it waits, and a newer task with
+ *       the same key replaces the waiting one. Waiting work is run when the device reconnects,
+ *       when a network becomes unmetered and when battery saver is turned off.
+ * </ul>
+ *
+ * <p>Queues are kept in memory only, so work that is still waiting when the process dies is lost.
+ */
+public class SyncEngine {
+  private static final String TAG = "SyncEngine";
+
+  /** Most user tasks kept while offline; later ones are rejected. */
+  private static final int MAX_PENDING_USER_TASKS = 100;
+
+  /** How urgent a task is. */
+  public enum Priority {
+    USER,
+    BACKGROUND
+  }
+
+  private static SyncEngine instance;
+
+  private final NetworkManager networkManager = NetworkManager.getInstance();
+  private final Object lock = new Object();
+  private final ArrayDeque<Runnable> pendingUserTasks = new ArrayDeque<>();
+  private final Map<String, Runnable> pendingBackgroundTasks = new LinkedHashMap<>();
+
+  // User tasks only start their requests, so one thread keeps them in order without blocking
+  private final ExecutorService userTaskExecutor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private Context applicationContext;
+  private volatile boolean initialized = false;
+
+  private SyncEngine() {}
+
+  /**
+   * Gets the singleton instance of SyncEngine.
+   *
+   * @return The SyncEngine instance
+   */
+  public static synchronized SyncEngine getInstance() {
+    if (instance == null) {
+      instance = new SyncEngine();
+    }
+    return instance;
+  }
+
+  /**
+   * Initializes the engine. Must be called after {@link NetworkManager#initialize(Context)}.
+   *
+   * @param context The application context
+   */
+  public void initialize(Context context) {
+    if (context == null) {
+      Log.e(TAG, "Cannot initialize SyncEngine: context is null");
+      return;
+    }
+    if (initialized) {
+      return;
+    }
+    applicationContext = context.getApplicationContext();
+    networkManager.addNetworkStateListener(
+        new NetworkManager.NetworkStateListener() {
+          @Override
+          public void onNetworkAvailable() {
+            drain();
+          }
+
+          @Override
+          public void onNetworkLost() {
+            Log.d(TAG, "Network lost, holding new network work");
+          }
+
+          @Override
+          public void onNetworkCapabilitiesChanged() {
+            drain();
+          }
+        });
+    applicationContext.registerReceiver(
+        new BroadcastReceiver() {
+          @Override
+          public void onReceive(Context context, Intent intent) {
+            drain();
+          }
+        },
+        new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED),
+        Context.RECEIVER_NOT_EXPORTED);
+    initialized = true;
+    Log.d(TAG, "SyncEngine initialized, online: " + isOnline());
+  }
+
+  /**
+   * Whether there is a validated connection. Before initialization this returns true, so callers
+   * behave as if no engine were present.
+   *
+   * @return true if network work can run
+   */
+  public boolean isOnline() {
+    return !initialized || networkManager.isNetworkAvailable();
+  }
+
+  /**
+   * Whether background traffic may run: only on an unmetered network that is not poor, and only
+   * while battery saver is off. Metered networks never carry background traffic.
+   *
+   * @return true if background work can run now
+   */
+  public boolean isBackgroundTrafficAllowed() {
+    if (!isOnline() || !networkManager.isNetworkUnmetered() || isPowerSaveMode()) {
+      return false;
+    }
+    String quality = networkManager.getNetworkQuality();
+    return !"Poor".equals(quality) && !"None".equals(quality);
+  }
+
+  /**
+   * Runs a task now if its priority allows, otherwise queues it until the network allows.
+   *
+   * @param priority How urgent the task is
+   * @param key For background tasks, replaces a waiting task with the same key; may be null
+   * @param task The network work to run
+   * @return false if the task was rejected because the offline queue is full
+   */
+  public boolean submit(Priority priority, String key, Runnable task) {
+    synchronized (lock) {
+      if (priority == Priority.BACKGROUND) {
+        if (canRun(priority)) {
+          ThreadUtils.executeNetworkTask(task);
+        } else {
+          pendingBackgroundTasks.put(key != null ? key : String.valueOf(task.hashCode()), task);
+          Log.d(TAG, "Background task deferred: " + key);
+        }
+        return true;
+      }
+
+      if (canRun(priority) && pendingUserTasks.isEmpty()) {
+        userTaskExecutor.execute(() -> runSafely(task));
+        return true;
+      }
+      if (pendingUserTasks.size() >= MAX_PENDING_USER_TASKS) {
+        Log.w(TAG, "Offline queue full, rejecting task");
+        return false;
+      }
+      // Queued tasks have to go first, so this one joins the end of the queue
+      pendingUserTasks.addLast(task);
+      Log.d(TAG, "Queued task #" + pendingUserTasks.size());
+    }
+    drain();
+    return true;
+  }
+
+  /**
+   * Gets the number of tasks waiting for the network.
+   *
+   * @return The number of queued user and background tasks
+   */
+  public int getPendingCount() {
+    synchronized (lock) {
+      return pendingUserTasks.size() + pendingBackgroundTasks.size();
+    }
+  }
+
+  /** Runs every queued task the current network allows, user tasks first. */
+  public void drain() {
+    List<Runnable> backgroundTasks = new ArrayList<>();
+    synchronized (lock) {
+      // Handed to the executor under the lock, so a task submitted meanwhile cannot overtake them
+      if (!pendingUserTasks.isEmpty() && canRun(Priority.USER)) {
+        Log.d(TAG, "Sending " + pendingUserTasks.size() + " queued tasks");
+        for (Runnable task : pendingUserTasks) {
+          userTaskExecutor.execute(() -> runSafely(task));
+        }
+        pendingUserTasks.clear();
+      }
+      if (!pendingBackgroundTasks.isEmpty() && canRun(Priority.BACKGROUND)) {
+        backgroundTasks.addAll(pendingBackgroundTasks.values());
+        pendingBackgroundTasks.clear();
+      }
+    }
+    for (Runnable task : backgroundTasks) {
+      ThreadUtils.executeNetworkTask(task);
+    }
+  }
+
+  private static void runSafely(Runnable task) {
+    try {
+      task.run();
+    } catch (Exception e) {
+      Log.e(TAG, "Sync task failed", e);
+    }
+  }
+
+  private boolean canRun(Priority priority) {
+    return priority == Priority.USER ? isOnline() : isBackgroundTrafficAllowed();
+  }
+
+  private boolean isPowerSaveMode() {
+    if (applicationContext == null) {
+      return false;
+    }
+    PowerManager powerManager =
+        (PowerManager) applicationContext.getSystemService(Context.POWER_SERVICE);
+    return powerManager != null && powerManager.isPowerSaveMode();
+  }
+}
@@ -8,25 +8,44 @@ import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import com.example.partymaker.BuildConfig;
 import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.ChatMessageFts;
+import com.example.partymaker.data.model.DecryptedMessage;
 import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupChatSummary;
+import com.example.partymaker.data.model.GroupFts;
+import com.example.partymaker.data.model.GroupMember;
+import com.example.partymaker.data.model.GroupMessageKey;
 import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserFts;
 
 /**
  * Room database for local caching of data. This improves performance by reducing network calls and
  * allowing offline access.
  */
 @Database(
-    entities = {Group.class, User.class, ChatMessage.class},
-    version = 7,
-    exportSchema = false)
+    entities = {
+      Group.class,
+      User.class,
+      ChatMessage.class,
+      GroupMember.class,
+      GroupMessageKey.class,
+      GroupChatSummary.class,
+      DecryptedMessage.class,
+      GroupFts.class,
+      UserFts.class,
+      ChatMessageFts.class
+    },
+    version = 13,
+    exportSchema = true)
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
 
   private static final String TAG = "AppDatabase";
   private static final String DATABASE_NAME = "partymaker_database";
-  private static final int DATABASE_VERSION = 7;
-  private static final int CACHE_SIZE = 10000;
+  static final int DATABASE_VERSION = 13;
   private static volatile AppDatabase INSTANCE;
 
   /**
@@ -48,13 +67,71 @@ public abstract class AppDatabase extends RoomDatabase {
 
   /** Creates the database instance with comprehensive migration strategy */
   private static AppDatabase createDatabase(Context context) {
-    return Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, DATABASE_NAME)
+    RoomDatabase.Builder<AppDatabase> builder =
+        Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, DATABASE_NAME);
+
+    // Time every statement for the QueryProfiler report in debug builds
+    if (BuildConfig.DEBUG) {
+      builder.openHelperFactory(
+          new ProfilingOpenHelperFactory(new FrameworkSQLiteOpenHelperFactory()));
+    }
+
+    DatabaseTuning tuning = DatabaseTuning.forDevice(context);
+    Log.i(TAG, "Database tuning: " + tuning);
+
+    return configure(builder, tuning).build();
+  }
+
+  /**
+   * Applies everything the app's database opens with: the upgrade path, connection settings, the
+   * open callback that turns on foreign keys and recursive triggers, and WAL journaling.
+   *
+   * @param builder The database builder
+   * @param tuning The connection settings
+   * @return The builder
+   */
+  static RoomDatabase.Builder<AppDatabase> configure(
+      RoomDatabase.Builder<AppDatabase> builder, DatabaseTuning tuning) {
+    return withTuning(withMigrations(builder), tuning)
         .addCallback(databaseCallback)
-        .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
-        .fallbackToDestructiveMigration()
-        .fallbackToDestructiveMigrationOnDowngrade()
+        .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING);
+  }
+
+  /**
+   * Applies connection settings: Room's queries run on one thread per read connection, and each
+   * open applies the memory settings.
+   *
+   * @param builder The database builder
+   * @param tuning The connection settings
+   * @return The builder
+   */
+  static RoomDatabase.Builder<AppDatabase> withTuning(
+      RoomDatabase.Builder<AppDatabase> builder, DatabaseTuning tuning) {
+    return builder
+        .setQueryExecutor(tuning.createQueryExecutor())
+        .addCallback(
+            new RoomDatabase.Callback() {
+              @Override
+              public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                tuning.apply(db);
+              }
+            });
+  }
+
+  /**
+   * Adds the upgrade path of the database. Versions 7 and later migrate and keep the cached data;
+   * an upgrade that has no migration fails instead of clearing the cache. Versions 1 to 6 predate
+   * the exported schemas and are recreated, as are downgrades.
+   *
+   * @param builder The database builder
+   * @return The builder
+   */
+  static RoomDatabase.Builder<AppDatabase> withMigrations(
+      RoomDatabase.Builder<AppDatabase> builder) {
+    return builder
+        .addMigrations(DatabaseMigrations.getSchemaMigrations())
         .fallbackToDestructiveMigrationFrom(1, 2, 3, 4, 5, 6)
-        .build();
+        .fallbackToDestructiveMigrationOnDowngrade();
   }
 
   /** Database callback for monitoring and initialization */
@@ -64,7 +141,6 @@ public abstract class AppDatabase extends RoomDatabase {
         public void onCreate(@NonNull SupportSQLiteDatabase db) {
           super.onCreate(db);
           Log.i(TAG, "Database created for the first time");
-          createCustomIndexes(db);
           
           // Database monitoring is done through static methods
           // No initialization needed for DatabaseMonitor
@@ -76,6 +152,7 @@ public abstract class AppDatabase extends RoomDatabase {
           Log.d(TAG, "Database opened, version: " + db.getVersion());
 
           enableForeignKeys(db);
+          enableRecursiveTriggers(db);
           optimizeDatabasePerformance(db);
           
           // Log database opening
@@ -107,21 +184,18 @@ public abstract class AppDatabase extends RoomDatabase {
     Log.i(TAG, "Database and related files deleted");
   }
 
-  private static void createCustomIndexes(SupportSQLiteDatabase db) {
-    // Create composite indexes for complex queries
-    db.execSQL("CREATE INDEX IF NOT EXISTS idx_group_search ON groups(group_name COLLATE NOCASE, group_location COLLATE NOCASE)");
-    db.execSQL("CREATE INDEX IF NOT EXISTS idx_message_unread ON chat_messages(groupKey, encrypted, timestamp)");
-    db.execSQL("CREATE INDEX IF NOT EXISTS idx_user_search ON users(username COLLATE NOCASE, email COLLATE NOCASE)");
-    Log.d(TAG, "Custom indexes created");
-  }
-
   private static void enableForeignKeys(SupportSQLiteDatabase db) {
     db.execSQL("PRAGMA foreign_keys=ON");
   }
 
+  // REPLACE deletes the old row without firing delete triggers unless recursive triggers are on,
+  // which would leave stale rows in the FTS indexes
+  private static void enableRecursiveTriggers(SupportSQLiteDatabase db) {
+    db.execSQL("PRAGMA recursive_triggers=ON");
+  }
+
   private static void optimizeDatabasePerformance(SupportSQLiteDatabase db) {
     db.execSQL("PRAGMA synchronous=NORMAL");
-    db.execSQL("PRAGMA cache_size=" + CACHE_SIZE);
     db.execSQL("PRAGMA temp_store=MEMORY");
   }
 
@@ -141,4 +215,6 @@ public abstract class AppDatabase extends RoomDatabase {
   public abstract UserDao userDao();
 
   public abstract ChatMessageDao chatMessageDao();
+
+  public abstract GroupMemberDao groupMemberDao();
 }
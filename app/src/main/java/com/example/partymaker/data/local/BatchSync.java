@@ -0,0 +1,75 @@
+package com.example.partymaker.data.local;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Helpers for the DAO sync methods, which write a server result to a table in one transaction:
+ * upsert what the server returned, then delete cached rows the server no longer has.
+ */
+final class BatchSync {
+
+  /** Keys bound per DELETE statement, well under SQLite's host parameter limit. */
+  static final int MAX_KEYS_PER_STATEMENT = 500;
+
+  private BatchSync() {}
+
+  /**
+   * Finds cached keys that are missing from a server result.
+   *
+   * @param cachedKeys Keys of the cached rows the result replaces
+   * @param items The rows the server returned
+   * @param keyOf Gets the primary key of a row
+   * @return The keys to delete
+   */
+  static <T> List<String> findStaleKeys(
+      Collection<String> cachedKeys, List<T> items, Function<T, String> keyOf) {
+    Set<String> freshKeys = new HashSet<>();
+    for (T item : items) {
+      freshKeys.add(keyOf.apply(item));
+    }
+    List<String> staleKeys = new ArrayList<>();
+    for (String key : cachedKeys) {
+      if (!freshKeys.contains(key)) {
+        staleKeys.add(key);
+      }
+    }
+    return staleKeys;
+  }
+
+  /**
+   * Collects the distinct keys of some rows, such as the groups of a batch of messages.
+   *
+   * @param items The rows
+   * @param keyOf Gets the key of a row
+   * @return The non-null keys, in order of first appearance
+   */
+  static <T> List<String> distinctKeys(List<T> items, Function<T, String> keyOf) {
+    Set<String> keys = new LinkedHashSet<>();
+    for (T item : items) {
+      String key = keyOf.apply(item);
+      if (key != null) {
+        keys.add(key);
+      }
+    }
+    return new ArrayList<>(keys);
+  }
+
+  /**
+   * Runs a statement once per chunk of keys.
+   *
+   * @param keys The keys to bind
+   * @param statement The statement taking one chunk
+   */
+  static void forEachChunk(List<String> keys, Consumer<List<String>> statement) {
+    for (int start = 0; start < keys.size(); start += MAX_KEYS_PER_STATEMENT) {
+      statement.accept(keys.subList(start, Math.min(start + MAX_KEYS_PER_STATEMENT, keys.size())));
+    }
+  }
+}
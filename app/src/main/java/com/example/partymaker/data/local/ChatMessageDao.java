@@ -2,16 +2,27 @@ package com.example.partymaker.data.local;
 
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
-import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.DecryptedMessage;
+import com.example.partymaker.data.model.GroupChatSummary;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Data Access Object for ChatMessage entities. Provides methods to query, insert, and update chat
  * messages in the local database. Following Room DAO patterns with proper query optimization.
+ *
+ * <p>The group_chat_summary table is written here in the same transaction as the messages. The
+ * insert and sync methods, the read markers and the group deletes keep each {@link
+ * GroupChatSummary} current; after other writes, call {@link #refreshSummaries}.
+ *
+ * <p>The decrypted_messages table holds the sealed decrypted text of encrypted messages, by message
+ * key. The group deletes and {@link #deleteAllMessages} delete it with the messages, and {@link
+ * #trimDecryptedMessages} applies the message retention to it.
  */
 @Dao
 public interface ChatMessageDao {
@@ -28,6 +39,33 @@ public interface ChatMessageDao {
   String WHERE_GROUP_KEY = " WHERE " + COLUMN_GROUP_KEY + " = :groupKey";
   String ORDER_BY_TIMESTAMP = " ORDER BY " + COLUMN_TIMESTAMP + " ASC";
   String DELETE_FROM_TABLE = "DELETE FROM " + TABLE_NAME;
+  String TABLE_SUMMARY = "group_chat_summary";
+  String TABLE_DECRYPTED = "decrypted_messages";
+
+  // Rewrites the summaries of groups from their newest message, which is the row SQLite takes the
+  // bare columns from with MAX(). Unread messages are the ones from other users after
+  // last_read_ts; both steps read the (groupKey, timestamp) index
+  String REFRESH_SUMMARIES =
+      "INSERT OR REPLACE INTO " + TABLE_SUMMARY
+          + " (groupKey, last_message_ts, last_snippet, unread_count, last_read_ts)"
+          + " SELECT latest.groupKey, latest.last_message_ts, latest.last_snippet,"
+          + " (SELECT COUNT(*) FROM " + TABLE_NAME + " unread"
+          + " WHERE unread.groupKey = latest.groupKey"
+          + " AND unread.timestamp > ifnull(summary.last_read_ts, 0)"
+          + " AND unread.senderKey IS NOT :currentUserKey),"
+          + " ifnull(summary.last_read_ts, 0)"
+          + " FROM (SELECT groupKey, MAX(timestamp) AS last_message_ts,"
+          + " CASE WHEN encrypted = 0 THEN substr(message, 1, "
+          + GroupChatSummary.SNIPPET_LENGTH
+          + ") END AS last_snippet"
+          + " FROM " + TABLE_NAME + " WHERE groupKey IN (:groupKeys) GROUP BY groupKey) latest"
+          + " LEFT JOIN " + TABLE_SUMMARY + " summary ON summary.groupKey = latest.groupKey";
+
+  // Full-text search over chat_messages_fts; encrypted rows hold ciphertext, so they are skipped
+  String SEARCH_MESSAGES_FTS =
+      "SELECT chat_messages.* FROM chat_messages"
+          + " JOIN chat_messages_fts ON chat_messages.rowid = chat_messages_fts.docid"
+          + " WHERE chat_messages_fts MATCH :match AND chat_messages.encrypted = 0";
 
   /**
    * Gets a chat message by its key
@@ -47,6 +85,31 @@ public interface ChatMessageDao {
   @Query(SELECT_ALL_COLUMNS + WHERE_GROUP_KEY + ORDER_BY_TIMESTAMP)
   List<ChatMessage> getMessagesForGroup(String groupKey);
 
+  /**
+   * Searches the chat history through the full-text index, newest first. Build the match
+   * expression with {@link FtsQuery}.
+   *
+   * @param match Prefix match over the message text
+   * @param limit Maximum results to return
+   * @return The matching messages
+   */
+  @Query(SEARCH_MESSAGES_FTS + " ORDER BY chat_messages.timestamp DESC LIMIT :limit")
+  List<ChatMessage> searchMessagesFts(String match, int limit);
+
+  /**
+   * Searches the chat history of one group through the full-text index, newest first
+   *
+   * @param groupKey The group key
+   * @param match Prefix match over the message text
+   * @param limit Maximum results to return
+   * @return The matching messages
+   */
+  @Query(
+      SEARCH_MESSAGES_FTS
+          + " AND chat_messages.groupKey = :groupKey"
+          + " ORDER BY chat_messages.timestamp DESC LIMIT :limit")
+  List<ChatMessage> searchGroupMessagesFts(String groupKey, String match, int limit);
+
   /**
    * Gets all messages for a group as LiveData
    *
@@ -78,30 +141,157 @@ public interface ChatMessageDao {
   LiveData<List<ChatMessage>> getNewMessages(String groupKey, long lastTimestamp, int limit);
   
   /**
-   * Gets unread message count for a group
+   * Gets unread message count for a group, read from its summary
    *
    * @param groupKey The group key
-   * @param currentUserId The current user ID (to exclude own messages)
    * @return LiveData containing unread message count
    */
-  @Query("SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE groupKey = :groupKey AND encrypted = 0 AND senderKey != :currentUserId")
-  LiveData<Integer> getUnreadMessageCount(String groupKey, String currentUserId);
+  @Query(
+      "SELECT ifnull((SELECT unread_count FROM " + TABLE_SUMMARY + WHERE_GROUP_KEY + "), 0)")
+  LiveData<Integer> getUnreadMessageCount(String groupKey);
+
+  /**
+   * Gets the chat summary of a group
+   *
+   * @param groupKey The group key
+   * @return The summary, or null if the group has no cached messages
+   */
+  @Query("SELECT * FROM " + TABLE_SUMMARY + WHERE_GROUP_KEY)
+  GroupChatSummary getChatSummary(String groupKey);
+
+  /**
+   * Gets the chat summary of a group as LiveData
+   *
+   * @param groupKey The group key
+   * @return LiveData containing the summary, or null if the group has no cached messages
+   */
+  @Query("SELECT * FROM " + TABLE_SUMMARY + WHERE_GROUP_KEY)
+  LiveData<GroupChatSummary> observeChatSummary(String groupKey);
 
   /**
-   * Inserts a message
+   * Inserts a message and refreshes its group's summary
    *
    * @param message The message to insert
+   * @param currentUserKey The current user's key, whose own messages are never unread
    */
-  @Insert(onConflict = OnConflictStrategy.REPLACE)
-  void insertMessage(ChatMessage message);
+  @Transaction
+  default void insertMessage(ChatMessage message, String currentUserKey) {
+    insertMessages(Collections.singletonList(message), currentUserKey);
+  }
 
   /**
-   * Inserts multiple messages
+   * Inserts multiple messages and refreshes the summaries of their groups
    *
    * @param messages The messages to insert
+   * @param currentUserKey The current user's key, whose own messages are never unread
+   */
+  @Transaction
+  default void insertMessages(List<ChatMessage> messages, String currentUserKey) {
+    upsertMessages(messages);
+    refreshSummaries(BatchSync.distinctKeys(messages, ChatMessage::getGroupKey), currentUserKey);
+  }
+
+  /**
+   * Inserts messages, or updates them in place if they exist. Does not refresh the summaries; use
+   * {@link #insertMessages(List, String)} unless the caller refreshes them.
+   *
+   * @param messages The messages to upsert
+   */
+  @Upsert
+  void upsertMessages(List<ChatMessage> messages);
+
+  /**
+   * Gets the keys of a group's messages sent at or after a timestamp
+   *
+   * @param groupKey The group key
+   * @param sinceTimestamp The earliest timestamp to include
+   * @return List of message keys
+   */
+  @Query(
+      "SELECT " + COLUMN_MESSAGE_KEY + " FROM " + TABLE_NAME + WHERE_GROUP_KEY
+          + " AND timestamp >= :sinceTimestamp")
+  List<String> getMessageKeysForGroupSince(String groupKey, long sinceTimestamp);
+
+  /**
+   * Deletes messages by their keys
+   *
+   * @param messageKeys The message keys
+   * @return Number of deleted messages
+   */
+  @Query(DELETE_FROM_TABLE + " WHERE " + COLUMN_MESSAGE_KEY + " IN (:messageKeys)")
+  int deleteMessagesByKeys(List<String> messageKeys);
+
+  /**
+   * Writes a group's messages from the server in one transaction. Cached messages of the group
+   * from the same time range that the server no longer returns, such as deleted messages, are
+   * deleted. Older cached messages are kept. The group's summary is refreshed.
+   *
+   * @param groupKey The group key
+   * @param messages The messages the server returned, which must all belong to the group
+   * @param sinceTimestamp Start of the time range the server result covers
+   * @param currentUserKey The current user's key, whose own messages are never unread
+   * @return Number of deleted stale messages
+   */
+  @Transaction
+  default int syncGroupMessages(
+      String groupKey, List<ChatMessage> messages, long sinceTimestamp, String currentUserKey) {
+    upsertMessages(messages);
+    List<String> staleKeys =
+        BatchSync.findStaleKeys(
+            getMessageKeysForGroupSince(groupKey, sinceTimestamp),
+            messages,
+            ChatMessage::getMessageKey);
+    BatchSync.forEachChunk(staleKeys, this::deleteMessagesByKeys);
+    refreshSummaries(Collections.singletonList(groupKey), currentUserKey);
+    return staleKeys.size();
+  }
+
+  /**
+   * Rewrites the summaries of groups from their cached messages. Groups left without messages lose
+   * their summary.
+   *
+   * @param groupKeys The group keys
+   * @param currentUserKey The current user's key, whose own messages are never unread
+   */
+  @Transaction
+  default void refreshSummaries(List<String> groupKeys, String currentUserKey) {
+    BatchSync.forEachChunk(
+        groupKeys,
+        chunk -> {
+          writeSummaries(chunk, currentUserKey);
+          deleteEmptySummaries(chunk);
+        });
+  }
+
+  /**
+   * Writes the summaries of groups that have cached messages. Use {@link #refreshSummaries}.
+   *
+   * @param groupKeys The group keys
+   * @param currentUserKey The current user's key
+   */
+  @Query(REFRESH_SUMMARIES)
+  void writeSummaries(List<String> groupKeys, String currentUserKey);
+
+  /**
+   * Deletes the summaries of groups that have no cached messages
+   *
+   * @param groupKeys The group keys to check
+   */
+  @Query(
+      "DELETE FROM " + TABLE_SUMMARY + " WHERE groupKey IN (:groupKeys) AND NOT EXISTS"
+          + " (SELECT 1 FROM " + TABLE_NAME + " WHERE " + TABLE_NAME + ".groupKey = "
+          + TABLE_SUMMARY + ".groupKey)")
+  void deleteEmptySummaries(List<String> groupKeys);
+
+  /**
+   * Deletes the summaries of every group that has no cached messages
+   *
+   * @return Number of deleted summaries
    */
-  @Insert(onConflict = OnConflictStrategy.REPLACE)
-  void insertMessages(List<ChatMessage> messages);
+  @Query(
+      "DELETE FROM " + TABLE_SUMMARY + " WHERE groupKey NOT IN (SELECT groupKey FROM "
+          + TABLE_NAME + " WHERE groupKey IS NOT NULL)")
+  int deleteOrphanedSummaries();
 
   /**
    * Updates a message
@@ -112,14 +302,64 @@ public interface ChatMessageDao {
   void updateMessage(ChatMessage message);
   
   /**
-   * Mark all messages as read for a group (simplified - using encrypted field as read status)
+   * Marks all messages of a group as read, up to its newest cached message
    *
    * @param groupKey The group key
-   * @param currentUserId The current user ID
-   * @return Number of messages marked as read
+   * @return Number of messages that were unread
    */
-  @Query("UPDATE " + TABLE_NAME + " SET encrypted = 1 WHERE groupKey = :groupKey AND senderKey != :currentUserId")
-  int markAllMessagesAsRead(String groupKey, String currentUserId);
+  @Transaction
+  default int markAllMessagesAsRead(String groupKey) {
+    GroupChatSummary summary = getChatSummary(groupKey);
+    if (summary == null) {
+      return 0;
+    }
+    markSummaryRead(groupKey);
+    return summary.getUnreadCount();
+  }
+
+  /**
+   * Inserts the messages a chat shows and marks its group read up to the newest of them, in one
+   * transaction. Messages from other users that are newer, such as ones synced meanwhile, stay
+   * unread.
+   *
+   * @param groupKey The group key
+   * @param messages The messages the chat shows
+   * @param currentUserKey The current user's key, whose own messages are never unread
+   */
+  @Transaction
+  default void insertShownMessages(
+      String groupKey, List<ChatMessage> messages, String currentUserKey) {
+    insertMessages(messages, currentUserKey);
+    long newestShown = 0;
+    for (ChatMessage message : messages) {
+      if (groupKey.equals(message.getGroupKey())) {
+        newestShown = Math.max(newestShown, message.getTimestamp());
+      }
+    }
+    moveReadPosition(groupKey, newestShown);
+    refreshSummaries(Collections.singletonList(groupKey), currentUserKey);
+  }
+
+  /**
+   * Moves a group's read position forward to a time. Use {@link #insertShownMessages}.
+   *
+   * @param groupKey The group key
+   * @param timestamp The time of the newest message read
+   */
+  @Query(
+      "UPDATE " + TABLE_SUMMARY + " SET last_read_ts = max(last_read_ts, :timestamp)"
+          + WHERE_GROUP_KEY)
+  void moveReadPosition(String groupKey, long timestamp);
+
+  /**
+   * Moves a group's read position to its newest message. Use {@link #markAllMessagesAsRead}.
+   *
+   * @param groupKey The group key
+   */
+  @Query(
+      "UPDATE " + TABLE_SUMMARY + " SET unread_count = 0,"
+          + " last_read_ts = max(last_read_ts, last_message_ts)" + WHERE_GROUP_KEY)
+  void markSummaryRead(String groupKey);
 
   /**
    * Deletes a message by its key
@@ -130,16 +370,93 @@ public interface ChatMessageDao {
   void deleteMessageByKey(String messageKey);
 
   /**
-   * Deletes all messages for a group
+   * Deletes all messages for a group, and its summary
+   *
+   * @param groupKey The group key
+   */
+  @Transaction
+  default void deleteMessagesForGroup(String groupKey) {
+    deleteMessageRowsForGroup(groupKey);
+    deleteEmptySummaries(Collections.singletonList(groupKey));
+    deleteDecryptedMessagesForGroup(groupKey);
+  }
+
+  /**
+   * Deletes the message rows of a group. Use {@link #deleteMessagesForGroup}.
    *
    * @param groupKey The group key
    */
   @Query(DELETE_FROM_TABLE + WHERE_GROUP_KEY)
-  void deleteMessagesForGroup(String groupKey);
+  void deleteMessageRowsForGroup(String groupKey);
+
+  /** Deletes all messages, summaries and decrypted texts */
+  @Transaction
+  default void deleteAllMessages() {
+    deleteAllMessageRows();
+    deleteAllSummaries();
+    deleteAllDecryptedMessages();
+  }
 
-  /** Deletes all messages */
+  /** Deletes all message rows. Use {@link #deleteAllMessages}. */
   @Query(DELETE_FROM_TABLE)
-  void deleteAllMessages();
+  void deleteAllMessageRows();
+
+  /** Deletes all summaries. Use {@link #deleteAllMessages}. */
+  @Query("DELETE FROM " + TABLE_SUMMARY)
+  void deleteAllSummaries();
+
+  /**
+   * Gets the decrypted texts of messages
+   *
+   * @param messageKeys The message keys, at most {@link BatchSync#MAX_KEYS_PER_STATEMENT}
+   * @return The decrypted texts that are stored
+   */
+  @Query("SELECT * FROM " + TABLE_DECRYPTED + " WHERE messageKey IN (:messageKeys)")
+  List<DecryptedMessage> getDecryptedMessages(List<String> messageKeys);
+
+  /**
+   * Stores decrypted texts, replacing the stored text of the same messages
+   *
+   * @param decryptedMessages The decrypted texts
+   */
+  @Upsert
+  void upsertDecryptedMessages(List<DecryptedMessage> decryptedMessages);
+
+  /**
+   * Deletes the decrypted texts of a group. Use {@link #deleteMessagesForGroup}.
+   *
+   * @param groupKey The group key
+   */
+  @Query("DELETE FROM " + TABLE_DECRYPTED + WHERE_GROUP_KEY)
+  void deleteDecryptedMessagesForGroup(String groupKey);
+
+  /** Deletes all decrypted texts. Use {@link #deleteAllMessages}. */
+  @Query("DELETE FROM " + TABLE_DECRYPTED)
+  void deleteAllDecryptedMessages();
+
+  /**
+   * Deletes the decrypted texts of groups that are no longer stored, such as groups the user left
+   *
+   * @return Number of deleted texts
+   */
+  @Query(
+      "DELETE FROM " + TABLE_DECRYPTED
+          + " WHERE groupKey IS NULL OR groupKey NOT IN (SELECT groupKey FROM `groups`)")
+  int deleteOrphanedDecryptedMessages();
+
+  /**
+   * Keeps the decrypted texts of the newest messages of every group and deletes the rest
+   *
+   * @param keepPerGroup Number of texts to keep in each group
+   * @return Number of deleted texts
+   */
+  @Query(
+      "DELETE FROM " + TABLE_DECRYPTED
+          + " WHERE rowid IN (SELECT rowid FROM (SELECT rowid, ROW_NUMBER() OVER ("
+          + "PARTITION BY " + COLUMN_GROUP_KEY
+          + " ORDER BY " + COLUMN_TIMESTAMP + " DESC, " + COLUMN_MESSAGE_KEY + " DESC) AS position"
+          + " FROM " + TABLE_DECRYPTED + ") WHERE position > :keepPerGroup)")
+  int trimDecryptedMessages(int keepPerGroup);
   
   /**
    * Delete old messages based on timestamp
@@ -149,7 +466,32 @@ public interface ChatMessageDao {
    */
   @Query(DELETE_FROM_TABLE + " WHERE timestamp < :cutoffTime")
   int deleteOldMessages(long cutoffTime);
-  
+
+  /**
+   * Deletes the messages of groups that are no longer stored, such as groups the user left
+   *
+   * @return Number of deleted messages
+   */
+  @Query(
+      DELETE_FROM_TABLE
+          + " WHERE " + COLUMN_GROUP_KEY + " IS NULL"
+          + " OR " + COLUMN_GROUP_KEY + " NOT IN (SELECT groupKey FROM `groups`)")
+  int deleteOrphanedMessages();
+
+  /**
+   * Keeps the newest messages of every group and deletes the rest
+   *
+   * @param keepPerGroup Number of messages to keep in each group
+   * @return Number of deleted messages
+   */
+  @Query(
+      DELETE_FROM_TABLE
+          + " WHERE rowid IN (SELECT rowid FROM (SELECT rowid, ROW_NUMBER() OVER ("
+          + "PARTITION BY " + COLUMN_GROUP_KEY
+          + " ORDER BY " + COLUMN_TIMESTAMP + " DESC, " + COLUMN_MESSAGE_KEY + " DESC) AS position"
+          + " FROM " + TABLE_NAME + ") WHERE position > :keepPerGroup)")
+  int trimGroupMessages(int keepPerGroup);
+
   /**
    * Get latest message for a group
    *
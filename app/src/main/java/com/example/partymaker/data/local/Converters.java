@@ -2,8 +2,8 @@ package com.example.partymaker.data.local;
 
 import androidx.room.TypeConverter;
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +18,12 @@ public class Converters {
   // JSON serialization instance
   private static final Gson gson = new Gson();
 
+  // Adapters are looked up once instead of building a TypeToken on every row
+  private static final TypeAdapter<HashMap<String, Object>> OBJECT_MAP_ADAPTER =
+      gson.getAdapter(new TypeToken<HashMap<String, Object>>() {});
+  private static final TypeAdapter<HashMap<String, Boolean>> BOOLEAN_MAP_ADAPTER =
+      gson.getAdapter(new TypeToken<HashMap<String, Boolean>>() {});
+
   // Prevent instantiation
   private Converters() {
     // Utility class for Room type converters
@@ -46,7 +52,8 @@ public class Converters {
   }
 
   /**
-   * Converts a JSON string to a HashMap for Room database storage.
+   * Converts a JSON string to a HashMap for Room database storage. The JSON is parsed when the map
+   * is first used.
    *
    * @param value The JSON string representation
    * @return The HashMap object, or empty map if value is null
@@ -56,8 +63,7 @@ public class Converters {
     if (value == null) {
       return new HashMap<>();
     }
-    Type mapType = new TypeToken<HashMap<String, Object>>() {}.getType();
-    return gson.fromJson(value, mapType);
+    return new LazyJsonMap<>(value, OBJECT_MAP_ADAPTER);
   }
 
   /**
@@ -71,11 +77,16 @@ public class Converters {
     if (map == null) {
       return null;
     }
+    String unparsed = unparsedJson(map);
+    if (unparsed != null) {
+      return unparsed;
+    }
     return gson.toJson(map);
   }
 
   /**
-   * Converts a JSON string to a Boolean HashMap for Room database storage.
+   * Converts a JSON string to a Boolean HashMap for Room database storage. The JSON is parsed when
+   * the map is first used.
    *
    * @param value The JSON string representation
    * @return The Boolean HashMap object, or empty map if value is null
@@ -85,8 +96,7 @@ public class Converters {
     if (value == null) {
       return new HashMap<>();
     }
-    Type mapType = new TypeToken<HashMap<String, Boolean>>() {}.getType();
-    return gson.fromJson(value, mapType);
+    return new LazyJsonMap<>(value, BOOLEAN_MAP_ADAPTER);
   }
 
   /**
@@ -100,6 +110,15 @@ public class Converters {
     if (map == null) {
       return null;
     }
+    String unparsed = unparsedJson(map);
+    if (unparsed != null) {
+      return unparsed;
+    }
     return gson.toJson(map);
   }
+
+  /** Gets the JSON of a map read by these converters that was never used, or null. */
+  private static String unparsedJson(Map<String, ?> map) {
+    return map instanceof LazyJsonMap ? ((LazyJsonMap<?>) map).getUnparsedJson() : null;
+  }
 }
@@ -0,0 +1,216 @@
+package com.example.partymaker.data.local;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.os.PowerManager;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the local database from growing without limit.
+ *
+ * <p>A maintenance pass, in order:
+ *
+ * <ul>
+ *   <li>Deletes the messages of groups that are no longer stored, and their chat summaries
+ *   <li>Keeps the newest {@link #MESSAGES_PER_GROUP} messages of every group, and their decrypted
+ *       texts
+ *   <li>Returns the freed pages to the file system with an incremental vacuum
+ *   <li>Rebuilds the full-text indexes after a full vacuum, which may renumber rowids
+ *   <li>Checkpoints the WAL and truncates it
+ * </ul>
+ *
+ * <p>Passes run on the database executor while the app's UI is hidden and battery saver is off, at
+ * most once per {@link #MIN_MAINTENANCE_INTERVAL_MS}, also across app restarts. The result is
+ * reported through {@link DatabaseMonitor}.
+ */
+public class DatabaseMaintenance {
+  private static final String TAG = "DatabaseMaintenance";
+
+  // Scheduling
+  private static final long MAINTENANCE_DELAY_MS = 10000L; // Let the app settle in the background
+  private static final long MIN_MAINTENANCE_INTERVAL_MS = TimeUnit.HOURS.toMillis(24);
+
+  // Retention
+  static final int MESSAGES_PER_GROUP = 500;
+
+  // PRAGMA auto_vacuum value of INCREMENTAL
+  private static final long AUTO_VACUUM_INCREMENTAL = 2;
+
+  // External content FTS tables, indexed by the rowid of their content table
+  private static final String[] FTS_TABLES = {"groups_fts", "users_fts", "chat_messages_fts"};
+
+  private static final String PREFS_NAME = "database_maintenance_prefs";
+  private static final String KEY_LAST_MAINTENANCE = "last_maintenance";
+
+  private static DatabaseMaintenance instance;
+
+  private final AtomicBoolean passScheduled = new AtomicBoolean(false);
+
+  private AppDatabase database;
+  private SharedPreferences preferences;
+  private PowerManager powerManager;
+
+  private DatabaseMaintenance() {}
+
+  /**
+   * Gets the singleton instance of DatabaseMaintenance.
+   *
+   * @return The DatabaseMaintenance instance
+   */
+  public static synchronized DatabaseMaintenance getInstance() {
+    if (instance == null) {
+      instance = new DatabaseMaintenance();
+    }
+    return instance;
+  }
+
+  /**
+   * Initializes the maintenance job.
+   *
+   * @param context The application context
+   */
+  public void initialize(Context context) {
+    if (context == null) {
+      Log.e(TAG, "Cannot initialize DatabaseMaintenance: context is null");
+      return;
+    }
+    Context applicationContext = context.getApplicationContext();
+    database = AppDatabase.getInstance(applicationContext);
+    preferences = applicationContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    powerManager = (PowerManager) applicationContext.getSystemService(Context.POWER_SERVICE);
+    Log.d(TAG, "DatabaseMaintenance initialized");
+  }
+
+  /**
+   * Schedules a maintenance pass. Call it when the app becomes idle, such as when its UI is hidden.
+   * Does nothing if a pass is already scheduled, one ran recently, or battery saver is on.
+   */
+  public void requestMaintenance() {
+    if (database == null || !isMaintenanceDue() || isPowerSaveMode()) {
+      return;
+    }
+    if (!passScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    ThreadUtils.scheduleTask(
+        () ->
+            ThreadUtils.executeDatabaseTask(
+                () -> {
+                  try {
+                    runPass(database, MESSAGES_PER_GROUP);
+                    preferences
+                        .edit()
+                        .putLong(KEY_LAST_MAINTENANCE, System.currentTimeMillis())
+                        .apply();
+                  } catch (RuntimeException e) {
+                    // Retried on the next request
+                    Log.e(TAG, "Database maintenance failed", e);
+                  } finally {
+                    passScheduled.set(false);
+                  }
+                }),
+        MAINTENANCE_DELAY_MS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs a maintenance pass on the current thread and reports it through {@link DatabaseMonitor}.
+   *
+   * @param database The database
+   * @param messagesPerGroup Number of messages to keep in each group
+   * @return The bytes the database and WAL files shrank by
+   */
+  static long runPass(AppDatabase database, int messagesPerGroup) {
+    long startTime = System.currentTimeMillis();
+    SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+    String path = db.getPath();
+    long sizeBefore = fileSize(path);
+
+    ChatMessageDao chatMessageDao = database.chatMessageDao();
+    int orphanedMessages = chatMessageDao.deleteOrphanedMessages();
+    int trimmedMessages = chatMessageDao.trimGroupMessages(messagesPerGroup);
+    chatMessageDao.deleteOrphanedSummaries();
+    chatMessageDao.deleteOrphanedDecryptedMessages();
+    chatMessageDao.trimDecryptedMessages(messagesPerGroup);
+
+    compact(db);
+    checkpoint(db);
+
+    long reclaimedBytes = sizeBefore - fileSize(path);
+    DatabaseMonitor.logMaintenanceResult(
+        orphanedMessages, trimmedMessages, reclaimedBytes, System.currentTimeMillis() - startTime);
+    return reclaimedBytes;
+  }
+
+  /**
+   * Releases the free pages of the database file. Databases created before this job have
+   * auto_vacuum off; switching it to INCREMENTAL takes a full VACUUM, which runs once.
+   */
+  private static void compact(SupportSQLiteDatabase db) {
+    if (queryLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+      Log.i(TAG, "Enabling incremental auto_vacuum");
+      db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+      db.execSQL("VACUUM");
+      rebuildFtsIndexes(db);
+      return;
+    }
+    queryLong(db, "PRAGMA incremental_vacuum");
+  }
+
+  /**
+   * Rebuilds the full-text indexes from their content tables. A full VACUUM may renumber the
+   * rowids of tables without an INTEGER PRIMARY KEY, which would leave the FTS docids pointing at
+   * other rows. An incremental vacuum only moves pages and keeps the rowids.
+   */
+  private static void rebuildFtsIndexes(SupportSQLiteDatabase db) {
+    db.beginTransaction();
+    try {
+      for (String ftsTable : FTS_TABLES) {
+        db.execSQL("INSERT INTO `" + ftsTable + "`(`" + ftsTable + "`) VALUES('rebuild')");
+      }
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  /** Copies the WAL into the database file and truncates the WAL to zero bytes. */
+  private static void checkpoint(SupportSQLiteDatabase db) {
+    try (Cursor cursor = db.query("PRAGMA wal_checkpoint(TRUNCATE)")) {
+      if (cursor.moveToFirst() && cursor.getInt(0) != 0) {
+        Log.d(TAG, "WAL checkpoint was blocked by a reader, the WAL was not truncated");
+      }
+    }
+  }
+
+  /** Runs a PRAGMA to completion and returns the first column of its first row, or 0. */
+  private static long queryLong(SupportSQLiteDatabase db, String sql) {
+    try (Cursor cursor = db.query(sql)) {
+      // Filling the cursor window steps the statement to completion
+      return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+    }
+  }
+
+  private static long fileSize(String path) {
+    if (path == null) {
+      return 0;
+    }
+    return new File(path).length() + new File(path + "-wal").length();
+  }
+
+  private boolean isMaintenanceDue() {
+    long lastMaintenance = preferences.getLong(KEY_LAST_MAINTENANCE, 0);
+    return System.currentTimeMillis() - lastMaintenance >= MIN_MAINTENANCE_INTERVAL_MS;
+  }
+
+  private boolean isPowerSaveMode() {
+    return powerManager != null && powerManager.isPowerSaveMode();
+  }
+}
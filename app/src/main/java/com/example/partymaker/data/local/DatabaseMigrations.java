@@ -1,9 +1,15 @@
 package com.example.partymaker.data.local;
 
+import android.database.Cursor;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Database migration strategies for Room database. Handles schema changes while preserving user
@@ -21,6 +27,13 @@ public class DatabaseMigrations {
   private static final int VERSION_4 = 4;
   private static final int VERSION_5 = 5;
   private static final int VERSION_6 = 6;
+  private static final int VERSION_7 = 7;
+  private static final int VERSION_8 = 8;
+  private static final int VERSION_9 = 9;
+  private static final int VERSION_10 = 10;
+  private static final int VERSION_11 = 11;
+  private static final int VERSION_12 = 12;
+  private static final int VERSION_13 = 13;
 
   // Default values for new columns
   private static final String DEFAULT_INTEGER_FALSE = "0";
@@ -37,6 +50,38 @@ public class DatabaseMigrations {
   private static final String TABLE_USERS = "users";
   private static final String TABLE_CHAT_MESSAGES = "chat_messages";
   private static final String TABLE_USER_PREFERENCES = "user_preferences";
+  private static final String TABLE_GROUP_MEMBERS = "group_members";
+  private static final String TABLE_GROUP_MESSAGE_KEYS = "group_message_keys";
+  private static final String TABLE_GROUP_CHAT_SUMMARY = "group_chat_summary";
+
+  // Event date parts of the groups table, read from the stored strings. Months are stored as
+  // numbers or English names, hours as HH:mm; these match GroupDateTimeManager.toEpochMillis.
+  private static final String EVENT_YEAR = "CAST(ifnull(group_years, '') AS INTEGER)";
+  private static final String EVENT_MONTH =
+      "CASE WHEN CAST(group_months AS INTEGER) BETWEEN 1 AND 12 THEN CAST(group_months AS INTEGER)"
+          + " WHEN length(group_months) >= 3 THEN"
+          + " (instr('janfebmaraprmayjunjulaugsepoctnovdec', lower(substr(group_months, 1, 3)))"
+          + " + 2) / 3 ELSE 0 END";
+  private static final String EVENT_DAY = "CAST(ifnull(group_days, '') AS INTEGER)";
+  private static final String EVENT_HOUR =
+      "CASE WHEN instr(group_hours, ':') > 0"
+          + " THEN CAST(substr(group_hours, 1, instr(group_hours, ':') - 1) AS INTEGER) ELSE 0 END";
+  private static final String EVENT_MINUTE =
+      "CASE WHEN instr(group_hours, ':') > 0"
+          + " THEN CAST(substr(group_hours, instr(group_hours, ':') + 1) AS INTEGER) ELSE 0 END";
+  // Local date and time text; SQLite's 'utc' modifier converts it from the device time zone
+  private static final String EVENT_LOCAL_TIME =
+      "printf('%04d-%02d-%02d %02d:%02d', "
+          + EVENT_YEAR
+          + ", "
+          + EVENT_MONTH
+          + ", "
+          + EVENT_DAY
+          + ", "
+          + EVENT_HOUR
+          + ", "
+          + EVENT_MINUTE
+          + ")";
 
   // Prevent instantiation
   private DatabaseMigrations() {
@@ -160,6 +205,304 @@ public class DatabaseMigrations {
         }
       };
 
+  /**
+   * Migration from version 7 to 8: Adding numeric event and creation times to groups, so date
+   * filters and sorts become index range scans instead of parsing strings per row
+   */
+  public static final Migration MIGRATION_7_8 =
+      new Migration(VERSION_7, VERSION_8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+          try {
+            Log.d(TAG, "Starting migration from version 7 to 8 - Adding group timestamps");
+
+            addColumnToTable(database, TABLE_GROUPS, "event_epoch_millis", "INTEGER");
+            addColumnToTable(
+                database,
+                TABLE_GROUPS,
+                "created_at_millis",
+                "INTEGER NOT NULL DEFAULT " + DEFAULT_INTEGER_FALSE);
+
+            // Backfill event times. Adding 0 days turns February 31 into March 3, so invalid dates
+            // fail the comparison and stay NULL
+            database.execSQL(
+                "UPDATE groups SET event_epoch_millis = "
+                    + "CAST(strftime('%s', "
+                    + EVENT_LOCAL_TIME
+                    + ", 'utc') AS INTEGER) * 1000 "
+                    + "WHERE "
+                    + EVENT_YEAR
+                    + " > 0 AND ("
+                    + EVENT_MONTH
+                    + ") > 0 AND "
+                    + EVENT_DAY
+                    + " > 0 AND date("
+                    + EVENT_LOCAL_TIME
+                    + ", '+0 days') = substr("
+                    + EVENT_LOCAL_TIME
+                    + ", 1, 10)");
+
+            // Backfill creation times stored as millis or as local yyyy-MM-dd HH:mm[:ss]
+            database.execSQL(
+                "UPDATE groups SET created_at_millis = CASE "
+                    + "WHEN created_at GLOB '[0-9]*' AND created_at NOT GLOB '*[^0-9]*' "
+                    + "THEN CAST(created_at AS INTEGER) "
+                    + "ELSE ifnull(CAST(strftime('%s', created_at, 'utc') AS INTEGER) * 1000, 0) "
+                    + "END");
+
+            createIndexIfNotExists(
+                database, "idx_group_event_time", TABLE_GROUPS, "event_epoch_millis");
+
+            Log.d(TAG, "Successfully migrated from version 7 to 8 - Group timestamps added");
+
+          } catch (Exception e) {
+            Log.e(TAG, "Error during migration 7->8", e);
+            throw e; // Re-throw to trigger fallback
+          }
+        }
+      };
+
+  /**
+   * Migration from version 8 to 9: Adding the group_members and group_message_keys tables, filled
+   * from the JSON key maps of the cached groups
+   */
+  public static final Migration MIGRATION_8_9 =
+      new Migration(VERSION_8, VERSION_9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+          try {
+            Log.d(TAG, "Starting migration from version 8 to 9 - Adding membership tables");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS `group_members` ("
+                    + "`groupKey` TEXT NOT NULL, "
+                    + "`userKey` TEXT NOT NULL, "
+                    + "`role` INTEGER NOT NULL, "
+                    + "`coming` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`groupKey`, `userKey`), "
+                    + "FOREIGN KEY(`groupKey`) REFERENCES `groups`(`groupKey`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE)");
+            database.execSQL(
+                "CREATE INDEX IF NOT EXISTS `idx_member_user` "
+                    + "ON `group_members` (`userKey`, `groupKey`)");
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS `group_message_keys` ("
+                    + "`groupKey` TEXT NOT NULL, "
+                    + "`messageKey` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`groupKey`, `messageKey`), "
+                    + "FOREIGN KEY(`groupKey`) REFERENCES `groups`(`groupKey`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE)");
+
+            // The key maps are JSON, so the rows are built in Java rather than in SQL. The
+            // rules are frozen here as they were at version 9, so later changes to the models
+            // cannot change what this migration writes
+            int groupCount = 0;
+            try (Cursor cursor =
+                database.query(
+                    "SELECT groupKey, admin_key, friend_keys, coming_keys, message_keys "
+                        + "FROM groups")) {
+              while (cursor.moveToNext()) {
+                String groupKey = cursor.getString(0);
+                String adminKey = cursor.getString(1);
+                Set<String> friendKeys = jsonObjectKeys(cursor.getString(2));
+                Set<String> comingKeys = jsonObjectKeys(cursor.getString(3));
+
+                // Friends and coming users are members; the admin is added last, as admin
+                Set<String> memberKeys = new LinkedHashSet<>(friendKeys);
+                memberKeys.addAll(comingKeys);
+                for (String userKey : memberKeys) {
+                  insertMemberRow(
+                      database, groupKey, userKey, ROLE_MEMBER_V9, comingKeys.contains(userKey));
+                }
+                if (adminKey != null && !adminKey.isEmpty()) {
+                  insertMemberRow(
+                      database, groupKey, adminKey, ROLE_ADMIN_V9, comingKeys.contains(adminKey));
+                }
+                for (String messageKey : jsonObjectKeys(cursor.getString(4))) {
+                  database.execSQL(
+                      "INSERT OR REPLACE INTO " + TABLE_GROUP_MESSAGE_KEYS + " VALUES (?, ?)",
+                      new Object[] {groupKey, messageKey});
+                }
+                groupCount++;
+              }
+            }
+
+            Log.d(
+                TAG,
+                "Successfully migrated from version 8 to 9 - Memberships of "
+                    + groupCount
+                    + " groups added");
+
+          } catch (Exception e) {
+            Log.e(TAG, "Error during migration 8->9", e);
+            throw e; // Re-throw to trigger fallback
+          }
+        }
+      };
+
+  // Membership roles as stored at version 9
+  private static final int ROLE_MEMBER_V9 = 0;
+  private static final int ROLE_ADMIN_V9 = 1;
+
+  /** Writes one membership row for {@link #MIGRATION_8_9}. */
+  private static void insertMemberRow(
+      SupportSQLiteDatabase database, String groupKey, String userKey, int role, boolean coming) {
+    database.execSQL(
+        "INSERT OR REPLACE INTO " + TABLE_GROUP_MEMBERS + " VALUES (?, ?, ?, ?)",
+        new Object[] {groupKey, userKey, role, coming ? 1 : 0});
+  }
+
+  /**
+   * Gets the keys of a JSON object column, in order.
+   *
+   * @param json The stored JSON
+   * @return The keys, or an empty set if the column is null or not a JSON object
+   */
+  private static Set<String> jsonObjectKeys(String json) {
+    Set<String> keys = new LinkedHashSet<>();
+    if (json == null) {
+      return keys;
+    }
+    try {
+      JsonElement element = JsonParser.parseString(json);
+      if (element.isJsonObject()) {
+        keys.addAll(element.getAsJsonObject().keySet());
+      }
+    } catch (JsonParseException e) {
+      Log.w(TAG, "Skipping key map that is not valid JSON");
+    }
+    return keys;
+  }
+
+  /**
+   * Migration from version 9 to 10: Adding full-text indexes over groups, users and chat messages,
+   * built from the existing rows
+   */
+  public static final Migration MIGRATION_9_10 =
+      new Migration(VERSION_9, VERSION_10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+          try {
+            Log.d(TAG, "Starting migration from version 9 to 10 - Adding full-text search");
+
+            createContentFtsTable(
+                database,
+                "groups_fts",
+                TABLE_GROUPS,
+                "group_name",
+                "group_location",
+                "group_description");
+            createContentFtsTable(database, "users_fts", TABLE_USERS, "username", "full_name");
+            createContentFtsTable(database, "chat_messages_fts", TABLE_CHAT_MESSAGES, "message");
+
+            Log.d(TAG, "Successfully migrated from version 9 to 10 - Full-text search added");
+
+          } catch (Exception e) {
+            Log.e(TAG, "Error during migration 9->10", e);
+            throw e; // Re-throw to trigger fallback
+          }
+        }
+      };
+
+  /**
+   * Migration from version 10 to 11: Dropping the indexes that onCreate used to add outside the
+   * entities. Room validates a migrated schema against the entities, so the extra indexes failed
+   * every upgrade of a database that was created with them. Group search uses the full-text index
+   * now, and idx_message_group_encrypted serves the unread counts.
+   */
+  public static final Migration MIGRATION_10_11 =
+      new Migration(VERSION_10, VERSION_11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+          try {
+            Log.d(TAG, "Starting migration from version 10 to 11 - Dropping custom indexes");
+
+            database.execSQL("DROP INDEX IF EXISTS idx_group_search");
+            database.execSQL("DROP INDEX IF EXISTS idx_message_unread");
+
+            Log.d(TAG, "Successfully migrated from version 10 to 11 - Custom indexes dropped");
+
+          } catch (Exception e) {
+            Log.e(TAG, "Error during migration 10->11", e);
+            throw e;
+          }
+        }
+      };
+
+  /**
+   * Migration from version 11 to 12: Adding the group_chat_summary table, filled from the newest
+   * cached message of each group. The old read flag was never set, so cached messages start read.
+   */
+  public static final Migration MIGRATION_11_12 =
+      new Migration(VERSION_11, VERSION_12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+          try {
+            Log.d(TAG, "Starting migration from version 11 to 12 - Adding chat summaries");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS `group_chat_summary` ("
+                    + "`groupKey` TEXT NOT NULL, "
+                    + "`last_message_ts` INTEGER NOT NULL, "
+                    + "`last_snippet` TEXT, "
+                    + "`unread_count` INTEGER NOT NULL, "
+                    + "`last_read_ts` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`groupKey`))");
+
+            // SQLite takes the bare columns of a MAX() group from the row holding the maximum.
+            // Snippets were 100 characters in version 12; the length is kept here, so a later
+            // change to GroupChatSummary does not change what this step writes
+            database.execSQL(
+                "INSERT OR REPLACE INTO "
+                    + TABLE_GROUP_CHAT_SUMMARY
+                    + " SELECT groupKey, MAX(timestamp),"
+                    + " CASE WHEN encrypted = 0 THEN substr(message, 1, 100) END, 0, MAX(timestamp)"
+                    + " FROM "
+                    + TABLE_CHAT_MESSAGES
+                    + " WHERE groupKey IS NOT NULL GROUP BY groupKey");
+
+            Log.d(TAG, "Successfully migrated from version 11 to 12 - Chat summaries added");
+
+          } catch (Exception e) {
+            Log.e(TAG, "Error during migration 11->12", e);
+            throw e;
+          }
+        }
+      };
+
+  /**
+   * Migration from version 12 to 13: Adding the decrypted_messages table, which keeps the sealed
+   * decrypted text of encrypted chat messages. It starts empty; messages are decrypted once more
+   * when shown.
+   */
+  public static final Migration MIGRATION_12_13 =
+      new Migration(VERSION_12, VERSION_13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+          try {
+            Log.d(TAG, "Starting migration from version 12 to 13 - Adding decrypted messages");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS `decrypted_messages` ("
+                    + "`messageKey` TEXT NOT NULL, "
+                    + "`groupKey` TEXT, "
+                    + "`timestamp` INTEGER NOT NULL, "
+                    + "`source_digest` BLOB NOT NULL, "
+                    + "`sealed_text` BLOB NOT NULL, "
+                    + "PRIMARY KEY(`messageKey`))");
+            database.execSQL(
+                "CREATE INDEX IF NOT EXISTS `idx_decrypted_group_time` ON `decrypted_messages`"
+                    + " (`groupKey`, `timestamp`)");
+
+            Log.d(TAG, "Successfully migrated from version 12 to 13 - Decrypted messages added");
+
+          } catch (Exception e) {
+            Log.e(TAG, "Error during migration 12->13", e);
+            throw e;
+          }
+        }
+      };
+
   /** Migration from version 2 to 3 Example: Adding new tables and relationships */
   public static final Migration MIGRATION_2_3 =
       new Migration(VERSION_2, VERSION_3) {
@@ -380,10 +723,86 @@ public class DatabaseMigrations {
     database.execSQL(sql);
   }
 
+  /**
+   * Helper method to create an external content FTS4 table the way Room creates it for an {@code
+   * Fts4} entity, with the triggers that keep it in sync, and to index the existing rows
+   *
+   * @param database The database instance
+   * @param ftsTable The FTS table name
+   * @param contentTable The table the index reads its content from
+   * @param columns The indexed columns
+   */
+  private static void createContentFtsTable(
+      SupportSQLiteDatabase database, String ftsTable, String contentTable, String... columns) {
+    StringBuilder columnDefinitions = new StringBuilder();
+    StringBuilder columnNames = new StringBuilder();
+    StringBuilder newValues = new StringBuilder();
+    for (String column : columns) {
+      columnDefinitions.append('`').append(column).append("` TEXT, ");
+      columnNames.append(", `").append(column).append('`');
+      newValues.append(", NEW.`").append(column).append('`');
+    }
+    database.execSQL(
+        "CREATE VIRTUAL TABLE IF NOT EXISTS `"
+            + ftsTable
+            + "` USING FTS4("
+            + columnDefinitions
+            + "tokenize=unicode61, content=`"
+            + contentTable
+            + "`)");
+
+    String triggerPrefix = "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_" + ftsTable + "_";
+    String deleteOld = "DELETE FROM `" + ftsTable + "` WHERE `docid`=OLD.`rowid`; END";
+    String insertNew =
+        "INSERT INTO `"
+            + ftsTable
+            + "`(`docid`"
+            + columnNames
+            + ") VALUES (NEW.`rowid`"
+            + newValues
+            + "); END";
+    database.execSQL(
+        triggerPrefix + "BEFORE_UPDATE BEFORE UPDATE ON `" + contentTable + "` BEGIN " + deleteOld);
+    database.execSQL(
+        triggerPrefix + "BEFORE_DELETE BEFORE DELETE ON `" + contentTable + "` BEGIN " + deleteOld);
+    database.execSQL(
+        triggerPrefix + "AFTER_UPDATE AFTER UPDATE ON `" + contentTable + "` BEGIN " + insertNew);
+    database.execSQL(
+        triggerPrefix + "AFTER_INSERT AFTER INSERT ON `" + contentTable + "` BEGIN " + insertNew);
+
+    database.execSQL("INSERT INTO `" + ftsTable + "`(`" + ftsTable + "`) VALUES('rebuild')");
+  }
+
   /** Get all available migrations in order */
   public static Migration[] getAllMigrations() {
     return new Migration[] {
-      MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6
+      MIGRATION_1_2,
+      MIGRATION_2_3,
+      MIGRATION_3_4,
+      MIGRATION_4_5,
+      MIGRATION_5_6,
+      MIGRATION_7_8,
+      MIGRATION_8_9,
+      MIGRATION_9_10,
+      MIGRATION_10_11,
+      MIGRATION_11_12,
+      MIGRATION_12_13
+    };
+  }
+
+  /**
+   * Get the migrations the app database is opened with: every step from version 7, the first
+   * version whose schema is known, to the current version. The migrations before version 7 do not
+   * match the schemas those versions shipped with, so databases that old are recreated instead.
+   */
+  public static Migration[] getSchemaMigrations() {
+    return new Migration[] {
+      MIGRATION_7_8,
+      MIGRATION_8_9,
+      MIGRATION_9_10,
+      MIGRATION_10_11,
+      MIGRATION_11_12,
+      MIGRATION_12_13
     };
   }
 
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.util.Log;
 import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
 import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Database performance monitoring utility for tracking query performance,
@@ -11,9 +12,11 @@ import java.io.File;
  */
 public class DatabaseMonitor {
     private static final String TAG = "DatabaseMonitor";
-    private static final long SLOW_QUERY_THRESHOLD_MS = 500; // Queries over 500ms are considered slow
+    static final long SLOW_QUERY_THRESHOLD_MS = 500; // Queries over 500ms are considered slow
     private static final long DATABASE_SIZE_WARNING_MB = 50; // Warn when database exceeds 50MB
-    
+
+    private static final AtomicLong totalReclaimedBytes = new AtomicLong();
+
     /**
      * Logs query performance with timing information
      *
@@ -169,6 +172,55 @@ public class DatabaseMonitor {
         }
     }
     
+    /**
+     * Logs the {@link QueryProfiler} report and writes it to a file for export. The profiler only
+     * collects statements in debug builds.
+     *
+     * @param context The application context
+     */
+    public static void logQueryReport(Context context) {
+        if (context == null) {
+            Log.e(TAG, "Context is null, cannot write query report");
+            return;
+        }
+
+        ThreadUtils.runInBackground(() -> {
+            QueryProfiler profiler = QueryProfiler.getInstance();
+            profiler.logReport();
+            profiler.exportReport(context.getApplicationContext());
+        });
+    }
+
+    /**
+     * Logs the result of a {@link DatabaseMaintenance} pass
+     *
+     * @param orphanedMessages Messages deleted because their group is no longer stored
+     * @param trimmedMessages Messages deleted beyond the per-group retention limit
+     * @param reclaimedBytes Bytes the database and WAL files shrank by
+     * @param durationMs How long the pass took
+     */
+    public static void logMaintenanceResult(
+            int orphanedMessages, int trimmedMessages, long reclaimedBytes, long durationMs) {
+        long totalReclaimed = totalReclaimedBytes.addAndGet(Math.max(reclaimedBytes, 0));
+
+        Log.i(TAG, "=== DATABASE MAINTENANCE ===");
+        Log.i(TAG, "Orphaned messages deleted: " + orphanedMessages);
+        Log.i(TAG, "Messages over retention deleted: " + trimmedMessages);
+        Log.i(TAG, "Reclaimed: " + (reclaimedBytes / 1024) + " KB (" + reclaimedBytes + " bytes)");
+        Log.i(TAG, "Reclaimed this session: " + (totalReclaimed / 1024) + " KB");
+        Log.i(TAG, "Duration: " + durationMs + "ms");
+        Log.i(TAG, "=== END MAINTENANCE ===");
+    }
+
+    /**
+     * Gets the bytes reclaimed by maintenance passes since the app started
+     *
+     * @return The reclaimed bytes
+     */
+    public static long getTotalReclaimedBytes() {
+        return totalReclaimedBytes.get();
+    }
+
     /**
      * Logs memory usage information related to the database
      */
@@ -224,7 +276,7 @@ public class DatabaseMonitor {
         Log.i(TAG, "Database Name: partymaker_database");
         Log.i(TAG, "Journal Mode: WAL (Write-Ahead Logging)");
         Log.i(TAG, "Synchronous Mode: NORMAL");
-        Log.i(TAG, "Cache Size: 10000 pages (~40MB)");
+        Log.i(TAG, "Connections: " + DatabaseTuning.forDevice(context));
         Log.i(TAG, "Temp Store: MEMORY");
         Log.i(TAG, "Foreign Keys: ENABLED");
         
@@ -0,0 +1,241 @@
+package com.example.partymaker.data.local;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection settings of {@link AppDatabase}, sized for the device. Instances are immutable; use
+ * {@link #forDevice(Context)} for the app's settings or {@link Builder} to try others.
+ *
+ * <ul>
+ *   <li>Read connections: the WAL connection pool of the framework opens a reader per thread that
+ *       queries at the same time, so the threads of Room's query executor bound the readers in use
+ *   <li>Memory-mapped I/O, page cache and prepared statement cache of the database connection
+ * </ul>
+ *
+ * <p>The framework applies the prepared statement cache size to every connection in the pool. The
+ * PRAGMAs only reach the primary connection, which runs every write and transaction; the framework
+ * has no hook into the read connections it opens.
+ */
+public final class DatabaseTuning {
+  private static final String TAG = "DatabaseTuning";
+
+  // Devices with a small heap limit are treated as low-end, like low-RAM devices
+  private static final int LOW_END_MEMORY_CLASS_MB = 128;
+  private static final int READER_KEEP_ALIVE_SECONDS = 30;
+
+  /** Settings for most devices. */
+  public static final DatabaseTuning DEFAULT =
+      new Builder()
+          .readConnections(4)
+          .mmapSizeBytes(64L * 1024 * 1024)
+          .cacheSizePages(10000)
+          .statementCacheSize(100)
+          .build();
+
+  /** Settings for low-RAM devices: fewer readers and less memory per connection. */
+  public static final DatabaseTuning LOW_END =
+      new Builder()
+          .readConnections(2)
+          .mmapSizeBytes(16L * 1024 * 1024)
+          .cacheSizePages(2000)
+          .statementCacheSize(50)
+          .build();
+
+  private final int readConnections;
+  private final long mmapSizeBytes;
+  private final int cacheSizePages;
+  private final int statementCacheSize;
+
+  private DatabaseTuning(Builder builder) {
+    this.readConnections = builder.readConnections;
+    this.mmapSizeBytes = builder.mmapSizeBytes;
+    this.cacheSizePages = builder.cacheSizePages;
+    this.statementCacheSize = builder.statementCacheSize;
+  }
+
+  /**
+   * Gets the settings for this device: {@link #LOW_END} on low-RAM devices and devices with a heap
+   * limit of 128 MB or less, otherwise {@link #DEFAULT}.
+   *
+   * @param context The context
+   * @return The settings
+   */
+  public static DatabaseTuning forDevice(Context context) {
+    ActivityManager activityManager =
+        (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+    if (activityManager != null
+        && (activityManager.isLowRamDevice()
+            || activityManager.getMemoryClass() <= LOW_END_MEMORY_CLASS_MB)) {
+      return LOW_END;
+    }
+    return DEFAULT;
+  }
+
+  /**
+   * Gets the number of connections that read at the same time.
+   *
+   * @return The number of read connections
+   */
+  public int getReadConnections() {
+    return readConnections;
+  }
+
+  /**
+   * Gets the size of the memory map of the database file.
+   *
+   * @return The size in bytes, 0 to read through system calls only
+   */
+  public long getMmapSizeBytes() {
+    return mmapSizeBytes;
+  }
+
+  /**
+   * Gets the size of the page cache.
+   *
+   * @return The size in pages
+   */
+  public int getCacheSizePages() {
+    return cacheSizePages;
+  }
+
+  /**
+   * Gets the number of prepared statements each connection keeps for reuse.
+   *
+   * @return The statement cache size
+   */
+  public int getStatementCacheSize() {
+    return statementCacheSize;
+  }
+
+  /**
+   * Creates the executor Room runs queries on, with one thread per read connection. Idle threads
+   * exit, so an idle app holds no readers.
+   *
+   * @return The query executor
+   */
+  public Executor createQueryExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            readConnections,
+            readConnections,
+            READER_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactory() {
+              private final AtomicInteger count = new AtomicInteger(1);
+
+              @Override
+              public Thread newThread(@NonNull Runnable r) {
+                return new Thread(r, "PartyMaker-db-read-" + count.getAndIncrement());
+              }
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Applies the connection settings to an open database.
+   *
+   * @param db The database
+   */
+  void apply(SupportSQLiteDatabase db) {
+    db.setMaxSqlCacheSize(statementCacheSize);
+    db.execSQL("PRAGMA cache_size=" + cacheSizePages);
+    // SQLite caps the map at its compile-time limit and returns the size it applied
+    try (Cursor cursor = db.query("PRAGMA mmap_size=" + mmapSizeBytes)) {
+      long applied = cursor.moveToFirst() ? cursor.getLong(0) : 0;
+      Log.d(TAG, "mmap_size requested " + mmapSizeBytes + ", applied " + applied);
+    }
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "readers="
+        + readConnections
+        + " mmap="
+        + (mmapSizeBytes / (1024 * 1024))
+        + "MB cache="
+        + cacheSizePages
+        + " pages statements="
+        + statementCacheSize;
+  }
+
+  /** Builder for {@link DatabaseTuning}. */
+  public static final class Builder {
+    private int readConnections = 4;
+    private long mmapSizeBytes;
+    private int cacheSizePages = 2000;
+    private int statementCacheSize = 25;
+
+    /**
+     * Sets the number of connections that read at the same time.
+     *
+     * @param readConnections At least 1
+     * @return This builder
+     */
+    public Builder readConnections(int readConnections) {
+      if (readConnections < 1) {
+        throw new IllegalArgumentException("At least one read connection is needed");
+      }
+      this.readConnections = readConnections;
+      return this;
+    }
+
+    /**
+     * Sets the size of the memory map of the database file.
+     *
+     * @param mmapSizeBytes The size in bytes, or 0 to turn memory-mapped I/O off
+     * @return This builder
+     */
+    public Builder mmapSizeBytes(long mmapSizeBytes) {
+      this.mmapSizeBytes = Math.max(0, mmapSizeBytes);
+      return this;
+    }
+
+    /**
+     * Sets the size of the page cache.
+     *
+     * @param cacheSizePages The size in pages
+     * @return This builder
+     */
+    public Builder cacheSizePages(int cacheSizePages) {
+      this.cacheSizePages = cacheSizePages;
+      return this;
+    }
+
+    /**
+     * Sets the number of prepared statements each connection keeps for reuse.
+     *
+     * @param statementCacheSize Between 0 and 100, the framework's limit
+     * @return This builder
+     */
+    public Builder statementCacheSize(int statementCacheSize) {
+      if (statementCacheSize < 0 || statementCacheSize > 100) {
+        throw new IllegalArgumentException("Statement cache size must be between 0 and 100");
+      }
+      this.statementCacheSize = statementCacheSize;
+      return this;
+    }
+
+    /**
+     * Builds the settings.
+     *
+     * @return The settings
+     */
+    public DatabaseTuning build() {
+      return new DatabaseTuning(this);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.example.partymaker.data.local;
+
+import android.util.Log;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.DecryptedMessage;
+import com.example.partymaker.utils.security.encryption.GroupMessageEncryption;
+import com.example.partymaker.utils.security.encryption.LocalTextCipher;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decrypts chat messages once. The decrypted text of each encrypted message is stored in the
+ * decrypted_messages table by message key, so showing the chat again reads the text back instead
+ * of decrypting it. A stored text is used only while the message's encrypted text is the one it was
+ * decrypted from.
+ *
+ * <p>Texts are stored sealed with {@link LocalTextCipher}, whose key is protected by the Android
+ * Keystore, in the app's private database, which is excluded from backups. Methods read and write
+ * the database and must not run on the main thread.
+ */
+public final class DecryptedMessageCache {
+  private static final String TAG = "DecryptedMessageCache";
+
+  private final ChatMessageDao chatMessageDao;
+  private final GroupMessageEncryption encryption;
+  private final LocalTextCipher textCipher;
+
+  /**
+   * Creates a cache.
+   *
+   * @param chatMessageDao The DAO of the decrypted_messages table
+   * @param encryption Decrypts the messages that have no stored text
+   * @param textCipher Seals the stored texts
+   */
+  public DecryptedMessageCache(
+      ChatMessageDao chatMessageDao,
+      GroupMessageEncryption encryption,
+      LocalTextCipher textCipher) {
+    this.chatMessageDao = chatMessageDao;
+    this.encryption = encryption;
+    this.textCipher = textCipher;
+  }
+
+  /**
+   * Decrypts the encrypted messages of a list. Messages decrypted before are read from the
+   * database; the rest are decrypted and stored.
+   *
+   * @param messages The messages, as received from the server
+   * @return The messages in the same order, with a decrypted copy in place of each encrypted one
+   */
+  public List<ChatMessage> decryptMessages(List<ChatMessage> messages) {
+    Map<String, DecryptedMessage> stored = loadStored(messages);
+
+    List<ChatMessage> result = new ArrayList<>(messages.size());
+    List<DecryptedMessage> decrypted = new ArrayList<>();
+    int storedCount = 0;
+    for (ChatMessage message : messages) {
+      if (message == null || !message.isEncrypted()) {
+        result.add(message);
+        continue;
+      }
+
+      String messageKey = message.getMessageKey();
+      String encryptedText = message.getMessage();
+      byte[] sourceDigest = DecryptedMessage.digestOf(encryptedText);
+      DecryptedMessage row = messageKey != null ? stored.get(messageKey) : null;
+      // A text sealed under a data key that was since replaced does not open and is decrypted again
+      String storedText =
+          row != null && row.isDecryptedFrom(sourceDigest)
+              ? textCipher.open(row.getSealedText())
+              : null;
+      if (storedText != null) {
+        result.add(GroupMessageEncryption.decryptedCopy(message, storedText));
+        storedCount++;
+        continue;
+      }
+
+      ChatMessage copy = encryption.decryptChatMessage(message);
+      result.add(copy);
+      // Text that could not be decrypted comes back unchanged and is not stored
+      if (messageKey == null
+          || copy.getMessage() == null
+          || Objects.equals(copy.getMessage(), encryptedText)) {
+        continue;
+      }
+      byte[] sealedText = textCipher.seal(copy.getMessage());
+      if (sealedText != null) {
+        decrypted.add(
+            new DecryptedMessage(
+                messageKey,
+                message.getGroupKey(),
+                message.getTimestamp(),
+                sourceDigest,
+                sealedText));
+      }
+    }
+
+    if (!decrypted.isEmpty()) {
+      chatMessageDao.upsertDecryptedMessages(decrypted);
+    }
+    Log.d(TAG, "Read " + storedCount + " stored texts, decrypted " + decrypted.size());
+    return result;
+  }
+
+  /** Reads the stored texts of the encrypted messages of a list, by message key. */
+  private Map<String, DecryptedMessage> loadStored(List<ChatMessage> messages) {
+    List<String> messageKeys = new ArrayList<>();
+    for (ChatMessage message : messages) {
+      if (message != null && message.isEncrypted() && message.getMessageKey() != null) {
+        messageKeys.add(message.getMessageKey());
+      }
+    }
+
+    Map<String, DecryptedMessage> stored = new HashMap<>();
+    BatchSync.forEachChunk(
+        messageKeys,
+        chunk -> {
+          for (DecryptedMessage row : chatMessageDao.getDecryptedMessages(chunk)) {
+            stored.put(row.getMessageKey(), row);
+          }
+        });
+    return stored;
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.partymaker.data.local;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds MATCH expressions for the FTS4 tables from what the user typed. Every word becomes a
+ * quoted prefix term, so input such as {@code OR} or {@code "} is never read as query syntax.
+ */
+public final class FtsQuery {
+
+  private FtsQuery() {}
+
+  /**
+   * Builds a prefix search over all columns: every word must start a word in the row.
+   *
+   * @param text The search text
+   * @return The MATCH expression, or null if the text has no words
+   */
+  public static String prefixMatch(String text) {
+    return prefixMatch(null, text);
+  }
+
+  /**
+   * Builds a prefix search over one column.
+   *
+   * @param column The FTS column to search, or null for all columns
+   * @param text The search text
+   * @return The MATCH expression, or null if the text has no words
+   */
+  public static String prefixMatch(String column, String text) {
+    List<String> words = words(text);
+    if (words.isEmpty()) {
+      return null;
+    }
+    StringBuilder match = new StringBuilder();
+    for (String word : words) {
+      if (match.length() > 0) {
+        match.append(' ');
+      }
+      if (column != null) {
+        match.append(column).append(':');
+      }
+      match.append('"').append(word).append("*\"");
+    }
+    return match.toString();
+  }
+
+  /** Splits text into words on everything that is not a letter or digit. */
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    if (text == null) {
+      return words;
+    }
+    for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words;
+  }
+}
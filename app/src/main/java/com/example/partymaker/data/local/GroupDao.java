@@ -1,12 +1,24 @@
 package com.example.partymaker.data.local;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
+import androidx.sqlite.db.SupportSQLiteQuery;
 import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupChatSummary;
+import com.example.partymaker.data.model.GroupListItem;
+import com.example.partymaker.data.model.GroupMember;
+import com.example.partymaker.data.model.GroupMessageKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -25,6 +37,41 @@ public interface GroupDao {
   String WHERE_GROUP_KEY = " WHERE " + COLUMN_GROUP_KEY + " = :groupKey";
   String DELETE_FROM_TABLE = "DELETE FROM `" + TABLE_NAME + "`";
 
+  // The columns of a GroupListItem; member counts read the group_members primary key, chat status
+  // reads the group_chat_summary row of the group by its primary key
+  String SELECT_LIST_ITEM_COLUMNS =
+      "SELECT "
+          + COLUMN_GROUP_KEY
+          + ", group_name, group_location, group_days, group_months, group_years, group_hours,"
+          + " group_price, group_type,"
+          + " (SELECT COUNT(*) FROM group_members m WHERE m.groupKey = `groups`.groupKey)"
+          + " AS member_count,"
+          + " (SELECT COUNT(*) FROM group_members m WHERE m.groupKey = `groups`.groupKey"
+          + " AND m.coming = 1) AS coming_count,"
+          + " ifnull((SELECT last_message_ts FROM group_chat_summary s"
+          + " WHERE s.groupKey = `groups`.groupKey), 0) AS last_message_ts,"
+          + " (SELECT last_snippet FROM group_chat_summary s WHERE s.groupKey = `groups`.groupKey)"
+          + " AS last_snippet,"
+          + " ifnull((SELECT unread_count FROM group_chat_summary s"
+          + " WHERE s.groupKey = `groups`.groupKey), 0) AS unread_count FROM `"
+          + TABLE_NAME
+          + "`";
+
+  // Keys of the groups a user administers or belongs to, read from the group_members index
+  String USER_GROUP_KEYS = "SELECT groupKey FROM group_members WHERE userKey = :userKey";
+
+  // Undated groups go last; the rows are sorted after the type index finds them
+  String ORDER_BY_EVENT_DATE =
+      " ORDER BY event_epoch_millis IS NULL, event_epoch_millis, " + COLUMN_GROUP_KEY;
+
+  // Full-text search over groups_fts; groups whose name matches rank first
+  String SEARCH_GROUPS_FTS =
+      "SELECT `groups`.* FROM `groups` JOIN groups_fts ON `groups`.rowid = groups_fts.docid"
+          + " WHERE groups_fts MATCH :match"
+          + " ORDER BY `groups`.rowid IN"
+          + " (SELECT docid FROM groups_fts WHERE groups_fts MATCH :nameMatch) DESC,"
+          + " `groups`.group_name COLLATE NOCASE LIMIT :limit";
+
   /**
    * Gets a group by its key
    *
@@ -79,6 +126,73 @@ public interface GroupDao {
   @Query(SELECT_ALL_COLUMNS + " WHERE group_type = 0 ORDER BY created_at DESC LIMIT :limit OFFSET :offset")
   LiveData<List<Group>> getPublicGroupsPaginated(int limit, int offset);
   
+  /**
+   * Pages through list rows read by a raw query. The rows are reloaded when groups, memberships or
+   * chat summaries change.
+   *
+   * @param query A query selecting {@link #SELECT_LIST_ITEM_COLUMNS}
+   * @return PagingSource over the rows
+   */
+  @RawQuery(observedEntities = {Group.class, GroupMember.class, GroupChatSummary.class})
+  PagingSource<Integer, GroupListItem> pageListItems(SupportSQLiteQuery query);
+
+  /**
+   * Pages through the list rows of the groups a user administers or belongs to, filtered and sorted
+   * in SQL
+   *
+   * @param userKey The user key
+   * @param query The filters and sort order
+   * @return PagingSource over the matching groups
+   */
+  default PagingSource<Integer, GroupListItem> pageUserGroups(
+      String userKey, GroupListQuery query) {
+    return pageListItems(query.toUserGroupsSql(userKey));
+  }
+
+  /**
+   * Pages through the list rows of the public groups a user has not joined or created, nearest
+   * event first
+   *
+   * @param userKey The user key
+   * @return PagingSource over the public groups
+   */
+  @Query(
+      SELECT_LIST_ITEM_COLUMNS
+          + " WHERE group_type = 0 AND "
+          + COLUMN_GROUP_KEY
+          + " NOT IN ("
+          + USER_GROUP_KEYS
+          + ")"
+          + ORDER_BY_EVENT_DATE)
+  PagingSource<Integer, GroupListItem> pagePublicGroups(String userKey);
+
+  /**
+   * Gets the groups a user administers or belongs to
+   *
+   * @param userKey The user key
+   * @return List of the user's groups
+   */
+  @Query(SELECT_ALL_COLUMNS + " WHERE " + COLUMN_GROUP_KEY + " IN (" + USER_GROUP_KEYS + ")")
+  List<Group> getUserGroups(String userKey);
+
+  /**
+   * Gets the keys of the groups a user administers or belongs to
+   *
+   * @param userKey The user key
+   * @return List of group keys
+   */
+  @Query(USER_GROUP_KEYS)
+  List<String> getUserGroupKeys(String userKey);
+
+  /**
+   * Gets the keys of the groups of one type
+   *
+   * @param groupType The group type
+   * @return List of group keys
+   */
+  @Query("SELECT " + COLUMN_GROUP_KEY + " FROM " + TABLE_NAME + " WHERE group_type = :groupType")
+  List<String> getGroupKeysOfType(int groupType);
+
   /**
    * Count queries for pagination
    */
@@ -98,6 +212,29 @@ public interface GroupDao {
   @Query(SELECT_ALL_COLUMNS + " WHERE group_name LIKE '%' || :searchTerm || '%' OR group_location LIKE '%' || :searchTerm || '%' ORDER BY created_at DESC LIMIT :limit")
   LiveData<List<Group>> searchGroups(String searchTerm, int limit);
   
+  /**
+   * Searches groups by name, location and description through the full-text index. Build the
+   * match expressions with {@link FtsQuery}.
+   *
+   * @param match Prefix match over all columns
+   * @param nameMatch Prefix match over group_name, to rank name matches first
+   * @param limit Maximum results to return
+   * @return LiveData containing the ranked results
+   */
+  @Query(SEARCH_GROUPS_FTS)
+  LiveData<List<Group>> searchGroupsFts(String match, String nameMatch, int limit);
+
+  /**
+   * Searches groups through the full-text index, like {@link #searchGroupsFts}
+   *
+   * @param match Prefix match over all columns
+   * @param nameMatch Prefix match over group_name, to rank name matches first
+   * @param limit Maximum results to return
+   * @return The ranked results
+   */
+  @Query(SEARCH_GROUPS_FTS)
+  List<Group> findGroupsFts(String match, String nameMatch, int limit);
+
   /**
    * Recent groups for quick access
    *
@@ -107,36 +244,236 @@ public interface GroupDao {
   LiveData<List<Group>> getRecentGroups();
 
   /**
-   * Inserts a group
+   * Inserts a group, deriving its timestamp columns from its date strings
+   *
+   * @param group The group to insert
+   */
+  default void insertGroup(Group group) {
+    GroupTimestamps.derive(group);
+    insertGroupRow(group);
+  }
+
+  /**
+   * Inserts multiple groups, deriving their timestamp columns from their date strings
+   *
+   * @param groups The groups to insert
+   */
+  default void insertGroups(List<Group> groups) {
+    GroupTimestamps.deriveAll(groups);
+    insertGroupRows(groups);
+  }
+
+  /**
+   * Inserts groups, or updates them in place if they exist, deriving their timestamp columns from
+   * their date strings
+   *
+   * @param groups The groups to upsert
+   */
+  default void upsertGroups(List<Group> groups) {
+    GroupTimestamps.deriveAll(groups);
+    upsertGroupRows(groups);
+  }
+
+  /**
+   * Inserts a group as it is; use {@link #insertGroup(Group)}
    *
    * @param group The group to insert
    */
   @Insert(onConflict = OnConflictStrategy.REPLACE)
-  void insertGroup(Group group);
+  void insertGroupRow(Group group);
 
   /**
-   * Inserts multiple groups
+   * Inserts multiple groups as they are; use {@link #insertGroups(List)}
    *
    * @param groups The groups to insert
    */
   @Insert(onConflict = OnConflictStrategy.REPLACE)
-  void insertGroups(List<Group> groups);
+  void insertGroupRows(List<Group> groups);
+
+  /**
+   * Upserts groups as they are; use {@link #upsertGroups(List)}
+   *
+   * @param groups The groups to upsert
+   */
+  @Upsert
+  void upsertGroupRows(List<Group> groups);
+
+  /**
+   * Gets the keys of all cached groups
+   *
+   * @return List of group keys
+   */
+  @Query("SELECT " + COLUMN_GROUP_KEY + " FROM `" + TABLE_NAME + "`")
+  List<String> getAllGroupKeys();
 
   /**
-   * Updates a group
+   * Deletes groups by their keys
+   *
+   * @param groupKeys The group keys
+   * @return Number of deleted groups
+   */
+  @Query(DELETE_FROM_TABLE + " WHERE " + COLUMN_GROUP_KEY + " IN (:groupKeys)")
+  int deleteGroupsByKeys(List<String> groupKeys);
+
+  /**
+   * Replaces the cache with the full list of groups from the server in one transaction. Groups the
+   * server no longer returns are deleted.
+   *
+   * @param groups All groups on the server
+   * @return Number of deleted stale groups
+   */
+  @Transaction
+  default int replaceAllGroups(List<Group> groups) {
+    upsertGroups(groups);
+    writeMemberships(groups);
+    List<String> staleKeys = BatchSync.findStaleKeys(getAllGroupKeys(), groups, Group::getGroupKey);
+    BatchSync.forEachChunk(staleKeys, this::deleteGroupsByKeys);
+    return staleKeys.size();
+  }
+
+  /**
+   * Writes the groups of one type from the server in one transaction, such as the public groups.
+   * Cached groups of that type are found through the type index, so no group is loaded.
+   *
+   * @param groups The groups of that type on the server
+   * @param groupType The group type
+   * @return Number of deleted stale groups
+   */
+  @Transaction
+  default int syncGroupsOfType(List<Group> groups, int groupType) {
+    return syncGroups(groups, getGroupKeysOfType(groupType));
+  }
+
+  /**
+   * Writes the groups of one user from the server in one transaction. The user's cached groups
+   * are found through the membership index, so no other group is loaded.
+   *
+   * @param groups The user's groups on the server
+   * @param userKey The user key
+   * @return Number of deleted stale groups
+   */
+  @Transaction
+  default int syncUserGroups(List<Group> groups, String userKey) {
+    return syncGroups(groups, getUserGroupKeys(userKey));
+  }
+
+  /**
+   * Writes part of the groups from the server in one transaction. Cached groups with the given
+   * keys that the server no longer returns are deleted.
+   *
+   * @param groups The groups the server returned
+   * @param scopeKeys Keys of the cached groups the server result covers
+   * @return Number of deleted stale groups
+   */
+  @Transaction
+  default int syncGroups(List<Group> groups, Collection<String> scopeKeys) {
+    upsertGroups(groups);
+    writeMemberships(groups);
+    List<String> staleKeys = BatchSync.findStaleKeys(scopeKeys, groups, Group::getGroupKey);
+    BatchSync.forEachChunk(staleKeys, this::deleteGroupsByKeys);
+    return staleKeys.size();
+  }
+
+  /**
+   * Inserts or replaces a group together with its membership rows
+   *
+   * @param group The group to save
+   */
+  @Transaction
+  default void saveGroup(Group group) {
+    insertGroup(group);
+    writeMemberships(Collections.singletonList(group));
+  }
+
+  /**
+   * Rewrites the group_members and group_message_keys rows of groups from their key maps. Rows of
+   * deleted groups go with them through the foreign keys.
+   *
+   * @param groups The groups whose rows to rewrite
+   */
+  @Transaction
+  default void writeMemberships(List<Group> groups) {
+    List<String> groupKeys = new ArrayList<>(groups.size());
+    List<GroupMember> members = new ArrayList<>();
+    List<GroupMessageKey> messageKeys = new ArrayList<>();
+    for (Group group : groups) {
+      groupKeys.add(group.getGroupKey());
+      members.addAll(GroupMember.fromGroup(group));
+      messageKeys.addAll(GroupMessageKey.fromGroup(group));
+    }
+    BatchSync.forEachChunk(groupKeys, this::deleteMembersOfGroups);
+    BatchSync.forEachChunk(groupKeys, this::deleteMessageKeysOfGroups);
+    insertMembers(members);
+    insertMessageKeys(messageKeys);
+  }
+
+  /**
+   * Inserts membership rows
+   *
+   * @param members The rows to insert
+   */
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  void insertMembers(List<GroupMember> members);
+
+  /**
+   * Inserts message key rows
+   *
+   * @param messageKeys The rows to insert
+   */
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  void insertMessageKeys(List<GroupMessageKey> messageKeys);
+
+  /**
+   * Deletes the membership rows of groups
+   *
+   * @param groupKeys The group keys
+   */
+  @Query("DELETE FROM group_members WHERE groupKey IN (:groupKeys)")
+  void deleteMembersOfGroups(List<String> groupKeys);
+
+  /**
+   * Deletes the message key rows of groups
+   *
+   * @param groupKeys The group keys
+   */
+  @Query("DELETE FROM group_message_keys WHERE groupKey IN (:groupKeys)")
+  void deleteMessageKeysOfGroups(List<String> groupKeys);
+
+  /**
+   * Updates a group, deriving its timestamp columns from its date strings
    *
    * @param group The group to update
    */
-  @Update
-  void updateGroup(Group group);
+  default void updateGroup(Group group) {
+    GroupTimestamps.derive(group);
+    updateGroupRow(group);
+  }
   
   /**
-   * Updates multiple groups
+   * Updates multiple groups, deriving their timestamp columns from their date strings
+   *
+   * @param groups The groups to update
+   */
+  default void updateGroups(List<Group> groups) {
+    GroupTimestamps.deriveAll(groups);
+    updateGroupRows(groups);
+  }
+
+  /**
+   * Updates a group as it is; use {@link #updateGroup(Group)}
+   *
+   * @param group The group to update
+   */
+  @Update
+  void updateGroupRow(Group group);
+
+  /**
+   * Updates multiple groups as they are; use {@link #updateGroups(List)}
    *
    * @param groups The groups to update
    */
   @Update
-  void updateGroups(List<Group> groups);
+  void updateGroupRows(List<Group> groups);
 
   /**
    * Deletes a group by its key
@@ -153,10 +490,12 @@ public interface GroupDao {
   /**
    * Cleanup old groups based on creation time
    *
-   * @param cutoffTime The cutoff timestamp (older groups will be deleted)
+   * @param cutoffTime The cutoff time as epoch millis (older groups will be deleted; groups with an
+   *     unknown creation time are kept)
    * @return Number of deleted groups
    */
-  @Query(DELETE_FROM_TABLE + " WHERE CAST(created_at AS INTEGER) < :cutoffTime")
+  @Query(
+      DELETE_FROM_TABLE + " WHERE created_at_millis > 0 AND created_at_millis < :cutoffTime")
   int deleteOldGroups(long cutoffTime);
   
   /**
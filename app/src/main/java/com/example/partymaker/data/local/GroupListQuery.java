@@ -0,0 +1,237 @@
+package com.example.partymaker.data.local;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters and sort order of a group list, evaluated in SQL by {@link GroupDao#pageUserGroups}.
+ * Instances are immutable; use {@link Builder} to create them.
+ */
+public final class GroupListQuery {
+
+  /** Matches groups of every type. */
+  public static final int ANY_TYPE = -1;
+
+  // Sort orders
+  public static final int SORT_DATE_NEAREST = 0;
+  public static final int SORT_DATE_FARTHEST = 1;
+  public static final int SORT_NAME_AZ = 2;
+  public static final int SORT_NAME_ZA = 3;
+  public static final int SORT_PRICE_LOWEST = 4;
+  public static final int SORT_RECENTLY_ADDED = 5;
+
+  /** The default list: every group, nearest event first. */
+  public static final GroupListQuery DEFAULT = new Builder().build();
+
+  // Date sorts walk idx_group_event_time in order and check each group's membership by primary
+  // key, so a page stops after its rows; other sorts find the user's groups through the
+  // membership index and sort only those
+  private static final String IS_USER_GROUP =
+      " WHERE EXISTS (SELECT 1 FROM group_members m"
+          + " WHERE m.groupKey = `groups`.groupKey AND m.userKey = ?)";
+  private static final String IN_USER_GROUPS =
+      " WHERE groupKey IN (SELECT groupKey FROM group_members WHERE userKey = ?)";
+
+  // Price as a number; "free" and missing prices count as 0
+  private static final String PRICE_VALUE =
+      "CASE WHEN lower(group_price) = 'free' THEN 0"
+          + " ELSE CAST(ifnull(group_price, '0') AS REAL) END";
+
+  private final int groupType;
+  private final boolean freeOnly;
+  private final boolean upcomingOnly;
+  private final String nameQuery;
+  private final int sortOrder;
+
+  private GroupListQuery(Builder builder) {
+    this.groupType = builder.groupType;
+    this.freeOnly = builder.freeOnly;
+    this.upcomingOnly = builder.upcomingOnly;
+    this.nameQuery = builder.nameQuery;
+    this.sortOrder = builder.sortOrder;
+  }
+
+  /**
+   * Gets the group type to match.
+   *
+   * @return The group type, or {@link #ANY_TYPE}
+   */
+  public int getGroupType() {
+    return groupType;
+  }
+
+  /**
+   * Whether only free groups match.
+   *
+   * @return true if groups with a price are filtered out
+   */
+  public boolean isFreeOnly() {
+    return freeOnly;
+  }
+
+  /**
+   * Gets the earliest event start to match.
+   *
+   * @return The start of today as epoch millis if only upcoming groups match, otherwise 0
+   */
+  public long getFromEpochMillis() {
+    if (!upcomingOnly) {
+      return 0;
+    }
+    return LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Gets the text group names must contain, escaped for a LIKE pattern.
+   *
+   * @return The escaped text, or null to match every name
+   */
+  public String getNameQuery() {
+    return nameQuery;
+  }
+
+  /**
+   * Gets the sort order.
+   *
+   * @return One of the SORT_ constants
+   */
+  public int getSortOrder() {
+    return sortOrder;
+  }
+
+  /**
+   * Builds the SQL for a user's list rows. Only the active filters are written, and each sort order
+   * is its own ORDER BY, so SQLite plans every shape on its own. Ties are broken by row, which
+   * keeps pages stable.
+   *
+   * @param userKey The user key
+   * @return The query for {@link GroupDao#pageListItems}
+   */
+  SimpleSQLiteQuery toUserGroupsSql(String userKey) {
+    boolean dateSort = sortOrder == SORT_DATE_NEAREST || sortOrder == SORT_DATE_FARTHEST;
+    StringBuilder sql = new StringBuilder(GroupDao.SELECT_LIST_ITEM_COLUMNS);
+    List<Object> args = new ArrayList<>();
+    sql.append(dateSort ? IS_USER_GROUP : IN_USER_GROUPS);
+    args.add(userKey);
+    if (groupType != ANY_TYPE) {
+      sql.append(" AND group_type = ?");
+      args.add(groupType);
+    }
+    if (freeOnly) {
+      sql.append(" AND (group_price IS NULL OR group_price = '0' OR lower(group_price) = 'free')");
+    }
+    long fromMillis = getFromEpochMillis();
+    if (fromMillis > 0) {
+      sql.append(" AND event_epoch_millis >= ?");
+      args.add(fromMillis);
+    }
+    if (nameQuery != null) {
+      sql.append(" AND group_name LIKE '%' || ? || '%' ESCAPE '\\'");
+      args.add(nameQuery);
+    }
+    sql.append(orderBy());
+    return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+  }
+
+  /** Gets the ORDER BY of the sort order; undated groups go last in date sorts. */
+  private String orderBy() {
+    switch (sortOrder) {
+      case SORT_DATE_FARTHEST:
+        // NULL is the smallest value, so descending puts undated groups last
+        return " ORDER BY event_epoch_millis DESC, `groups`.rowid DESC";
+      case SORT_NAME_AZ:
+        return " ORDER BY group_name COLLATE NOCASE, `groups`.rowid";
+      case SORT_NAME_ZA:
+        return " ORDER BY group_name COLLATE NOCASE DESC, `groups`.rowid";
+      case SORT_PRICE_LOWEST:
+        return " ORDER BY " + PRICE_VALUE + ", `groups`.rowid";
+      case SORT_RECENTLY_ADDED:
+        return " ORDER BY created_at_millis DESC, `groups`.rowid";
+      case SORT_DATE_NEAREST:
+      default:
+        return " ORDER BY event_epoch_millis NULLS LAST, `groups`.rowid";
+    }
+  }
+
+  /** Builder for {@link GroupListQuery}. */
+  public static final class Builder {
+    private int groupType = ANY_TYPE;
+    private boolean freeOnly;
+    private boolean upcomingOnly;
+    private String nameQuery;
+    private int sortOrder = SORT_DATE_NEAREST;
+
+    /**
+     * Only matches groups of one type.
+     *
+     * @param groupType The group type, or {@link #ANY_TYPE}
+     * @return This builder
+     */
+    public Builder groupType(int groupType) {
+      this.groupType = groupType;
+      return this;
+    }
+
+    /**
+     * Only matches free groups.
+     *
+     * @param freeOnly Whether groups with a price are filtered out
+     * @return This builder
+     */
+    public Builder freeOnly(boolean freeOnly) {
+      this.freeOnly = freeOnly;
+      return this;
+    }
+
+    /**
+     * Only matches groups whose event is today or later.
+     *
+     * @param upcomingOnly Whether past and undated groups are filtered out
+     * @return This builder
+     */
+    public Builder upcomingOnly(boolean upcomingOnly) {
+      this.upcomingOnly = upcomingOnly;
+      return this;
+    }
+
+    /**
+     * Only matches groups whose name contains a text, ignoring case.
+     *
+     * @param text The text to search for; null or blank matches every name
+     * @return This builder
+     */
+    public Builder nameContains(String text) {
+      if (text == null || text.trim().isEmpty()) {
+        this.nameQuery = null;
+      } else {
+        // GroupDao's LIKE uses backslash as its escape character
+        this.nameQuery =
+            text.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+      }
+      return this;
+    }
+
+    /**
+     * Sets the sort order.
+     *
+     * @param sortOrder One of the SORT_ constants
+     * @return This builder
+     */
+    public Builder sortOrder(int sortOrder) {
+      this.sortOrder = sortOrder;
+      return this;
+    }
+
+    /**
+     * Builds the query.
+     *
+     * @return The query
+     */
+    public GroupListQuery build() {
+      return new GroupListQuery(this);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.partymaker.data.local;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+import com.example.partymaker.data.model.GroupMember;
+import com.example.partymaker.data.model.UserListItem;
+import java.util.List;
+
+/**
+ * Data Access Object for the group_members and group_message_keys tables. Membership lookups and
+ * counts are indexed queries here; the rows are written by {@link GroupDao} in the same
+ * transaction as their groups.
+ */
+@Dao
+public interface GroupMemberDao {
+
+  // Table constants
+  String TABLE_MEMBERS = "group_members";
+  String TABLE_MESSAGE_KEYS = "group_message_keys";
+
+  // SQL Query constants
+  String SELECT_ALL_MEMBERS = "SELECT * FROM " + TABLE_MEMBERS;
+  String WHERE_GROUP_KEY = " WHERE groupKey = :groupKey";
+
+  // Member keys are emails with dots replaced by spaces, like the friend keys of a group
+  String USER_MEMBER_KEY = "replace(users.email, '.', ' ')";
+
+  /**
+   * Gets the members of a group
+   *
+   * @param groupKey The group key
+   * @return List of memberships, admin first
+   */
+  @Query(SELECT_ALL_MEMBERS + WHERE_GROUP_KEY + " ORDER BY role DESC, userKey")
+  List<GroupMember> getMembers(String groupKey);
+
+  /**
+   * Gets the list rows of a group's members whose profiles are cached, by name. Only the columns a
+   * user list shows are read.
+   *
+   * @param groupKey The group key
+   * @param comingOnly Whether only members who are coming are returned
+   * @return List of members
+   */
+  @Query(
+      UserDao.SELECT_LIST_ITEM_COLUMNS
+          + " WHERE "
+          + USER_MEMBER_KEY
+          + " IN (SELECT userKey FROM "
+          + TABLE_MEMBERS
+          + WHERE_GROUP_KEY
+          + " AND (:comingOnly = 0 OR coming = 1))"
+          + UserDao.ORDER_BY_USERNAME)
+  List<UserListItem> getMemberListItems(String groupKey, boolean comingOnly);
+
+  /**
+   * Gets the keys of the users coming to a group
+   *
+   * @param groupKey The group key
+   * @return List of user keys
+   */
+  @Query("SELECT userKey FROM " + TABLE_MEMBERS + WHERE_GROUP_KEY + " AND coming = 1")
+  List<String> getComingUserKeys(String groupKey);
+
+  /**
+   * Whether a user administers or belongs to a group
+   *
+   * @param groupKey The group key
+   * @param userKey The user key
+   * @return true if the user is a member
+   */
+  @Query(
+      "SELECT EXISTS(SELECT 1 FROM "
+          + TABLE_MEMBERS
+          + WHERE_GROUP_KEY
+          + " AND userKey = :userKey)")
+  boolean isMember(String groupKey, String userKey);
+
+  /**
+   * Whether a user is coming to a group
+   *
+   * @param groupKey The group key
+   * @param userKey The user key
+   * @return true if the user is coming
+   */
+  @Query(
+      "SELECT EXISTS(SELECT 1 FROM "
+          + TABLE_MEMBERS
+          + WHERE_GROUP_KEY
+          + " AND userKey = :userKey AND coming = 1)")
+  boolean isComing(String groupKey, String userKey);
+
+  /**
+   * Counts the members of a group, including the admin
+   *
+   * @param groupKey The group key
+   * @return Number of members
+   */
+  @Query("SELECT COUNT(*) FROM " + TABLE_MEMBERS + WHERE_GROUP_KEY)
+  int getMemberCount(String groupKey);
+
+  /**
+   * Counts the users coming to a group
+   *
+   * @param groupKey The group key
+   * @return Number of users coming
+   */
+  @Query("SELECT COUNT(*) FROM " + TABLE_MEMBERS + WHERE_GROUP_KEY + " AND coming = 1")
+  int getComingCount(String groupKey);
+
+  /**
+   * Counts the users coming to a group as LiveData
+   *
+   * @param groupKey The group key
+   * @return LiveData containing the number of users coming
+   */
+  @Query("SELECT COUNT(*) FROM " + TABLE_MEMBERS + WHERE_GROUP_KEY + " AND coming = 1")
+  LiveData<Integer> observeComingCount(String groupKey);
+
+  /**
+   * Counts the groups a user administers or belongs to
+   *
+   * @param userKey The user key
+   * @return Number of groups
+   */
+  @Query("SELECT COUNT(*) FROM " + TABLE_MEMBERS + " WHERE userKey = :userKey")
+  int getUserGroupCount(String userKey);
+
+  /**
+   * Counts the message keys of a group
+   *
+   * @param groupKey The group key
+   * @return Number of messages the group lists
+   */
+  @Query("SELECT COUNT(*) FROM " + TABLE_MESSAGE_KEYS + WHERE_GROUP_KEY)
+  int getMessageKeyCount(String groupKey);
+}
@@ -0,0 +1,41 @@
+package com.example.partymaker.data.local;
+
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.utils.business.group.GroupDateTimeManager;
+import java.util.List;
+
+/**
+ * Derives the numeric event_epoch_millis and created_at_millis columns of groups from their date
+ * strings. The DAO write methods call this once per group written, so reading a group never parses
+ * its dates, and a date that does not parse is stored as null or 0 instead of being parsed again.
+ */
+final class GroupTimestamps {
+
+  private GroupTimestamps() {}
+
+  /**
+   * Sets the derived timestamps of a group from its current date strings.
+   *
+   * @param group The group about to be written
+   */
+  static void derive(Group group) {
+    group.setEventEpochMillis(
+        GroupDateTimeManager.toEpochMillis(
+            group.getGroupDays(),
+            group.getGroupMonths(),
+            group.getGroupYears(),
+            group.getGroupHours()));
+    group.setCreatedAtMillis(GroupDateTimeManager.toCreatedAtMillis(group.getCreatedAt()));
+  }
+
+  /**
+   * Sets the derived timestamps of groups from their current date strings.
+   *
+   * @param groups The groups about to be written
+   */
+  static void deriveAll(List<Group> groups) {
+    for (Group group : groups) {
+      derive(group);
+    }
+  }
+}
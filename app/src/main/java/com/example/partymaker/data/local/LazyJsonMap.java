@@ -0,0 +1,241 @@
+package com.example.partymaker.data.local;
+
+import com.google.gson.TypeAdapter;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A map read from a JSON column that is only parsed when it is first used. Room reads every map
+ * column of every row, but most screens never look at most of them, so the JSON is kept as it is
+ * until a method of the map is called. A map that was never used is written back as the same JSON,
+ * without parsing or encoding it.
+ *
+ * <p>Every public method parses the JSON first, so the map behaves like the {@link HashMap} it
+ * replaces, including for Gson, which reads maps through {@link #entrySet()}.
+ *
+ * @param <V> The value type
+ */
+final class LazyJsonMap<V> extends HashMap<String, V> {
+
+  private final transient TypeAdapter<? extends Map<String, V>> adapter;
+  private transient volatile String json;
+
+  /**
+   * Creates a map that parses {@code json} on first use.
+   *
+   * @param json The JSON object
+   * @param adapter Parses the JSON
+   */
+  LazyJsonMap(String json, TypeAdapter<? extends Map<String, V>> adapter) {
+    this.json = json;
+    this.adapter = adapter;
+  }
+
+  /**
+   * Gets the JSON this map was read from, if it was never used.
+   *
+   * @return The JSON, or null if the map was parsed
+   */
+  String getUnparsedJson() {
+    return json;
+  }
+
+  private void parse() {
+    if (json == null) {
+      return;
+    }
+    synchronized (this) {
+      String pending = json;
+      if (pending == null) {
+        return;
+      }
+      try {
+        Map<String, V> values = adapter.fromJson(pending);
+        if (values != null) {
+          super.putAll(values);
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Invalid JSON map column", e);
+      }
+      json = null;
+    }
+  }
+
+  @Override
+  public int size() {
+    parse();
+    return super.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    parse();
+    return super.isEmpty();
+  }
+
+  @Override
+  public V get(Object key) {
+    parse();
+    return super.get(key);
+  }
+
+  @Override
+  public V getOrDefault(Object key, V defaultValue) {
+    parse();
+    return super.getOrDefault(key, defaultValue);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    parse();
+    return super.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    parse();
+    return super.containsValue(value);
+  }
+
+  @Override
+  public V put(String key, V value) {
+    parse();
+    return super.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends V> m) {
+    parse();
+    super.putAll(m);
+  }
+
+  @Override
+  public V putIfAbsent(String key, V value) {
+    parse();
+    return super.putIfAbsent(key, value);
+  }
+
+  @Override
+  public V remove(Object key) {
+    parse();
+    return super.remove(key);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    parse();
+    return super.remove(key, value);
+  }
+
+  @Override
+  public boolean replace(String key, V oldValue, V newValue) {
+    parse();
+    return super.replace(key, oldValue, newValue);
+  }
+
+  @Override
+  public V replace(String key, V value) {
+    parse();
+    return super.replace(key, value);
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super String, ? super V, ? extends V> function) {
+    parse();
+    super.replaceAll(function);
+  }
+
+  @Override
+  public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
+    parse();
+    return super.computeIfAbsent(key, mappingFunction);
+  }
+
+  @Override
+  public V computeIfPresent(
+      String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+    parse();
+    return super.computeIfPresent(key, remappingFunction);
+  }
+
+  @Override
+  public V compute(
+      String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+    parse();
+    return super.compute(key, remappingFunction);
+  }
+
+  @Override
+  public V merge(
+      String key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    parse();
+    return super.merge(key, value, remappingFunction);
+  }
+
+  @Override
+  public void clear() {
+    // The parsed values would be dropped anyway
+    json = null;
+    super.clear();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    parse();
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<V> values() {
+    parse();
+    return super.values();
+  }
+
+  @Override
+  public Set<Map.Entry<String, V>> entrySet() {
+    parse();
+    return super.entrySet();
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    parse();
+    super.forEach(action);
+  }
+
+  @Override
+  public Object clone() {
+    parse();
+    return new HashMap<>(this);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    parse();
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    parse();
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    parse();
+    return super.toString();
+  }
+
+  /** Serializes as a plain HashMap, since the JSON and adapter are not serializable. */
+  private Object writeReplace() {
+    parse();
+    return new HashMap<>(this);
+  }
+}
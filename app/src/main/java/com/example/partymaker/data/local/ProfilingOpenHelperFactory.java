@@ -0,0 +1,545 @@
+package com.example.partymaker.data.local;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteTransactionListener;
+import android.os.CancellationSignal;
+import android.util.Pair;
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens the database through another factory and times every statement Room runs on it, for the
+ * {@link QueryProfiler}.
+ *
+ * <p>Room's own {@code QueryCallback} is called before a statement runs and is not told how long it
+ * took, so the timing is taken here instead. A query is timed until its cursor has counted its
+ * rows, which is when SQLite has run it; compiled statements are timed around their execute call.
+ */
+public class ProfilingOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+
+  private static final long SLOW_QUERY_THRESHOLD_NANOS =
+      TimeUnit.MILLISECONDS.toNanos(DatabaseMonitor.SLOW_QUERY_THRESHOLD_MS);
+
+  private final SupportSQLiteOpenHelper.Factory delegate;
+
+  /**
+   * Creates the factory.
+   *
+   * @param delegate The factory that opens the database, such as the framework factory
+   */
+  public ProfilingOpenHelperFactory(SupportSQLiteOpenHelper.Factory delegate) {
+    this.delegate = delegate;
+  }
+
+  @NonNull
+  @Override
+  public SupportSQLiteOpenHelper create(
+      @NonNull SupportSQLiteOpenHelper.Configuration configuration) {
+    return new ProfilingOpenHelper(delegate.create(configuration));
+  }
+
+  /** Closes a delegate, whichever checked exceptions its close() declares. */
+  private static void closeDelegate(Closeable delegate) {
+    try {
+      delegate.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Hands out profiling wrappers of the databases the delegate opens. */
+  private static final class ProfilingOpenHelper implements SupportSQLiteOpenHelper {
+    private final SupportSQLiteOpenHelper delegate;
+    private ProfilingDatabase writableDatabase;
+    private ProfilingDatabase readableDatabase;
+
+    ProfilingOpenHelper(SupportSQLiteOpenHelper delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public String getDatabaseName() {
+      return delegate.getDatabaseName();
+    }
+
+    @Override
+    public void setWriteAheadLoggingEnabled(boolean enabled) {
+      delegate.setWriteAheadLoggingEnabled(enabled);
+    }
+
+    @NonNull
+    @Override
+    public synchronized SupportSQLiteDatabase getWritableDatabase() {
+      SupportSQLiteDatabase database = delegate.getWritableDatabase();
+      if (writableDatabase == null || writableDatabase.delegate != database) {
+        writableDatabase = new ProfilingDatabase(database);
+      }
+      return writableDatabase;
+    }
+
+    @NonNull
+    @Override
+    public synchronized SupportSQLiteDatabase getReadableDatabase() {
+      SupportSQLiteDatabase database = delegate.getReadableDatabase();
+      if (readableDatabase == null || readableDatabase.delegate != database) {
+        readableDatabase = new ProfilingDatabase(database);
+      }
+      return readableDatabase;
+    }
+
+    @Override
+    public void close() {
+      closeDelegate(delegate);
+    }
+  }
+
+  /** Times the queries and statements run on a database and forwards everything else. */
+  private static final class ProfilingDatabase implements SupportSQLiteDatabase {
+    private final SupportSQLiteDatabase delegate;
+    private final QueryProfiler profiler = QueryProfiler.getInstance();
+
+    ProfilingDatabase(SupportSQLiteDatabase delegate) {
+      this.delegate = delegate;
+    }
+
+    @NonNull
+    @Override
+    public SupportSQLiteStatement compileStatement(@NonNull String sql) {
+      return new ProfilingStatement(delegate.compileStatement(sql), sql, this);
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull String query) {
+      long start = System.nanoTime();
+      Cursor cursor = countRows(delegate.query(query));
+      profiler.record(query, null, System.nanoTime() - start, delegate);
+      return cursor;
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull String query, @NonNull Object[] bindArgs) {
+      long start = System.nanoTime();
+      Cursor cursor = countRows(delegate.query(query, bindArgs));
+      profiler.record(query, bindArgs, System.nanoTime() - start, delegate);
+      return cursor;
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(@NonNull SupportSQLiteQuery query) {
+      long start = System.nanoTime();
+      Cursor cursor = countRows(delegate.query(query));
+      record(query, System.nanoTime() - start);
+      return cursor;
+    }
+
+    @NonNull
+    @Override
+    public Cursor query(
+        @NonNull SupportSQLiteQuery query, CancellationSignal cancellationSignal) {
+      long start = System.nanoTime();
+      Cursor cursor = countRows(delegate.query(query, cancellationSignal));
+      record(query, System.nanoTime() - start);
+      return cursor;
+    }
+
+    private void record(SupportSQLiteQuery query, long durationNanos) {
+      // Bound arguments are only needed to explain a slow query
+      Object[] bindArgs =
+          durationNanos > SLOW_QUERY_THRESHOLD_NANOS ? BindRecorder.argsOf(query) : null;
+      profiler.record(query.getSql(), bindArgs, durationNanos, delegate);
+    }
+
+    /** The framework cursor runs its query when it first fills its window, such as to count. */
+    private static Cursor countRows(Cursor cursor) {
+      cursor.getCount();
+      return cursor;
+    }
+
+    @Override
+    public void execSQL(@NonNull String sql) throws SQLException {
+      long start = System.nanoTime();
+      delegate.execSQL(sql);
+      profiler.record(sql, null, System.nanoTime() - start, delegate);
+    }
+
+    @Override
+    public void execSQL(@NonNull String sql, @NonNull Object[] bindArgs) throws SQLException {
+      long start = System.nanoTime();
+      delegate.execSQL(sql, bindArgs);
+      profiler.record(sql, bindArgs, System.nanoTime() - start, delegate);
+    }
+
+    @Override
+    public long insert(@NonNull String table, int conflictAlgorithm, @NonNull ContentValues values)
+        throws SQLException {
+      long start = System.nanoTime();
+      long rowId = delegate.insert(table, conflictAlgorithm, values);
+      profiler.record("INSERT INTO " + table, null, System.nanoTime() - start, delegate);
+      return rowId;
+    }
+
+    @Override
+    public int delete(@NonNull String table, String whereClause, Object[] whereArgs) {
+      long start = System.nanoTime();
+      int deleted = delegate.delete(table, whereClause, whereArgs);
+      String sql =
+          "DELETE FROM " + table + (whereClause != null ? " WHERE " + whereClause : "");
+      profiler.record(sql, whereArgs, System.nanoTime() - start, delegate);
+      return deleted;
+    }
+
+    @Override
+    public int update(
+        @NonNull String table,
+        int conflictAlgorithm,
+        @NonNull ContentValues values,
+        String whereClause,
+        Object[] whereArgs) {
+      long start = System.nanoTime();
+      int updated = delegate.update(table, conflictAlgorithm, values, whereClause, whereArgs);
+      String sql = "UPDATE " + table + (whereClause != null ? " WHERE " + whereClause : "");
+      profiler.record(sql, null, System.nanoTime() - start, delegate);
+      return updated;
+    }
+
+    // Everything below is forwarded unchanged
+
+    @Override
+    public void beginTransaction() {
+      delegate.beginTransaction();
+    }
+
+    @Override
+    public void beginTransactionNonExclusive() {
+      delegate.beginTransactionNonExclusive();
+    }
+
+    // Not annotated with @Override, and not forwarded: only newer versions of androidx.sqlite
+    // declare it. A deferred transaction is what it falls back to on older versions.
+    public void beginTransactionReadOnly() {
+      delegate.beginTransactionNonExclusive();
+    }
+
+    @Override
+    public void beginTransactionWithListener(
+        @NonNull SQLiteTransactionListener transactionListener) {
+      delegate.beginTransactionWithListener(transactionListener);
+    }
+
+    @Override
+    public void beginTransactionWithListenerNonExclusive(
+        @NonNull SQLiteTransactionListener transactionListener) {
+      delegate.beginTransactionWithListenerNonExclusive(transactionListener);
+    }
+
+    // Not annotated with @Override, like beginTransactionReadOnly()
+    public void beginTransactionWithListenerReadOnly(
+        @NonNull SQLiteTransactionListener transactionListener) {
+      delegate.beginTransactionWithListenerNonExclusive(transactionListener);
+    }
+
+    @Override
+    public void endTransaction() {
+      delegate.endTransaction();
+    }
+
+    @Override
+    public void setTransactionSuccessful() {
+      delegate.setTransactionSuccessful();
+    }
+
+    @Override
+    public boolean inTransaction() {
+      return delegate.inTransaction();
+    }
+
+    @Override
+    public boolean isDbLockedByCurrentThread() {
+      return delegate.isDbLockedByCurrentThread();
+    }
+
+    @Override
+    public boolean yieldIfContendedSafely() {
+      return delegate.yieldIfContendedSafely();
+    }
+
+    @Override
+    public boolean yieldIfContendedSafely(long sleepAfterYieldDelayMillis) {
+      return delegate.yieldIfContendedSafely(sleepAfterYieldDelayMillis);
+    }
+
+    @Override
+    public boolean isExecPerConnectionSQLSupported() {
+      return delegate.isExecPerConnectionSQLSupported();
+    }
+
+    @Override
+    public void execPerConnectionSQL(@NonNull String sql, Object[] bindArgs) {
+      delegate.execPerConnectionSQL(sql, bindArgs);
+    }
+
+    @Override
+    public int getVersion() {
+      return delegate.getVersion();
+    }
+
+    @Override
+    public void setVersion(int version) {
+      delegate.setVersion(version);
+    }
+
+    @Override
+    public long getMaximumSize() {
+      return delegate.getMaximumSize();
+    }
+
+    @Override
+    public long setMaximumSize(long numBytes) {
+      return delegate.setMaximumSize(numBytes);
+    }
+
+    @Override
+    public long getPageSize() {
+      return delegate.getPageSize();
+    }
+
+    @Override
+    public void setPageSize(long numBytes) {
+      delegate.setPageSize(numBytes);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+      return delegate.isReadOnly();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return delegate.isOpen();
+    }
+
+    @Override
+    public boolean needUpgrade(int newVersion) {
+      return delegate.needUpgrade(newVersion);
+    }
+
+    @Override
+    public String getPath() {
+      return delegate.getPath();
+    }
+
+    @Override
+    public void setLocale(@NonNull Locale locale) {
+      delegate.setLocale(locale);
+    }
+
+    @Override
+    public void setMaxSqlCacheSize(int cacheSize) {
+      delegate.setMaxSqlCacheSize(cacheSize);
+    }
+
+    @Override
+    public void setForeignKeyConstraintsEnabled(boolean enabled) {
+      delegate.setForeignKeyConstraintsEnabled(enabled);
+    }
+
+    @Override
+    public boolean enableWriteAheadLogging() {
+      return delegate.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void disableWriteAheadLogging() {
+      delegate.disableWriteAheadLogging();
+    }
+
+    @Override
+    public boolean isWriteAheadLoggingEnabled() {
+      return delegate.isWriteAheadLoggingEnabled();
+    }
+
+    @Override
+    public List<Pair<String, String>> getAttachedDbs() {
+      return delegate.getAttachedDbs();
+    }
+
+    @Override
+    public boolean isDatabaseIntegrityOk() {
+      return delegate.isDatabaseIntegrityOk();
+    }
+
+    @Override
+    public void close() {
+      closeDelegate(delegate);
+    }
+  }
+
+  /** Times a compiled statement around its execute calls and keeps its bound arguments. */
+  private static final class ProfilingStatement extends BindRecorder
+      implements SupportSQLiteStatement {
+    private final SupportSQLiteStatement delegate;
+    private final String sql;
+    private final ProfilingDatabase database;
+
+    ProfilingStatement(SupportSQLiteStatement delegate, String sql, ProfilingDatabase database) {
+      this.delegate = delegate;
+      this.sql = sql;
+      this.database = database;
+    }
+
+    @Override
+    public void execute() {
+      long start = System.nanoTime();
+      delegate.execute();
+      record(start);
+    }
+
+    @Override
+    public int executeUpdateDelete() {
+      long start = System.nanoTime();
+      int changed = delegate.executeUpdateDelete();
+      record(start);
+      return changed;
+    }
+
+    @Override
+    public long executeInsert() {
+      long start = System.nanoTime();
+      long rowId = delegate.executeInsert();
+      record(start);
+      return rowId;
+    }
+
+    @Override
+    public long simpleQueryForLong() {
+      long start = System.nanoTime();
+      long value = delegate.simpleQueryForLong();
+      record(start);
+      return value;
+    }
+
+    @Override
+    public String simpleQueryForString() {
+      long start = System.nanoTime();
+      String value = delegate.simpleQueryForString();
+      record(start);
+      return value;
+    }
+
+    private void record(long start) {
+      database.profiler.record(sql, toArray(), System.nanoTime() - start, database.delegate);
+    }
+
+    @Override
+    public void bindNull(int index) {
+      super.bindNull(index);
+      delegate.bindNull(index);
+    }
+
+    @Override
+    public void bindLong(int index, long value) {
+      super.bindLong(index, value);
+      delegate.bindLong(index, value);
+    }
+
+    @Override
+    public void bindDouble(int index, double value) {
+      super.bindDouble(index, value);
+      delegate.bindDouble(index, value);
+    }
+
+    @Override
+    public void bindString(int index, @NonNull String value) {
+      super.bindString(index, value);
+      delegate.bindString(index, value);
+    }
+
+    @Override
+    public void bindBlob(int index, @NonNull byte[] value) {
+      super.bindBlob(index, value);
+      delegate.bindBlob(index, value);
+    }
+
+    @Override
+    public void clearBindings() {
+      super.clearBindings();
+      delegate.clearBindings();
+    }
+
+    @Override
+    public void close() {
+      closeDelegate(delegate);
+    }
+  }
+
+  /** Keeps the arguments bound to a program, so a slow statement can be explained with them. */
+  private static class BindRecorder implements SupportSQLiteProgram {
+    private final List<Object> args = new ArrayList<>();
+
+    static Object[] argsOf(SupportSQLiteQuery query) {
+      BindRecorder recorder = new BindRecorder();
+      query.bindTo(recorder);
+      return recorder.toArray();
+    }
+
+    Object[] toArray() {
+      return args.toArray();
+    }
+
+    private void bind(int index, Object value) {
+      while (args.size() < index) {
+        args.add(null);
+      }
+      args.set(index - 1, value);
+    }
+
+    @Override
+    public void bindNull(int index) {
+      bind(index, null);
+    }
+
+    @Override
+    public void bindLong(int index, long value) {
+      bind(index, value);
+    }
+
+    @Override
+    public void bindDouble(int index, double value) {
+      bind(index, value);
+    }
+
+    @Override
+    public void bindString(int index, @NonNull String value) {
+      bind(index, value);
+    }
+
+    @Override
+    public void bindBlob(int index, @NonNull byte[] value) {
+      bind(index, value);
+    }
+
+    @Override
+    public void clearBindings() {
+      args.clear();
+    }
+
+    @Override
+    public void close() {}
+  }
+}
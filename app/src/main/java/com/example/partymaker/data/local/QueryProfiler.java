@@ -0,0 +1,254 @@
+package com.example.partymaker.data.local;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Times every SQL statement the app runs, grouped by the statement with its literals replaced by
+ * {@code ?}. The first time a statement is slower than {@link
+ * DatabaseMonitor#SLOW_QUERY_THRESHOLD_MS}, its EXPLAIN QUERY PLAN is captured, so full table scans
+ * show up in the report.
+ *
+ * <p>Statements reach the profiler through {@link ProfilingOpenHelperFactory}, which {@link
+ * AppDatabase} installs in debug builds. Read the report with {@link #getReport()}, or write it to
+ * a file with {@link #exportReport(Context)}.
+ */
+public final class QueryProfiler {
+  private static final String TAG = "QueryProfiler";
+
+  // Distinct statements to keep, so ad hoc SQL cannot grow the map without limit
+  private static final int MAX_STATEMENTS = 500;
+  private static final int REPORT_LIMIT = 30;
+  private static final String REPORT_FILE_NAME = "query_report.txt";
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])\\d+(?:\\.\\d+)?");
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern EXPLAINABLE =
+      Pattern.compile(
+          "^\\s*(SELECT|INSERT|UPDATE|DELETE|REPLACE|WITH)\\b", Pattern.CASE_INSENSITIVE);
+
+  private static final QueryProfiler instance = new QueryProfiler();
+
+  private final Map<String, QueryStats> statements = new ConcurrentHashMap<>();
+
+  private QueryProfiler() {}
+
+  /**
+   * Gets the singleton instance of QueryProfiler.
+   *
+   * @return The QueryProfiler instance
+   */
+  public static QueryProfiler getInstance() {
+    return instance;
+  }
+
+  /**
+   * Records one run of a statement.
+   *
+   * @param sql The SQL as it was run
+   * @param bindArgs The bound arguments, used to explain the statement if it was slow
+   * @param durationNanos How long the statement took
+   * @param database The database to explain the statement against
+   */
+  void record(String sql, Object[] bindArgs, long durationNanos, SupportSQLiteDatabase database) {
+    String normalized = normalize(sql);
+    QueryStats stats = statements.get(normalized);
+    if (stats == null) {
+      if (statements.size() >= MAX_STATEMENTS) {
+        return;
+      }
+      stats = statements.computeIfAbsent(normalized, QueryStats::new);
+    }
+
+    long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    boolean slow = durationMs > DatabaseMonitor.SLOW_QUERY_THRESHOLD_MS;
+    boolean capturePlan = false;
+    synchronized (stats) {
+      stats.count++;
+      stats.totalNanos += durationNanos;
+      stats.maxNanos = Math.max(stats.maxNanos, durationNanos);
+      if (slow) {
+        stats.slowCount++;
+        capturePlan = !stats.planRequested && EXPLAINABLE.matcher(sql).find();
+        stats.planRequested = true;
+      }
+    }
+
+    if (slow) {
+      DatabaseMonitor.logQueryPerformance(normalized, System.currentTimeMillis() - durationMs);
+    }
+    if (capturePlan) {
+      QueryStats slowStats = stats;
+      Object[] args = bindArgs != null ? bindArgs : new Object[0];
+      ThreadUtils.executeDatabaseTask(() -> capturePlan(slowStats, sql, args, database));
+    }
+  }
+
+  private void capturePlan(
+      QueryStats stats, String sql, Object[] bindArgs, SupportSQLiteDatabase database) {
+    List<String> plan = new ArrayList<>();
+    try (Cursor cursor = database.query("EXPLAIN QUERY PLAN " + sql, bindArgs)) {
+      int detailColumn = cursor.getColumnIndexOrThrow("detail");
+      while (cursor.moveToNext()) {
+        plan.add(cursor.getString(detailColumn));
+      }
+    } catch (RuntimeException e) {
+      Log.w(TAG, "Could not explain: " + stats.sql, e);
+      return;
+    }
+
+    synchronized (stats) {
+      stats.plan = plan;
+    }
+    if (hasFullScan(plan)) {
+      Log.w(TAG, "FULL TABLE SCAN: " + stats.sql + " -> " + plan);
+    }
+  }
+
+  /**
+   * Builds the report of the statements that took the most time in total, slowest first.
+   *
+   * @return The report text
+   */
+  public String getReport() {
+    // Totals change while the app runs, so sort by a snapshot of them
+    Map<QueryStats, Long> totals = new HashMap<>();
+    for (QueryStats stats : statements.values()) {
+      totals.put(stats, stats.totalNanos());
+    }
+    List<QueryStats> snapshot = new ArrayList<>(totals.keySet());
+    Collections.sort(snapshot, (a, b) -> Long.compare(totals.get(b), totals.get(a)));
+
+    StringBuilder report = new StringBuilder("=== QUERY PROFILE ===\n");
+    report.append(snapshot.size()).append(" distinct statements\n");
+    for (QueryStats stats : snapshot.subList(0, Math.min(REPORT_LIMIT, snapshot.size()))) {
+      stats.appendTo(report);
+    }
+    return report.append("=== END QUERY PROFILE ===\n").toString();
+  }
+
+  /** Logs the report. */
+  public void logReport() {
+    for (String line : getReport().split("\n")) {
+      Log.i(TAG, line);
+    }
+  }
+
+  /**
+   * Writes the report to the app's external files directory, where {@code adb pull} can read it,
+   * or to internal storage if there is none.
+   *
+   * @param context The application context
+   * @return The report file, or null if it could not be written
+   */
+  public File exportReport(Context context) {
+    File directory = context.getExternalFilesDir(null);
+    File file = new File(directory != null ? directory : context.getFilesDir(), REPORT_FILE_NAME);
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write(getReport().getBytes(StandardCharsets.UTF_8));
+      Log.i(TAG, "Query report written to " + file.getAbsolutePath());
+      return file;
+    } catch (IOException e) {
+      Log.e(TAG, "Could not write query report", e);
+      return null;
+    }
+  }
+
+  /** Clears the collected statements. */
+  public void reset() {
+    statements.clear();
+  }
+
+  /**
+   * Groups runs of the same statement: string and number literals become {@code ?}, bound lists
+   * such as {@code IN (?,?,?)} collapse to {@code ?...}, and whitespace collapses to one space.
+   *
+   * @param sql The SQL as it was run
+   * @return The normalized SQL
+   */
+  static String normalize(String sql) {
+    String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = PARAMETER_LIST.matcher(normalized).replaceAll("?...");
+    return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+  }
+
+  /**
+   * Checks whether a query plan reads a whole table without an index. Scans of full-text indexes
+   * are not counted.
+   *
+   * @param plan The detail column of EXPLAIN QUERY PLAN
+   * @return true if a step scans a table
+   */
+  static boolean hasFullScan(List<String> plan) {
+    for (String detail : plan) {
+      if (detail != null
+          && detail.startsWith("SCAN ")
+          && !detail.contains(" USING ")
+          && !detail.contains("VIRTUAL TABLE")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Timing of one normalized statement. Guarded by its own lock. */
+  private static final class QueryStats {
+    final String sql;
+    long count;
+    long totalNanos;
+    long maxNanos;
+    long slowCount;
+    boolean planRequested;
+    List<String> plan;
+
+    QueryStats(String sql) {
+      this.sql = sql;
+    }
+
+    synchronized long totalNanos() {
+      return totalNanos;
+    }
+
+    synchronized void appendTo(StringBuilder report) {
+      report
+          .append('\n')
+          .append(
+              String.format(
+                  Locale.US,
+                  "total %.1f ms | runs %d | avg %.2f ms | max %.1f ms | slow %d%n",
+                  totalNanos / 1e6,
+                  count,
+                  totalNanos / 1e6 / count,
+                  maxNanos / 1e6,
+                  slowCount))
+          .append(sql)
+          .append('\n');
+      if (plan != null) {
+        String marker = hasFullScan(plan) ? "  FULL TABLE SCAN\n" : "";
+        report.append(marker);
+        for (String detail : plan) {
+          report.append("    ").append(detail).append('\n');
+        }
+      }
+    }
+  }
+}
@@ -5,8 +5,11 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import java.util.List;
 
 /**
@@ -22,6 +25,13 @@ public interface UserDao {
   String QUERY_ALL_USERS = "SELECT * FROM users";
   String QUERY_DELETE_USER_BY_KEY = "DELETE FROM users WHERE userKey = :userKey";
   String QUERY_DELETE_ALL_USERS = "DELETE FROM users";
+  String QUERY_ALL_USER_KEYS = "SELECT userKey FROM users";
+  String QUERY_DELETE_USERS_BY_KEYS = "DELETE FROM users WHERE userKey IN (:userKeys)";
+
+  // The columns of a UserListItem
+  String SELECT_LIST_ITEM_COLUMNS =
+      "SELECT users.userKey, users.username, users.email, users.profile_image_url FROM users";
+  String ORDER_BY_USERNAME = " ORDER BY users.username COLLATE NOCASE, users.userKey";
 
   /**
    * Gets a user by their key
@@ -66,6 +76,31 @@ public interface UserDao {
   @Query(QUERY_ALL_USERS)
   LiveData<List<User>> observeAllUsers();
 
+  /**
+   * Gets the list rows of all users, by name. Only the columns a user list shows are read.
+   *
+   * @return List of users, empty list if no users found
+   */
+  @Query(SELECT_LIST_ITEM_COLUMNS + ORDER_BY_USERNAME)
+  List<UserListItem> getAllUserListItems();
+
+  /**
+   * Searches users by username and full name through the full-text index, username matches first.
+   * Build the match expressions with {@link FtsQuery}.
+   *
+   * @param match Prefix match over all columns
+   * @param usernameMatch Prefix match over username, to rank username matches first
+   * @param limit Maximum results to return
+   * @return The ranked results
+   */
+  @Query(
+      "SELECT users.* FROM users JOIN users_fts ON users.rowid = users_fts.docid"
+          + " WHERE users_fts MATCH :match"
+          + " ORDER BY users.rowid IN"
+          + " (SELECT docid FROM users_fts WHERE users_fts MATCH :usernameMatch) DESC,"
+          + " users.username COLLATE NOCASE LIMIT :limit")
+  List<User> searchUsersFts(String match, String usernameMatch, int limit);
+
   /**
    * Inserts a user into the local database Uses REPLACE strategy to handle conflicts
    *
@@ -82,6 +117,46 @@ public interface UserDao {
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   void insertUsers(List<User> users);
 
+  /**
+   * Inserts users, or updates them in place if they exist
+   *
+   * @param users The list of users to upsert
+   */
+  @Upsert
+  void upsertUsers(List<User> users);
+
+  /**
+   * Gets the keys of all cached users
+   *
+   * @return List of user keys
+   */
+  @Query(QUERY_ALL_USER_KEYS)
+  List<String> getAllUserKeys();
+
+  /**
+   * Deletes users by their keys
+   *
+   * @param userKeys The user keys
+   * @return Number of deleted users
+   */
+  @Query(QUERY_DELETE_USERS_BY_KEYS)
+  int deleteUsersByKeys(List<String> userKeys);
+
+  /**
+   * Replaces the cache with the full list of users from the server in one transaction. Users the
+   * server no longer returns are deleted.
+   *
+   * @param users All users on the server
+   * @return Number of deleted stale users
+   */
+  @Transaction
+  default int replaceAllUsers(List<User> users) {
+    upsertUsers(users);
+    List<String> staleKeys = BatchSync.findStaleKeys(getAllUserKeys(), users, User::getUserKey);
+    BatchSync.forEachChunk(staleKeys, this::deleteUsersByKeys);
+    return staleKeys.size();
+  }
+
   /**
    * Updates an existing user in the local database User must exist or operation will be ignored
    *
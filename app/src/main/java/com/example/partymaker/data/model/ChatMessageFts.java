@@ -0,0 +1,28 @@
+package com.example.partymaker.data.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the text of {@link ChatMessage}. The index reads its content from the
+ * chat_messages table, and Room keeps it in sync with triggers. Encrypted messages are stored as
+ * ciphertext, so searches only return messages that are not encrypted.
+ */
+@Fts4(contentEntity = ChatMessage.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "chat_messages_fts")
+public class ChatMessageFts {
+
+  /** The message content. */
+  @ColumnInfo(name = "message")
+  private String message;
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+}
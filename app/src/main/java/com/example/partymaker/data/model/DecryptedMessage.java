@@ -0,0 +1,142 @@
+package com.example.partymaker.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The decrypted text of an end-to-end encrypted chat message, kept in the app-private database so
+ * the chat shows it again without decrypting with the group key. The text is stored sealed with
+ * {@link com.example.partymaker.utils.security.encryption.LocalTextCipher}, never as plain text.
+ * Rows are written by {@link com.example.partymaker.data.local.DecryptedMessageCache}, deleted with
+ * the messages of their group by {@link com.example.partymaker.data.local.ChatMessageDao}, and
+ * trimmed to the newest messages of each group by the maintenance pass.
+ */
+@Entity(
+    tableName = "decrypted_messages",
+    indices = {@Index(value = {"groupKey", "timestamp"}, name = "idx_decrypted_group_time")})
+public class DecryptedMessage {
+
+  /** The key of the message. */
+  @PrimaryKey
+  @NonNull
+  @ColumnInfo(name = "messageKey")
+  private String messageKey;
+
+  /** The key of the message's group. */
+  @ColumnInfo(name = "groupKey")
+  private String groupKey;
+
+  /** The time the message was sent, which orders the rows kept per group. */
+  @ColumnInfo(name = "timestamp")
+  private long timestamp;
+
+  /**
+   * SHA-256 digest of the encrypted text the row was decrypted from. A message whose encrypted text
+   * no longer matches, such as one encrypted again under a new group key, is decrypted again.
+   */
+  @NonNull
+  @ColumnInfo(name = "source_digest")
+  private byte[] sourceDigest;
+
+  /** The decrypted text, sealed with the device's local text key. */
+  @NonNull
+  @ColumnInfo(name = "sealed_text")
+  private byte[] sealedText;
+
+  /**
+   * Constructs a decrypted message.
+   *
+   * @param messageKey the message key
+   * @param groupKey the group key
+   * @param timestamp the time the message was sent
+   * @param sourceDigest the digest of the encrypted text
+   * @param sealedText the sealed decrypted text
+   */
+  public DecryptedMessage(
+      @NonNull String messageKey,
+      String groupKey,
+      long timestamp,
+      @NonNull byte[] sourceDigest,
+      @NonNull byte[] sealedText) {
+    this.messageKey = messageKey;
+    this.groupKey = groupKey;
+    this.timestamp = timestamp;
+    this.sourceDigest = sourceDigest;
+    this.sealedText = sealedText;
+  }
+
+  /**
+   * Gets the digest an encrypted text is stored under.
+   *
+   * @param encryptedText The encrypted text
+   * @return The SHA-256 digest of the text, of the empty text for null
+   */
+  public static byte[] digestOf(String encryptedText) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return digest.digest(
+          (encryptedText != null ? encryptedText : "").getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Checks whether the row was decrypted from an encrypted text.
+   *
+   * @param digest The digest of the encrypted text, from {@link #digestOf}
+   * @return true if the row was decrypted from that text
+   */
+  public boolean isDecryptedFrom(byte[] digest) {
+    return MessageDigest.isEqual(sourceDigest, digest);
+  }
+
+  @NonNull
+  public String getMessageKey() {
+    return messageKey;
+  }
+
+  public void setMessageKey(@NonNull String messageKey) {
+    this.messageKey = messageKey;
+  }
+
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public void setGroupKey(String groupKey) {
+    this.groupKey = groupKey;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @NonNull
+  public byte[] getSourceDigest() {
+    return sourceDigest;
+  }
+
+  public void setSourceDigest(@NonNull byte[] sourceDigest) {
+    this.sourceDigest = sourceDigest;
+  }
+
+  @NonNull
+  public byte[] getSealedText() {
+    return sealedText;
+  }
+
+  public void setSealedText(@NonNull byte[] sealedText) {
+    this.sealedText = sealedText;
+  }
+}
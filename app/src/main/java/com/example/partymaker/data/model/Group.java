@@ -20,7 +20,8 @@ import java.util.HashMap;
             @Index(value = {"group_type", "created_at"}, name = "idx_group_type_created"),
             @Index(value = "admin_key", name = "idx_group_user"),
             @Index(value = {"admin_key", "group_type"}, name = "idx_group_user_type"),
-            @Index(value = "group_name", name = "idx_group_name") // For search
+            @Index(value = "group_name", name = "idx_group_name"), // For search
+            @Index(value = "event_epoch_millis", name = "idx_group_event_time")
         })
 public class Group {
 
@@ -51,6 +52,20 @@ public class Group {
   @ColumnInfo(name = "created_at")
   private String createdAt;
 
+  /**
+   * The creation time as epoch millis, derived from {@link #createdAt} when the group is written to
+   * the database. Local only: transient keeps it out of the server's JSON.
+   */
+  @ColumnInfo(name = "created_at_millis", defaultValue = "0")
+  private transient long createdAtMillis;
+
+  /**
+   * The event start as epoch millis, derived from the date strings when the group is written to the
+   * database; null if the group has no valid date. Local only, like {@link #createdAtMillis}.
+   */
+  @ColumnInfo(name = "event_epoch_millis")
+  private transient Long eventEpochMillis;
+
   /** The day(s) of the event. */
   @ColumnInfo(name = "group_days")
   private String groupDays;
@@ -259,6 +274,32 @@ public class Group {
     this.createdAt = createdAt;
   }
 
+  /**
+   * Gets the creation time as it was last derived for the database.
+   *
+   * @return The creation time as epoch millis, or 0 if unknown
+   */
+  public long getCreatedAtMillis() {
+    return createdAtMillis;
+  }
+
+  public void setCreatedAtMillis(long createdAtMillis) {
+    this.createdAtMillis = createdAtMillis;
+  }
+
+  /**
+   * Gets the event start as it was last derived for the database.
+   *
+   * @return The event start as epoch millis, or null if the group has no valid date
+   */
+  public Long getEventEpochMillis() {
+    return eventEpochMillis;
+  }
+
+  public void setEventEpochMillis(Long eventEpochMillis) {
+    this.eventEpochMillis = eventEpochMillis;
+  }
+
   public String getGroupDays() {
     return groupDays;
   }
@@ -0,0 +1,105 @@
+package com.example.partymaker.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * The chat status of one group, stored in Room next to its messages: the newest message and the
+ * number of messages from other users since the user last read the chat. {@link
+ * com.example.partymaker.data.local.ChatMessageDao} rewrites the row when it saves messages of the
+ * group and when the chat is marked read, so group lists read it by key instead of counting
+ * messages. Groups without cached messages have no row.
+ */
+@Entity(tableName = "group_chat_summary")
+public class GroupChatSummary {
+
+  /** Number of characters of the newest message kept as its snippet. */
+  public static final int SNIPPET_LENGTH = 100;
+
+  /** The key of the group. */
+  @PrimaryKey
+  @NonNull
+  @ColumnInfo(name = "groupKey")
+  private String groupKey;
+
+  /** The timestamp of the newest message. */
+  @ColumnInfo(name = "last_message_ts")
+  private long lastMessageTs;
+
+  /** The start of the newest message's text, or null if it is encrypted or has no text. */
+  @ColumnInfo(name = "last_snippet")
+  private String lastSnippet;
+
+  /** Number of messages from other users newer than {@link #lastReadTs}. */
+  @ColumnInfo(name = "unread_count")
+  private int unreadCount;
+
+  /** The timestamp of the newest message when the chat was last marked read, or 0. */
+  @ColumnInfo(name = "last_read_ts")
+  private long lastReadTs;
+
+  /**
+   * Constructs a summary.
+   *
+   * @param groupKey the group key
+   * @param lastMessageTs the timestamp of the newest message
+   * @param lastSnippet the snippet of the newest message
+   * @param unreadCount the number of unread messages
+   * @param lastReadTs the timestamp the chat was read up to
+   */
+  public GroupChatSummary(
+      @NonNull String groupKey,
+      long lastMessageTs,
+      String lastSnippet,
+      int unreadCount,
+      long lastReadTs) {
+    this.groupKey = groupKey;
+    this.lastMessageTs = lastMessageTs;
+    this.lastSnippet = lastSnippet;
+    this.unreadCount = unreadCount;
+    this.lastReadTs = lastReadTs;
+  }
+
+  @NonNull
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public void setGroupKey(@NonNull String groupKey) {
+    this.groupKey = groupKey;
+  }
+
+  public long getLastMessageTs() {
+    return lastMessageTs;
+  }
+
+  public void setLastMessageTs(long lastMessageTs) {
+    this.lastMessageTs = lastMessageTs;
+  }
+
+  public String getLastSnippet() {
+    return lastSnippet;
+  }
+
+  public void setLastSnippet(String lastSnippet) {
+    this.lastSnippet = lastSnippet;
+  }
+
+  public int getUnreadCount() {
+    return unreadCount;
+  }
+
+  public void setUnreadCount(int unreadCount) {
+    this.unreadCount = unreadCount;
+  }
+
+  public long getLastReadTs() {
+    return lastReadTs;
+  }
+
+  public void setLastReadTs(long lastReadTs) {
+    this.lastReadTs = lastReadTs;
+  }
+}
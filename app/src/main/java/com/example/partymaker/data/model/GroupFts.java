@@ -0,0 +1,51 @@
+package com.example.partymaker.data.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the searchable text of {@link Group}. The index reads its content from the
+ * groups table, and Room keeps it in sync with triggers.
+ */
+@Fts4(contentEntity = Group.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "groups_fts")
+public class GroupFts {
+
+  /** The group's display name. */
+  @ColumnInfo(name = "group_name")
+  private String groupName;
+
+  /** The location of the group. */
+  @ColumnInfo(name = "group_location")
+  private String groupLocation;
+
+  /** The description of the group. */
+  @ColumnInfo(name = "group_description")
+  private String groupDescription;
+
+  public String getGroupName() {
+    return groupName;
+  }
+
+  public void setGroupName(String groupName) {
+    this.groupName = groupName;
+  }
+
+  public String getGroupLocation() {
+    return groupLocation;
+  }
+
+  public void setGroupLocation(String groupLocation) {
+    this.groupLocation = groupLocation;
+  }
+
+  public String getGroupDescription() {
+    return groupDescription;
+  }
+
+  public void setGroupDescription(String groupDescription) {
+    this.groupDescription = groupDescription;
+  }
+}
@@ -0,0 +1,247 @@
+package com.example.partymaker.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The columns of a {@link Group} that a group list row shows. Room reads it with a projection
+ * query, so list screens never load or parse the JSON key maps of a group; the member counts are
+ * computed in SQL from the group_members table, and the chat status is read from the group's
+ * {@link GroupChatSummary}. Open the full group by its key when a row is clicked.
+ */
+public class GroupListItem {
+
+  /** The unique key for the group. */
+  @NonNull
+  @ColumnInfo(name = "groupKey")
+  private final String groupKey;
+
+  /** The group's display name. */
+  @ColumnInfo(name = "group_name")
+  private final String groupName;
+
+  /** The location of the group. */
+  @ColumnInfo(name = "group_location")
+  private final String groupLocation;
+
+  /** The day(s) of the event. */
+  @ColumnInfo(name = "group_days")
+  private final String groupDays;
+
+  /** The month(s) of the event. */
+  @ColumnInfo(name = "group_months")
+  private final String groupMonths;
+
+  /** The year(s) of the event. */
+  @ColumnInfo(name = "group_years")
+  private final String groupYears;
+
+  /** The hour(s) of the event. */
+  @ColumnInfo(name = "group_hours")
+  private final String groupHours;
+
+  /** The price of the event. */
+  @ColumnInfo(name = "group_price")
+  private final String groupPrice;
+
+  /** Group type: {@link Group#GROUP_TYPE_PUBLIC} or {@link Group#GROUP_TYPE_PRIVATE}. */
+  @ColumnInfo(name = "group_type")
+  private final int groupType;
+
+  /** Number of members, the admin included. */
+  @ColumnInfo(name = "member_count")
+  private final int memberCount;
+
+  /** Number of members who are coming. */
+  @ColumnInfo(name = "coming_count")
+  private final int comingCount;
+
+  /** The timestamp of the newest cached message, or 0 if there is none. */
+  @ColumnInfo(name = "last_message_ts")
+  private final long lastMessageTs;
+
+  /** The start of the newest cached message's text, or null. */
+  @ColumnInfo(name = "last_snippet")
+  private final String lastSnippet;
+
+  /** Number of unread messages from other users. */
+  @ColumnInfo(name = "unread_count")
+  private final int unreadCount;
+
+  /**
+   * Constructs a list item. Used by Room.
+   *
+   * @param groupKey the group key
+   * @param groupName the group name
+   * @param groupLocation the group location
+   * @param groupDays the event day(s)
+   * @param groupMonths the event month(s)
+   * @param groupYears the event year(s)
+   * @param groupHours the event hour(s)
+   * @param groupPrice the event price
+   * @param groupType the group type
+   * @param memberCount the number of members, the admin included
+   * @param comingCount the number of members who are coming
+   * @param lastMessageTs the timestamp of the newest cached message, or 0
+   * @param lastSnippet the snippet of the newest cached message, or null
+   * @param unreadCount the number of unread messages
+   */
+  public GroupListItem(
+      @NonNull String groupKey,
+      String groupName,
+      String groupLocation,
+      String groupDays,
+      String groupMonths,
+      String groupYears,
+      String groupHours,
+      String groupPrice,
+      int groupType,
+      int memberCount,
+      int comingCount,
+      long lastMessageTs,
+      String lastSnippet,
+      int unreadCount) {
+    this.groupKey = groupKey;
+    this.groupName = groupName;
+    this.groupLocation = groupLocation;
+    this.groupDays = groupDays;
+    this.groupMonths = groupMonths;
+    this.groupYears = groupYears;
+    this.groupHours = groupHours;
+    this.groupPrice = groupPrice;
+    this.groupType = groupType;
+    this.memberCount = memberCount;
+    this.comingCount = comingCount;
+    this.lastMessageTs = lastMessageTs;
+    this.lastSnippet = lastSnippet;
+    this.unreadCount = unreadCount;
+  }
+
+  /**
+   * Builds the list item of a group that is not read from Room, such as a server list. Members are
+   * counted the way {@link GroupMember#fromGroup(Group)} stores them; the chat status is empty.
+   *
+   * @param group The group
+   * @return The list item
+   */
+  public static GroupListItem fromGroup(Group group) {
+    Set<String> members = new HashSet<>();
+    Map<String, Object> friendKeys = group.getFriendKeys();
+    Map<String, Object> comingKeys = group.getComingKeys();
+    if (friendKeys != null) {
+      members.addAll(friendKeys.keySet());
+    }
+    if (comingKeys != null) {
+      members.addAll(comingKeys.keySet());
+    }
+    if (group.getAdminKey() != null && !group.getAdminKey().isEmpty()) {
+      members.add(group.getAdminKey());
+    }
+    return new GroupListItem(
+        group.getGroupKey(),
+        group.getGroupName(),
+        group.getGroupLocation(),
+        group.getGroupDays(),
+        group.getGroupMonths(),
+        group.getGroupYears(),
+        group.getGroupHours(),
+        group.getGroupPrice(),
+        group.getGroupType(),
+        members.size(),
+        comingKeys != null ? comingKeys.size() : 0,
+        0,
+        null,
+        0);
+  }
+
+  @NonNull
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public String getGroupName() {
+    return groupName;
+  }
+
+  public String getGroupLocation() {
+    return groupLocation;
+  }
+
+  public String getGroupDays() {
+    return groupDays;
+  }
+
+  public String getGroupMonths() {
+    return groupMonths;
+  }
+
+  public String getGroupYears() {
+    return groupYears;
+  }
+
+  public String getGroupHours() {
+    return groupHours;
+  }
+
+  public String getGroupPrice() {
+    return groupPrice;
+  }
+
+  public int getGroupType() {
+    return groupType;
+  }
+
+  public int getMemberCount() {
+    return memberCount;
+  }
+
+  public int getComingCount() {
+    return comingCount;
+  }
+
+  public long getLastMessageTs() {
+    return lastMessageTs;
+  }
+
+  public String getLastSnippet() {
+    return lastSnippet;
+  }
+
+  public int getUnreadCount() {
+    return unreadCount;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof GroupListItem)) {
+      return false;
+    }
+    GroupListItem that = (GroupListItem) o;
+    return groupType == that.groupType
+        && memberCount == that.memberCount
+        && comingCount == that.comingCount
+        && lastMessageTs == that.lastMessageTs
+        && unreadCount == that.unreadCount
+        && groupKey.equals(that.groupKey)
+        && Objects.equals(groupName, that.groupName)
+        && Objects.equals(groupLocation, that.groupLocation)
+        && Objects.equals(groupDays, that.groupDays)
+        && Objects.equals(groupMonths, that.groupMonths)
+        && Objects.equals(groupYears, that.groupYears)
+        && Objects.equals(groupHours, that.groupHours)
+        && Objects.equals(groupPrice, that.groupPrice)
+        && Objects.equals(lastSnippet, that.lastSnippet);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(groupKey, groupName, groupDays, groupMonths, groupYears, memberCount);
+  }
+}
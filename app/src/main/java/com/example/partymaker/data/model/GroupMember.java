@@ -0,0 +1,132 @@
+package com.example.partymaker.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's membership in a group, stored in Room next to the group. The rows mirror the admin
+ * key, friend keys and coming keys of a {@link Group}, so membership lookups and counts are indexed
+ * queries instead of parsing every group's JSON columns. Rows are deleted with their group.
+ */
+@Entity(
+    tableName = "group_members",
+    primaryKeys = {"groupKey", "userKey"},
+    foreignKeys =
+        @ForeignKey(
+            entity = Group.class,
+            parentColumns = "groupKey",
+            childColumns = "groupKey",
+            onDelete = ForeignKey.CASCADE),
+    indices = {@Index(value = {"userKey", "groupKey"}, name = "idx_member_user")})
+public class GroupMember {
+
+  /** Role constants */
+  public static final int ROLE_MEMBER = 0;
+
+  public static final int ROLE_ADMIN = 1;
+
+  /** The key of the group. */
+  @NonNull
+  @ColumnInfo(name = "groupKey")
+  private String groupKey;
+
+  /** The key of the member. */
+  @NonNull
+  @ColumnInfo(name = "userKey")
+  private String userKey;
+
+  /** Member role: {@link #ROLE_MEMBER} or {@link #ROLE_ADMIN}. */
+  @ColumnInfo(name = "role")
+  private int role;
+
+  /** Whether the member is coming to the event. */
+  @ColumnInfo(name = "coming")
+  private boolean coming;
+
+  /**
+   * Constructs a membership.
+   *
+   * @param groupKey the group key
+   * @param userKey the member's user key
+   * @param role the member's role
+   * @param coming whether the member is coming
+   */
+  public GroupMember(@NonNull String groupKey, @NonNull String userKey, int role, boolean coming) {
+    this.groupKey = groupKey;
+    this.userKey = userKey;
+    this.role = role;
+    this.coming = coming;
+  }
+
+  /**
+   * Builds the membership rows of a group: the admin, every friend key and every coming key.
+   *
+   * @param group The group
+   * @return One row per user
+   */
+  public static List<GroupMember> fromGroup(Group group) {
+    Map<String, GroupMember> members = new LinkedHashMap<>();
+    String groupKey = group.getGroupKey();
+    Map<String, Object> comingKeys = group.getComingKeys();
+    if (group.getFriendKeys() != null) {
+      for (String userKey : group.getFriendKeys().keySet()) {
+        boolean coming = comingKeys != null && comingKeys.containsKey(userKey);
+        members.put(userKey, new GroupMember(groupKey, userKey, ROLE_MEMBER, coming));
+      }
+    }
+    if (comingKeys != null) {
+      for (String userKey : comingKeys.keySet()) {
+        if (!members.containsKey(userKey)) {
+          members.put(userKey, new GroupMember(groupKey, userKey, ROLE_MEMBER, true));
+        }
+      }
+    }
+    String adminKey = group.getAdminKey();
+    if (adminKey != null && !adminKey.isEmpty()) {
+      boolean coming = comingKeys != null && comingKeys.containsKey(adminKey);
+      members.put(adminKey, new GroupMember(groupKey, adminKey, ROLE_ADMIN, coming));
+    }
+    return new ArrayList<>(members.values());
+  }
+
+  @NonNull
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public void setGroupKey(@NonNull String groupKey) {
+    this.groupKey = groupKey;
+  }
+
+  @NonNull
+  public String getUserKey() {
+    return userKey;
+  }
+
+  public void setUserKey(@NonNull String userKey) {
+    this.userKey = userKey;
+  }
+
+  public int getRole() {
+    return role;
+  }
+
+  public void setRole(int role) {
+    this.role = role;
+  }
+
+  public boolean isComing() {
+    return coming;
+  }
+
+  public void setComing(boolean coming) {
+    this.coming = coming;
+  }
+}
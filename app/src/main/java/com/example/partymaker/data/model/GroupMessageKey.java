@@ -0,0 +1,80 @@
+package com.example.partymaker.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One message key of a group, stored in Room next to the group. The rows mirror the message keys
+ * of a {@link Group}, so counting a group's messages does not parse its JSON column. Rows are
+ * deleted with their group.
+ */
+@Entity(
+    tableName = "group_message_keys",
+    primaryKeys = {"groupKey", "messageKey"},
+    foreignKeys =
+        @ForeignKey(
+            entity = Group.class,
+            parentColumns = "groupKey",
+            childColumns = "groupKey",
+            onDelete = ForeignKey.CASCADE))
+public class GroupMessageKey {
+
+  /** The key of the group. */
+  @NonNull
+  @ColumnInfo(name = "groupKey")
+  private String groupKey;
+
+  /** The key of the message. */
+  @NonNull
+  @ColumnInfo(name = "messageKey")
+  private String messageKey;
+
+  /**
+   * Constructs a message key row.
+   *
+   * @param groupKey the group key
+   * @param messageKey the message key
+   */
+  public GroupMessageKey(@NonNull String groupKey, @NonNull String messageKey) {
+    this.groupKey = groupKey;
+    this.messageKey = messageKey;
+  }
+
+  /**
+   * Builds the message key rows of a group.
+   *
+   * @param group The group
+   * @return One row per message key
+   */
+  public static List<GroupMessageKey> fromGroup(Group group) {
+    List<GroupMessageKey> rows = new ArrayList<>();
+    if (group.getMessageKeys() != null) {
+      for (String messageKey : group.getMessageKeys().keySet()) {
+        rows.add(new GroupMessageKey(group.getGroupKey(), messageKey));
+      }
+    }
+    return rows;
+  }
+
+  @NonNull
+  public String getGroupKey() {
+    return groupKey;
+  }
+
+  public void setGroupKey(@NonNull String groupKey) {
+    this.groupKey = groupKey;
+  }
+
+  @NonNull
+  public String getMessageKey() {
+    return messageKey;
+  }
+
+  public void setMessageKey(@NonNull String messageKey) {
+    this.messageKey = messageKey;
+  }
+}
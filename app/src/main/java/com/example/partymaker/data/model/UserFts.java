@@ -0,0 +1,39 @@
+package com.example.partymaker.data.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the names of {@link User}. The index reads its content from the users
+ * table, and Room keeps it in sync with triggers.
+ */
+@Fts4(contentEntity = User.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "users_fts")
+public class UserFts {
+
+  /** The user's display name. */
+  @ColumnInfo(name = "username")
+  private String username;
+
+  /** The user's full name. */
+  @ColumnInfo(name = "full_name")
+  private String fullName;
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getFullName() {
+    return fullName;
+  }
+
+  public void setFullName(String fullName) {
+    this.fullName = fullName;
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.partymaker.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import java.util.Objects;
+
+/**
+ * The columns of a {@link User} that a user list row shows. Room reads it with a projection query,
+ * so list screens do not load the friend key maps of every user.
+ */
+public class UserListItem {
+
+  /** The user's unique key. */
+  @NonNull
+  @ColumnInfo(name = "userKey")
+  private final String userKey;
+
+  /** The user's display name. */
+  @ColumnInfo(name = "username")
+  private final String username;
+
+  /** The user's email address. */
+  @ColumnInfo(name = "email")
+  private final String email;
+
+  /** URL to the user's profile image. */
+  @ColumnInfo(name = "profile_image_url")
+  private final String profileImageUrl;
+
+  /**
+   * Constructs a list item. Used by Room.
+   *
+   * @param userKey the user key
+   * @param username the display name
+   * @param email the email address
+   * @param profileImageUrl the profile image URL
+   */
+  public UserListItem(
+      @NonNull String userKey, String username, String email, String profileImageUrl) {
+    this.userKey = userKey;
+    this.username = username;
+    this.email = email;
+    this.profileImageUrl = profileImageUrl;
+  }
+
+  /**
+   * Builds the list item of a user that is not read from Room, such as a server list.
+   *
+   * @param user The user
+   * @return The list item
+   */
+  public static UserListItem fromUser(User user) {
+    return new UserListItem(
+        user.getUserKey(), user.getUsername(), user.getEmail(), user.getProfileImageUrl());
+  }
+
+  @NonNull
+  public String getUserKey() {
+    return userKey;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+
+  public String getProfileImageUrl() {
+    return profileImageUrl;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof UserListItem)) {
+      return false;
+    }
+    UserListItem that = (UserListItem) o;
+    return userKey.equals(that.userKey)
+        && Objects.equals(username, that.username)
+        && Objects.equals(email, that.email)
+        && Objects.equals(profileImageUrl, that.profileImageUrl);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(userKey, username, email);
+  }
+}
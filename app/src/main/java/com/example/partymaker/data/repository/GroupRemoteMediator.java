@@ -0,0 +1,100 @@
+package com.example.partymaker.data.repository;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.concurrent.futures.CallbackToFutureAdapter;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+import androidx.paging.RemoteMediator.MediatorResult;
+import androidx.paging.guava.ListenableFutureRemoteMediator;
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Fills a paged group list in Room from the server.
+ *
+ * <p>The server returns whole lists rather than pages, so a refresh fetches the list once and
+ * writes it to Room in one transaction, and appending never needs the network. The {@code
+ * PagingSource} then pages list rows out of Room, which keeps only the visible pages in memory.
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+final class GroupRemoteMediator extends ListenableFutureRemoteMediator<Integer, GroupListItem> {
+  private static final String TAG = "GroupRemoteMediator";
+
+  /** Fetches the server's list. */
+  interface Fetcher {
+    void fetch(DataSource.DataCallback<List<Group>> callback);
+  }
+
+  /** Writes the server's list to Room. Called on a background thread. */
+  interface Writer {
+    void write(List<Group> groups);
+  }
+
+  private final String name;
+  private final Fetcher fetcher;
+  private final Writer writer;
+
+  /**
+   * Creates a mediator.
+   *
+   * @param name Name of the list, for logging
+   * @param fetcher Fetches the server's list
+   * @param writer Writes the list to Room
+   */
+  GroupRemoteMediator(String name, Fetcher fetcher, Writer writer) {
+    this.name = name;
+    this.fetcher = fetcher;
+    this.writer = writer;
+  }
+
+  @NonNull
+  @Override
+  public ListenableFuture<MediatorResult> loadFuture(
+      @NonNull LoadType loadType, @NonNull PagingState<Integer, GroupListItem> state) {
+    return CallbackToFutureAdapter.getFuture(
+        completer -> {
+          if (loadType != LoadType.REFRESH) {
+            // The refresh already wrote the whole list
+            completer.set(new MediatorResult.Success(true));
+            return name + " " + loadType;
+          }
+
+          fetcher.fetch(
+              new DataSource.DataCallback<>() {
+                @Override
+                public void onDataLoaded(List<Group> groups) {
+                  if (groups == null) {
+                    onError("Empty response");
+                    return;
+                  }
+                  ThreadUtils.runInBackground(
+                      () -> {
+                        try {
+                          writer.write(groups);
+                          Log.d(TAG, name + " refreshed: " + groups.size() + " groups");
+                          completer.set(new MediatorResult.Success(true));
+                        } catch (Exception e) {
+                          Log.e(TAG, "Failed to write " + name, e);
+                          completer.set(new MediatorResult.Error(e));
+                        }
+                      });
+                }
+
+                @Override
+                public void onError(String error) {
+                  // The cached pages stay on screen
+                  Log.w(TAG, "Failed to refresh " + name + ": " + error);
+                  completer.set(new MediatorResult.Error(new IOException(error)));
+                }
+              });
+          return name + " refresh";
+        });
+  }
+}
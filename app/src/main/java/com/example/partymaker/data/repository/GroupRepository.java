@@ -2,15 +2,27 @@ package com.example.partymaker.data.repository;
 
 import android.content.Context;
 import android.util.Log;
+import androidx.annotation.OptIn;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
 import com.example.partymaker.data.api.Result;
+import com.example.partymaker.data.api.SyncEngine;
 import com.example.partymaker.data.local.AppDatabase;
+import com.example.partymaker.data.local.FtsQuery;
 import com.example.partymaker.data.local.GroupDao;
+import com.example.partymaker.data.local.GroupListQuery;
 import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
 import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
 import com.example.partymaker.utils.security.encryption.GroupKeyManager;
+import com.google.gson.Gson;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,6 +31,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import kotlin.jvm.functions.Function0;
 
 /**
  * Repository for Group data following the Repository pattern with proper separation of concerns.
@@ -57,11 +70,15 @@ public class GroupRepository {
   private static final String ERROR_INVALID_UPDATE_DATA = "Invalid update data";
   private static final String ERROR_GROUP_CANNOT_BE_NULL = "Group cannot be null";
   private static final String ERROR_INVALID_GROUP = "Invalid group";
+  private static final String ERROR_OFFLINE_QUEUE_FULL =
+      "Too many changes are waiting for the network. Please try again when online.";
 
   private static GroupRepository instance;
 
   private LocalGroupDataSource localDataSource;
   private final RemoteGroupDataSource remoteDataSource;
+  private final Gson gson = new Gson();
+  private final SyncEngine syncEngine = SyncEngine.getInstance();
   private GroupDao groupDao; // Direct DAO access for optimized queries
   private Context applicationContext; // Using application context to avoid memory leaks
   private boolean isInitialized = false;
@@ -271,26 +288,7 @@ public class GroupRepository {
         new DataSource.DataCallback<>() {
           @Override
           public void onDataLoaded(List<Group> groups) {
-            if (groups != null && !groups.isEmpty() && isInitialized) {
-              // Cache the groups locally (save each group individually)
-              for (Group group : groups) {
-                localDataSource.saveItem(
-                    group.getGroupKey(),
-                    group,
-                    new DataSource.OperationCallback() {
-                      @Override
-                      public void onComplete() {
-                        // Group cached successfully
-                      }
-
-                      @Override
-                      public void onError(String error) {
-                        Log.w(TAG, "Failed to cache group: " + error);
-                      }
-                    });
-              }
-              Log.d(TAG, "Groups cached successfully: " + groups.size());
-            }
+            cacheGroups(groups);
             callback.onDataLoaded(groups);
           }
 
@@ -322,6 +320,76 @@ public class GroupRepository {
         });
   }
 
+  /**
+   * Gets a group from the cache right away, then revalidates it against the server. The callback
+   * receives the cached group first, and the server's copy later only if its content differs. If
+   * nothing is cached, this behaves like a forced refresh.
+   *
+   * @param groupKey The group key
+   * @param callback Callback to receive the group, possibly twice
+   */
+  public void getGroupAndRevalidate(String groupKey, final DataCallback<Group> callback) {
+    if (!isInitialized) {
+      Log.e(TAG, "Repository not initialized. Call initialize() first.");
+      callback.onError(ERROR_NOT_INITIALIZED);
+      return;
+    }
+
+    if (groupKey == null || groupKey.isEmpty()) {
+      Log.e(TAG, "Invalid group key provided");
+      callback.onError(ERROR_INVALID_GROUP_KEY);
+      return;
+    }
+
+    localDataSource.getItem(
+        groupKey,
+        new DataSource.DataCallback<>() {
+          @Override
+          public void onDataLoaded(Group cachedGroup) {
+            if (cachedGroup == null) {
+              fetchFromRemoteAndCache(groupKey, callback);
+              return;
+            }
+            callback.onDataLoaded(cachedGroup);
+            revalidateGroup(groupKey, contentHash(cachedGroup), callback);
+          }
+
+          @Override
+          public void onError(String error) {
+            Log.w(TAG, "Cache error, trying server: " + error);
+            fetchFromRemoteAndCache(groupKey, callback);
+          }
+        });
+  }
+
+  /** Fetches a group and emits it only if its content differs from what was shown. */
+  private void revalidateGroup(String groupKey, int shownHash, final DataCallback<Group> callback) {
+    remoteDataSource.getItem(
+        groupKey,
+        new DataSource.DataCallback<>() {
+          @Override
+          public void onDataLoaded(Group group) {
+            if (group == null) {
+              return;
+            }
+            decodeGroupData(group);
+            if (contentHash(group) == shownHash) {
+              Log.d(TAG, "Cached group is current: " + groupKey);
+              return;
+            }
+            Log.d(TAG, "Group changed on server, emitting fresh copy: " + groupKey);
+            cacheGroup(group);
+            callback.onDataLoaded(group);
+          }
+
+          @Override
+          public void onError(String error) {
+            // The cached copy is already on screen
+            Log.w(TAG, "Revalidating group failed, keeping cached copy: " + error);
+          }
+        });
+  }
+
   /**
    * Saves a group to both remote and local sources.
    *
@@ -342,38 +410,42 @@ public class GroupRepository {
       return;
     }
 
-    // Save to remote first (source of truth)
-    remoteDataSource.saveItem(
-        groupKey,
-        group,
-        new DataSource.OperationCallback() {
-          @Override
-          public void onComplete() {
-            // Then cache locally
-            localDataSource.saveItem(
-                groupKey,
-                group,
-                new DataSource.OperationCallback() {
-                  @Override
-                  public void onComplete() {
-                    Log.d(TAG, "Group saved and cached successfully: " + groupKey);
-                    callback.onComplete();
-                  }
+    // Save to remote first (source of truth), held by the sync engine while offline
+    submitWrite(
+        callback,
+        () -> {
+          remoteDataSource.saveItem(
+              groupKey,
+              group,
+              new DataSource.OperationCallback() {
+                @Override
+                public void onComplete() {
+                  // Then cache locally
+                  localDataSource.saveItem(
+                      groupKey,
+                      group,
+                      new DataSource.OperationCallback() {
+                        @Override
+                        public void onComplete() {
+                          Log.d(TAG, "Group saved and cached successfully: " + groupKey);
+                          callback.onComplete();
+                        }
 
-                  @Override
-                  public void onError(String error) {
-                    Log.w(TAG, "Failed to cache group after saving: " + error);
-                    // Still report success since remote save succeeded
-                    callback.onComplete();
-                  }
-                });
-          }
+                        @Override
+                        public void onError(String error) {
+                          Log.w(TAG, "Failed to cache group after saving: " + error);
+                          // Still report success since remote save succeeded
+                          callback.onComplete();
+                        }
+                      });
+                }
 
-          @Override
-          public void onError(String errorMessage) {
-            Log.e(TAG, "Failed to save group to server: " + errorMessage);
-            callback.onError(errorMessage);
-          }
+                @Override
+                public void onError(String errorMessage) {
+                  Log.e(TAG, "Failed to save group to server: " + errorMessage);
+                  callback.onError(errorMessage);
+                }
+              });
         });
   }
 
@@ -398,38 +470,42 @@ public class GroupRepository {
       return;
     }
 
-    // Update remote first (source of truth)
-    remoteDataSource.updateItem(
-        groupKey,
-        updates,
-        new DataSource.OperationCallback() {
-          @Override
-          public void onComplete() {
-            // Then update local cache
-            localDataSource.updateItem(
-                groupKey,
-                updates,
-                new DataSource.OperationCallback() {
-                  @Override
-                  public void onComplete() {
-                    Log.d(TAG, "Group updated successfully: " + groupKey);
-                    callback.onComplete();
-                  }
+    // Update remote first (source of truth), held by the sync engine while offline
+    submitWrite(
+        callback,
+        () -> {
+          remoteDataSource.updateItem(
+              groupKey,
+              updates,
+              new DataSource.OperationCallback() {
+                @Override
+                public void onComplete() {
+                  // Then update local cache
+                  localDataSource.updateItem(
+                      groupKey,
+                      updates,
+                      new DataSource.OperationCallback() {
+                        @Override
+                        public void onComplete() {
+                          Log.d(TAG, "Group updated successfully: " + groupKey);
+                          callback.onComplete();
+                        }
 
-                  @Override
-                  public void onError(String error) {
-                    Log.w(TAG, "Failed to update cached group: " + error);
-                    // Still report success since remote update succeeded
-                    callback.onComplete();
-                  }
-                });
-          }
+                        @Override
+                        public void onError(String error) {
+                          Log.w(TAG, "Failed to update cached group: " + error);
+                          // Still report success since remote update succeeded
+                          callback.onComplete();
+                        }
+                      });
+                }
 
-          @Override
-          public void onError(String errorMessage) {
-            Log.e(TAG, "Failed to update group on server: " + errorMessage);
-            callback.onError(errorMessage);
-          }
+                @Override
+                public void onError(String errorMessage) {
+                  Log.e(TAG, "Failed to update group on server: " + errorMessage);
+                  callback.onError(errorMessage);
+                }
+              });
         });
   }
 
@@ -452,39 +528,56 @@ public class GroupRepository {
       return;
     }
 
-    // Delete from remote first (source of truth)
-    remoteDataSource.deleteItem(
-        groupKey,
-        new DataSource.OperationCallback() {
-          @Override
-          public void onComplete() {
-            // Then delete from local cache
-            localDataSource.deleteItem(
-                groupKey,
-                new DataSource.OperationCallback() {
-                  @Override
-                  public void onComplete() {
-                    Log.d(TAG, "Group deleted successfully: " + groupKey);
-                    callback.onComplete();
-                  }
+    // Delete from remote first (source of truth), held by the sync engine while offline
+    submitWrite(
+        callback,
+        () -> {
+          remoteDataSource.deleteItem(
+              groupKey,
+              new DataSource.OperationCallback() {
+                @Override
+                public void onComplete() {
+                  // Then delete from local cache
+                  localDataSource.deleteItem(
+                      groupKey,
+                      new DataSource.OperationCallback() {
+                        @Override
+                        public void onComplete() {
+                          Log.d(TAG, "Group deleted successfully: " + groupKey);
+                          callback.onComplete();
+                        }
 
-                  @Override
-                  public void onError(String error) {
-                    Log.w(TAG, "Failed to delete cached group: " + error);
-                    // Still report success since remote delete succeeded
-                    callback.onComplete();
-                  }
-                });
-          }
+                        @Override
+                        public void onError(String error) {
+                          Log.w(TAG, "Failed to delete cached group: " + error);
+                          // Still report success since remote delete succeeded
+                          callback.onComplete();
+                        }
+                      });
+                }
 
-          @Override
-          public void onError(String errorMessage) {
-            Log.e(TAG, "Failed to delete group from server: " + errorMessage);
-            callback.onError(errorMessage);
-          }
+                @Override
+                public void onError(String errorMessage) {
+                  Log.e(TAG, "Failed to delete group from server: " + errorMessage);
+                  callback.onError(errorMessage);
+                }
+              });
         });
   }
 
+  /**
+   * Sends a write to the server as soon as there is a connection. Offline, the write waits and is
+   * sent in order on reconnect, and the callback is called once it was sent.
+   *
+   * @param callback Receives the error if the write cannot be queued
+   * @param write Starts the remote write
+   */
+  private void submitWrite(final OperationCallback callback, Runnable write) {
+    if (!syncEngine.submit(SyncEngine.Priority.USER, null, write)) {
+      callback.onError(ERROR_OFFLINE_QUEUE_FULL);
+    }
+  }
+
   /**
    * Gets a LiveData object for observing a group.
    *
@@ -574,40 +667,13 @@ public class GroupRepository {
       return;
     }
 
-    // Get all groups from cache and filter for user
-    localDataSource.getAllItems(
+    // Get the user's groups from cache through the membership index
+    localDataSource.getUserItems(
+        userKey,
         new DataSource.DataCallback<>() {
           @Override
-          public void onDataLoaded(List<Group> cachedGroups) {
-            List<Group> userGroups = new ArrayList<>();
-
-            // Filter groups for this user
-            if (cachedGroups != null && !cachedGroups.isEmpty()) {
-              Log.d(
-                  TAG, "Filtering " + cachedGroups.size() + " cached groups for user: " + userKey);
-              for (Group group : cachedGroups) {
-                if (isUserInGroup(group, userKey)) {
-                  userGroups.add(group);
-                  boolean isAdmin =
-                      group.getAdminKey() != null && group.getAdminKey().equals(userKey);
-                  boolean isMember =
-                      group.getFriendKeys() != null && group.getFriendKeys().containsKey(userKey);
-                  Log.d(
-                      TAG,
-                      "Group "
-                          + group.getGroupName()
-                          + " belongs to user "
-                          + userKey
-                          + " (admin: "
-                          + isAdmin
-                          + ", member: "
-                          + isMember
-                          + ")");
-                }
-              }
-            }
-
-            if (!userGroups.isEmpty()) {
+          public void onDataLoaded(List<Group> userGroups) {
+            if (userGroups != null && !userGroups.isEmpty()) {
               Log.d(TAG, "User groups found in cache: " + userGroups.size());
               callback.onDataLoaded(Result.success(userGroups));
             } else {
@@ -624,6 +690,80 @@ public class GroupRepository {
         });
   }
 
+  /**
+   * Creates a paging source over a user's cached groups, filtered and sorted in SQL.
+   *
+   * @param userKey The user key
+   * @param query The filters and sort order
+   * @return The paging source
+   */
+  public PagingSource<Integer, GroupListItem> pageUserGroups(
+      String userKey, GroupListQuery query) {
+    return groupDao.pageUserGroups(userKey, query);
+  }
+
+  /**
+   * Pages through a user's groups in Room. Cached pages show at once, and the list refreshes from
+   * the server whenever the paging data is refreshed. Cache the result in the caller's scope with
+   * {@link PagingLiveData#cachedIn}.
+   *
+   * @param userKey The user key
+   * @param pagingSourceFactory Creates the paging sources, usually from {@link
+   *     #pageUserGroups(String, GroupListQuery)}; invalidate them to apply a new query
+   * @return LiveData of paging data, or null if the repository is not initialized
+   */
+  @OptIn(markerClass = ExperimentalPagingApi.class)
+  public LiveData<PagingData<GroupListItem>> getUserGroupsPaged(
+      String userKey, Function0<PagingSource<Integer, GroupListItem>> pagingSourceFactory) {
+    if (!isInitialized) {
+      Log.e(TAG, "Repository not initialized. Call initialize() first.");
+      return null;
+    }
+    GroupRemoteMediator mediator =
+        new GroupRemoteMediator(
+            "User groups",
+            callback -> remoteDataSource.getUserGroups(userKey, callback),
+            groups -> groupDao.syncUserGroups(groups, userKey));
+    Pager<Integer, GroupListItem> pager =
+        new Pager<>(new PagingConfig(DEFAULT_PAGE_SIZE), null, mediator, pagingSourceFactory);
+    return PagingLiveData.getLiveData(pager);
+  }
+
+  /**
+   * Pages through the public groups a user has not joined, nearest event first. Works like {@link
+   * #getUserGroupsPaged(String, Function0)}; only public groups are written to the cache.
+   *
+   * @param userKey The user key
+   * @return LiveData of paging data, or null if the repository is not initialized
+   */
+  @OptIn(markerClass = ExperimentalPagingApi.class)
+  public LiveData<PagingData<GroupListItem>> getPublicGroupsPaged(String userKey) {
+    if (!isInitialized) {
+      Log.e(TAG, "Repository not initialized. Call initialize() first.");
+      return null;
+    }
+    GroupRemoteMediator mediator =
+        new GroupRemoteMediator(
+            "Public groups",
+            remoteDataSource::getAllItems,
+            groups -> {
+              List<Group> publicGroups = new ArrayList<>();
+              for (Group group : groups) {
+                if (group.getGroupType() == Group.GROUP_TYPE_PUBLIC) {
+                  publicGroups.add(group);
+                }
+              }
+              groupDao.syncGroupsOfType(publicGroups, Group.GROUP_TYPE_PUBLIC);
+            });
+    Pager<Integer, GroupListItem> pager =
+        new Pager<>(
+            new PagingConfig(DEFAULT_PAGE_SIZE),
+            null,
+            mediator,
+            () -> groupDao.pagePublicGroups(userKey));
+    return PagingLiveData.getLiveData(pager);
+  }
+
   /**
    * Gets groups for a specific user from the server.
    *
@@ -644,26 +784,7 @@ public class GroupRepository {
           public void onDataLoaded(List<Group> groups) {
             Log.d(TAG, "User groups loaded from server: " + (groups != null ? groups.size() : 0));
 
-            // Cache the groups
-            if (groups != null && !groups.isEmpty() && isInitialized) {
-              for (Group group : groups) {
-                localDataSource.saveItem(
-                    group.getGroupKey(),
-                    group,
-                    new DataSource.OperationCallback() {
-                      @Override
-                      public void onComplete() {
-                        // Group cached successfully
-                      }
-
-                      @Override
-                      public void onError(String error) {
-                        Log.w(TAG, "Failed to cache user group: " + error);
-                      }
-                    });
-              }
-              Log.d(TAG, "User groups cached: " + groups.size());
-            }
+            cacheUserGroups(groups, userKey);
 
             // Return result
             callback.onDataLoaded(Result.success(groups != null ? groups : new ArrayList<>()));
@@ -673,23 +794,13 @@ public class GroupRepository {
           public void onError(String errorMessage) {
             Log.e(TAG, "Error loading user groups: " + errorMessage);
 
-            // Try to get from cache as fallback
-            localDataSource.getAllItems(
+            // Fall back to the cached groups, found through the membership index
+            localDataSource.getUserItems(
+                userKey,
                 new DataSource.DataCallback<>() {
                   @Override
-                  public void onDataLoaded(List<Group> cachedGroups) {
-                    List<Group> userGroups = new ArrayList<>();
-
-                    // Filter groups for this user
-                    if (cachedGroups != null && !cachedGroups.isEmpty()) {
-                      for (Group group : cachedGroups) {
-                        if (isUserInGroup(group, userKey)) {
-                          userGroups.add(group);
-                        }
-                      }
-                    }
-
-                    if (!userGroups.isEmpty()) {
+                  public void onDataLoaded(List<Group> userGroups) {
+                    if (userGroups != null && !userGroups.isEmpty()) {
                       Log.d(
                           TAG,
                           "Using cached user groups due to network error: " + userGroups.size());
@@ -1094,7 +1205,8 @@ public class GroupRepository {
   }
   
   /**
-   * Search groups with caching
+   * Search groups with caching. Words in the query match the start of words in a group's name,
+   * location or description, and name matches rank first.
    *
    * @param query The search query
    * @return LiveData containing search results
@@ -1117,8 +1229,14 @@ public class GroupRepository {
       return cached.data;
     }
     
-    // Search locally first
-    LiveData<List<Group>> localData = groupDao.searchGroups(query, 50);
+    String match = FtsQuery.prefixMatch(query);
+    if (match == null) {
+      return new MutableLiveData<>(new ArrayList<>());
+    }
+
+    // Search locally first, through the full-text index
+    LiveData<List<Group>> localData =
+        groupDao.searchGroupsFts(match, FtsQuery.prefixMatch("group_name", query), 50);
     
     MediatorLiveData<List<Group>> result = new MediatorLiveData<>();
     result.addSource(localData, groups -> {
@@ -1218,6 +1336,57 @@ public class GroupRepository {
     }
   }
 
+  /**
+   * Writes the full list of groups received from the server to the local cache in one
+   * transaction, and deletes cached groups the server no longer returns.
+   *
+   * @param groups All groups on the server
+   */
+  private void cacheGroups(List<Group> groups) {
+    if (groups != null && isInitialized) {
+      localDataSource.replaceAllItems(groups, cacheCallback(groups.size()));
+    }
+  }
+
+  /** Writes one group received from the server to the local cache. */
+  private void cacheGroup(Group group) {
+    if (isInitialized) {
+      localDataSource.saveItem(group.getGroupKey(), group, cacheCallback(1));
+    }
+  }
+
+  /**
+   * Writes the groups of a user received from the server to the local cache. The user's cached
+   * groups the server no longer returns are deleted.
+   */
+  private void cacheUserGroups(List<Group> groups, String userKey) {
+    if (groups != null && isInitialized) {
+      localDataSource.syncUserItems(groups, userKey, cacheCallback(groups.size()));
+    }
+  }
+
+  private DataSource.OperationCallback cacheCallback(int groupCount) {
+    return new DataSource.OperationCallback() {
+      @Override
+      public void onComplete() {
+        Log.d(TAG, "Groups cached: " + groupCount);
+      }
+
+      @Override
+      public void onError(String error) {
+        Log.w(TAG, "Failed to cache groups: " + error);
+      }
+    };
+  }
+
+  /**
+   * Hashes a group's content. Gson trees hash their object members as a set, so the order in
+   * which map fields such as friend keys were filled does not matter.
+   */
+  private int contentHash(Group group) {
+    return gson.toJsonTree(group).hashCode();
+  }
+
   /** Decodes URL-encoded strings in group data. */
   private void decodeGroupData(Group group) {
     if (group == null) return;
@@ -1243,24 +1412,6 @@ public class GroupRepository {
     }
   }
 
-  /**
-   * Checks if a user belongs to a group (either as admin or member).
-   *
-   * @param group The group to check
-   * @param userKey The user key to check
-   * @return true if user is admin or member of the group
-   */
-  private boolean isUserInGroup(Group group, String userKey) {
-    if (group == null || userKey == null) {
-      return false;
-    }
-
-    boolean isAdmin = group.getAdminKey() != null && group.getAdminKey().equals(userKey);
-    boolean isMember = group.getFriendKeys() != null && group.getFriendKeys().containsKey(userKey);
-
-    return isAdmin || isMember;
-  }
-
   /** Interface for generic callbacks used by ViewModels */
   public interface Callback<T> {
     void onSuccess(T result);
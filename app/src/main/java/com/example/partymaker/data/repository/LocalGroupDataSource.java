@@ -6,8 +6,10 @@ import androidx.lifecycle.LiveData;
 import com.example.partymaker.data.local.AppDatabase;
 import com.example.partymaker.data.model.Group;
 import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToIntFunction;
 
 /**
  * Local data source implementation for Group entities using Room database. Handles all local
@@ -81,6 +83,32 @@ public class LocalGroupDataSource implements DataSource<Group, String> {
         });
   }
 
+  /**
+   * Gets the groups a user administers or belongs to, found through the membership index.
+   *
+   * @param userKey The user key
+   * @param callback Callback to receive the groups
+   */
+  public void getUserItems(String userKey, DataCallback<List<Group>> callback) {
+    if (database == null) {
+      Log.e(TAG, "Database not initialized");
+      callback.onError(ERROR_DATABASE_NOT_INITIALIZED);
+      return;
+    }
+
+    ThreadUtils.runInBackground(
+        () -> {
+          try {
+            List<Group> groups = database.groupDao().getUserGroups(userKey);
+            ThreadUtils.runOnMainThread(() -> callback.onDataLoaded(groups));
+          } catch (Exception e) {
+            Log.e(TAG, "Error getting user groups from local database", e);
+            ThreadUtils.runOnMainThread(
+                () -> callback.onError(ERROR_DATABASE_OPERATION_FAILED + e.getMessage()));
+          }
+        });
+  }
+
   @Override
   public void saveItem(String groupKey, Group group, OperationCallback callback) {
     if (database == null) {
@@ -99,7 +127,7 @@ public class LocalGroupDataSource implements DataSource<Group, String> {
           try {
             ensureGroupKeyIsSet(group, groupKey);
 
-            database.groupDao().insertGroup(group);
+            database.groupDao().saveGroup(group);
             Log.d(TAG, "Group saved to local database: " + groupKey);
             ThreadUtils.runOnMainThread(callback::onComplete);
           } catch (Exception e) {
@@ -110,6 +138,43 @@ public class LocalGroupDataSource implements DataSource<Group, String> {
         });
   }
 
+  /**
+   * Replaces the cached groups with the server's full list in one transaction, deleting groups the
+   * server no longer has.
+   *
+   * @param groups All groups on the server
+   * @param callback Callback to receive the operation result
+   */
+  public void replaceAllItems(List<Group> groups, OperationCallback callback) {
+    syncInTransaction(groups, valid -> database.groupDao().replaceAllGroups(valid), callback);
+  }
+
+  /**
+   * Saves the groups of one type from the server in one transaction, such as the public groups.
+   * Cached groups of that type that are missing from {@code groups} are deleted.
+   *
+   * @param groups The groups of that type on the server
+   * @param groupType The group type
+   * @param callback Callback to receive the operation result
+   */
+  public void syncItemsOfType(List<Group> groups, int groupType, OperationCallback callback) {
+    syncInTransaction(
+        groups, valid -> database.groupDao().syncGroupsOfType(valid, groupType), callback);
+  }
+
+  /**
+   * Saves the groups of one user from the server in one transaction. The user's cached groups that
+   * are missing from {@code groups} are deleted.
+   *
+   * @param groups The user's groups on the server
+   * @param userKey The user key
+   * @param callback Callback to receive the operation result
+   */
+  public void syncUserItems(List<Group> groups, String userKey, OperationCallback callback) {
+    syncInTransaction(
+        groups, valid -> database.groupDao().syncUserGroups(valid, userKey), callback);
+  }
+
   @Override
   public void updateItem(String groupKey, Map<String, Object> updates, OperationCallback callback) {
     if (database == null) {
@@ -135,7 +200,8 @@ public class LocalGroupDataSource implements DataSource<Group, String> {
             // Apply updates to the existing group
             applyUpdatesToGroup(existingGroup, updates);
 
-            database.groupDao().updateGroup(existingGroup);
+            // Saved with its memberships, as the admin key may have changed
+            database.groupDao().saveGroup(existingGroup);
             Log.d(TAG, "Group updated in local database: " + groupKey);
             ThreadUtils.runOnMainThread(callback::onComplete);
           } catch (Exception e) {
@@ -209,6 +275,49 @@ public class LocalGroupDataSource implements DataSource<Group, String> {
         });
   }
 
+  /**
+   * Runs a DAO sync method on the valid groups of a server result in the background.
+   *
+   * @param groups The groups the server returned
+   * @param sync The DAO sync method, returning the number of deleted stale groups
+   * @param callback Callback to receive the operation result
+   */
+  private void syncInTransaction(
+      List<Group> groups, ToIntFunction<List<Group>> sync, OperationCallback callback) {
+    if (database == null) {
+      Log.e(TAG, "Database not initialized");
+      callback.onError(ERROR_DATABASE_NOT_INITIALIZED);
+      return;
+    }
+
+    if (groups == null) {
+      callback.onError(ERROR_INVALID_INPUT);
+      return;
+    }
+
+    List<Group> validGroups = new ArrayList<>(groups.size());
+    for (Group group : groups) {
+      if (group != null && !isInvalidGroupKey(group.getGroupKey())) {
+        validGroups.add(group);
+      }
+    }
+
+    ThreadUtils.runInBackground(
+        () -> {
+          try {
+            int deleted = sync.applyAsInt(validGroups);
+            Log.d(
+                TAG,
+                "Groups synced to local database: " + validGroups.size() + ", stale: " + deleted);
+            ThreadUtils.runOnMainThread(callback::onComplete);
+          } catch (Exception e) {
+            Log.e(TAG, "Error syncing groups to local database", e);
+            ThreadUtils.runOnMainThread(
+                () -> callback.onError(ERROR_DATABASE_OPERATION_FAILED + e.getMessage()));
+          }
+        });
+  }
+
   /**
    * Applies updates from a map to a Group object. This is a simplified approach - in a production
    * app, you might want to use reflection or create a more robust mapping system.
@@ -0,0 +1,269 @@
+package com.example.partymaker.data.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import com.example.partymaker.data.api.FirebaseServerClient;
+import com.example.partymaker.data.api.SyncEngine;
+import com.example.partymaker.data.local.AppDatabase;
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.User;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Warms the local database with what the user is likely to open next, so a cold start can render
+ * from disk.
+ *
+ * <p>A prefetch pass loads, in priority order:
+ *
+ * <ul>
+ *   <li>The user's groups
+ *   <li>The latest messages of the most active chats
+ *   <li>Member profiles of those chats that are not stored yet
+ * </ul>
+ *
+ * <p>Passes are background work for the {@link SyncEngine}: they only run on unmetered networks
+ * while battery saver is off, and otherwise wait until the network allows. Each pass stops once
+ * the session byte budget is spent, and a user is prefetched at most once per {@link
+ * #MIN_PREFETCH_INTERVAL_MS}, also across app restarts.
+ */
+public class PrefetchScheduler {
+  private static final String TAG = "PrefetchScheduler";
+
+  // Scheduling
+  private static final long PREFETCH_DELAY_MS = 5000L; // Let the foreground load go first
+  private static final long MIN_PREFETCH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(30);
+  private static final long REQUEST_TIMEOUT_SECONDS = 20;
+
+  // Budget per app session, counted in response bytes received from the server
+  private static final long SESSION_BYTE_BUDGET = 1024 * 1024;
+
+  // What to warm
+  private static final int ACTIVE_CHATS_TO_PREFETCH = 3;
+  private static final int MESSAGES_PER_CHAT = 50;
+  private static final int MAX_MEMBER_PROFILES = 30;
+
+  private static final String PREFS_NAME = "prefetch_prefs";
+  private static final String KEY_LAST_PREFETCH_PREFIX = "last_prefetch_";
+
+  private static PrefetchScheduler instance;
+
+  private final FirebaseServerClient serverClient = FirebaseServerClient.getInstance();
+  private final SyncEngine syncEngine = SyncEngine.getInstance();
+  private final AtomicLong bytesUsed = new AtomicLong();
+  private final AtomicBoolean passScheduled = new AtomicBoolean(false);
+
+  private AppDatabase database;
+  private SharedPreferences preferences;
+
+  private PrefetchScheduler() {}
+
+  /**
+   * Gets the singleton instance of PrefetchScheduler.
+   *
+   * @return The PrefetchScheduler instance
+   */
+  public static synchronized PrefetchScheduler getInstance() {
+    if (instance == null) {
+      instance = new PrefetchScheduler();
+    }
+    return instance;
+  }
+
+  /**
+   * Initializes the scheduler.
+   *
+   * @param context The application context
+   */
+  public void initialize(Context context) {
+    if (context == null) {
+      Log.e(TAG, "Cannot initialize PrefetchScheduler: context is null");
+      return;
+    }
+    Context applicationContext = context.getApplicationContext();
+    database = AppDatabase.getInstance(applicationContext);
+    preferences = applicationContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    Log.d(TAG, "PrefetchScheduler initialized");
+  }
+
+  /**
+   * Schedules a prefetch pass for the user. Does nothing if a pass is already scheduled or the user
+   * was prefetched recently. If the network or battery state does not allow it yet, the pass waits
+   * in the sync engine.
+   *
+   * @param userKey The user key
+   */
+  public void requestPrefetch(String userKey) {
+    if (database == null || userKey == null || userKey.isEmpty()) {
+      return;
+    }
+    if (!isPrefetchDue(userKey) || !passScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    ThreadUtils.scheduleTask(
+        () -> {
+          boolean accepted =
+              syncEngine.submit(
+                  SyncEngine.Priority.BACKGROUND,
+                  TAG + ":" + userKey,
+                  () -> {
+                    try {
+                      runPass(userKey);
+                    } finally {
+                      passScheduled.set(false);
+                    }
+                  });
+          if (!accepted) {
+            // The pass will never run, so a later request may schedule it again
+            passScheduled.set(false);
+          }
+        },
+        PREFETCH_DELAY_MS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void runPass(String userKey) {
+    if (!syncEngine.isBackgroundTrafficAllowed()) {
+      Log.d(TAG, "Skipping prefetch: network changed since it was scheduled");
+      return;
+    }
+    Log.d(TAG, "Prefetch pass started, budget left: " + remainingBudget() + " bytes");
+
+    Map<String, Group> groupMap = fetch(callback -> serverClient.getUserGroups(userKey, callback));
+    if (groupMap == null || groupMap.isEmpty()) {
+      return;
+    }
+    List<Group> groups = new ArrayList<>(groupMap.values());
+    database.groupDao().syncUserGroups(groups, userKey);
+
+    // Chats with the most messages are the ones the user is most likely to open
+    groups.sort(
+        Comparator.comparingInt(
+                (Group group) -> group.getMessageKeys() != null ? group.getMessageKeys().size() : 0)
+            .reversed());
+    List<Group> activeGroups = groups.subList(0, Math.min(ACTIVE_CHATS_TO_PREFETCH, groups.size()));
+
+    for (Group group : activeGroups) {
+      if (remainingBudget() <= 0 || !syncEngine.isBackgroundTrafficAllowed()) {
+        break;
+      }
+      prefetchMessages(group.getGroupKey(), userKey);
+    }
+
+    prefetchMemberProfiles(activeGroups, userKey);
+
+    preferences
+        .edit()
+        .putLong(KEY_LAST_PREFETCH_PREFIX + userKey, System.currentTimeMillis())
+        .apply();
+    Log.d(TAG, "Prefetch pass finished, session bytes used: " + bytesUsed.get());
+  }
+
+  private void prefetchMessages(String groupKey, String userKey) {
+    List<ChatMessage> messages = fetch(callback -> serverClient.getMessages(groupKey, callback));
+    if (messages == null || messages.isEmpty()) {
+      return;
+    }
+    List<ChatMessage> latest = new ArrayList<>(messages);
+    latest.sort(Comparator.comparingLong(ChatMessage::getTimestamp).reversed());
+    if (latest.size() > MESSAGES_PER_CHAT) {
+      latest = latest.subList(0, MESSAGES_PER_CHAT);
+    }
+    long oldestKept = latest.get(latest.size() - 1).getTimestamp();
+    database.chatMessageDao().syncGroupMessages(groupKey, latest, oldestKept, userKey);
+  }
+
+  private void prefetchMemberProfiles(List<Group> groups, String userKey) {
+    Set<String> memberKeys = new LinkedHashSet<>();
+    for (Group group : groups) {
+      if (group.getFriendKeys() != null) {
+        memberKeys.addAll(group.getFriendKeys().keySet());
+      }
+    }
+    memberKeys.remove(userKey);
+
+    List<User> profiles = new ArrayList<>();
+    int fetched = 0;
+    for (String memberKey : memberKeys) {
+      if (fetched >= MAX_MEMBER_PROFILES
+          || remainingBudget() <= 0
+          || !syncEngine.isBackgroundTrafficAllowed()) {
+        break;
+      }
+      if (database.userDao().getUserByKey(memberKey) != null) {
+        continue;
+      }
+      User user = fetch(callback -> serverClient.getUser(memberKey, callback));
+      if (user != null) {
+        profiles.add(user);
+      }
+      fetched++;
+    }
+    if (!profiles.isEmpty()) {
+      database.userDao().upsertUsers(profiles);
+    }
+  }
+
+  /**
+   * Runs a server call and waits for its result on the current background thread, charging the
+   * response bytes the server client received meanwhile to the session budget. Requests other
+   * screens make during the call are charged too, which only ends the pass earlier.
+   *
+   * @return The result, or null if the call failed or the budget was already spent
+   */
+  private <T> T fetch(Consumer<FirebaseServerClient.DataCallback<T>> call) {
+    if (remainingBudget() <= 0) {
+      return null;
+    }
+    long bytesBefore = serverClient.getBytesReceived();
+    CompletableFuture<T> future = new CompletableFuture<>();
+    call.accept(
+        new FirebaseServerClient.DataCallback<T>() {
+          @Override
+          public void onSuccess(T data) {
+            future.complete(data);
+          }
+
+          @Override
+          public void onError(String errorMessage) {
+            future.completeExceptionally(new IllegalStateException(errorMessage));
+          }
+        });
+
+    try {
+      return future.get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      Log.w(TAG, "Prefetch request failed: " + e.getMessage());
+      return null;
+    } finally {
+      // Failed requests still used the bytes they received
+      bytesUsed.addAndGet(serverClient.getBytesReceived() - bytesBefore);
+    }
+  }
+
+  private long remainingBudget() {
+    return SESSION_BYTE_BUDGET - bytesUsed.get();
+  }
+
+  private boolean isPrefetchDue(String userKey) {
+    long lastPrefetch = preferences.getLong(KEY_LAST_PREFETCH_PREFIX + userKey, 0);
+    return System.currentTimeMillis() - lastPrefetch >= MIN_PREFETCH_INTERVAL_MS
+        && remainingBudget() > 0;
+  }
+}
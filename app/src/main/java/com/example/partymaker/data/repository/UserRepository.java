@@ -5,6 +5,7 @@ import android.util.Log;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import com.example.partymaker.data.api.FirebaseServerClient;
+import com.example.partymaker.data.api.SyncEngine;
 import com.example.partymaker.data.local.AppDatabase;
 import com.example.partymaker.data.model.User;
 import com.example.partymaker.utils.auth.AuthenticationManager;
@@ -30,6 +31,8 @@ public class UserRepository {
   private static final String ERROR_USER_CANNOT_BE_NULL = "User cannot be null";
   private static final String ERROR_USER_KEY_NULL_OR_EMPTY = "User key cannot be null or empty";
   private static final String ERROR_GET_CURRENT_USER = "Error getting current user: ";
+  private static final String ERROR_OFFLINE_QUEUE_FULL =
+      "Too many changes are waiting for the network. Please try again when online.";
 
   // Field names for database operations
   private static final String FIELD_USERNAME = "username";
@@ -42,6 +45,7 @@ public class UserRepository {
   private static final char SPACE_CHAR = ' ';
   private static UserRepository instance;
   private final FirebaseServerClient serverClient;
+  private final SyncEngine syncEngine = SyncEngine.getInstance();
   private AppDatabase database;
 
   // LiveData objects for caching data
@@ -114,8 +118,8 @@ public class UserRepository {
                   if (users != null && !users.isEmpty()) {
                     ThreadUtils.runInBackground(
                         () -> {
-                          database.userDao().insertUsers(users);
-                          Log.d(TAG, "Users cached: " + users.size());
+                          int deleted = database.userDao().replaceAllUsers(users);
+                          Log.d(TAG, "Users cached: " + users.size() + ", stale: " + deleted);
                         });
                   }
 
@@ -309,37 +313,41 @@ public class UserRepository {
 
     Log.d(TAG, "Saving user: " + userId);
 
-    serverClient.saveUser(
-        userId,
-        user,
-        new FirebaseServerClient.OperationCallback() {
-          @Override
-          public void onSuccess() {
-            Log.d(TAG, "User saved successfully");
+    submitWrite(
+        callback,
+        () -> {
+          serverClient.saveUser(
+              userId,
+              user,
+              new FirebaseServerClient.OperationCallback() {
+                @Override
+                public void onSuccess() {
+                  Log.d(TAG, "User saved successfully");
 
-            // Update cache
-            userCache.put(userId, user);
+                  // Update cache
+                  userCache.put(userId, user);
 
-            // If this is the current user, update currentUser LiveData
-            if (isCurrentUser(userId)) {
-              currentUser.postValue(user);
-            }
+                  // If this is the current user, update currentUser LiveData
+                  if (isCurrentUser(userId)) {
+                    currentUser.postValue(user);
+                  }
 
-            // Update allUsers LiveData if it contains data
-            Map<String, User> currentUsers = allUsers.getValue();
-            if (currentUsers != null) {
-              currentUsers.put(userId, user);
-              allUsers.postValue(currentUsers);
-            }
+                  // Update allUsers LiveData if it contains data
+                  Map<String, User> currentUsers = allUsers.getValue();
+                  if (currentUsers != null) {
+                    currentUsers.put(userId, user);
+                    allUsers.postValue(currentUsers);
+                  }
 
-            callback.onComplete();
-          }
+                  callback.onComplete();
+                }
 
-          @Override
-          public void onError(String errorMessage) {
-            Log.e(TAG, "Error saving user: " + errorMessage);
-            callback.onError(errorMessage);
-          }
+                @Override
+                public void onError(String errorMessage) {
+                  Log.e(TAG, "Error saving user: " + errorMessage);
+                  callback.onError(errorMessage);
+                }
+              });
         });
   }
 
@@ -365,44 +373,61 @@ public class UserRepository {
 
     Log.d(TAG, "Updating user: " + userId);
 
-    serverClient.updateUser(
-        userId,
-        updates,
-        new FirebaseServerClient.OperationCallback() {
-          @Override
-          public void onSuccess() {
-            Log.d(TAG, "User updated successfully");
+    submitWrite(
+        callback,
+        () -> {
+          serverClient.updateUser(
+              userId,
+              updates,
+              new FirebaseServerClient.OperationCallback() {
+                @Override
+                public void onSuccess() {
+                  Log.d(TAG, "User updated successfully");
+
+                  // Update cache if we have the user
+                  if (userCache.containsKey(userId)) {
+                    User user = userCache.get(userId);
+                    applyUpdatesToUser(user, updates);
+                    userCache.put(userId, user);
+
+                    // If this is the current user, update currentUser LiveData
+                    if (isCurrentUser(userId)) {
+                      currentUser.postValue(user);
+                    }
 
-            // Update cache if we have the user
-            if (userCache.containsKey(userId)) {
-              User user = userCache.get(userId);
-              applyUpdatesToUser(user, updates);
-              userCache.put(userId, user);
-
-              // If this is the current user, update currentUser LiveData
-              if (isCurrentUser(userId)) {
-                currentUser.postValue(user);
-              }
-
-              // Update allUsers LiveData if it contains data
-              Map<String, User> currentUsers = allUsers.getValue();
-              if (currentUsers != null && currentUsers.containsKey(userId)) {
-                currentUsers.put(userId, user);
-                allUsers.postValue(currentUsers);
-              }
-            }
+                    // Update allUsers LiveData if it contains data
+                    Map<String, User> currentUsers = allUsers.getValue();
+                    if (currentUsers != null && currentUsers.containsKey(userId)) {
+                      currentUsers.put(userId, user);
+                      allUsers.postValue(currentUsers);
+                    }
+                  }
 
-            callback.onComplete();
-          }
+                  callback.onComplete();
+                }
 
-          @Override
-          public void onError(String errorMessage) {
-            Log.e(TAG, "Error updating user: " + errorMessage);
-            callback.onError(errorMessage);
-          }
+                @Override
+                public void onError(String errorMessage) {
+                  Log.e(TAG, "Error updating user: " + errorMessage);
+                  callback.onError(errorMessage);
+                }
+              });
         });
   }
 
+  /**
+   * Sends a write to the server as soon as there is a connection. Offline, the write waits and is
+   * sent in order on reconnect, and the callback is called once it was sent.
+   *
+   * @param callback Receives the error if the write cannot be queued
+   * @param write Starts the remote write
+   */
+  private void submitWrite(OperationCallback callback, Runnable write) {
+    if (!syncEngine.submit(SyncEngine.Priority.USER, null, write)) {
+      callback.onError(ERROR_OFFLINE_QUEUE_FULL);
+    }
+  }
+
   /**
    * Applies a single field update to a user object
    *
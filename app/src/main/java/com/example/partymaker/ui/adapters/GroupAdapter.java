@@ -10,7 +10,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.partymaker.R;
-import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
 import com.example.partymaker.utils.business.sharing.ContentSharingManager;
 import com.example.partymaker.utils.media.GlideImageLoader;
 import com.google.android.gms.tasks.Task;
@@ -19,10 +19,11 @@ import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Adapter for displaying groups in a RecyclerView. Uses the OptimizedRecyclerAdapter base class for
- * efficient updates.
+ * Adapter for displaying groups in a RecyclerView. Binds {@link GroupListItem} rows, which hold
+ * only the columns a row shows. Uses the OptimizedRecyclerAdapter base class for efficient updates.
  */
-public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.GroupViewHolder> {
+public class GroupAdapter
+    extends OptimizedRecyclerAdapter<GroupListItem, GroupAdapter.GroupViewHolder> {
 
   private static final String TAG = "GroupAdapter";
   private static final long FIREBASE_TIMEOUT_MS = 3000L;
@@ -64,16 +65,26 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
 
   @Override
   public void onBindViewHolder(@NonNull GroupViewHolder holder, int position) {
-    Group group = getItem(position);
+    GroupListItem group = getItem(position);
     if (group != null) {
-      // Ensure view is in normal state to prevent spacing issues
-      resetViewState(holder.itemView);
-      holder.bind(group);
+      bindGroup(holder, group);
 
       // No entrance animations to prevent spacing issues
       // Items will appear immediately without animation interference
     }
   }
+
+  /**
+   * Binds a group to a view holder. Shared with {@link GroupPagingAdapter}.
+   *
+   * @param holder the view holder
+   * @param group the group to display
+   */
+  void bindGroup(@NonNull GroupViewHolder holder, @NonNull GroupListItem group) {
+    // Ensure view is in normal state to prevent spacing issues
+    resetViewState(holder.itemView);
+    holder.bind(group);
+  }
   
   @Override
   public void onBindViewHolder(@NonNull GroupViewHolder holder, int position, @NonNull java.util.List<Object> payloads) {
@@ -82,8 +93,9 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
       onBindViewHolder(holder, position);
     } else {
       // Partial bind for better performance - only update what changed
-      Group group = getItem(position);
+      GroupListItem group = getItem(position);
       if (group != null) {
+        holder.boundGroup = group;
         for (Object payload : payloads) {
           if ("name".equals(payload)) {
             holder.setGroupName(group);
@@ -123,24 +135,16 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
   }
 
   @Override
-  protected boolean areItemsTheSame(Group oldItem, Group newItem) {
+  protected boolean areItemsTheSame(GroupListItem oldItem, GroupListItem newItem) {
     return oldItem != null
         && newItem != null
         && Objects.equals(oldItem.getGroupKey(), newItem.getGroupKey());
   }
 
   @Override
-  protected boolean areContentsTheSame(Group oldItem, Group newItem) {
-    return oldItem != null
-        && newItem != null
-        && Objects.equals(oldItem.getGroupName(), newItem.getGroupName())
-        && Objects.equals(oldItem.getGroupLocation(), newItem.getGroupLocation())
-        && Objects.equals(oldItem.getGroupDays(), newItem.getGroupDays())
-        && Objects.equals(oldItem.getGroupMonths(), newItem.getGroupMonths())
-        && Objects.equals(oldItem.getGroupYears(), newItem.getGroupYears())
-        && Objects.equals(oldItem.getGroupHours(), newItem.getGroupHours())
-        && Objects.equals(oldItem.getGroupPrice(), newItem.getGroupPrice())
-        && oldItem.getGroupType() == newItem.getGroupType();
+  protected boolean areContentsTheSame(GroupListItem oldItem, GroupListItem newItem) {
+    // List items hold only displayed columns, so equal items render the same row
+    return oldItem != null && oldItem.equals(newItem);
   }
 
   /** Interface for handling group click events */
@@ -148,21 +152,24 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
     /**
      * Called when a group item is clicked
      *
-     * @param group the clicked group
+     * @param group the list row of the clicked group; load the full group by its key
      */
-    void onGroupClick(Group group);
+    void onGroupClick(GroupListItem group);
   }
 
   /** ViewHolder for group items */
   class GroupViewHolder extends RecyclerView.ViewHolder {
     private final TextView groupNameTextView;
     private final TextView groupDateTextView;
+    private final TextView groupMembersTextView;
     private final ImageView groupImageView;
+    private GroupListItem boundGroup;
 
     GroupViewHolder(@NonNull View itemView) {
       super(itemView);
       groupNameTextView = itemView.findViewById(R.id.tvGroupName);
       groupDateTextView = itemView.findViewById(R.id.tvGroupDate);
+      groupMembersTextView = itemView.findViewById(R.id.tvGroupMembers);
       groupImageView = itemView.findViewById(R.id.imgGroupPicture);
       
       // Optimize text views to reduce GPU operations
@@ -194,9 +201,8 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
      * @param view the clicked view
      */
     private void handleItemClick(View view) {
-      int position = getAdapterPosition();
-      if (position != RecyclerView.NO_POSITION && listener != null) {
-        listener.onGroupClick(getItem(position));
+      if (boundGroup != null && listener != null) {
+        listener.onGroupClick(boundGroup);
       }
     }
 
@@ -207,11 +213,9 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
      * @return true if the event was handled
      */
     private boolean handleItemLongClick(View view) {
-      int position = getAdapterPosition();
-      if (position != RecyclerView.NO_POSITION) {
-        Group group = getItem(position);
+      if (boundGroup != null) {
         view.performHapticFeedback(android.view.HapticFeedbackConstants.LONG_PRESS);
-        ContentSharingManager.sharePartyText(context, group);
+        ContentSharingManager.sharePartyText(context, boundGroup);
         return true;
       }
       return false;
@@ -219,8 +223,10 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
 
     /** Clears the ViewHolder content to prevent showing old data during recycling */
     void clear() {
+      boundGroup = null;
       groupNameTextView.setText("");
       groupDateTextView.setText("");
+      groupMembersTextView.setText("");
       groupImageView.setImageResource(R.drawable.default_group_image);
       groupImageView.setTag(null);
     }
@@ -230,9 +236,11 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
      *
      * @param group the group data to display
      */
-    void bind(Group group) {
+    void bind(GroupListItem group) {
+      boundGroup = group;
       setGroupName(group);
       setGroupDate(group);
+      setMemberCount(group);
       loadGroupImage(group.getGroupKey());
     }
 
@@ -241,7 +249,7 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
      *
      * @param group the group containing the name
      */
-    private void setGroupName(Group group) {
+    private void setGroupName(GroupListItem group) {
       groupNameTextView.setText(group.getGroupName());
     }
 
@@ -250,7 +258,7 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
      *
      * @param group the group containing date information
      */
-    private void setGroupDate(Group group) {
+    private void setGroupDate(GroupListItem group) {
       String formattedDate =
           String.format(
               DATE_FORMAT,
@@ -261,6 +269,24 @@ public class GroupAdapter extends OptimizedRecyclerAdapter<Group, GroupAdapter.G
       groupDateTextView.setText(formattedDate);
     }
 
+    /**
+     * Sets the member count and unread message count, computed in SQL for rows read from Room
+     *
+     * @param group the group containing the counts
+     */
+    private void setMemberCount(GroupListItem group) {
+      int members = group.getMemberCount();
+      String memberText =
+          context.getResources().getQuantityString(R.plurals.group_member_count, members, members);
+      int unread = group.getUnreadCount();
+      groupMembersTextView.setText(
+          unread > 0
+              ? context
+                  .getResources()
+                  .getQuantityString(R.plurals.group_members_unread, unread, memberText, unread)
+              : memberText);
+    }
+
     /**
      * Improved image loading that doesn't interfere with text display
      *
@@ -0,0 +1,70 @@
+package com.example.partymaker.ui.adapters;
+
+import android.content.Context;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import com.example.partymaker.data.model.GroupListItem;
+
+/**
+ * Adapter for paged group lists. Binding is delegated to a {@link GroupAdapter}, so paged and
+ * in-memory lists show the same rows.
+ */
+public class GroupPagingAdapter
+    extends PagingDataAdapter<GroupListItem, GroupAdapter.GroupViewHolder> {
+
+  private final GroupAdapter binder;
+
+  /**
+   * Constructs a GroupPagingAdapter.
+   *
+   * @param context The context
+   * @param listener The click listener
+   */
+  public GroupPagingAdapter(Context context, GroupAdapter.OnGroupClickListener listener) {
+    this(new GroupAdapter(context, listener));
+  }
+
+  private GroupPagingAdapter(GroupAdapter binder) {
+    super(
+        new DiffUtil.ItemCallback<>() {
+          @Override
+          public boolean areItemsTheSame(
+              @NonNull GroupListItem oldItem, @NonNull GroupListItem newItem) {
+            return binder.areItemsTheSame(oldItem, newItem);
+          }
+
+          @Override
+          public boolean areContentsTheSame(
+              @NonNull GroupListItem oldItem, @NonNull GroupListItem newItem) {
+            return binder.areContentsTheSame(oldItem, newItem);
+          }
+        });
+    this.binder = binder;
+  }
+
+  @NonNull
+  @Override
+  public GroupAdapter.GroupViewHolder onCreateViewHolder(
+      @NonNull ViewGroup parent, int viewType) {
+    return binder.onCreateViewHolder(parent, viewType);
+  }
+
+  @Override
+  public void onBindViewHolder(@NonNull GroupAdapter.GroupViewHolder holder, int position) {
+    GroupListItem group = getItem(position);
+    if (group == null) {
+      // Placeholder for a row that is not loaded yet
+      holder.clear();
+      return;
+    }
+    binder.bindGroup(holder, group);
+  }
+
+  @Override
+  public void onViewRecycled(@NonNull GroupAdapter.GroupViewHolder holder) {
+    super.onViewRecycled(holder);
+    binder.onViewRecycled(holder);
+  }
+}
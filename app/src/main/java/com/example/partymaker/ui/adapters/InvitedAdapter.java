@@ -13,13 +13,16 @@ import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import com.example.partymaker.R;
 import com.example.partymaker.data.firebase.DBRef;
-import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import com.example.partymaker.utils.auth.AuthenticationManager;
 import com.squareup.picasso.Picasso;
 import java.util.List;
 
-/** Adapter for displaying invited users in a ListView. Shows user details and admin flag. */
-public class InvitedAdapter extends ArrayAdapter<User> {
+/**
+ * Adapter for displaying invited users in a ListView. Binds {@link UserListItem} rows and shows
+ * user details and admin flag.
+ */
+public class InvitedAdapter extends ArrayAdapter<UserListItem> {
 
   // Character constants for email formatting
   private static final char DOT_CHAR = '.';
@@ -29,7 +32,7 @@ public class InvitedAdapter extends ArrayAdapter<User> {
   private final Context context;
 
   /** The list of invited users to display. */
-  private final List<User> invitedList;
+  private final List<UserListItem> invitedList;
 
   /** The admin key for identifying admin users. */
   private final String adminKey;
@@ -47,7 +50,7 @@ public class InvitedAdapter extends ArrayAdapter<User> {
       @NonNull Context context,
       @LayoutRes int resource,
       @IdRes int textViewResourceId,
-      @NonNull List<User> invitedList,
+      @NonNull List<UserListItem> invitedList,
       String adminKey) {
     super(context, resource, textViewResourceId, invitedList);
     this.context = context;
@@ -67,7 +70,7 @@ public class InvitedAdapter extends ArrayAdapter<User> {
   @Override
   public View getView(int position, View convertView, @NonNull ViewGroup parent) {
     View view = inflateItemView(parent);
-    User user = invitedList.get(position);
+    UserListItem user = invitedList.get(position);
 
     setupUserViews(view, user);
     return view;
@@ -80,14 +83,14 @@ public class InvitedAdapter extends ArrayAdapter<User> {
   }
 
   /** Sets up all user views in the item layout. */
-  private void setupUserViews(View view, User user) {
+  private void setupUserViews(View view, UserListItem user) {
     setupUserTextViews(view, user);
     setupUserImage(view, user);
     setupAdminFlag(view, user);
   }
 
   /** Sets up the text views for username and email. */
-  private void setupUserTextViews(View view, User user) {
+  private void setupUserTextViews(View view, UserListItem user) {
     TextView tvUserName = view.findViewById(R.id.tvInvitedUsername);
     tvUserName.setText(user.getUsername());
 
@@ -96,7 +99,7 @@ public class InvitedAdapter extends ArrayAdapter<User> {
   }
 
   /** Sets up the user profile image. */
-  private void setupUserImage(View view, User user) {
+  private void setupUserImage(View view, UserListItem user) {
     ImageView imageView = view.findViewById(R.id.imgInvitedProfile);
 
     if (AuthenticationManager.isLoggedIn(context)) {
@@ -107,7 +110,7 @@ public class InvitedAdapter extends ArrayAdapter<User> {
   }
 
   /** Loads the user profile image from Firebase Storage. */
-  private void loadUserProfileImage(ImageView imageView, User user) {
+  private void loadUserProfileImage(ImageView imageView, UserListItem user) {
     String userEmail = user.getEmail();
     if (userEmail != null) {
       String formattedEmail = userEmail.replace(DOT_CHAR, SPACE_CHAR);
@@ -145,7 +148,7 @@ public class InvitedAdapter extends ArrayAdapter<User> {
   }
 
   /** Sets up the admin flag visibility. */
-  private void setupAdminFlag(View view, User user) {
+  private void setupAdminFlag(View view, UserListItem user) {
     ImageView adminFlag = view.findViewById(R.id.imgAdminFlag);
 
     if (adminFlag != null && adminKey != null && user.getEmail() != null) {
@@ -13,22 +13,23 @@ import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import com.example.partymaker.R;
 import com.example.partymaker.data.firebase.DBRef;
-import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import com.example.partymaker.utils.auth.AuthenticationManager;
 import com.squareup.picasso.Picasso;
 import java.util.List;
 
 /**
- * Adapter for displaying users in a ListView. Loads user profile images and displays user details.
+ * Adapter for displaying users in a ListView. Binds {@link UserListItem} rows, loads user profile
+ * images and displays user details.
  */
-public class UserAdapter extends ArrayAdapter<User> {
+public class UserAdapter extends ArrayAdapter<UserListItem> {
   private static final String NO_EMAIL_TEXT = "No email";
   private static final String UNKNOWN_EMAIL = "unknown";
   private static final char DOT_CHAR = '.';
   private static final char SPACE_CHAR = ' ';
 
   private final Context context;
-  private final List<User> userList;
+  private final List<UserListItem> userList;
 
   /**
    * Constructor for UserAdapter.
@@ -42,7 +43,7 @@ public class UserAdapter extends ArrayAdapter<User> {
       @NonNull Context context,
       @LayoutRes int resource,
       @IdRes int textViewResourceId,
-      @NonNull List<User> userList) {
+      @NonNull List<UserListItem> userList) {
     super(context, resource, textViewResourceId, userList);
     this.context = context;
     this.userList = userList;
@@ -61,7 +62,7 @@ public class UserAdapter extends ArrayAdapter<User> {
   @Override
   public View getView(int position, View convertView, @NonNull ViewGroup parent) {
     View view = inflateUserItemView(parent);
-    User user = userList.get(position);
+    UserListItem user = userList.get(position);
 
     setupUserViews(view, user);
     return view;
@@ -72,24 +73,24 @@ public class UserAdapter extends ArrayAdapter<User> {
     return layoutInflater.inflate(R.layout.item_user, parent, false);
   }
 
-  private void setupUserViews(View view, User user) {
+  private void setupUserViews(View view, UserListItem user) {
     setupUserNameView(view, user);
     setupUserEmailView(view, user);
     setupUserImageView(view, user);
   }
 
-  private void setupUserNameView(View view, User user) {
+  private void setupUserNameView(View view, UserListItem user) {
     TextView tvUserName = view.findViewById(R.id.tvUserListUsername);
     tvUserName.setText(user.getUsername());
   }
 
-  private void setupUserEmailView(View view, User user) {
+  private void setupUserEmailView(View view, UserListItem user) {
     TextView tvEmail = view.findViewById(R.id.tvUserListEmail);
     String email = user.getEmail() != null ? user.getEmail() : NO_EMAIL_TEXT;
     tvEmail.setText(email);
   }
 
-  private void setupUserImageView(View view, User user) {
+  private void setupUserImageView(View view, UserListItem user) {
     ImageView imageView = view.findViewById(R.id.imgUserListProfile);
 
     if (AuthenticationManager.isLoggedIn(context)) {
@@ -99,7 +100,7 @@ public class UserAdapter extends ArrayAdapter<User> {
     }
   }
 
-  private void loadUserProfileImage(ImageView imageView, User user) {
+  private void loadUserProfileImage(ImageView imageView, UserListItem user) {
     String email = getProcessedEmail(user);
 
     // Try primary path first: UsersImageProfile/Users/[email]
@@ -121,7 +122,7 @@ public class UserAdapter extends ArrayAdapter<User> {
             });
   }
 
-  private String getProcessedEmail(User user) {
+  private String getProcessedEmail(UserListItem user) {
     String userEmail = user.getEmail();
     return userEmail != null ? userEmail.replace(DOT_CHAR, SPACE_CHAR) : UNKNOWN_EMAIL;
   }
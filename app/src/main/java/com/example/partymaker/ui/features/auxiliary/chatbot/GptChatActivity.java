@@ -2,6 +2,7 @@ package com.example.partymaker.ui.features.auxiliary.chatbot;
 
 import android.os.Bundle;
 import android.os.LocaleList;
+import android.util.Log;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.Toast;
@@ -11,6 +12,7 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.partymaker.R;
+import com.example.partymaker.data.api.ChatHistoryManager;
 import com.example.partymaker.data.api.OpenAiApi;
 import com.example.partymaker.data.model.ChatMessageGpt;
 import com.example.partymaker.ui.adapters.ChatbotAdapter;
@@ -23,10 +25,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import okhttp3.Call;
 
 public class GptChatActivity extends BaseActivity {
+  private static final String TAG = "GptChatActivity";
 
   // ---------- System prompt ----------
   private static final ChatMessageGpt SYSTEM_PROMPT = // NEW
@@ -35,9 +37,13 @@ public class GptChatActivity extends BaseActivity {
   // ---------- Lists ----------
   // Only what is displayed to the user
   private final List<ChatMessageGpt> visibleMessages = new ArrayList<>(); // NEW
-  // All history sent to API (including system)
-  private final List<ChatMessageGpt> history = new ArrayList<>(); // NEW
-  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  // History sent to API (including system), compacted to fit the token budget
+  private final ChatHistoryManager history = new ChatHistoryManager();
+  // ---------- Streamed reply ----------
+  private final StringBuilder streamingReply = new StringBuilder();
+  private int streamingPosition = -1; // Position of the reply being streamed, -1 if none
+  private int replyGeneration; // Drops tokens of a cancelled reply that were already posted
+  private Call activeCompletion;
   // ---------- Views ----------
   private RecyclerView chatRecyclerView;
   private EditText messageInput;
@@ -192,31 +198,103 @@ public class GptChatActivity extends BaseActivity {
     chatRecyclerView.scrollToPosition(visibleMessages.size() - 1);
 
     // ---------- Call OpenAI ----------
-    executor.execute(
-        () -> {
-          try {
-            String answer = openAiApi.sendMessageWithHistory(history);
-
-            ChatMessageGpt assistantMsg = new ChatMessageGpt("assistant", answer);
-
-            ThreadUtils.runOnMainThread(
-                () -> {
-                  history.add(assistantMsg); // for continued context
-                  int assistantInsertPosition = visibleMessages.size();
-                  visibleMessages.add(assistantMsg); // for display
-                  chatAdapter.notifyItemInserted(assistantInsertPosition);
-                  chatRecyclerView.scrollToPosition(visibleMessages.size() - 1);
-                });
-
-          } catch (Exception e) {
-            ThreadUtils.runOnMainThread(
-                () -> Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
-          }
-        });
+    cancelActiveCompletion();
+    final int generation = replyGeneration;
+    try {
+      activeCompletion =
+          openAiApi.streamMessageWithHistory(
+              history.getHistory(),
+              new OpenAiApi.StreamCallback() {
+                @Override
+                public void onToken(String token) {
+                  ThreadUtils.runOnMainThread(() -> appendReplyToken(generation, token));
+                }
+
+                @Override
+                public void onComplete(String fullText) {
+                  ThreadUtils.runOnMainThread(() -> finishReply(generation, fullText));
+                  Log.d(
+                      TAG,
+                      "Time to first token p50/p95: "
+                          + OpenAiApi.getTimeToFirstTokenPercentile(50)
+                          + "/"
+                          + OpenAiApi.getTimeToFirstTokenPercentile(95)
+                          + " ms");
+                }
+
+                @Override
+                public void onError(Exception e) {
+                  ThreadUtils.runOnMainThread(() -> failReply(generation, e));
+                }
+              });
+    } catch (Exception e) {
+      failReply(generation, e);
+    }
+  }
+
+  /** Shows a streamed token, adding the assistant bubble when the first one arrives. */
+  private void appendReplyToken(int generation, String token) {
+    if (chatAdapter == null || generation != replyGeneration) {
+      return;
+    }
+    streamingReply.append(token);
+    if (streamingReply.toString().trim().isEmpty()) {
+      return; // A message needs visible content
+    }
+
+    ChatMessageGpt partial = new ChatMessageGpt("assistant", streamingReply.toString());
+    if (streamingPosition < 0) {
+      streamingPosition = visibleMessages.size();
+      visibleMessages.add(partial);
+      chatAdapter.notifyItemInserted(streamingPosition);
+    } else {
+      visibleMessages.set(streamingPosition, partial);
+      chatAdapter.notifyItemChanged(streamingPosition);
+    }
+    chatRecyclerView.scrollToPosition(visibleMessages.size() - 1);
+  }
+
+  /** Stores the finished reply so it is sent as context with the next message. */
+  private void finishReply(int generation, String fullText) {
+    if (chatAdapter == null || generation != replyGeneration) {
+      return;
+    }
+    if (!fullText.trim().isEmpty()) {
+      history.add(new ChatMessageGpt("assistant", fullText));
+    }
+    resetStreamingReply();
+    activeCompletion = null;
+  }
+
+  private void failReply(int generation, Exception e) {
+    if (chatAdapter == null || generation != replyGeneration) {
+      return;
+    }
+    resetStreamingReply();
+    activeCompletion = null;
+    Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+  }
+
+  /** Keeps any partial reply on screen but starts the next reply in a new bubble. */
+  private void resetStreamingReply() {
+    streamingReply.setLength(0);
+    streamingPosition = -1;
+  }
+
+  private void cancelActiveCompletion() {
+    if (activeCompletion != null) {
+      activeCompletion.cancel();
+      activeCompletion = null;
+    }
+    replyGeneration++;
+    resetStreamingReply();
   }
 
   @Override
   protected void clearActivityReferences() {
+    // Stop streaming into views that are going away
+    cancelActiveCompletion();
+
     // Clear UI components
     chatRecyclerView = null;
     messageInput = null;
@@ -229,10 +307,5 @@ public class GptChatActivity extends BaseActivity {
     // Clear lists
     visibleMessages.clear();
     history.clear();
-
-    // Shutdown executor
-    if (executor != null && !executor.isShutdown()) {
-      executor.shutdown();
-    }
   }
 }
@@ -23,14 +23,20 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.ActionBar;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
 import com.example.partymaker.ui.base.BaseActivity;
 
 import androidx.recyclerview.widget.RecyclerView;
 import com.airbnb.lottie.LottieAnimationView;
 import com.airbnb.lottie.LottieDrawable;
 import com.example.partymaker.R;
+import com.example.partymaker.data.local.GroupListQuery;
 import com.example.partymaker.data.model.Group;
-import com.example.partymaker.ui.adapters.GroupAdapter;
+import com.example.partymaker.data.model.GroupListItem;
+import com.example.partymaker.data.repository.GroupRepository;
+import com.example.partymaker.data.repository.PrefetchScheduler;
+import com.example.partymaker.ui.adapters.GroupPagingAdapter;
 import com.example.partymaker.ui.features.auth.LoginActivity;
 import com.example.partymaker.ui.features.auxiliary.chatbot.GptChatActivity;
 import com.example.partymaker.ui.features.auxiliary.settings.ServerSettingsActivity;
@@ -49,9 +55,7 @@ import com.example.partymaker.utils.infrastructure.PerformanceMonitor;
 import com.example.partymaker.viewmodel.core.MainActivityViewModel;
 import com.facebook.shimmer.ShimmerFrameLayout;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 
 public class MainActivity extends BaseActivity {
 
@@ -68,7 +72,6 @@ public class MainActivity extends BaseActivity {
   private static final String APP_TITLE = "My Parties";
 
   // UI Animation and Timing Constants
-  private static final int HANDLER_DELAY_MS = 100;
   private static final int NAVIGATION_DELAY_MS = 200;
   private static final int FAB_ANIMATION_DELAY_MS = 500;
   private static final int LOGOUT_DELAY_MS = 1000;
@@ -92,20 +95,6 @@ public class MainActivity extends BaseActivity {
   private String currentSortMode = "date_nearest"; // default sort
   private boolean filterPublicOnly = false;
   private boolean filterPrivateOnly = false;
-  
-  // Date format patterns for parsing
-  private static final java.text.SimpleDateFormat[] DATE_FORMATS = {
-      new java.text.SimpleDateFormat("dd/MM/yyyy", java.util.Locale.getDefault()),
-      new java.text.SimpleDateFormat("d/MM/yyyy", java.util.Locale.getDefault()),
-      new java.text.SimpleDateFormat("dd/M/yyyy", java.util.Locale.getDefault()),
-      new java.text.SimpleDateFormat("d/M/yyyy", java.util.Locale.getDefault()),
-      new java.text.SimpleDateFormat("dd/MMMM/yyyy", java.util.Locale.ENGLISH),
-      new java.text.SimpleDateFormat("d/MMMM/yyyy", java.util.Locale.ENGLISH),
-      new java.text.SimpleDateFormat("dd/MMM/yyyy", java.util.Locale.ENGLISH),
-      new java.text.SimpleDateFormat("d/MMM/yyyy", java.util.Locale.ENGLISH)
-  };
-
- 
   private boolean filterFreeOnly = false;
   private boolean filterUpcomingOnly = false;
   
@@ -124,9 +113,8 @@ public class MainActivity extends BaseActivity {
   // Data Components
   private MainActivityViewModel viewModel;
   private String currentUserKey;
-  private GroupAdapter groupAdapter;
-  private final List<Group> allGroups = new ArrayList<>();
-  private final List<Group> filteredGroups = new ArrayList<>();
+  // Pages the groups from Room; searches, filters and sorts are applied by the query
+  private GroupPagingAdapter pagedGroupAdapter;
 
   // UI State Management
   private LoadingStateManager loadingStateManager;
@@ -187,8 +175,14 @@ public class MainActivity extends BaseActivity {
     showLoadingState(); // Show loading without toast
 
     Log.d(TAG, "Loading groups for user: " + currentUserKey);
-    viewModel.loadUserGroups(currentUserKey, true);
+    // The paged list reads cached groups from Room and refreshes them from the server. A
+    // recreated activity starts with default filters, so the query is reset to match.
+    filterGroups(searchEditText != null ? searchEditText.getText().toString() : "");
+    observePagedGroups();
     updateLastRefreshTime();
+
+    // Warm chats and member profiles the user is likely to open next
+    PrefetchScheduler.getInstance().requestPrefetch(currentUserKey);
   }
 
   private void showLoadingState() {
@@ -202,7 +196,7 @@ public class MainActivity extends BaseActivity {
   private void showLoadingStateInternal(boolean show, boolean showToast) {
     try {
       // Don't show loading state if we already have data (cached)
-      boolean hasExistingData = groupAdapter != null && groupAdapter.getItemCount() > 0;
+      boolean hasExistingData = getDisplayedGroupCount() > 0;
       
       if (show && !hasExistingData) {
         // Inflate shimmer view if needed and show it
@@ -394,8 +388,13 @@ public class MainActivity extends BaseActivity {
     groupsRecyclerView.setItemAnimator(null);
     
     // Set adapter
-    groupAdapter = new GroupAdapter(this, this::navigateToGroupScreen);
-    groupsRecyclerView.setAdapter(groupAdapter);
+    pagedGroupAdapter = new GroupPagingAdapter(this, this::openGroup);
+    pagedGroupAdapter.addLoadStateListener(
+        loadStates -> {
+          handlePagedLoadStates(loadStates);
+          return kotlin.Unit.INSTANCE;
+        });
+    groupsRecyclerView.setAdapter(pagedGroupAdapter);
     
     Log.d(TAG, "RecyclerView configured with basic optimizations for smooth scrolling");
   }
@@ -586,7 +585,9 @@ public class MainActivity extends BaseActivity {
     }
     
     // Force reload from server
-    viewModel.loadUserGroups(currentUserKey, true);
+    if (pagedGroupAdapter != null) {
+      pagedGroupAdapter.refresh();
+    }
   }
 
   private void updateLastRefreshTime() {
@@ -702,188 +703,50 @@ public class MainActivity extends BaseActivity {
     });
   }
 
-  private void filterGroups(String searchText) {
-    List<Group> results = new ArrayList<>(allGroups);
-    
-    // Apply text search filter
-    if (!searchText.isEmpty()) {
-      results = filterByText(results, searchText);
-    }
-    
-    // Apply other filters
-    results = applyFilters(results);
-    
-    // Apply sorting
-    results = sortGroups(results);
-    
-    // Update filtered groups
-    filteredGroups.clear();
-    filteredGroups.addAll(results);
-    
-    // Update the adapter with filtered groups without triggering loading state
-    if (groupAdapter != null) {
-      // Directly update items without going through ViewModel to avoid loading state
-      groupAdapter.updateItems(filteredGroups);
-      
-      // Ensure the RecyclerView stays visible
-      if (groupsRecyclerView != null) {
-        groupsRecyclerView.setVisibility(View.VISIBLE);
-      }
-      
-      // Hide any loading overlays that might be showing
-      if (loadingStateManager != null) {
-        loadingStateManager.showContent();
-      }
-    }
+  private int getDisplayedGroupCount() {
+    return pagedGroupAdapter != null ? pagedGroupAdapter.getItemCount() : 0;
   }
-  
-  private List<Group> filterByText(List<Group> groups, String searchText) {
-    List<Group> filtered = new ArrayList<>();
-    String lowerSearchText = searchText.toLowerCase();
-    for (Group group : groups) {
-      if (group.getGroupName() != null && 
-          group.getGroupName().toLowerCase().contains(lowerSearchText)) {
-        filtered.add(group);
-      }
+
+  private void filterGroups(String searchText) {
+    // Filtering and sorting run as a Room query off the main thread
+    if (viewModel != null) {
+      viewModel.setGroupListQuery(buildGroupListQuery(searchText));
     }
-    return filtered;
   }
-  
-  private List<Group> applyFilters(List<Group> groups) {
-    List<Group> filtered = new ArrayList<>();
-    
-    for (Group group : groups) {
-      boolean passesFilter = true;
-      
-      // Public/Private filter
-      if (filterPublicOnly && group.getGroupType() != 0) { // 0 is public
-        passesFilter = false;
-      }
-      if (filterPrivateOnly && group.getGroupType() != 1) { // 1 is private
-        passesFilter = false;
-      }
-      
-      // Free entry filter
-      if (filterFreeOnly) {
-        String price = group.getGroupPrice();
-        if (price != null && !price.equals("0") && !price.equalsIgnoreCase("free")) {
-          passesFilter = false;
-        }
-      }
-      
-      // Upcoming only filter
-      if (filterUpcomingOnly) {
-        try {
-          String dateStr = group.getGroupDays() + "/" + group.getGroupMonths() + "/" + group.getGroupYears();
-          java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("dd/MM/yyyy", java.util.Locale.getDefault());
-          java.util.Date groupDate = sdf.parse(dateStr);
-          if (groupDate != null && groupDate.before(new java.util.Date())) {
-            passesFilter = false;
-          }
-        } catch (Exception e) {
-          // If date parsing fails, exclude the group
-          passesFilter = false;
-        }
-      }
-      
-      if (passesFilter) {
-        filtered.add(group);
-      }
+
+  private GroupListQuery buildGroupListQuery(String searchText) {
+    int groupType = GroupListQuery.ANY_TYPE;
+    if (filterPublicOnly) {
+      groupType = Group.GROUP_TYPE_PUBLIC;
+    } else if (filterPrivateOnly) {
+      groupType = Group.GROUP_TYPE_PRIVATE;
     }
-    
-    return filtered;
+    return new GroupListQuery.Builder()
+        .groupType(groupType)
+        .freeOnly(filterFreeOnly)
+        .upcomingOnly(filterUpcomingOnly)
+        .nameContains(searchText)
+        .sortOrder(toSortOrder(currentSortMode))
+        .build();
   }
-  
-  private List<Group> sortGroups(List<Group> groups) {
-    List<Group> sorted = new ArrayList<>(groups);
-    
-    switch (currentSortMode) {
-      case "date_nearest":
-        sorted.sort((g1, g2) -> compareDates(g1, g2));
-        break;
-        
+
+  private static int toSortOrder(String sortMode) {
+    switch (sortMode) {
       case "date_farthest":
-        sorted.sort((g1, g2) -> compareDates(g2, g1));
-        break;
-        
+        return GroupListQuery.SORT_DATE_FARTHEST;
       case "name_az":
-        sorted.sort((g1, g2) -> {
-          String name1 = g1.getGroupName() != null ? g1.getGroupName() : "";
-          String name2 = g2.getGroupName() != null ? g2.getGroupName() : "";
-          return name1.compareToIgnoreCase(name2);
-        });
-        break;
-        
+        return GroupListQuery.SORT_NAME_AZ;
       case "name_za":
-        sorted.sort((g1, g2) -> {
-          String name1 = g1.getGroupName() != null ? g1.getGroupName() : "";
-          String name2 = g2.getGroupName() != null ? g2.getGroupName() : "";
-          return name2.compareToIgnoreCase(name1);
-        });
-        break;
-        
+        return GroupListQuery.SORT_NAME_ZA;
+      case "price_lowest":
+        return GroupListQuery.SORT_PRICE_LOWEST;
       case "recently_added":
-        // Reverse the list to show newest first (assuming they're added at the end)
-        java.util.Collections.reverse(sorted);
-        break;
-    }
-    
-    return sorted;
-  }
-  
-  private int compareDates(Group g1, Group g2) {
-    try {
-      // Check for null values first
-      if (g1.getGroupDays() == null || g1.getGroupMonths() == null || g1.getGroupYears() == null ||
-          g2.getGroupDays() == null || g2.getGroupMonths() == null || g2.getGroupYears() == null) {
-        return 0;
-      }
-      
-      String date1 = g1.getGroupDays() + "/" + g1.getGroupMonths() + "/" + g1.getGroupYears();
-      String date2 = g2.getGroupDays() + "/" + g2.getGroupMonths() + "/" + g2.getGroupYears();
-      
-      // Check for "null" strings
-      if (date1.contains("null") || date2.contains("null")) {
-        return 0;
-      }
-      
-      java.util.Date d1 = parseDate(date1);
-      java.util.Date d2 = parseDate(date2);
-      
-      if (d1 == null && d2 == null) return 0;
-      if (d1 == null) return 1;
-      if (d2 == null) return -1;
-      
-      return d1.compareTo(d2);
-    } catch (Exception e) {
-      Log.w(TAG, "Error comparing dates", e);
-    }
-    return 0;
-  }
-  
-  /**
-   * Parse date string with multiple format support
-   */
-  private java.util.Date parseDate(String dateStr) {
-    if (dateStr == null || dateStr.isEmpty() || dateStr.contains("null")) {
-      return null;
+        return GroupListQuery.SORT_RECENTLY_ADDED;
+      default:
+        return GroupListQuery.SORT_DATE_NEAREST;
     }
-    
-    // Try each date format
-    for (java.text.SimpleDateFormat format : DATE_FORMATS) {
-      try {
-        format.setLenient(false);
-        return format.parse(dateStr);
-      } catch (java.text.ParseException e) {
-        // Try next format
-      }
-    }
-    
-    // Log error only once for unparseable dates
-    Log.w(TAG, "Could not parse date: " + dateStr);
-    return null;
   }
-  
+
   private void showSortFilterDialog() {
     android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(this);
     View dialogView = getLayoutInflater().inflate(R.layout.dialog_sort_filter, null);
@@ -910,6 +773,9 @@ public class MainActivity extends BaseActivity {
       case "name_za":
         radioGroupSort.check(R.id.radioNameZA);
         break;
+      case "price_lowest":
+        radioGroupSort.check(R.id.radioPriceLowest);
+        break;
       case "recently_added":
         radioGroupSort.check(R.id.radioRecentlyAdded);
         break;
@@ -958,6 +824,8 @@ public class MainActivity extends BaseActivity {
         currentSortMode = "name_az";
       } else if (selectedSortId == R.id.radioNameZA) {
         currentSortMode = "name_za";
+      } else if (selectedSortId == R.id.radioPriceLowest) {
+        currentSortMode = "price_lowest";
       } else if (selectedSortId == R.id.radioRecentlyAdded) {
         currentSortMode = "recently_added";
       }
@@ -979,7 +847,6 @@ public class MainActivity extends BaseActivity {
 
   private void observeViewModel() {
     try {
-      observeGroupsData();
       observeLoadingState();
       observeErrorMessages();
     } catch (Exception e) {
@@ -988,109 +855,59 @@ public class MainActivity extends BaseActivity {
     }
   }
 
-  private void observeGroupsData() {
-    viewModel.getGroups().observe(this, this::handleGroupsDataUpdate);
-  }
-
-  private void observeLoadingState() {
-    viewModel.getIsLoading().observe(this, this::handleLoadingStateChange);
-  }
-
-  private void observeErrorMessages() {
-    viewModel.getErrorMessage().observe(this, this::handleErrorMessage);
+  private void observePagedGroups() {
+    androidx.lifecycle.LiveData<androidx.paging.PagingData<GroupListItem>> pagedGroups =
+        viewModel.getPagedUserGroups(currentUserKey);
+    if (pagedGroups == null) {
+      Log.e(TAG, "Paged groups unavailable, repository not initialized");
+      loadingStateManager.showErrorWithAnimation("Error loading groups");
+      return;
+    }
+    pagedGroups.observe(this, data -> pagedGroupAdapter.submitData(getLifecycle(), data));
   }
 
-  private void handleGroupsDataUpdate(List<Group> groups) {
-    try {
-      logGroupsDataReceived(groups);
-
-      if (groups != null) {
-        // Store all groups for filtering
-        allGroups.clear();
-        allGroups.addAll(groups);
-        
-        // Apply current search filter if any
-        String currentSearchText = searchEditText != null ? searchEditText.getText().toString() : "";
-        if (currentSearchText.isEmpty()) {
-          filteredGroups.clear();
-          filteredGroups.addAll(allGroups);
-        } else {
-          filterGroups(currentSearchText);
-        }
-        
-        updateGroupsDisplay(filteredGroups);
-        updateUiStateBasedOnGroups(filteredGroups);
-      } else {
-        handleNullGroupsData();
+  private void handlePagedLoadStates(CombinedLoadStates loadStates) {
+    LoadState refresh = loadStates.getRefresh();
+    int groupCount = pagedGroupAdapter.getItemCount();
+    if (refresh instanceof LoadState.Loading) {
+      if (groupCount == 0) {
+        showLoadingIndicator();
       }
-    } catch (Exception e) {
-      Log.e(TAG, "Failed to process groups data update", e);
-      handleGroupsProcessingError();
+      return;
     }
-  }
-
-  private void logGroupsDataReceived(List<Group> groups) {
-    Log.d(TAG, "Groups data received: " + (groups != null ? groups.size() + " groups" : "null"));
-
-    if (groups != null && !groups.isEmpty()) {
-      logSampleGroups(groups);
+    hideLoadingIndicator();
+    if (refresh instanceof LoadState.Error) {
+      String error = ((LoadState.Error) refresh).getError().getMessage();
+      Log.e(TAG, "Failed to refresh paged groups: " + error);
+      if (groupCount == 0) {
+        // Cached pages stay on screen, so only an empty list needs the error
+        loadingStateManager.showErrorWithAnimation("Error loading groups");
+      }
+      return;
     }
-  }
-
-  private void logSampleGroups(List<Group> groups) {
-    int sampleSize = Math.min(3, groups.size());
-    for (int i = 0; i < sampleSize; i++) {
-      Group group = groups.get(i);
-      Log.d(
-          TAG,
-          String.format("Group %d: %s (key: %s)", i, group.getGroupName(), group.getGroupKey()));
+    if (groupCount == 0) {
+      showEmptyGroupsState();
+    } else {
+      showGroupsContentState(groupCount);
+      checkForFirstGroupCelebration(groupCount);
     }
   }
 
-  private void updateGroupsDisplay(List<Group> groups) {
-    groupAdapter.updateItems(groups);
-    Log.d(TAG, "Group adapter updated with " + groups.size() + " groups");
-
-    // Hide Shimmer when data is ready
-    if (shimmerFrameLayout != null) {
-      shimmerFrameLayout.stopShimmer();
-      shimmerFrameLayout.setVisibility(View.GONE);
-    }
-
-    // Ensure content is properly visible after update
-    if (groupsRecyclerView != null) {
-      groupsRecyclerView.setVisibility(View.VISIBLE);
-      groupsRecyclerView.setAlpha(1.0f);
-
-      // Slight delay to ensure images have time to load properly
-      android.os.Handler handler = new android.os.Handler(android.os.Looper.getMainLooper());
-      handler.postDelayed(
-          () -> {
-            if (groupsRecyclerView != null) {
-              groupsRecyclerView.invalidate();
-              groupsRecyclerView.requestLayout();
-            }
-          },
-          HANDLER_DELAY_MS);
-    }
+  private void observeLoadingState() {
+    viewModel.getIsLoading().observe(this, this::handleLoadingStateChange);
   }
 
-  private void updateUiStateBasedOnGroups(List<Group> groups) {
-    if (groups.isEmpty()) {
-      showEmptyGroupsState();
-    } else {
-      showGroupsContentState(groups.size());
-      checkForFirstGroupCelebration(groups);
-    }
+  private void observeErrorMessages() {
+    viewModel.getErrorMessage().observe(this, this::handleErrorMessage);
   }
 
-  private void checkForFirstGroupCelebration(List<Group> groups) {
+  private void checkForFirstGroupCelebration(int groupCount) {
     // Check if this is the user's first group by looking at SharedPreferences
     SharedPreferences prefs = getSharedPreferences(PREFS_PARTY_MAKER, Context.MODE_PRIVATE);
     boolean hasShownFirstGroupCelebration =
         prefs.getBoolean("has_shown_first_group_celebration", false);
 
-    if (!hasShownFirstGroupCelebration && groups.size() == 1) {
+    if (!hasShownFirstGroupCelebration && groupCount == 1) {
       // Show celebration for first group using direct Lottie approach
       LottieAnimationView lottieAnimation = findViewById(R.id.lottie_loading);
       View loadingOverlay = findViewById(R.id.loading_overlay);
@@ -1134,16 +951,6 @@ public class MainActivity extends BaseActivity {
     hideEmptyState();
   }
 
-  private void handleNullGroupsData() {
-    Log.d(TAG, "Groups data is null - keeping current loading state");
-  }
-
-  private void handleGroupsProcessingError() {
-    UiStateManager.showError(
-        rootView, "Error displaying groups", () -> viewModel.loadUserGroups(currentUserKey, true));
-    loadingStateManager.showErrorWithAnimation("Error loading groups");
-  }
-
   private void handleLoadingStateChange(Boolean isLoading) {
     try {
       Log.d(TAG, "Loading state changed to: " + isLoading);
@@ -1160,7 +967,7 @@ public class MainActivity extends BaseActivity {
 
   private void showLoadingIndicator() {
     // Only show loading overlay for initial load or force refresh
-    if (groupAdapter == null || groupAdapter.getItemCount() == 0) {
+    if (getDisplayedGroupCount() == 0) {
       // Show Shimmer for initial load
       if (shimmerFrameLayout != null) {
         shimmerFrameLayout.setVisibility(View.VISIBLE);
@@ -1220,7 +1027,7 @@ public class MainActivity extends BaseActivity {
     Log.e(TAG, "Displaying error to user with animation: " + errorMessage);
 
     UiStateManager.showError(
-        rootView, errorMessage, () -> viewModel.loadUserGroups(currentUserKey, true));
+        rootView, errorMessage, () -> pagedGroupAdapter.refresh());
     loadingStateManager.showErrorWithAnimation(errorMessage);
 
     viewModel.clearError();
@@ -1282,6 +1089,31 @@ public class MainActivity extends BaseActivity {
     }
   }
 
+  /**
+   * Opens a clicked group. List rows only hold what the list shows, so the full group is loaded by
+   * its key first, from Room when it is cached.
+   */
+  private void openGroup(GroupListItem item) {
+    GroupRepository.getInstance()
+        .getGroup(
+            item.getGroupKey(),
+            new GroupRepository.DataCallback<>() {
+              @Override
+              public void onDataLoaded(Group group) {
+                if (!isFinishing() && !isDestroyed()) {
+                  navigateToGroupScreen(group);
+                }
+              }
+
+              @Override
+              public void onError(String error) {
+                Log.e(TAG, "Failed to load group " + item.getGroupKey() + ": " + error);
+                displayErrorMessage("Failed to open group");
+              }
+            },
+            false);
+  }
+
   private void navigateToGroupScreen(Group group) {
     if (!isValidGroupForNavigation(group)) {
       return;
@@ -1387,7 +1219,7 @@ public class MainActivity extends BaseActivity {
   }
 
   private boolean isGroupListEmpty() {
-    return groupsRecyclerView != null && groupAdapter != null && groupAdapter.getItemCount() == 0;
+    return groupsRecyclerView != null && getDisplayedGroupCount() == 0;
   }
 
   private boolean isCurrentlyLoading() {
@@ -1441,7 +1273,7 @@ public class MainActivity extends BaseActivity {
   }
 
   private boolean isValidAdapterPosition(int position) {
-    return groupAdapter != null && position >= 0 && position < groupAdapter.getItemCount();
+    return position >= 0 && position < getDisplayedGroupCount();
   }
 
   @Override
@@ -1606,7 +1438,9 @@ public class MainActivity extends BaseActivity {
         String.format(
             "onResume: Refreshing groups to catch new invitations (last refresh: %dms ago)",
             timeSinceLastRefresh));
-    viewModel.loadUserGroups(currentUserKey, true);
+    if (pagedGroupAdapter != null) {
+      pagedGroupAdapter.refresh();
+    }
     updateLastRefreshTime();
   }
 
@@ -1624,8 +1458,8 @@ public class MainActivity extends BaseActivity {
     // Clean up completed
     
     // Clear adapter and view model references
-    if (groupAdapter != null) {
-      groupAdapter = null;
+    if (pagedGroupAdapter != null) {
+      pagedGroupAdapter = null;
     }
     if (viewModel != null) {
       viewModel = null;
@@ -26,6 +26,8 @@ import com.example.partymaker.R;
 import com.example.partymaker.data.api.FirebaseServerClient;
 import com.example.partymaker.data.api.FirebaseServerClient.OperationCallback;
 import com.example.partymaker.data.api.OpenAiApi;
+import com.example.partymaker.data.local.AppDatabase;
+import com.example.partymaker.data.local.DecryptedMessageCache;
 import com.example.partymaker.data.model.ChatMessage;
 import com.example.partymaker.data.model.Group;
 import com.example.partymaker.ui.adapters.ChatRecyclerAdapter;
@@ -37,10 +39,12 @@ import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
 import com.example.partymaker.utils.infrastructure.PerformanceMonitor;
 import com.example.partymaker.utils.security.encryption.GroupKeyManager;
 import com.example.partymaker.utils.security.encryption.GroupMessageEncryption;
+import com.example.partymaker.utils.security.encryption.LocalTextCipher;
 import com.bumptech.glide.Glide;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.example.partymaker.viewmodel.groups.GroupChatViewModel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -73,6 +77,7 @@ public class ChatActivity extends BaseActivity {
   private GroupChatViewModel viewModel;
   private GroupKeyManager groupKeyManager;
   private GroupMessageEncryption groupEncryption;
+  private DecryptedMessageCache decryptedMessageCache;
 
   @Override
   protected void onCreate(Bundle savedInstanceState) {
@@ -411,6 +416,33 @@ public class ChatActivity extends BaseActivity {
     }
   }
 
+  /**
+   * Stores the messages the chat shows and marks the chat read up to the newest of them, so the
+   * group list row shows the same last message and no unread count for them.
+   *
+   * @param messages The messages the chat shows, as the server sent them
+   */
+  private void storeShownMessages(List<ChatMessage> messages) {
+    String shownGroupKey = groupKey;
+    if (shownGroupKey == null || shownGroupKey.isEmpty()) {
+      return;
+    }
+    // Copied, as the list is sorted for display while the database task runs
+    List<ChatMessage> shown = new ArrayList<>(messages.size());
+    for (ChatMessage message : messages) {
+      if (message != null && message.getMessageKey() != null) {
+        shown.add(message);
+      }
+    }
+    if (shown.isEmpty()) {
+      return;
+    }
+    String currentUserKey = userKey;
+    AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+    ThreadUtils.executeDatabaseTask(
+        () -> database.chatMessageDao().insertShownMessages(shownGroupKey, shown, currentUserKey));
+  }
+
   private void ShowData() {
     PerformanceMonitor.startTiming("ChatActivity.ShowData");
     Log.d(TAG, "ShowData: Starting to load messages");
@@ -446,6 +478,9 @@ public class ChatActivity extends BaseActivity {
 
               // Ensure messageTime is populated from timestamp for sorting
               for (ChatMessage message : messages) {
+                if (message != null && message.getGroupKey() == null) {
+                  message.setGroupKey(groupKey);
+                }
                 if (message != null && message.getMessageTime() == null) {
                   // Convert timestamp to messageTime for sorting
                   android.icu.text.SimpleDateFormat dateFormat =
@@ -457,93 +492,19 @@ public class ChatActivity extends BaseActivity {
                 }
               }
 
-              // Decrypt messages if encryption is available
+              storeShownMessages(messages);
+
+              // Decrypt messages if encryption is available; messages decrypted before are read
+              // back from the database
               if (groupEncryption != null && groupEncryption.hasGroupKey(groupKey)) {
                 Log.d(TAG, "ShowData: Decrypting messages for group: " + groupKey);
-                for (int i = 0; i < messages.size(); i++) {
-                  ChatMessage message = messages.get(i);
-                  if (message != null && message.isEncrypted()) {
-                    ChatMessage decryptedMessage = groupEncryption.decryptChatMessage(message);
-                    if (decryptedMessage != null) {
-                      messages.set(i, decryptedMessage);
-                      Log.d(TAG, "ShowData: Message decrypted: " + message.getLogSafeSummary());
-                    } else {
-                      Log.w(
-                          TAG,
-                          "ShowData: Failed to decrypt message: " + message.getLogSafeSummary());
-                    }
-                  }
-                }
+                // Created on the database executor, as the first use reads the Keystore
+                ThreadUtils.executeDatabaseTask(
+                    () -> displayMessages(getDecryptedMessageCache().decryptMessages(messages)));
               } else {
                 Log.d(TAG, "ShowData: Group encryption not available, displaying messages as-is");
+                displayMessages(messages);
               }
-
-              // Sort messages by timestamp (oldest first at top, newest at bottom)
-              messages.sort(
-                  (m1, m2) -> {
-                    // Use timestamp for reliable sorting
-                    long t1 = m1.getTimestamp();
-                    long t2 = m2.getTimestamp();
-                    return Long.compare(t1, t2); // Ascending order - oldest at top
-                  });
-
-              // Debug: Log message order
-              Log.d(TAG, "ShowData: Message order after sorting:");
-              for (int i = 0; i < Math.min(5, messages.size()); i++) {
-                ChatMessage msg = messages.get(i);
-                Log.d(
-                    TAG,
-                    "  ["
-                        + i
-                        + "] "
-                        + new Date(msg.getTimestamp())
-                        + " - "
-                        + (msg.getMessage() != null
-                            ? msg.getMessage().substring(0, Math.min(20, msg.getMessage().length()))
-                            : "null"));
-              }
-
-              // Update the adapter
-              ThreadUtils.runOnMainThread(
-                  () -> {
-                    Log.d(TAG, "ShowData: Updating adapter with " + messages.size() + " messages");
-                    adapter.updateMessages(messages);
-
-                    // Scroll to the bottom (newest message)
-                    if (messages.size() > 0) {
-                      int lastPosition = messages.size() - 1;
-                      Log.d(
-                          TAG,
-                          "ShowData: Scrolling to position "
-                              + lastPosition
-                              + " out of "
-                              + messages.size()
-                              + " messages");
-
-                      // Check what's the last message
-                      ChatMessage lastMessage = messages.get(lastPosition);
-                      Log.d(
-                          TAG,
-                          "ShowData: Last message at position "
-                              + lastPosition
-                              + ": "
-                              + new Date(lastMessage.getTimestamp())
-                              + " - "
-                              + (lastMessage.getMessage() != null
-                                  ? lastMessage
-                                      .getMessage()
-                                      .substring(0, Math.min(20, lastMessage.getMessage().length()))
-                                  : "null"));
-
-                      // Scroll to bottom to show newest message
-                      recyclerView.post(
-                          () -> {
-                            recyclerView.smoothScrollToPosition(lastPosition);
-                          });
-                    }
-                    Log.d(TAG, "ShowData: Adapter updated successfully");
-                    PerformanceMonitor.endTiming("ChatActivity.ShowData");
-                  });
             } else {
               Log.d(TAG, "ShowData: No messages found or messages list is null");
               // Ensure we have an empty adapter to allow sending new messages
@@ -573,6 +534,64 @@ public class ChatActivity extends BaseActivity {
         });
   }
 
+  /**
+   * Gets the cache of decrypted message texts, created with the group encryption. Call it on the
+   * database executor.
+   */
+  private DecryptedMessageCache getDecryptedMessageCache() {
+    if (decryptedMessageCache == null) {
+      decryptedMessageCache =
+          new DecryptedMessageCache(
+              AppDatabase.getInstance(getApplicationContext()).chatMessageDao(),
+              groupEncryption,
+              LocalTextCipher.getInstance(getApplicationContext()));
+    }
+    return decryptedMessageCache;
+  }
+
+  /**
+   * Sorts messages oldest first and shows them, scrolled to the newest message.
+   *
+   * @param messages The messages to show
+   */
+  private void displayMessages(List<ChatMessage> messages) {
+    // Sort messages by timestamp (oldest first at top, newest at bottom)
+    messages.sort(
+        (m1, m2) -> {
+          // Use timestamp for reliable sorting
+          long t1 = m1.getTimestamp();
+          long t2 = m2.getTimestamp();
+          return Long.compare(t1, t2); // Ascending order - oldest at top
+        });
+
+    // Update the adapter
+    ThreadUtils.runOnMainThread(
+        () -> {
+          Log.d(TAG, "ShowData: Updating adapter with " + messages.size() + " messages");
+          adapter.updateMessages(messages);
+
+          // Scroll to the bottom (newest message)
+          if (messages.size() > 0) {
+            int lastPosition = messages.size() - 1;
+            Log.d(
+                TAG,
+                "ShowData: Scrolling to position "
+                    + lastPosition
+                    + " out of "
+                    + messages.size()
+                    + " messages");
+
+            // Scroll to bottom to show newest message
+            recyclerView.post(
+                () -> {
+                  recyclerView.smoothScrollToPosition(lastPosition);
+                });
+          }
+          Log.d(TAG, "ShowData: Adapter updated successfully");
+          PerformanceMonitor.endTiming("ChatActivity.ShowData");
+        });
+  }
+
   public String getGroupDetails() {
     StringBuilder details = new StringBuilder();
     details.append("Party Details:\n");
@@ -672,6 +691,7 @@ public class ChatActivity extends BaseActivity {
               + message.getMessageTime());
 
       // Save the message using FirebaseServerClient
+      ChatMessage sentMessage = messageToSend;
       FirebaseServerClient serverClient = FirebaseServerClient.getInstance();
       Log.d(TAG, "Got FirebaseServerClient instance: " + serverClient);
 
@@ -683,6 +703,8 @@ public class ChatActivity extends BaseActivity {
             public void onSuccess(Boolean success) {
               Log.d(TAG, "Message saved successfully: " + success);
               if (success) {
+                // Store the message at once, so the group list shows it even if the refresh fails
+                storeShownMessages(Collections.singletonList(sentMessage));
                 // Refresh messages and scroll to bottom
                 ShowData();
                 // Scroll to bottom after sending
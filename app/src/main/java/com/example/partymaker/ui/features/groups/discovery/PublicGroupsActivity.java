@@ -16,6 +16,12 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.ActionBar;
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.LifecycleOwnerKt;
+import androidx.lifecycle.LiveData;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import com.example.partymaker.ui.base.BaseActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -25,7 +31,10 @@ import com.facebook.shimmer.ShimmerFrameLayout;
 import com.example.partymaker.data.api.FirebaseServerClient;
 import com.example.partymaker.data.firebase.FirebaseAccessManager;
 import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
+import com.example.partymaker.data.repository.GroupRepository;
 import com.example.partymaker.ui.adapters.GroupAdapter;
+import com.example.partymaker.ui.adapters.GroupPagingAdapter;
 import com.example.partymaker.ui.features.auth.LoginActivity;
 import com.example.partymaker.ui.features.auxiliary.settings.ServerSettingsActivity;
 import com.example.partymaker.ui.features.core.MainActivity;
@@ -73,6 +82,9 @@ public class PublicGroupsActivity extends BaseActivity {
   private String userKey;
   private Object groupsRef;
   private GroupAdapter allGroupsAdapter;
+  // Shows the unfiltered list page by page from Room; allGroupsAdapter takes over while filtering
+  private GroupPagingAdapter pagedGroupsAdapter;
+  private boolean publicGroupsRequested = false;
   private ArrayList<Group> allGroups = new ArrayList<>();
   private final ArrayList<Group> filteredGroups = new ArrayList<>();
   private ChipGroup chipGroupFilters;
@@ -101,7 +113,7 @@ public class PublicGroupsActivity extends BaseActivity {
     initializeViews();
     setupEventHandlers();
     setupBottomNavigation();
-    loadPublicGroups();
+    observePagedPublicGroups();
   }
 
   private void setupActionBar() {
@@ -204,9 +216,15 @@ public class PublicGroupsActivity extends BaseActivity {
     sharedPool.setMaxRecycledViews(0, 25);
     recyclerView.setRecycledViewPool(sharedPool);
     
-    // Set adapter
-    allGroupsAdapter = new GroupAdapter(this, this::navigateToJoinGroup);
-    recyclerView.setAdapter(allGroupsAdapter);
+    // Set adapters; the paged one is shown until a search or filter is applied
+    allGroupsAdapter = new GroupAdapter(this, this::openGroup);
+    pagedGroupsAdapter = new GroupPagingAdapter(this, this::openGroup);
+    pagedGroupsAdapter.addLoadStateListener(
+        loadStates -> {
+          handlePagedLoadStates(loadStates);
+          return kotlin.Unit.INSTANCE;
+        });
+    recyclerView.setAdapter(pagedGroupsAdapter);
     
     Log.d(TAG, "Public groups RecyclerView configured with performance optimizations");
   }
@@ -269,13 +287,108 @@ public class PublicGroupsActivity extends BaseActivity {
     currentSearchText = "";
     
     // Reload groups from server
-    loadPublicGroups();
+    if (pagedGroupsAdapter != null) {
+      pagedGroupsAdapter.refresh();
+    }
+    if (!usesPagedList()) {
+      loadPublicGroups();
+    }
+  }
+
+  private void observePagedPublicGroups() {
+    LiveData<PagingData<GroupListItem>> pagedGroups =
+        GroupRepository.getInstance().getPublicGroupsPaged(userKey);
+    if (pagedGroups == null || pagedGroupsAdapter == null) {
+      // Room is not available, so fall back to the full list
+      Log.w(TAG, "Paged public groups unavailable, loading the full list");
+      pagedGroupsAdapter = null;
+      applyFilterAndSearch();
+      return;
+    }
+    PagingLiveData.cachedIn(pagedGroups, LifecycleOwnerKt.getLifecycleScope(this))
+        .observe(this, data -> pagedGroupsAdapter.submitData(getLifecycle(), data));
+  }
+
+  private void handlePagedLoadStates(CombinedLoadStates loadStates) {
+    if (recyclerView == null || recyclerView.getAdapter() != pagedGroupsAdapter) {
+      return;
+    }
+    LoadState refresh = loadStates.getRefresh();
+    if (refresh instanceof LoadState.Loading) {
+      if (pagedGroupsAdapter.getItemCount() == 0 && shimmerFrameLayout != null) {
+        shimmerFrameLayout.setVisibility(View.VISIBLE);
+        shimmerFrameLayout.startShimmer();
+        recyclerView.setVisibility(View.GONE);
+      }
+      return;
+    }
+    hideShimmer();
+    if (swipeRefreshLayout != null && swipeRefreshLayout.isRefreshing()) {
+      swipeRefreshLayout.setRefreshing(false);
+      if (refresh instanceof LoadState.Error) {
+        // Cached pages stay on screen
+        Toast.makeText(
+                this,
+                "Server error: " + ((LoadState.Error) refresh).getError().getMessage(),
+                Toast.LENGTH_SHORT)
+            .show();
+      }
+    }
+  }
+
+  /**
+   * Whether the list differs from the default view, which is paged from Room. Searches, filters
+   * and other sort orders are applied in memory to the full list.
+   */
+  private boolean isFilterActive() {
+    return currentFilterChipId != R.id.chipAll
+        || !currentSearchText.isEmpty()
+        || filterOnlyFree
+        || filterTodayOnly
+        || filterWeekOnly
+        || filterUpcomingOnly
+        || !"date_nearest".equals(currentSortMode);
+  }
+
+  private boolean usesPagedList() {
+    return pagedGroupsAdapter != null && !isFilterActive();
   }
 
   private void setupBottomNavigation() {
     NavigationManager.setupBottomNavigation(this, "publicparties");
   }
 
+  private void openGroup(GroupListItem item) {
+    // The filtered list holds the full groups; rows paged from Room are loaded by key
+    for (Group group : filteredGroups) {
+      if (item.getGroupKey().equals(group.getGroupKey())) {
+        navigateToJoinGroup(group);
+        return;
+      }
+    }
+    GroupRepository.getInstance()
+        .getGroup(
+            item.getGroupKey(),
+            new GroupRepository.DataCallback<>() {
+              @Override
+              public void onDataLoaded(Group group) {
+                if (group != null && !isFinishing() && !isDestroyed()) {
+                  navigateToJoinGroup(group);
+                }
+              }
+
+              @Override
+              public void onError(String error) {
+                Toast.makeText(
+                        PublicGroupsActivity.this,
+                        "Failed to open party: " + error,
+                        Toast.LENGTH_SHORT)
+                    .show();
+              }
+            },
+            false);
+  }
+
   private void navigateToJoinGroup(Group group) {
     Intent intent = new Intent(getBaseContext(), JoinGroupActivity.class);
     ExtrasMetadata extras = createExtrasFromGroup(group);
@@ -399,6 +512,21 @@ public class PublicGroupsActivity extends BaseActivity {
   }
 
   private void applyFilterAndSearch() {
+    if (recyclerView != null) {
+      RecyclerView.Adapter<?> adapter = usesPagedList() ? pagedGroupsAdapter : allGroupsAdapter;
+      if (recyclerView.getAdapter() != adapter) {
+        recyclerView.setAdapter(adapter);
+      }
+    }
+    if (usesPagedList()) {
+      return;
+    }
+    if (!publicGroupsRequested) {
+      // The full list is only loaded once it is needed for filtering
+      publicGroupsRequested = true;
+      loadPublicGroups();
+    }
+
     if (allGroups == null || allGroups.isEmpty()) {
       Log.w(TAG, "No groups to filter");
       if (allGroupsAdapter != null) {
@@ -444,7 +572,11 @@ public class PublicGroupsActivity extends BaseActivity {
 
     // Update adapter
     if (allGroupsAdapter != null) {
-      allGroupsAdapter.updateItems(filteredGroups);
+      ArrayList<GroupListItem> items = new ArrayList<>(filteredGroups.size());
+      for (Group group : filteredGroups) {
+        items.add(GroupListItem.fromGroup(group));
+      }
+      allGroupsAdapter.updateItems(items);
     }
 
     Log.d(TAG, "Filter and search applied, showing " + filteredGroups.size() + " groups");
@@ -701,6 +833,8 @@ public class PublicGroupsActivity extends BaseActivity {
     // Hide public/private checkboxes for PublicGroups screen (all are public here)
     checkboxPublic.setVisibility(android.view.View.GONE);
     checkboxPrivate.setVisibility(android.view.View.GONE);
+    // The public list is sorted in memory, which has no price order
+    dialogView.findViewById(R.id.radioPriceLowest).setVisibility(android.view.View.GONE);
     
     // Set current values
     switch (currentSortMode) {
@@ -809,6 +943,7 @@ public class PublicGroupsActivity extends BaseActivity {
     if (allGroupsAdapter != null) {
       allGroupsAdapter = null;
     }
+    pagedGroupsAdapter = null;
     if (swipeRefreshLayout != null) {
       swipeRefreshLayout.setOnRefreshListener(null);
       swipeRefreshLayout = null;
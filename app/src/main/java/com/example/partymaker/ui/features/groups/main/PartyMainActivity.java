@@ -93,6 +93,7 @@ public class PartyMainActivity extends BaseActivity {
   private boolean isUserAdmin = false;
   private boolean isUserComing = false;
   private boolean hasUserPaid = false;
+  private boolean groupEncryptionInitialized = false; // Group data can arrive twice
 
   @SuppressLint("SetTextI18n")
   @Override
@@ -174,8 +175,7 @@ public class PartyMainActivity extends BaseActivity {
       // Show loading indicator
       showLoading(true);
 
-      groupRepository.getGroup(
-          groupKey,
+      GroupRepository.DataCallback<Group> callback =
           new GroupRepository.DataCallback<>() {
             @Override
             public void onDataLoaded(Group group) {
@@ -219,8 +219,11 @@ public class PartyMainActivity extends BaseActivity {
                         updateGroupUI(group);
                         setupClickListeners();
 
-                        // Initialize group encryption proactively
-                        initializeGroupEncryption();
+                        // Initialize group encryption proactively, once per screen
+                        if (!groupEncryptionInitialized) {
+                          groupEncryptionInitialized = true;
+                          initializeGroupEncryption();
+                        }
 
                         showLoading(false);
                       } catch (Exception e) {
@@ -239,8 +242,14 @@ public class PartyMainActivity extends BaseActivity {
               Log.e(TAG, "Failed to get group details: " + errorMessage);
               showError("Failed to load group details: " + errorMessage);
             }
-          },
-          forceRefresh);
+          };
+
+      if (forceRefresh) {
+        groupRepository.getGroup(groupKey, callback, true);
+      } else {
+        // Paint the cached group at once; it is shown again only if the server has changes
+        groupRepository.getGroupAndRevalidate(groupKey, callback);
+      }
 
       // Load messages with error handling
       loadMessages();
@@ -17,6 +17,7 @@ import com.example.partymaker.R;
 import com.example.partymaker.data.api.FirebaseServerClient;
 import com.example.partymaker.data.model.Group;
 import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import com.example.partymaker.ui.adapters.UserAdapter;
 import com.example.partymaker.ui.features.groups.management.AdminOptionsActivity;
 import com.example.partymaker.utils.core.ExtrasMetadata;
@@ -41,7 +42,7 @@ public class FriendsRemoveActivity extends BaseActivity {
   private static final String USER_NOT_IN_GROUP_MESSAGE = "User is not in this group";
 
   // Data collections
-  private final ArrayList<User> usersList = new ArrayList<>();
+  private final ArrayList<UserListItem> usersList = new ArrayList<>();
   private final ArrayList<String> userKeys = new ArrayList<>();
 
   // UI Components
@@ -90,7 +91,7 @@ public class FriendsRemoveActivity extends BaseActivity {
 
     listView.setOnItemClickListener(
         (parent, view, position, id) -> {
-          User selectedUser = usersList.get(position);
+          UserListItem selectedUser = usersList.get(position);
           String selectedKey = userKeys.get(position);
           showRemoveConfirmation(selectedUser, selectedKey);
         });
@@ -117,7 +118,7 @@ public class FriendsRemoveActivity extends BaseActivity {
     messageKeys = extras.getMessageKeys();
   }
 
-  private void showRemoveConfirmation(User selectedUser, String selectedKey) {
+  private void showRemoveConfirmation(UserListItem selectedUser, String selectedKey) {
     android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(this);
     builder.setTitle(REMOVE_CONFIRMATION_TITLE);
     builder.setMessage("Are you sure you want to remove " + selectedUser.getEmail() + "?");
@@ -314,7 +315,7 @@ public class FriendsRemoveActivity extends BaseActivity {
                     @Override
                     public void onSuccess(User user) {
                       if (user != null) {
-                        usersList.add(user);
+                        usersList.add(UserListItem.fromUser(user));
                         userKeys.add(friendKey);
                         adapter.notifyDataSetChanged();
                       }
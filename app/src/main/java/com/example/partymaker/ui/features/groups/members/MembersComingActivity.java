@@ -10,13 +10,17 @@ import androidx.appcompat.app.ActionBar;
 import com.example.partymaker.ui.base.BaseActivity;
 import com.example.partymaker.R;
 import com.example.partymaker.data.api.FirebaseServerClient;
+import com.example.partymaker.data.local.AppDatabase;
 import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import com.example.partymaker.ui.adapters.InvitedAdapter;
 import com.example.partymaker.utils.auth.AuthenticationManager;
 import com.example.partymaker.utils.core.ExtrasMetadata;
 import com.example.partymaker.utils.core.IntentExtrasManager;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class MembersComingActivity extends BaseActivity {
@@ -33,6 +37,8 @@ public class MembersComingActivity extends BaseActivity {
   private ListView membersList;
   private HashMap<String, Object> comingKeys;
   private String adminKey;
+  private String groupKey;
+  private boolean serverListShown;
 
   @Override
   protected void onCreate(Bundle savedInstanceState) {
@@ -52,7 +58,7 @@ public class MembersComingActivity extends BaseActivity {
     // Extract data from intent extras
     comingKeys = extras.getComingKeys();
     adminKey = extras.getAdminKey();
-    String groupKey = extras.getGroupKey();
+    groupKey = extras.getGroupKey();
 
     Log.d(
         TAG, "Received extras - ComingKeys: " + (comingKeys != null ? comingKeys.size() : "null"));
@@ -97,6 +103,7 @@ public class MembersComingActivity extends BaseActivity {
     membersList = findViewById(R.id.lv3);
 
     // Show data and setup event handlers
+    showCachedMembers();
     showMembersData();
     setupEventHandlers();
   }
@@ -124,6 +131,31 @@ public class MembersComingActivity extends BaseActivity {
     membersList.setOnItemLongClickListener((parent, view, position, id) -> false);
   }
 
+  /**
+   * Shows the coming members whose profiles are cached in Room until the server's list arrives.
+   * Only the columns the rows show are read.
+   */
+  private void showCachedMembers() {
+    String cachedGroupKey = groupKey;
+    if (cachedGroupKey == null || cachedGroupKey.isEmpty()) {
+      return;
+    }
+    AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+    ThreadUtils.runInBackground(
+        () -> {
+          List<UserListItem> cachedMembers =
+              database.groupMemberDao().getMemberListItems(cachedGroupKey, true);
+          ThreadUtils.runOnMainThread(
+              () -> {
+                if (serverListShown || membersList == null || cachedMembers.isEmpty()) {
+                  return;
+                }
+                membersList.setAdapter(
+                    new InvitedAdapter(MembersComingActivity.this, 0, 0, cachedMembers, adminKey));
+              });
+        });
+  }
+
   private void showMembersData() {
     Log.d(TAG, "Starting to load users data");
 
@@ -164,7 +196,7 @@ public class MembersComingActivity extends BaseActivity {
               }
             }
 
-            ArrayList<User> comingUsers = new ArrayList<>();
+            ArrayList<UserListItem> comingUsers = new ArrayList<>();
             HashMap<String, Object> comingFriends = comingKeys;
 
             for (User user : users.values()) {
@@ -180,7 +212,7 @@ public class MembersComingActivity extends BaseActivity {
 
                 if (comingFriends != null && isUserComing(normalizedEmail, comingFriends)) {
                   Log.d(TAG, "Found matching user: " + normalizedEmail);
-                  comingUsers.add(user);
+                  comingUsers.add(UserListItem.fromUser(user));
                 }
               } else {
                 Log.w(TAG, "Skipping invalid user: " + user);
@@ -191,6 +223,7 @@ public class MembersComingActivity extends BaseActivity {
 
             InvitedAdapter adapter =
                 new InvitedAdapter(MembersComingActivity.this, 0, 0, comingUsers, adminKey);
+            serverListShown = true;
             membersList.setAdapter(adapter);
           }
 
@@ -245,5 +278,6 @@ public class MembersComingActivity extends BaseActivity {
     // Clear data objects
     comingKeys = null;
     adminKey = null;
+    groupKey = null;
   }
 }
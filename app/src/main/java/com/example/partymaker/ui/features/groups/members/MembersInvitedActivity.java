@@ -12,13 +12,17 @@ import androidx.appcompat.app.ActionBar;
 import com.example.partymaker.ui.base.BaseActivity;
 import com.example.partymaker.R;
 import com.example.partymaker.data.api.FirebaseServerClient;
+import com.example.partymaker.data.local.AppDatabase;
 import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import com.example.partymaker.ui.adapters.InvitedAdapter;
 import com.example.partymaker.utils.auth.AuthenticationManager;
 import com.example.partymaker.utils.core.ExtrasMetadata;
 import com.example.partymaker.utils.core.IntentExtrasManager;
+import com.example.partymaker.utils.infrastructure.system.ThreadUtils;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class MembersInvitedActivity extends BaseActivity {
@@ -35,6 +39,8 @@ public class MembersInvitedActivity extends BaseActivity {
   private ListView membersList;
   private HashMap<String, Object> friendKeys;
   private String adminKey;
+  private String groupKey;
+  private boolean serverListShown;
 
   @Override
   protected void onCreate(Bundle savedInstanceState) {
@@ -49,7 +55,7 @@ public class MembersInvitedActivity extends BaseActivity {
     if (extras != null) {
       friendKeys = extras.getFriendKeys();
       adminKey = extras.getAdminKey();
-      String groupKey = extras.getGroupKey();
+      groupKey = extras.getGroupKey();
 
       Log.d(
           TAG,
@@ -82,6 +88,7 @@ public class MembersInvitedActivity extends BaseActivity {
     membersList = findViewById(R.id.lv2);
 
     // Show data and setup event handlers
+    showCachedMembers();
     showInvitedMembersData();
     setupEventHandlers();
   }
@@ -109,6 +116,31 @@ public class MembersInvitedActivity extends BaseActivity {
     membersList.setOnItemLongClickListener((parent, view, position, id) -> false);
   }
 
+  /**
+   * Shows the invited members whose profiles are cached in Room until the server's list arrives.
+   * Only the columns the rows show are read.
+   */
+  private void showCachedMembers() {
+    String cachedGroupKey = groupKey;
+    if (cachedGroupKey == null || cachedGroupKey.isEmpty()) {
+      return;
+    }
+    AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+    ThreadUtils.runInBackground(
+        () -> {
+          List<UserListItem> cachedMembers =
+              database.groupMemberDao().getMemberListItems(cachedGroupKey, false);
+          ThreadUtils.runOnMainThread(
+              () -> {
+                if (serverListShown || membersList == null || cachedMembers.isEmpty()) {
+                  return;
+                }
+                membersList.setAdapter(
+                    new InvitedAdapter(MembersInvitedActivity.this, 0, 0, cachedMembers, adminKey));
+              });
+        });
+  }
+
   private void showInvitedMembersData() {
     Log.d(TAG, "Starting to load users data");
 
@@ -152,7 +184,7 @@ public class MembersInvitedActivity extends BaseActivity {
               }
             }
 
-            ArrayList<User> invitedUsers = new ArrayList<>();
+            ArrayList<UserListItem> invitedUsers = new ArrayList<>();
             HashMap<String, Object> groupFriends = friendKeys;
 
             for (User user : users.values()) {
@@ -168,7 +200,7 @@ public class MembersInvitedActivity extends BaseActivity {
 
                 if (groupFriends != null && isUserInvited(normalizedEmail, groupFriends)) {
                   Log.d(TAG, "Found matching user: " + normalizedEmail);
-                  invitedUsers.add(user);
+                  invitedUsers.add(UserListItem.fromUser(user));
                 }
               } else {
                 Log.w(TAG, "Skipping invalid user: " + user);
@@ -184,6 +216,7 @@ public class MembersInvitedActivity extends BaseActivity {
 
             InvitedAdapter adapter =
                 new InvitedAdapter(MembersInvitedActivity.this, 0, 0, invitedUsers, adminKey);
+            serverListShown = true;
             membersList.setAdapter(adapter);
           }
 
@@ -240,5 +273,6 @@ public class MembersInvitedActivity extends BaseActivity {
     // Clear data objects
     friendKeys = null;
     adminKey = null;
+    groupKey = null;
   }
 }
@@ -16,6 +16,7 @@ import com.example.partymaker.data.api.FirebaseServerClient;
 import com.example.partymaker.data.firebase.FirebaseAccessManager;
 import com.example.partymaker.data.model.Group;
 import com.example.partymaker.data.model.User;
+import com.example.partymaker.data.model.UserListItem;
 import com.example.partymaker.ui.adapters.UserAdapter;
 import com.example.partymaker.utils.auth.AuthenticationManager;
 import com.example.partymaker.utils.core.ExtrasMetadata;
@@ -41,7 +42,7 @@ public class UsersListActivity extends BaseActivity {
   // UI Components
   private ListView userListView;
   private FirebaseServerClient serverClient;
-  private ArrayList<User> usersList;
+  private ArrayList<UserListItem> usersList;
 
   // Group data
   private String groupKey;
@@ -110,7 +111,7 @@ public class UsersListActivity extends BaseActivity {
   private void setupEventHandlers() {
     userListView.setOnItemClickListener(
         (parent, view, position, id) -> {
-          User selectedUser = usersList.get(position);
+          UserListItem selectedUser = usersList.get(position);
 
           if (!isValidUserSelection(selectedUser)) {
             return;
@@ -120,7 +121,7 @@ public class UsersListActivity extends BaseActivity {
         });
   }
 
-  private boolean isValidUserSelection(User selectedUser) {
+  private boolean isValidUserSelection(UserListItem selectedUser) {
     if (selectedUser == null || selectedUser.getEmail() == null) {
       Toast.makeText(this, "Invalid user selected", Toast.LENGTH_SHORT).show();
       return false;
@@ -134,7 +135,7 @@ public class UsersListActivity extends BaseActivity {
     return true;
   }
 
-  private void showAddUserConfirmation(User selectedUser) {
+  private void showAddUserConfirmation(UserListItem selectedUser) {
     new androidx.appcompat.app.AlertDialog.Builder(this)
         .setTitle(ADD_FRIEND_TITLE)
         .setMessage("Add " + selectedUser.getEmail() + " to the group?")
@@ -143,7 +144,7 @@ public class UsersListActivity extends BaseActivity {
         .show();
   }
 
-  private void addUserToGroup(User user) {
+  private void addUserToGroup(UserListItem user) {
     if (user == null || user.getEmail() == null) {
       Toast.makeText(this, "Invalid user data", Toast.LENGTH_SHORT).show();
       return;
@@ -331,7 +332,12 @@ public class UsersListActivity extends BaseActivity {
         new FirebaseServerClient.DataCallback<>() {
           @Override
           public void onSuccess(Map<String, User> data) {
-            usersList = new ArrayList<>(data.values());
+            usersList = new ArrayList<>(data.size());
+            for (User user : data.values()) {
+              if (user != null) {
+                usersList.add(UserListItem.fromUser(user));
+              }
+            }
             UserAdapter adapter = new UserAdapter(UsersListActivity.this, 0, 0, usersList);
             userListView.setAdapter(adapter);
 
@@ -105,10 +105,7 @@ public class GroupDataManager {
     if (dateTime == null) {
       throw new IllegalArgumentException("DateTime manager cannot be null");
     }
-    group.setGroupDays(dateTime.getDay());
-    group.setGroupMonths(dateTime.getMonth());
-    group.setGroupYears(dateTime.getYear());
-    group.setGroupHours(dateTime.getTime());
+    dateTime.applyTo(group);
     return this;
   }
 
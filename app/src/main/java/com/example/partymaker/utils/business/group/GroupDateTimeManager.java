@@ -1,10 +1,26 @@
 package com.example.partymaker.utils.business.group;
 
+import com.example.partymaker.data.model.Group;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
 /**
  * Immutable data class for managing group date and time information. Provides validation for date
  * components to ensure data integrity.
+ *
+ * <p>Groups store their date as strings, so this class also converts them to the epoch millis kept
+ * in the numeric {@code event_epoch_millis} and {@code created_at_millis} columns.
  */
 public class GroupDateTimeManager {
+  // Months are stored as numbers or as English names
+  private static final String MONTH_PREFIXES = "janfebmaraprmayjunjulaugsepoctnovdec";
+  private static final DateTimeFormatter CREATED_AT_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]", Locale.ROOT);
+
   private final String day;
   private final String month;
   private final String year;
@@ -62,6 +78,116 @@ public class GroupDateTimeManager {
     return time;
   }
 
+  /**
+   * Writes this date and time to a group, including its event timestamp.
+   *
+   * @param group The group to update
+   */
+  public void applyTo(Group group) {
+    group.setGroupDays(day);
+    group.setGroupMonths(month);
+    group.setGroupYears(year);
+    group.setGroupHours(time);
+    group.setEventEpochMillis(toEpochMillis());
+  }
+
+  /**
+   * Gets the event start in the device's time zone.
+   *
+   * @return The event start as epoch millis, or null if the date is invalid
+   */
+  public Long toEpochMillis() {
+    return toEpochMillis(day, month, year, time);
+  }
+
+  /**
+   * Converts a group's date strings to the event start in the device's time zone.
+   *
+   * @param day The day of the month
+   * @param month The month, as a number or an English name
+   * @param year The year
+   * @param time The time as HH:mm; null or unparseable means midnight
+   * @return The event start as epoch millis, or null if the date is missing or invalid
+   */
+  public static Long toEpochMillis(String day, String month, String year, String time) {
+    int monthValue = parseMonth(month);
+    if (day == null || year == null || monthValue == 0) {
+      return null;
+    }
+    try {
+      LocalDateTime dateTime =
+          LocalDateTime.of(
+              Integer.parseInt(year.trim()),
+              monthValue,
+              Integer.parseInt(day.trim()),
+              parseTimePart(time, 0),
+              parseTimePart(time, 1));
+      return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    } catch (NumberFormatException | DateTimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Converts a group's creation timestamp to epoch millis. Timestamps are stored either as epoch
+   * millis or as local yyyy-MM-dd HH:mm:ss strings.
+   *
+   * @param createdAt The stored creation timestamp
+   * @return The creation time as epoch millis, or 0 if it is missing or invalid
+   */
+  public static long toCreatedAtMillis(String createdAt) {
+    if (createdAt == null || createdAt.trim().isEmpty()) {
+      return 0;
+    }
+    String trimmed = createdAt.trim();
+    try {
+      return Long.parseLong(trimmed);
+    } catch (NumberFormatException e) {
+      // Not epoch millis, so try the date format
+    }
+    try {
+      return LocalDateTime.parse(trimmed, CREATED_AT_FORMAT)
+          .atZone(ZoneId.systemDefault())
+          .toInstant()
+          .toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return 0;
+    }
+  }
+
+  private static int parseMonth(String month) {
+    if (month == null) {
+      return 0;
+    }
+    String trimmed = month.trim();
+    try {
+      int value = Integer.parseInt(trimmed);
+      return value >= 1 && value <= 12 ? value : 0;
+    } catch (NumberFormatException e) {
+      // Not a number, so try a month name
+    }
+    if (trimmed.length() < 3) {
+      return 0;
+    }
+    int index = MONTH_PREFIXES.indexOf(trimmed.substring(0, 3).toLowerCase(Locale.ROOT));
+    return index >= 0 && index % 3 == 0 ? index / 3 + 1 : 0;
+  }
+
+  private static int parseTimePart(String time, int part) {
+    if (time == null) {
+      return 0;
+    }
+    String[] parts = time.trim().split(":");
+    if (parts.length < 2) {
+      return 0;
+    }
+    try {
+      return Integer.parseInt(parts[part].trim());
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
   /**
    * Validates and trims a string parameter.
    *
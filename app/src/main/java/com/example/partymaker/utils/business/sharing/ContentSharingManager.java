@@ -8,6 +8,7 @@ import android.provider.MediaStore;
 import android.util.Log;
 import android.widget.Toast;
 import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
 import java.io.ByteArrayOutputStream;
 
 /**
@@ -79,6 +80,17 @@ public class ContentSharingManager {
     }
   }
 
+  /**
+   * Share party details of a group list row as text. The share message only uses columns a list row
+   * holds, so the full group does not need to be loaded.
+   *
+   * @param context The application context (cannot be null)
+   * @param item The list row of the group/party to share (cannot be null)
+   */
+  public static void sharePartyText(Context context, GroupListItem item) {
+    sharePartyText(context, item != null ? toShareableGroup(item) : null);
+  }
+
   /**
    * Share party details directly to WhatsApp.
    *
@@ -335,6 +347,26 @@ public class ContentSharingManager {
     return location.contains(",") && location.matches(".*\\d+.*");
   }
 
+  /**
+   * Copies the columns the share message uses from a list row into a group.
+   *
+   * @param item The list row
+   * @return A group holding only the shared details
+   */
+  private static Group toShareableGroup(GroupListItem item) {
+    Group group = new Group();
+    group.setGroupKey(item.getGroupKey());
+    group.setGroupName(item.getGroupName());
+    group.setGroupLocation(item.getGroupLocation());
+    group.setGroupDays(item.getGroupDays());
+    group.setGroupMonths(item.getGroupMonths());
+    group.setGroupYears(item.getGroupYears());
+    group.setGroupHours(item.getGroupHours());
+    group.setGroupPrice(item.getGroupPrice());
+    group.setGroupType(item.getGroupType());
+    return group;
+  }
+
   /**
    * Validates that context and group are not null.
    *
@@ -0,0 +1,144 @@
+package com.example.partymaker.utils.infrastructure;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-memory, lock-free latency histogram.
+ * Values are recorded into log-linear buckets in the style of HdrHistogram: every power of two is
+ * split into 16 linear sub-buckets, which bounds the relative error of any reported percentile to
+ * about 6%. Each bucket is a {@link LongAdder}, so concurrent recorders on different threads
+ * update separate cells instead of contending on one counter, and recording never allocates.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 24; // Values above ~9.3 hours (in ms) are clamped
+    private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int BUCKET_COUNT =
+        SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a single value. Negative values are treated as zero.
+     *
+     * @param value The value to record, in milliseconds
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_TRACKABLE_VALUE));
+        buckets[bucketIndex(clamped)].increment();
+        count.increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of recorded values, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n > 0 ? (double) sum.sum() / n : 0;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value at the given percentile. The result is the upper bound of the bucket that
+     * contains the percentile, capped at the recorded maximum.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return The value at the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        return getPercentile(percentile, this);
+    }
+
+    /**
+     * Gets the value at the given percentile across several histograms, as if all their values
+     * had been recorded into one.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @param histograms The histograms to combine
+     * @return The value at the percentile, or 0 if nothing was recorded
+     */
+    public static long getPercentile(double percentile, LatencyHistogram... histograms) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        long combinedMax = 0;
+        for (LatencyHistogram histogram : histograms) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucketCount = histogram.buckets[i].sum();
+                snapshot[i] += bucketCount;
+                total += bucketCount;
+            }
+            combinedMax = Math.max(combinedMax, histogram.getMax());
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        double clampedPercentile = Math.max(0, Math.min(percentile, 100));
+        long target = Math.max(1, (long) Math.ceil(clampedPercentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), combinedMax);
+            }
+        }
+        return combinedMax;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
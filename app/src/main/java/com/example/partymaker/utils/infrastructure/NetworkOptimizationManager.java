@@ -3,16 +3,27 @@ package com.example.partymaker.utils.infrastructure;
 import android.content.Context;
 import android.util.Log;
 import com.example.partymaker.BuildConfig;
+import com.example.partymaker.utils.core.AppConstants;
 // BufferedSink is from okio
 import java.io.File;
 import java.io.IOException;
-import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.ConnectionPool;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
@@ -29,13 +40,46 @@ import okio.Okio;
  * Network optimization manager for PartyMaker application.
  * Provides HTTP client optimizations including caching, compression, retry logic,
  * and request deduplication for improved network performance.
+ *
+ * <p>GET responses are cached in two tiers: an in-memory LRU of buffered bodies in front of the
+ * OkHttp disk cache. Each endpoint family has its own freshness window and stale window; a
+ * stale memory entry is served immediately while a single background request revalidates it.
+ * The server negotiates JSON or CBOR from the Accept header, so both tiers key responses by URL
+ * and Accept.
  */
 public class NetworkOptimizationManager {
     private static final String TAG = "NetworkOptimization";
     private static final int CACHE_SIZE = 20 * 1024 * 1024; // 20MB cache
-    private static OkHttpClient httpClient;
-    private static final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
+    private static volatile OkHttpClient httpClient;
     private static final int MAX_CACHE_ENTRIES = 200;
+    private static final int MAX_MEMORY_ENTRY_BYTES = 256 * 1024; // Larger bodies stay on disk only
+    private static final String HEADER_REVALIDATE = "X-PartyMaker-Revalidate";
+    // Separates the URL from the Accept header in memory cache keys; URLs never contain a space
+    private static final String KEY_SEPARATOR = " ";
+
+    /** Access-ordered map, so the eldest entry is always the least recently used one. */
+    private static final Map<String, CachedResponse> responseCache =
+        Collections.synchronizedMap(
+            new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_CACHE_ENTRIES;
+                }
+            });
+
+    /** URLs with a background revalidation in flight, so a stale entry is refreshed only once. */
+    private static final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    // Cache counters reported through getCacheStats()
+    private static final AtomicLong memoryHits = new AtomicLong();
+    private static final AtomicLong staleHits = new AtomicLong();
+    private static final AtomicLong diskHits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong revalidations = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+    
+    /** Time source of the memory tier's freshness checks; tests move it forward. */
+    private static volatile LongSupplier clock = System::currentTimeMillis;
     
     /**
      * Gets the optimized HTTP client with caching, compression, and retry logic.
@@ -58,10 +102,22 @@ public class NetworkOptimizationManager {
      * Creates an optimized HTTP client with all performance enhancements.
      */
     private static OkHttpClient createOptimizedClient(Context context) {
-        File cacheDir = new File(context.getCacheDir(), "http-cache");
+        return createOptimizedClient(new File(context.getCacheDir(), "http-cache"));
+    }
+    
+    /**
+     * Creates an optimized HTTP client whose disk cache lives in the given directory. The app
+     * shares the client from {@link #getOptimizedHttpClient(Context)}; tests use this to run
+     * requests through the same interceptor chain.
+     * 
+     * @param cacheDir The disk cache directory
+     * @return A new optimized OkHttpClient
+     */
+    public static OkHttpClient createOptimizedClient(File cacheDir) {
         Cache cache = new Cache(cacheDir, CACHE_SIZE);
+        CacheInterceptor cacheInterceptor = new CacheInterceptor();
         
-        return new OkHttpClient.Builder()
+        OkHttpClient client = new OkHttpClient.Builder()
             .cache(cache)
             .connectionPool(new ConnectionPool(10, 5, TimeUnit.MINUTES)) // Reuse connections
             .readTimeout(30, TimeUnit.SECONDS)
@@ -69,12 +125,23 @@ public class NetworkOptimizationManager {
             .connectTimeout(15, TimeUnit.SECONDS)
             .retryOnConnectionFailure(true)
             .addInterceptor(new RequestCompressionInterceptor())
-            .addInterceptor(new CacheInterceptor())
+            .addInterceptor(cacheInterceptor)
             .addInterceptor(new LoggingInterceptor())
             .addNetworkInterceptor(new NetworkCacheInterceptor())
             .addInterceptor(new RetryInterceptor())
             .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)) // HTTP/2 support
             .build();
+        cacheInterceptor.client = client;
+        return client;
+    }
+    
+    /**
+     * Replaces the time source of the memory tier, so tests can age cached entries.
+     *
+     * @param source The time source, in milliseconds
+     */
+    static void setClock(LongSupplier source) {
+        clock = source;
     }
     
     /**
@@ -124,34 +191,55 @@ public class NetworkOptimizationManager {
     
     /**
      * Cache interceptor for GET requests with in-memory caching.
+     * Fresh entries are served directly; entries inside the stale window are served while a
+     * background revalidation refreshes them; expired entries are dropped and fetched again.
      */
     private static class CacheInterceptor implements Interceptor {
+        /** The client this interceptor belongs to, which sends the background revalidations. */
+        private volatile OkHttpClient client;
+        
         @Override
         public Response intercept(Chain chain) throws IOException {
             Request request = chain.request();
             
-            // Add cache headers for GET requests
-            if (request.method().equals("GET")) {
-                String cacheKey = request.url().toString();
-                
+            if (!request.method().equals("GET")) {
+                return chain.proceed(request);
+            }
+            
+            String cacheKey = cacheKeyOf(request);
+            boolean isRevalidation = request.header(HEADER_REVALIDATE) != null;
+            
+            if (!isRevalidation) {
                 // Check in-memory cache first
                 CachedResponse cached = responseCache.get(cacheKey);
-                if (cached != null && !cached.isExpired()) {
-                    Log.d(TAG, "Serving from memory cache: " + cacheKey);
-                    return cached.response;
+                if (cached != null && cached.isExpired()) {
+                    responseCache.remove(cacheKey);
+                } else if (cached != null) {
+                    if (cached.isFresh()) {
+                        memoryHits.incrementAndGet();
+                        Log.d(TAG, "Serving from memory cache: " + cacheKey);
+                        return cached.toResponse(request, false);
+                    }
+                    staleHits.incrementAndGet();
+                    Log.d(TAG, "Serving stale from memory cache, revalidating: " + cacheKey);
+                    scheduleRevalidation(client, request);
+                    return cached.toResponse(request, true);
                 }
-                
-                // Modify request for HTTP caching
-                request = request.newBuilder()
-                    .addHeader("Cache-Control", "public, max-age=300") // 5 minutes
-                    .build();
+            } else {
+                request = request.newBuilder().removeHeader(HEADER_REVALIDATE).build();
             }
             
             Response response = chain.proceed(request);
             
+            if (response.cacheResponse() != null && response.networkResponse() == null) {
+                diskHits.incrementAndGet();
+            } else if (!isRevalidation) {
+                misses.incrementAndGet();
+            }
+            
             // Cache successful GET responses
-            if (request.method().equals("GET") && response.isSuccessful()) {
-                cacheInMemory(request.url().toString(), response);
+            if (response.isSuccessful()) {
+                return cacheInMemory(cacheKey, response);
             }
             
             return response;
@@ -159,17 +247,21 @@ public class NetworkOptimizationManager {
     }
     
     /**
-     * Network cache interceptor to add cache headers to responses.
+     * Network cache interceptor to add per-endpoint cache headers to responses, so the disk
+     * cache uses the same freshness window as the memory cache.
      */
     private static class NetworkCacheInterceptor implements Interceptor {
         @Override
         public Response intercept(Chain chain) throws IOException {
-            Response response = chain.proceed(chain.request());
+            Request request = chain.request();
+            Response response = chain.proceed(request);
             
-            // Add cache headers for successful responses
-            if (response.isSuccessful()) {
+            // Add cache headers for successful GET responses
+            if (request.method().equals("GET") && response.isSuccessful()) {
+                CachePolicy policy = CachePolicy.forUrl(request.url());
                 return response.newBuilder()
-                    .header("Cache-Control", "public, max-age=300") // 5 minutes
+                    .header("Cache-Control", "public, max-age=" + policy.ttlMs / 1000)
+                    .addHeader("Vary", "Accept") // A JSON response must not answer a CBOR read
                     .removeHeader("Pragma") // Remove pragma to enable caching
                     .build();
             }
@@ -261,50 +353,145 @@ public class NetworkOptimizationManager {
                 Log.d(TAG, "Response: " + response.code() + " " + request.url() + " (" + duration + "ms)");
             }
             
-            // Log slow requests
+            // Log slow requests. Timings are recorded in RequestMetrics by the callers, which
+            // know whether the response came from the server or from the cache
             if (duration > 3000) {
                 Log.w(TAG, "SLOW REQUEST: " + request.url() + " took " + duration + "ms");
             }
             
-            // Track request metrics
-            RequestMetrics.recordRequestTime(request.url().toString(), duration);
-            
             return response;
         }
     }
     
     /**
-     * Caches response in memory for fast retrieval.
+     * Caches response in memory for fast retrieval. The body is buffered once and the returned
+     * response carries a fresh copy, so the caller can still consume it.
      */
-    private static void cacheInMemory(String url, Response response) {
-        try {
-            // Don't cache if already at max capacity
-            if (responseCache.size() >= MAX_CACHE_ENTRIES) {
-                cleanupExpiredEntries();
-                if (responseCache.size() >= MAX_CACHE_ENTRIES) {
-                    return; // Still full after cleanup
-                }
+    private static Response cacheInMemory(String cacheKey, Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        
+        long contentLength = body.contentLength();
+        if (contentLength > MAX_MEMORY_ENTRY_BYTES) {
+            return response; // Leave large payloads to the disk tier without buffering them
+        }
+        
+        MediaType contentType = body.contentType();
+        byte[] bytes = body.bytes();
+        Response replayable = response.newBuilder()
+            .body(ResponseBody.create(bytes, contentType))
+            .build();
+        
+        if (bytes.length <= MAX_MEMORY_ENTRY_BYTES) {
+            CachePolicy policy = CachePolicy.forUrl(response.request().url());
+            responseCache.put(cacheKey, new CachedResponse(response, bytes, contentType, policy));
+        }
+        
+        return replayable;
+    }
+    
+    /**
+     * Refreshes a stale memory entry in the background. The revalidation call bypasses the
+     * memory tier and the disk tier, and its response repopulates both.
+     */
+    private static void scheduleRevalidation(OkHttpClient client, Request request) {
+        String cacheKey = cacheKeyOf(request);
+        if (client == null || !revalidating.add(cacheKey)) {
+            return;
+        }
+        
+        revalidations.incrementAndGet();
+        Request revalidation = request.newBuilder()
+            .header(HEADER_REVALIDATE, "1")
+            .cacheControl(CacheControl.FORCE_NETWORK)
+            .build();
+        
+        client.newCall(revalidation).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                revalidating.remove(cacheKey);
+                Log.w(TAG, "Background revalidation failed: " + cacheKey, e);
             }
             
-            // Clone response for caching
-            String bodyString = response.body().string();
-            Response cachedResponse = response.newBuilder()
-                .body(ResponseBody.create(response.body().contentType(), bodyString))
-                .build();
-                
-            responseCache.put(url, new CachedResponse(cachedResponse, System.currentTimeMillis()));
-            
-        } catch (IOException e) {
-            Log.e(TAG, "Failed to cache response", e);
+            @Override
+            public void onResponse(Call call, Response response) {
+                revalidating.remove(cacheKey);
+                response.close();
+            }
+        });
+    }
+    
+    /**
+     * Invalidates every cached response affected by a write to the given path: the resource
+     * itself, anything below it, and the collections above it. Accepts either an API path such
+     * as {@code Groups/abc} or a full URL.
+     *
+     * @param path The path or URL that was written
+     */
+    public static void invalidate(String path) {
+        String written = CachePolicy.resourceOf(path);
+        if (written.isEmpty()) {
+            return;
+        }
+        
+        int removed = 0;
+        synchronized (responseCache) {
+            Iterator<String> keys = responseCache.keySet().iterator();
+            while (keys.hasNext()) {
+                if (isAffectedBy(CachePolicy.resourceOf(urlOf(keys.next())), written)) {
+                    keys.remove();
+                    removed++;
+                }
+            }
+        }
+        
+        OkHttpClient client = httpClient;
+        if (client != null && client.cache() != null) {
+            try {
+                Iterator<String> urls = client.cache().urls();
+                while (urls.hasNext()) {
+                    if (isAffectedBy(CachePolicy.resourceOf(urls.next()), written)) {
+                        urls.remove();
+                        removed++;
+                    }
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to invalidate HTTP cache for: " + written, e);
+            }
+        }
+        
+        invalidations.addAndGet(removed);
+        if (removed > 0) {
+            Log.d(TAG, "Invalidated " + removed + " cached responses for: " + written);
         }
     }
     
     /**
-     * Cleans up expired cache entries to free memory.
+     * Gets the memory cache key of a GET: its URL, followed by its Accept header if it has one.
      */
-    private static void cleanupExpiredEntries() {
-        responseCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        Log.d(TAG, "Cleaned up expired cache entries. Current size: " + responseCache.size());
+    private static String cacheKeyOf(Request request) {
+        String accept = request.header("Accept");
+        String url = request.url().toString();
+        return accept != null ? url + KEY_SEPARATOR + accept : url;
+    }
+    
+    /**
+     * Gets the URL part of a memory cache key.
+     */
+    private static String urlOf(String cacheKey) {
+        int separator = cacheKey.indexOf(KEY_SEPARATOR);
+        return separator >= 0 ? cacheKey.substring(0, separator) : cacheKey;
+    }
+    
+    /**
+     * Checks whether a cached resource must be dropped after a write to another resource.
+     */
+    private static boolean isAffectedBy(String cached, String written) {
+        return cached.equals(written)
+            || cached.startsWith(written + "/")
+            || written.startsWith(cached + "/");
     }
     
     /**
@@ -328,8 +515,18 @@ public class NetworkOptimizationManager {
      * @return String containing cache statistics
      */
     public static String getCacheStats() {
+        long memory = memoryHits.get();
+        long stale = staleHits.get();
+        long disk = diskHits.get();
+        long lookups = memory + stale + disk + misses.get();
+        double hitRatio = lookups > 0 ? ((memory + stale + disk) * 100.0 / lookups) : 0;
+        
         StringBuilder stats = new StringBuilder();
         stats.append("In-memory cache size: ").append(responseCache.size()).append("/").append(MAX_CACHE_ENTRIES);
+        stats.append(String.format(", Hit ratio: %.1f%% (memory=%d, stale=%d, disk=%d, miss=%d)",
+            hitRatio, memory, stale, disk, misses.get()));
+        stats.append(", Revalidations: ").append(revalidations.get());
+        stats.append(", Invalidations: ").append(invalidations.get());
         
         if (httpClient != null && httpClient.cache() != null) {
             try {
@@ -346,23 +543,129 @@ public class NetworkOptimizationManager {
     }
     
     /**
-     * Wrapper class for cached responses with TTL.
+     * Per-endpoint freshness rules. Messages change constantly, group data changes often and
+     * individual user profiles rarely.
+     */
+    private static final class CachePolicy {
+        private static final CachePolicy MESSAGES = new CachePolicy(15_000, 45_000);
+        private static final CachePolicy USER = new CachePolicy(10 * 60_000, 30 * 60_000);
+        private static final CachePolicy USERS = new CachePolicy(2 * 60_000, 5 * 60_000);
+        private static final CachePolicy GROUPS = new CachePolicy(60_000, 4 * 60_000);
+        private static final CachePolicy DEFAULT = new CachePolicy(5 * 60_000, 0);
+        
+        final long ttlMs;
+        final long staleMs;
+        
+        private CachePolicy(long ttlMs, long staleMs) {
+            this.ttlMs = ttlMs;
+            this.staleMs = staleMs;
+        }
+        
+        static CachePolicy forUrl(HttpUrl url) {
+            String resource = resourceOf(url.encodedPath());
+            if (resource.startsWith("GroupsMessages")) {
+                return MESSAGES;
+            } else if (resource.startsWith("Users/")) {
+                return USER;
+            } else if (resource.equals("Users")) {
+                return USERS;
+            } else if (resource.startsWith("Groups") || resource.startsWith("UserGroups")) {
+                return GROUPS;
+            }
+            return DEFAULT;
+        }
+        
+        /**
+         * Reduces a URL or API path to the resource path below the API base path, without the
+         * query string, e.g. {@code Groups/abc}.
+         */
+        static String resourceOf(String pathOrUrl) {
+            if (pathOrUrl == null) {
+                return "";
+            }
+            
+            String path = pathOrUrl;
+            HttpUrl url = HttpUrl.parse(pathOrUrl);
+            if (url != null) {
+                path = url.encodedPath();
+            }
+            
+            int query = path.indexOf('?');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+            
+            int base = path.indexOf(AppConstants.Network.API_BASE_PATH);
+            if (base >= 0) {
+                path = path.substring(base + AppConstants.Network.API_BASE_PATH.length());
+            }
+            
+            while (path.startsWith("/")) {
+                path = path.substring(1);
+            }
+            while (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            return path;
+        }
+    }
+    
+    /**
+     * Buffered copy of a cached response with its freshness policy.
      */
     private static class CachedResponse {
-        final Response response;
+        final int code;
+        final String message;
+        final Protocol protocol;
+        final Headers headers;
+        final byte[] body;
+        final MediaType contentType;
         final long timestamp;
-        final long ttl = 5 * 60 * 1000; // 5 minutes TTL
+        final long ttl;
+        final long staleWindow;
+        
+        CachedResponse(Response response, byte[] body, MediaType contentType, CachePolicy policy) {
+            this.code = response.code();
+            this.message = response.message();
+            this.protocol = response.protocol();
+            this.headers = response.headers();
+            this.body = body;
+            this.contentType = contentType;
+            this.timestamp = clock.getAsLong();
+            this.ttl = policy.ttlMs;
+            this.staleWindow = policy.staleMs;
+        }
         
-        CachedResponse(Response response, long timestamp) {
-            this.response = response;
-            this.timestamp = timestamp;
+        boolean isFresh() {
+            return clock.getAsLong() - timestamp <= ttl;
+        }
+        
+        boolean isUsableStale() {
+            return clock.getAsLong() - timestamp <= ttl + staleWindow;
         }
         
         /**
-         * Checks if the cached response has expired.
+         * Checks if the cached response can no longer be served, not even as stale.
          */
         boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > ttl;
+            return !isUsableStale();
+        }
+        
+        /**
+         * Rebuilds a response for the given request from the buffered body.
+         */
+        Response toResponse(Request request, boolean stale) {
+            Response.Builder builder = new Response.Builder()
+                .request(request)
+                .protocol(protocol)
+                .code(code)
+                .message(message)
+                .headers(headers)
+                .body(ResponseBody.create(body, contentType));
+            if (stale) {
+                builder.header("Warning", "110 - \"Response is Stale\"");
+            }
+            return builder.build();
         }
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,32 @@
 package com.example.partymaker.utils.infrastructure;
 
 import android.util.Log;
+import com.example.partymaker.utils.core.AppConstants;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Request metrics tracking class for monitoring network performance.
  * Tracks request times, failure rates, and provides performance statistics
  * for network optimization analysis.
+ *
+ * <p>Request times are kept in a fixed-size {@link LatencyHistogram} per endpoint, so recording
+ * is lock-free and memory does not grow with the number of requests. Besides the lifetime
+ * histogram, each endpoint keeps two alternating window histograms that back the rolling
+ * percentiles used for adaptive timeouts. Only successful requests are recorded in the windows:
+ * the duration of a failed or timed-out request is bounded by the timeout itself, and feeding it
+ * back would push the next timeout up.
  */
 public class RequestMetrics {
     private static final String TAG = "RequestMetrics";
-    private static final Map<String, List<Long>> requestTimes = new ConcurrentHashMap<>();
-    private static final Map<String, Integer> failureCount = new ConcurrentHashMap<>();
-    private static final Map<String, Integer> requestCount = new ConcurrentHashMap<>();
+    private static final long ROLLING_WINDOW_MS = 5 * 60 * 1000; // Rolling stats cover 5-10 minutes
+    private static final String ID_SEGMENT = "{id}";
+    private static final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
     
     /**
-     * Records the time taken for a network request.
+     * Records the time taken for a successful network request.
      * 
      * @param endpoint The endpoint URL
      * @param duration The duration in milliseconds
@@ -28,22 +35,30 @@ public class RequestMetrics {
         // Extract endpoint from full URL
         String key = extractEndpoint(endpoint);
         
-        // Record the request time
-        requestTimes.computeIfAbsent(key, k -> new ArrayList<>()).add(duration);
-        
-        // Increment request count
-        requestCount.put(key, requestCount.getOrDefault(key, 0) + 1);
+        EndpointMetrics metrics = metricsFor(key);
+        metrics.latency.record(duration);
+        metrics.currentWindow(System.currentTimeMillis()).record(duration);
+        metrics.requests.increment();
         
         // Log slow requests
         if (duration > 5000) {
             Log.w(TAG, "SLOW REQUEST: " + key + " took " + duration + "ms");
         }
-        
-        // Keep only recent metrics (last 100 requests per endpoint)
-        List<Long> times = requestTimes.get(key);
-        if (times.size() > 100) {
-            times.subList(0, times.size() - 100).clear();
-        }
+    }
+    
+    /**
+     * Records the time taken for a failed or timed-out network request, along with its failure.
+     * The duration goes into the lifetime statistics only, not the rolling percentiles behind
+     * adaptive timeouts.
+     * 
+     * @param endpoint The endpoint URL
+     * @param duration The duration in milliseconds
+     */
+    public static void recordFailedRequest(String endpoint, long duration) {
+        EndpointMetrics metrics = metricsFor(extractEndpoint(endpoint));
+        metrics.latency.record(duration);
+        metrics.requests.increment();
+        recordFailure(endpoint);
     }
     
     /**
@@ -53,8 +68,9 @@ public class RequestMetrics {
      */
     public static void recordFailure(String endpoint) {
         String key = extractEndpoint(endpoint);
-        failureCount.put(key, failureCount.getOrDefault(key, 0) + 1);
-        Log.w(TAG, "REQUEST FAILURE: " + key + " (total failures: " + failureCount.get(key) + ")");
+        EndpointMetrics metrics = metricsFor(key);
+        metrics.failures.increment();
+        Log.w(TAG, "REQUEST FAILURE: " + key + " (total failures: " + metrics.failures.sum() + ")");
     }
     
     /**
@@ -63,26 +79,29 @@ public class RequestMetrics {
     public static void printNetworkStats() {
         Log.i(TAG, "=== Network Performance Stats ===");
         
-        for (Map.Entry<String, List<Long>> entry : requestTimes.entrySet()) {
+        long totalRequests = 0;
+        long totalFailures = 0;
+        
+        for (Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
             String endpoint = entry.getKey();
-            List<Long> times = entry.getValue();
+            EndpointMetrics metrics = entry.getValue();
+            long requests = metrics.requests.sum();
+            long failures = metrics.failures.sum();
+            totalRequests += requests;
+            totalFailures += failures;
             
-            if (times.isEmpty()) continue;
+            if (metrics.latency.getCount() == 0) continue;
             
-            double avg = times.stream().mapToLong(Long::longValue).average().orElse(0);
-            long min = times.stream().mapToLong(Long::longValue).min().orElse(0);
-            long max = times.stream().mapToLong(Long::longValue).max().orElse(0);
-            int failures = failureCount.getOrDefault(endpoint, 0);
-            int requests = requestCount.getOrDefault(endpoint, 0);
             double failureRate = requests > 0 ? (failures * 100.0 / requests) : 0;
             
-            Log.i(TAG, String.format("%s: avg=%.0fms, min=%dms, max=%dms, requests=%d, failures=%d (%.1f%%)",
-                endpoint, avg, min, max, requests, failures, failureRate));
+            Log.i(TAG, String.format(
+                "%s: avg=%.0fms, p50=%dms, p90=%dms, p99=%dms, max=%dms, requests=%d, failures=%d (%.1f%%)",
+                endpoint, metrics.latency.getMean(), metrics.latency.getPercentile(50),
+                metrics.latency.getPercentile(90), metrics.latency.getPercentile(99),
+                metrics.latency.getMax(), requests, failures, failureRate));
         }
         
         // Overall stats
-        int totalRequests = requestCount.values().stream().mapToInt(Integer::intValue).sum();
-        int totalFailures = failureCount.values().stream().mapToInt(Integer::intValue).sum();
         double overallFailureRate = totalRequests > 0 ? (totalFailures * 100.0 / totalRequests) : 0;
         
         Log.i(TAG, String.format("OVERALL: %d requests, %d failures (%.1f%% failure rate)", 
@@ -90,22 +109,63 @@ public class RequestMetrics {
     }
     
     /**
-     * Extracts the endpoint path from a full URL for categorization.
+     * Gets or creates the metrics holder for an already-extracted endpoint key.
+     */
+    private static EndpointMetrics metricsFor(String key) {
+        EndpointMetrics metrics = endpoints.get(key);
+        return metrics != null ? metrics : endpoints.computeIfAbsent(key, k -> new EndpointMetrics());
+    }
+    
+    /**
+     * Extracts the endpoint path from a full URL for categorization. Resource ids below a
+     * collection are replaced with a placeholder, so {@code /api/firebase/Groups/abc} and
+     * {@code /api/firebase/Groups/def} share the {@code /api/firebase/Groups/{id}} metrics.
      * 
      * @param fullUrl The full URL
      * @return The endpoint path
      */
     private static String extractEndpoint(String fullUrl) {
+        String path;
         try {
-            return new URL(fullUrl).getPath();
+            path = new URL(fullUrl).getPath();
         } catch (Exception e) {
             // Fallback: try to extract path manually
+            path = fullUrl;
             if (fullUrl.contains("/api/")) {
                 int apiIndex = fullUrl.indexOf("/api/");
-                return fullUrl.substring(apiIndex);
+                path = fullUrl.substring(apiIndex);
             }
-            return fullUrl;
+            int query = path.indexOf('?');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+        }
+        return templateOf(path);
+    }
+    
+    /**
+     * Replaces every path segment after the collection name with a placeholder.
+     */
+    private static String templateOf(String path) {
+        String prefix = "";
+        String resource = path;
+        int base = path.indexOf(AppConstants.Network.API_BASE_PATH);
+        if (base >= 0) {
+            prefix = path.substring(0, base + AppConstants.Network.API_BASE_PATH.length());
+            resource = path.substring(prefix.length());
+        }
+        
+        int firstSlash = resource.indexOf('/');
+        if (firstSlash < 0 || firstSlash == resource.length() - 1) {
+            return path;
+        }
+        
+        StringBuilder template = new StringBuilder(prefix).append(resource, 0, firstSlash);
+        int segments = resource.substring(firstSlash + 1).split("/").length;
+        for (int i = 0; i < segments; i++) {
+            template.append('/').append(ID_SEGMENT);
         }
+        return template.toString();
     }
     
     /**
@@ -115,9 +175,58 @@ public class RequestMetrics {
      * @return Average response time in milliseconds, or 0 if no data
      */
     public static double getAverageResponseTime(String endpoint) {
-        List<Long> times = requestTimes.get(extractEndpoint(endpoint));
-        if (times == null || times.isEmpty()) return 0;
-        return times.stream().mapToLong(Long::longValue).average().orElse(0);
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        return metrics != null ? metrics.latency.getMean() : 0;
+    }
+    
+    /**
+     * Gets the response time at a percentile for a specific endpoint.
+     * 
+     * @param endpoint The endpoint to check
+     * @param percentile Percentile between 0 and 100, e.g. 50, 90 or 99
+     * @return Response time in milliseconds, or 0 if no data
+     */
+    public static long getPercentile(String endpoint, double percentile) {
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        return metrics != null ? metrics.latency.getPercentile(percentile) : 0;
+    }
+    
+    /**
+     * Gets the response time at a percentile over the last five to ten minutes.
+     * 
+     * @param endpoint The endpoint to check
+     * @param percentile Percentile between 0 and 100, e.g. 95
+     * @return Response time in milliseconds, or 0 if no recent data
+     */
+    public static long getRollingPercentile(String endpoint, double percentile) {
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        if (metrics == null) return 0;
+        metrics.currentWindow(System.currentTimeMillis());
+        return LatencyHistogram.getPercentile(percentile, metrics.windows);
+    }
+    
+    /**
+     * Gets the number of response times behind the rolling percentiles.
+     * 
+     * @param endpoint The endpoint to check
+     * @return Number of recent samples
+     */
+    public static long getRollingSampleCount(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        if (metrics == null) return 0;
+        metrics.currentWindow(System.currentTimeMillis());
+        return metrics.windows[0].getCount() + metrics.windows[1].getCount();
+    }
+    
+    /**
+     * Gets the slowest recorded response time for a specific endpoint.
+     * 
+     * @param endpoint The endpoint to check
+     * @return Maximum response time in milliseconds, or 0 if no data
+     */
+    public static long getMaxResponseTime(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        return metrics != null ? metrics.latency.getMax() : 0;
     }
     
     /**
@@ -127,10 +236,10 @@ public class RequestMetrics {
      * @return Failure rate as a percentage (0-100)
      */
     public static double getFailureRate(String endpoint) {
-        String key = extractEndpoint(endpoint);
-        int failures = failureCount.getOrDefault(key, 0);
-        int requests = requestCount.getOrDefault(key, 0);
-        return requests > 0 ? (failures * 100.0 / requests) : 0;
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        if (metrics == null) return 0;
+        long requests = metrics.requests.sum();
+        return requests > 0 ? (metrics.failures.sum() * 100.0 / requests) : 0;
     }
     
     /**
@@ -140,7 +249,8 @@ public class RequestMetrics {
      * @return Total request count
      */
     public static int getRequestCount(String endpoint) {
-        return requestCount.getOrDefault(extractEndpoint(endpoint), 0);
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        return metrics != null ? metrics.requests.intValue() : 0;
     }
     
     /**
@@ -150,7 +260,8 @@ public class RequestMetrics {
      * @return Total failure count
      */
     public static int getFailureCount(String endpoint) {
-        return failureCount.getOrDefault(extractEndpoint(endpoint), 0);
+        EndpointMetrics metrics = endpoints.get(extractEndpoint(endpoint));
+        return metrics != null ? metrics.failures.intValue() : 0;
     }
     
     /**
@@ -179,14 +290,17 @@ public class RequestMetrics {
     public static Map<String, String> getPerformanceSummary() {
         Map<String, String> summary = new ConcurrentHashMap<>();
         
-        for (String endpoint : requestCount.keySet()) {
-            double avgTime = getAverageResponseTime(endpoint);
-            double failureRate = getFailureRate(endpoint);
-            int requests = getRequestCount(endpoint);
+        for (Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            EndpointMetrics metrics = entry.getValue();
+            long requests = metrics.requests.sum();
+            double failureRate = requests > 0 ? (metrics.failures.sum() * 100.0 / requests) : 0;
             
-            String performance = String.format("avg=%.0fms, requests=%d, failures=%.1f%%", 
-                avgTime, requests, failureRate);
-            summary.put(endpoint, performance);
+            String performance = String.format(
+                "avg=%.0fms, p50=%dms, p90=%dms, p99=%dms, max=%dms, requests=%d, failures=%.1f%%",
+                metrics.latency.getMean(), metrics.latency.getPercentile(50),
+                metrics.latency.getPercentile(90), metrics.latency.getPercentile(99),
+                metrics.latency.getMax(), requests, failureRate);
+            summary.put(entry.getKey(), performance);
         }
         
         return summary;
@@ -196,18 +310,52 @@ public class RequestMetrics {
      * Clears all recorded metrics. Use with caution.
      */
     public static void clearAllMetrics() {
-        requestTimes.clear();
-        failureCount.clear();
-        requestCount.clear();
+        endpoints.clear();
         Log.i(TAG, "All request metrics cleared");
     }
     
     /**
-     * Gets cache hit ratio if available from NetworkOptimizationManager.
+     * Gets cache hit ratios from NetworkOptimizationManager, broken down by memory hits, stale
+     * hits served while revalidating, disk hits and misses.
      * 
      * @return Cache statistics string
      */
     public static String getCacheStats() {
         return NetworkOptimizationManager.getCacheStats();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Counters and latency histogram for a single endpoint.
+     */
+    private static final class EndpointMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram[] windows = {new LatencyHistogram(), new LatencyHistogram()};
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        private volatile int activeWindow = 0;
+        private volatile long windowStart = System.currentTimeMillis();
+        
+        /**
+         * Gets the window histogram to record into, rotating first if the active window is
+         * older than {@link #ROLLING_WINDOW_MS}. Rotation clears the older window and reuses it,
+         * so the rolling view always covers the previous window plus the current one.
+         */
+        LatencyHistogram currentWindow(long now) {
+            if (now - windowStart >= ROLLING_WINDOW_MS) {
+                synchronized (this) {
+                    if (now - windowStart >= ROLLING_WINDOW_MS) {
+                        int next = 1 - activeWindow;
+                        // A gap longer than two windows means both windows are outdated
+                        if (now - windowStart >= 2 * ROLLING_WINDOW_MS) {
+                            windows[activeWindow].reset();
+                        }
+                        windows[next].reset();
+                        activeWindow = next;
+                        windowStart = now;
+                    }
+                }
+            }
+            return windows[activeWindow];
+        }
+    }
+}
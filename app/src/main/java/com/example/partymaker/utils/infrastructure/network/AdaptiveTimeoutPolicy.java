@@ -0,0 +1,110 @@
+package com.example.partymaker.utils.infrastructure.network;
+
+import com.example.partymaker.utils.core.AppConstants;
+import com.example.partymaker.utils.infrastructure.RequestMetrics;
+
+/**
+ * Derives request timeouts and hedge delays from observed latency.
+ * Timeouts follow the rolling per-endpoint p95 from {@link RequestMetrics} with headroom scaled
+ * by the network quality reported by {@code NetworkManager.getNetworkQuality()}. Endpoints
+ * without enough recent samples fall back to a per-quality default.
+ */
+public final class AdaptiveTimeoutPolicy {
+
+    // Timeout bounds
+    private static final int MIN_TIMEOUT_MS = 2000;
+    private static final int MAX_TIMEOUT_MS = 30000;
+
+    // A p95 needs a minimum number of samples to mean anything
+    private static final long MIN_SAMPLES = 20;
+    private static final double TAIL_PERCENTILE = 95;
+
+    // Headroom over the observed p95
+    private static final double P95_MULTIPLIER = 3.0;
+
+    // Hedge delay bounds
+    private static final long MIN_HEDGE_DELAY_MS = 300;
+    private static final long MAX_HEDGE_DELAY_MS = 8000;
+
+    private AdaptiveTimeoutPolicy() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Gets the timeout for a request to the given endpoint.
+     *
+     * @param endpointUrl The full request URL
+     * @param networkQuality The quality from NetworkManager (Excellent, Good, Fair, Poor, None)
+     * @return Connect/read timeout in milliseconds
+     */
+    public static int timeoutFor(String endpointUrl, String networkQuality) {
+        if (RequestMetrics.getRollingSampleCount(endpointUrl) < MIN_SAMPLES) {
+            return defaultTimeoutFor(networkQuality);
+        }
+
+        long p95 = RequestMetrics.getRollingPercentile(endpointUrl, TAIL_PERCENTILE);
+        long timeout = (long) (p95 * P95_MULTIPLIER * qualityFactor(networkQuality));
+        return (int) Math.max(MIN_TIMEOUT_MS, Math.min(timeout, MAX_TIMEOUT_MS));
+    }
+
+    /**
+     * Gets how long to wait for the first response before sending a hedged duplicate of an
+     * idempotent request.
+     *
+     * @param endpointUrl The full request URL
+     * @param networkQuality The quality from NetworkManager
+     * @return Delay in milliseconds, or -1 if the request should not be hedged
+     */
+    public static long hedgeDelayFor(String endpointUrl, String networkQuality) {
+        if (!shouldHedge(networkQuality)
+            || RequestMetrics.getRollingSampleCount(endpointUrl) < MIN_SAMPLES) {
+            return -1;
+        }
+
+        long p95 = RequestMetrics.getRollingPercentile(endpointUrl, TAIL_PERCENTILE);
+        return Math.max(MIN_HEDGE_DELAY_MS, Math.min(p95, MAX_HEDGE_DELAY_MS));
+    }
+
+    /**
+     * Hedging only pays off on connections with a long latency tail. On WiFi and Ethernet the
+     * duplicate request would mostly add server load.
+     */
+    private static boolean shouldHedge(String networkQuality) {
+        return "Good".equals(networkQuality)
+            || "Fair".equals(networkQuality)
+            || "Poor".equals(networkQuality);
+    }
+
+    private static double qualityFactor(String networkQuality) {
+        if (networkQuality == null) {
+            return 1.5;
+        }
+        switch (networkQuality) {
+            case "Excellent":
+                return 1.0;
+            case "Good":
+                return 1.5;
+            case "Fair":
+                return 2.0;
+            case "Poor":
+                return 3.0;
+            default:
+                return 1.5;
+        }
+    }
+
+    private static int defaultTimeoutFor(String networkQuality) {
+        if (networkQuality == null) {
+            return AppConstants.Network.DEFAULT_TIMEOUT_MS;
+        }
+        switch (networkQuality) {
+            case "Excellent":
+                return 8000;
+            case "Fair":
+            case "Poor":
+                return 15000;
+            default:
+                return AppConstants.Network.DEFAULT_TIMEOUT_MS;
+        }
+    }
+}
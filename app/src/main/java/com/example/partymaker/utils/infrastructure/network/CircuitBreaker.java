@@ -0,0 +1,179 @@
+package com.example.partymaker.utils.infrastructure.network;
+
+import android.util.Log;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker with half-open probing.
+ * After {@link #FAILURE_THRESHOLD} consecutive failures the circuit opens and every request is
+ * rejected without touching the network. Once {@link #CIRCUIT_RESET_TIMEOUT_MS} has passed, a
+ * single probe request is let through: if it succeeds the circuit closes, if it fails the circuit
+ * opens again for another reset period.
+ */
+public class CircuitBreaker {
+    private static final String TAG = "CircuitBreaker";
+
+    // Circuit breaker configuration
+    static final int FAILURE_THRESHOLD = 5;
+    static final long CIRCUIT_RESET_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Circuit states
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long resetTimeoutMs;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+    private final AtomicBoolean probeInFlight = new AtomicBoolean(false);
+    private volatile State state = State.CLOSED;
+    private volatile long circuitOpenTime = 0;
+
+    public CircuitBreaker(String name) {
+        this(name, FAILURE_THRESHOLD, CIRCUIT_RESET_TIMEOUT_MS);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, long resetTimeoutMs) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.resetTimeoutMs = resetTimeoutMs;
+    }
+
+    /**
+     * Asks to send a request. In the half-open state only the first caller gets through as the
+     * probe; it must report its outcome through {@link #recordResult(boolean)}.
+     *
+     * @return true if the request may be sent
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        if (state == State.OPEN && System.currentTimeMillis() - circuitOpenTime >= resetTimeoutMs) {
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    state = State.HALF_OPEN;
+                    Log.i(TAG, name + ": circuit half-open, probing");
+                }
+            }
+        }
+
+        if (state == State.HALF_OPEN) {
+            return probeInFlight.compareAndSet(false, true);
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Checks without side effects whether a request would currently be rejected. Used to fail
+     * fast before starting an operation that would end up asking for permission anyway.
+     */
+    public boolean isRejecting() {
+        switch (state) {
+            case OPEN:
+                return System.currentTimeMillis() - circuitOpenTime < resetTimeoutMs;
+            case HALF_OPEN:
+                return probeInFlight.get();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted request.
+     *
+     * @param healthy true if the server answered normally, false on timeouts, I/O errors and
+     *     server-side failures
+     */
+    public void recordResult(boolean healthy) {
+        if (healthy) {
+            onSuccess();
+        } else {
+            onFailure();
+        }
+    }
+
+    /**
+     * Returns a permission without recording an outcome, for a request that was answered from a
+     * cache and so says nothing about the server. Frees the probe slot in the half-open state.
+     */
+    public void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight.set(false);
+        }
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            synchronized (this) {
+                state = State.CLOSED;
+                probeInFlight.set(false);
+            }
+            Log.i(TAG, name + ": circuit closed after successful request");
+        }
+    }
+
+    private void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+
+        if (state == State.HALF_OPEN) {
+            open("probe failed");
+        } else if (failures >= failureThreshold && state == State.CLOSED) {
+            open(failures + " consecutive failures");
+        }
+    }
+
+    private synchronized void open(String reason) {
+        state = State.OPEN;
+        circuitOpenTime = System.currentTimeMillis();
+        probeInFlight.set(false);
+        Log.w(TAG, name + ": circuit opened due to " + reason);
+    }
+
+    /**
+     * Gets the current state, moving from open to half-open if the reset period has passed.
+     */
+    public State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - circuitOpenTime >= resetTimeoutMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets circuit breaker status
+     */
+    public String getStatus() {
+        State current = getState();
+        if (current == State.OPEN) {
+            long timeRemaining = resetTimeoutMs - (System.currentTimeMillis() - circuitOpenTime);
+            return "OPEN (probes in " + TimeUnit.MILLISECONDS.toSeconds(timeRemaining) + "s)";
+        } else if (current == State.HALF_OPEN) {
+            return "HALF_OPEN (probe " + (probeInFlight.get() ? "in flight" : "pending") + ")";
+        }
+        return "CLOSED (failures: " + consecutiveFailures.get() + "/" + failureThreshold + ")";
+    }
+
+    /**
+     * Manually resets the circuit breaker
+     */
+    public synchronized void reset() {
+        consecutiveFailures.set(0);
+        probeInFlight.set(false);
+        state = State.CLOSED;
+        Log.i(TAG, name + ": circuit manually reset");
+    }
+}
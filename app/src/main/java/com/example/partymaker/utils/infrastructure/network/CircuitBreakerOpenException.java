@@ -0,0 +1,12 @@
+package com.example.partymaker.utils.infrastructure.network;
+
+/**
+ * Thrown when a request is rejected because the circuit breaker for its endpoint is open.
+ * Retry loops must not retry this exception: the breaker already knows the endpoint is failing.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String breakerName) {
+        super("Circuit breaker open for " + breakerName);
+    }
+}
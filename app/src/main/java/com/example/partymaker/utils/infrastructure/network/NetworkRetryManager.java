@@ -4,12 +4,11 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 import androidx.annotation.NonNull;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages network retry logic with exponential backoff and circuit breaker pattern.
- * Provides resilient network operations with automatic retry capabilities.
+ * Provides resilient network operations with automatic retry capabilities. The breaker itself
+ * lives in {@link CircuitBreaker}, which FirebaseServerClient also uses per endpoint family.
  */
 public class NetworkRetryManager {
     private static final String TAG = "NetworkRetryManager";
@@ -21,14 +20,8 @@ public class NetworkRetryManager {
     private static final double BACKOFF_MULTIPLIER = 2.0;
     private static final double JITTER_FACTOR = 0.1; // 10% jitter
     
-    // Circuit breaker configuration
-    private static final int FAILURE_THRESHOLD = 5;
-    private static final long CIRCUIT_RESET_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
-    
     private final Handler handler = new Handler(Looper.getMainLooper());
-    private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
-    private volatile long circuitOpenTime = 0;
-    private volatile boolean circuitOpen = false;
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(TAG);
     
     /**
      * Retry configuration class
@@ -131,8 +124,8 @@ public class NetworkRetryManager {
             @NonNull RetryConfig config) {
         
         // Check circuit breaker
-        if (isCircuitOpen()) {
-            callback.onFailure(new Exception("Circuit breaker is open - too many recent failures"));
+        if (!circuitBreaker.tryAcquirePermission()) {
+            callback.onFailure(new CircuitBreakerOpenException(TAG));
             return;
         }
         
@@ -153,7 +146,7 @@ public class NetworkRetryManager {
             T result = operation.execute();
             
             // Success - reset failure counter and close circuit
-            onOperationSuccess();
+            circuitBreaker.recordResult(true);
             callback.onSuccess(result);
             
         } catch (Exception e) {
@@ -173,7 +166,7 @@ public class NetworkRetryManager {
                 
             } else {
                 // Max retries reached
-                onOperationFailure();
+                circuitBreaker.recordResult(false);
                 callback.onFailure(new Exception("Max retries (" + config.maxRetries + ") exceeded", e));
             }
         }
@@ -205,86 +198,18 @@ public class NetworkRetryManager {
         return delay;
     }
     
-    /**
-     * Handles successful operation
-     */
-    private void onOperationSuccess() {
-        consecutiveFailures.set(0);
-        if (circuitOpen) {
-            circuitOpen = false;
-            Log.i(TAG, "Circuit breaker closed after successful operation");
-        }
-    }
-    
-    /**
-     * Handles failed operation
-     */
-    private void onOperationFailure() {
-        int failures = consecutiveFailures.incrementAndGet();
-        
-        if (failures >= FAILURE_THRESHOLD && !circuitOpen) {
-            openCircuit();
-        }
-    }
-    
-    /**
-     * Opens the circuit breaker
-     */
-    private void openCircuit() {
-        circuitOpen = true;
-        circuitOpenTime = System.currentTimeMillis();
-        
-        Log.w(TAG, "Circuit breaker opened due to " + FAILURE_THRESHOLD + " consecutive failures");
-        
-        // Schedule circuit reset
-        handler.postDelayed(this::attemptCircuitReset, CIRCUIT_RESET_TIMEOUT_MS);
-    }
-    
-    /**
-     * Attempts to reset the circuit breaker
-     */
-    private void attemptCircuitReset() {
-        if (circuitOpen) {
-            Log.i(TAG, "Attempting to reset circuit breaker");
-            consecutiveFailures.set(0);
-            circuitOpen = false;
-        }
-    }
-    
-    /**
-     * Checks if circuit breaker is open
-     */
-    private boolean isCircuitOpen() {
-        if (circuitOpen) {
-            // Check if enough time has passed to attempt reset
-            long timeSinceOpen = System.currentTimeMillis() - circuitOpenTime;
-            if (timeSinceOpen > CIRCUIT_RESET_TIMEOUT_MS) {
-                attemptCircuitReset();
-                return false;
-            }
-            return true;
-        }
-        return false;
-    }
-    
     /**
      * Gets circuit breaker status
      */
     public String getCircuitStatus() {
-        if (circuitOpen) {
-            long timeRemaining = CIRCUIT_RESET_TIMEOUT_MS - (System.currentTimeMillis() - circuitOpenTime);
-            return "OPEN (resets in " + TimeUnit.MILLISECONDS.toSeconds(timeRemaining) + "s)";
-        }
-        return "CLOSED (failures: " + consecutiveFailures.get() + "/" + FAILURE_THRESHOLD + ")";
+        return circuitBreaker.getStatus();
     }
     
     /**
      * Manually resets the circuit breaker
      */
     public void resetCircuit() {
-        consecutiveFailures.set(0);
-        circuitOpen = false;
-        Log.i(TAG, "Circuit breaker manually reset");
+        circuitBreaker.reset();
     }
     
     /**
@@ -6,9 +6,10 @@ import android.util.Log;
 import com.example.partymaker.data.model.ChatMessage;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
@@ -43,7 +44,19 @@ public class GroupMessageEncryption {
   private static final String GROUP_KEY_PREFIX = "group_";
 
   // Regex patterns
-  private static final String BASE64_PATTERN = "^[A-Za-z0-9+/]*={0,2}$";
+  private static final Pattern BASE64_PATTERN = Pattern.compile("^[A-Za-z0-9+/]*={0,2}$");
+
+  // Cipher.getInstance looks the provider up on every call; each thread reuses its own cipher,
+  // which init resets for every message
+  private static final ThreadLocal<Cipher> DECRYPT_CIPHER =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return Cipher.getInstance(ALGORITHM);
+            } catch (Exception e) {
+              throw new IllegalStateException("AES-GCM is not available", e);
+            }
+          });
 
   private final String currentUserId;
   private final SecureRandom secureRandom;
@@ -54,7 +67,7 @@ public class GroupMessageEncryption {
     this.currentUserId = userId;
     this.secureRandom = new SecureRandom();
     this.userStorage = new EnhancedSecureStorage(context, userId);
-    this.groupKeyCache = new HashMap<>();
+    this.groupKeyCache = new ConcurrentHashMap<>();
   }
 
   /**
@@ -134,24 +147,15 @@ public class GroupMessageEncryption {
         return encryptedMessage;
       }
 
-      // Extract IV
-      byte[] iv = new byte[GCM_IV_LENGTH];
-      System.arraycopy(encryptedData, 0, iv, 0, GCM_IV_LENGTH);
-
-      // Extract ciphertext + auth tag
-      byte[] ciphertext = new byte[encryptedData.length - GCM_IV_LENGTH];
-      System.arraycopy(encryptedData, GCM_IV_LENGTH, ciphertext, 0, ciphertext.length);
-
-      // Decrypt with AES-GCM
-      Cipher cipher = Cipher.getInstance(ALGORITHM);
-      GCMParameterSpec gcmSpec = new GCMParameterSpec(TAG_LENGTH_BITS, iv);
+      // Decrypt with AES-GCM; the IV and the ciphertext + auth tag are read in place
+      Cipher cipher = DECRYPT_CIPHER.get();
+      GCMParameterSpec gcmSpec =
+          new GCMParameterSpec(TAG_LENGTH_BITS, encryptedData, 0, GCM_IV_LENGTH);
       cipher.init(Cipher.DECRYPT_MODE, groupKey, gcmSpec);
 
-      byte[] plaintext = cipher.doFinal(ciphertext);
-      String result = new String(plaintext, StandardCharsets.UTF_8);
-
-      Log.d(TAG, "Message decrypted for group: " + groupId);
-      return result;
+      byte[] plaintext =
+          cipher.doFinal(encryptedData, GCM_IV_LENGTH, encryptedData.length - GCM_IV_LENGTH);
+      return new String(plaintext, StandardCharsets.UTF_8);
 
     } catch (Exception e) {
       Log.w(TAG, "Failed to decrypt message for group: " + groupId + ", treating as plain text", e);
@@ -203,7 +207,18 @@ public class GroupMessageEncryption {
     String groupId = encryptedChatMessage.getGroupKey();
     String encryptedContent = encryptedChatMessage.getMessage();
     String decryptedContent = decryptGroupMessage(encryptedContent, groupId);
+    return decryptedCopy(encryptedChatMessage, decryptedContent);
+  }
 
+  /**
+   * Copy a ChatMessage with its content replaced by already decrypted text
+   *
+   * @param encryptedChatMessage Message the text was decrypted from
+   * @param decryptedContent The decrypted text
+   * @return Copy of the message with the decrypted content
+   */
+  public static ChatMessage decryptedCopy(
+      ChatMessage encryptedChatMessage, String decryptedContent) {
     // Create copy to avoid modifying original
     ChatMessage decrypted = new ChatMessage();
     decrypted.setMessageKey(encryptedChatMessage.getMessageKey());
@@ -377,7 +392,8 @@ public class GroupMessageEncryption {
     }
 
     // Base64 pattern check
-    return message.matches(BASE64_PATTERN) && message.length() > MIN_ENCRYPTED_MESSAGE_LENGTH;
+    return message.length() > MIN_ENCRYPTED_MESSAGE_LENGTH
+        && BASE64_PATTERN.matcher(message).matches();
   }
 
   /**
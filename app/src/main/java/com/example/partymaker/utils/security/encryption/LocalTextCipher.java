@@ -0,0 +1,201 @@
+package com.example.partymaker.utils.security.encryption;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import android.util.Log;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts text the app keeps on the device, such as the decrypted chat messages in the local
+ * database. Text is sealed with AES-256-GCM under a data key, which is stored wrapped by a key in
+ * the Android Keystore that cannot be exported. The data key is unwrapped once per process, so
+ * sealing and opening text does not call into the Keystore.
+ */
+public final class LocalTextCipher {
+  private static final String TAG = "LocalTextCipher";
+
+  // AES-GCM configuration
+  private static final String ALGORITHM = "AES/GCM/NoPadding";
+  private static final String KEY_ALGORITHM = "AES";
+  private static final int AES_KEY_SIZE = 256;
+  private static final int GCM_IV_LENGTH = 12;
+  private static final int GCM_TAG_LENGTH = 16;
+  private static final int TAG_LENGTH_BITS = GCM_TAG_LENGTH * 8;
+
+  // Keystore and storage constants
+  private static final String ANDROID_KEYSTORE = "AndroidKeyStore";
+  private static final String WRAPPING_KEY_ALIAS = "partymaker_local_text_key";
+  private static final String PREFS_NAME = "local_text_cipher_prefs";
+  private static final String KEY_WRAPPED_DATA_KEY = "wrapped_data_key";
+
+  // Cipher.getInstance looks the provider up on every call; each thread reuses its own cipher,
+  // which init resets for every text
+  private static final ThreadLocal<Cipher> CIPHER =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return Cipher.getInstance(ALGORITHM);
+            } catch (Exception e) {
+              throw new IllegalStateException("AES-GCM is not available", e);
+            }
+          });
+
+  private static volatile LocalTextCipher instance;
+
+  private final SecretKey dataKey;
+  private final SecureRandom secureRandom;
+
+  private LocalTextCipher(SecretKey dataKey) {
+    this.dataKey = dataKey;
+    this.secureRandom = new SecureRandom();
+  }
+
+  /**
+   * Gets the cipher, creating its keys on first use. The first call reads the Keystore and should
+   * not run on the main thread.
+   *
+   * @param context The context
+   * @return The cipher
+   * @throws IllegalStateException if the Keystore is not available
+   */
+  public static LocalTextCipher getInstance(Context context) {
+    if (instance == null) {
+      synchronized (LocalTextCipher.class) {
+        if (instance == null) {
+          try {
+            instance = new LocalTextCipher(loadDataKey(context.getApplicationContext()));
+          } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Failed to initialize local text encryption", e);
+          }
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Seals a text.
+   *
+   * @param text The text
+   * @return The IV followed by the ciphertext and auth tag, or null if encryption failed
+   */
+  public byte[] seal(String text) {
+    try {
+      byte[] iv = new byte[GCM_IV_LENGTH];
+      secureRandom.nextBytes(iv);
+      Cipher cipher = CIPHER.get();
+      cipher.init(Cipher.ENCRYPT_MODE, dataKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+      byte[] ciphertext = cipher.doFinal(text.getBytes(StandardCharsets.UTF_8));
+
+      byte[] sealed = new byte[GCM_IV_LENGTH + ciphertext.length];
+      System.arraycopy(iv, 0, sealed, 0, GCM_IV_LENGTH);
+      System.arraycopy(ciphertext, 0, sealed, GCM_IV_LENGTH, ciphertext.length);
+      return sealed;
+    } catch (GeneralSecurityException e) {
+      Log.e(TAG, "Failed to seal text", e);
+      return null;
+    }
+  }
+
+  /**
+   * Opens a sealed text.
+   *
+   * @param sealed The bytes returned by {@link #seal}
+   * @return The text, or null if the bytes were not sealed with the current data key
+   */
+  public String open(byte[] sealed) {
+    if (sealed == null || sealed.length < GCM_IV_LENGTH + GCM_TAG_LENGTH) {
+      return null;
+    }
+    try {
+      Cipher cipher = CIPHER.get();
+      GCMParameterSpec gcmSpec = new GCMParameterSpec(TAG_LENGTH_BITS, sealed, 0, GCM_IV_LENGTH);
+      cipher.init(Cipher.DECRYPT_MODE, dataKey, gcmSpec);
+      byte[] plaintext = cipher.doFinal(sealed, GCM_IV_LENGTH, sealed.length - GCM_IV_LENGTH);
+      return new String(plaintext, StandardCharsets.UTF_8);
+    } catch (GeneralSecurityException e) {
+      Log.w(TAG, "Failed to open sealed text");
+      return null;
+    }
+  }
+
+  /**
+   * Unwraps the stored data key, or creates and stores a new one. A data key that cannot be
+   * unwrapped, such as one restored onto another device, is replaced; text sealed with it no longer
+   * opens.
+   */
+  private static SecretKey loadDataKey(Context context)
+      throws GeneralSecurityException, IOException {
+    SecretKey wrappingKey = getOrCreateWrappingKey();
+    SharedPreferences preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+
+    String wrapped = preferences.getString(KEY_WRAPPED_DATA_KEY, null);
+    if (wrapped != null) {
+      try {
+        byte[] wrappedBytes = Base64.decode(wrapped, Base64.NO_WRAP);
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(
+            Cipher.DECRYPT_MODE,
+            wrappingKey,
+            new GCMParameterSpec(TAG_LENGTH_BITS, wrappedBytes, 0, GCM_IV_LENGTH));
+        byte[] keyBytes =
+            cipher.doFinal(wrappedBytes, GCM_IV_LENGTH, wrappedBytes.length - GCM_IV_LENGTH);
+        return new SecretKeySpec(keyBytes, KEY_ALGORITHM);
+      } catch (GeneralSecurityException | IllegalArgumentException e) {
+        Log.w(TAG, "Stored data key cannot be unwrapped, creating a new one", e);
+      }
+    }
+
+    KeyGenerator keyGenerator = KeyGenerator.getInstance(KEY_ALGORITHM);
+    keyGenerator.init(AES_KEY_SIZE);
+    SecretKey dataKey = keyGenerator.generateKey();
+
+    // The Keystore picks the IV of keys it holds
+    Cipher cipher = Cipher.getInstance(ALGORITHM);
+    cipher.init(Cipher.ENCRYPT_MODE, wrappingKey);
+    byte[] iv = cipher.getIV();
+    byte[] wrappedKey = cipher.doFinal(dataKey.getEncoded());
+    byte[] wrappedBytes = new byte[iv.length + wrappedKey.length];
+    System.arraycopy(iv, 0, wrappedBytes, 0, iv.length);
+    System.arraycopy(wrappedKey, 0, wrappedBytes, iv.length, wrappedKey.length);
+
+    // Written synchronously, so no text is sealed with a key that is not stored
+    preferences
+        .edit()
+        .putString(KEY_WRAPPED_DATA_KEY, Base64.encodeToString(wrappedBytes, Base64.NO_WRAP))
+        .commit();
+    return dataKey;
+  }
+
+  /** Gets the Keystore key that wraps the data key, generating it on first use. */
+  private static SecretKey getOrCreateWrappingKey() throws GeneralSecurityException, IOException {
+    KeyStore keyStore = KeyStore.getInstance(ANDROID_KEYSTORE);
+    keyStore.load(null);
+    if (keyStore.containsAlias(WRAPPING_KEY_ALIAS)) {
+      return (SecretKey) keyStore.getKey(WRAPPING_KEY_ALIAS, null);
+    }
+
+    KeyGenerator keyGenerator =
+        KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, ANDROID_KEYSTORE);
+    keyGenerator.init(
+        new KeyGenParameterSpec.Builder(
+                WRAPPING_KEY_ALIAS, KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+            .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+            .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+            .setKeySize(AES_KEY_SIZE)
+            .build());
+    return keyGenerator.generateKey();
+  }
+}
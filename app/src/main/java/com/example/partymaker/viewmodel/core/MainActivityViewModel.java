@@ -6,8 +6,14 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.InvalidatingPagingSourceFactory;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import com.example.partymaker.data.api.Result;
+import com.example.partymaker.data.local.GroupListQuery;
 import com.example.partymaker.data.model.Group;
+import com.example.partymaker.data.model.GroupListItem;
 import com.example.partymaker.data.repository.GroupRepository;
 import com.example.partymaker.viewmodel.BaseViewModel;
 import java.util.ArrayList;
@@ -57,6 +63,9 @@ public class MainActivityViewModel extends BaseViewModel {
   // Domain-specific LiveData
   private final MutableLiveData<List<Group>> groupList = new MutableLiveData<>();
   private final MutableLiveData<Group> selectedGroup = new MutableLiveData<>();
+  private LiveData<PagingData<GroupListItem>> pagedUserGroups;
+  private InvalidatingPagingSourceFactory<Integer, GroupListItem> userGroupSources;
+  private volatile GroupListQuery groupListQuery = GroupListQuery.DEFAULT;
 
   /** Repository for Group data operations */
   private final GroupRepository repository;
@@ -108,6 +117,41 @@ public class MainActivityViewModel extends BaseViewModel {
     return selectedGroup;
   }
 
+  /**
+   * Gets the list rows of the user's groups as pages read from Room, filtered and sorted by the
+   * current {@link GroupListQuery}. The pages survive configuration changes.
+   *
+   * @param userKey The user key to page groups for
+   * @return LiveData of paged list rows, or null if the repository is not initialized
+   */
+  @Nullable
+  public LiveData<PagingData<GroupListItem>> getPagedUserGroups(@NonNull String userKey) {
+    if (pagedUserGroups == null) {
+      userGroupSources =
+          new InvalidatingPagingSourceFactory<>(
+              () -> repository.pageUserGroups(userKey, groupListQuery));
+      LiveData<PagingData<GroupListItem>> pages =
+          repository.getUserGroupsPaged(userKey, userGroupSources);
+      if (pages != null) {
+        pagedUserGroups = PagingLiveData.cachedIn(pages, ViewModelKt.getViewModelScope(this));
+      }
+    }
+    return pagedUserGroups;
+  }
+
+  /**
+   * Applies new filters and a sort order to the paged groups. The query runs in Room off the main
+   * thread, without a server request.
+   *
+   * @param query The filters and sort order
+   */
+  public void setGroupListQuery(@NonNull GroupListQuery query) {
+    groupListQuery = query;
+    if (userGroupSources != null) {
+      userGroupSources.invalidate();
+    }
+  }
+
   // Note: getIsLoading() and getErrorMessage() are inherited from BaseViewModel
 
   /**
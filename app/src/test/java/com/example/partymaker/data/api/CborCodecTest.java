@@ -0,0 +1,256 @@
+package com.example.partymaker.data.api;
+
+import static org.junit.Assert.*;
+
+import com.example.partymaker.data.model.ChatMessage;
+import com.example.partymaker.data.model.Group;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Test;
+
+/**
+ * Unit tests for CborCodec.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Round trips of every JSON value type
+ *   <li>Decoding of RFC 8949 examples, including indefinite-length items from Jackson
+ *   <li>Rejection of truncated data and of nesting deeper than the limit
+ *   <li>Decoding of a GroupsMessages response as the server's Jackson mapper writes it, and its
+ *       size against JSON
+ *   <li>Size and decode time of a 200-group Groups response against JSON
+ * </ul>
+ */
+public class CborCodecTest {
+
+  private static final Gson gson = new Gson();
+  private static final int DECODE_ROUNDS = 10;
+  private static final int DECODES_PER_ROUND = 20;
+
+  /**
+   * A GroupsMessages response as the server's Jackson CBOR mapper writes it: the Firebase maps as
+   * definite-length maps, integers in their shortest form and doubles as 64-bit floats.
+   */
+  private static final String MESSAGES_FIXTURE =
+      "a2662d4e6d736731a86a6d6573736167654b6579662d4e6d7367316867726f75704b65796767"
+          + "726f75702d316973656e6465724b65796f616c69636540676d61696c20636f6d6a73656e6465"
+          + "724e616d6565416c696365676d6573736167656c4272696e6720736e61636b736974696d6573"
+          + "74616d701b000001941f297c7b69656e63727970746564f4686d65746164617461a166726174"
+          + "696e67fb4012000000000000662d4e6d736732a86a6d6573736167654b6579662d4e6d736732"
+          + "6867726f75704b65796767726f75702d316973656e6465724b65796d626f6240676d61696c20"
+          + "636f6d6a73656e6465724e616d6563426f62676d6573736167656b68c3a96c6c6f20f09f8e89"
+          + "6974696d657374616d701b000001941f2a666069656e63727970746564f5686d657461646174"
+          + "61f6";
+
+  /** The same response as JSON. */
+  private static final String MESSAGES_JSON =
+      "{\"-Nmsg1\":{\"messageKey\":\"-Nmsg1\",\"groupKey\":\"group-1\","
+          + "\"senderKey\":\"alice@gmail com\",\"senderName\":\"Alice\","
+          + "\"message\":\"Bring snacks\",\"timestamp\":1735689600123,\"encrypted\":false,"
+          + "\"metadata\":{\"rating\":4.5}},"
+          + "\"-Nmsg2\":{\"messageKey\":\"-Nmsg2\",\"groupKey\":\"group-1\","
+          + "\"senderKey\":\"bob@gmail com\",\"senderName\":\"Bob\","
+          + "\"message\":\"h\u00e9llo \uD83C\uDF89\",\"timestamp\":1735689660000,"
+          + "\"encrypted\":true,\"metadata\":null}}";
+
+  @Test
+  public void testRoundTrip_AllValueTypes_Preserved() throws IOException {
+    // Arrange
+    JsonObject original = new JsonObject();
+    original.addProperty("text", "h\u00e9llo \uD83C\uDF89");
+    original.addProperty("small", 7);
+    original.addProperty("negative", -300);
+    original.addProperty("timestamp", 1735689600123L);
+    original.addProperty("price", 49.9);
+    original.addProperty("flag", true);
+    original.add("missing", null);
+    JsonArray array = new JsonArray();
+    array.add(1);
+    array.add("two");
+    original.add("array", array);
+    original.add("nested", new JsonObject());
+
+    // Act
+    JsonElement decoded = CborCodec.decode(CborCodec.encode(original));
+
+    // Assert
+    assertEquals(original, decoded);
+  }
+
+  @Test
+  public void testDecode_RfcExamples() throws IOException {
+    assertEquals(1000000, CborCodec.decode(hex("1a000f4240")).getAsLong());
+    assertEquals(-1000, CborCodec.decode(hex("3903e7")).getAsLong());
+    assertEquals(1.5, CborCodec.decode(hex("f93e00")).getAsDouble(), 0);
+    assertEquals(100000.0, CborCodec.decode(hex("fa47c35000")).getAsDouble(), 0);
+    assertEquals("streaming", CborCodec.decode(hex("7f657374726561646d696e67ff")).getAsString());
+
+    // Jackson writes beans as indefinite-length maps: {_ "a": 1, "b": [_ 2, 3]}
+    JsonElement indefinite = CborCodec.decode(hex("bf61610161629f0203ffff"));
+    assertEquals(JsonParser.parseString("{\"a\":1,\"b\":[2,3]}"), indefinite);
+  }
+
+  @Test(expected = IOException.class)
+  public void testDecode_TruncatedData_Throws() throws IOException {
+    CborCodec.decode(hex("6568656c"));
+  }
+
+  @Test
+  public void testDecode_BindsToModel() throws IOException {
+    JsonElement groups = JsonParser.parseString(buildGroupsPayload(3));
+
+    JsonElement decoded = CborCodec.decode(CborCodec.encode(groups));
+    Group group = gson.fromJson(decoded.getAsJsonObject().get("group-1"), Group.class);
+
+    assertEquals("Party 1", group.getGroupName());
+    assertEquals(12, group.getFriendKeys().size());
+  }
+
+  @Test(expected = IOException.class)
+  public void testDecode_NestingDeeperThanLimit_Throws() throws IOException {
+    // A chain of one-item arrays, deep enough to overflow the stack without a limit
+    byte[] data = new byte[100_001];
+    Arrays.fill(data, 0, 100_000, (byte) 0x81);
+    CborCodec.decode(data);
+  }
+
+  @Test
+  public void testDecode_NestingAtLimit_Decodes() throws IOException {
+    byte[] data = new byte[CborCodec.MAX_DEPTH + 1];
+    Arrays.fill(data, 0, CborCodec.MAX_DEPTH, (byte) 0x81);
+
+    JsonElement decoded = CborCodec.decode(data);
+
+    for (int i = 0; i < CborCodec.MAX_DEPTH; i++) {
+      decoded = decoded.getAsJsonArray().get(0);
+    }
+    assertEquals(0, decoded.getAsLong());
+  }
+
+  @Test
+  public void testDecode_JacksonMessagesFixture_BindsToModel() throws IOException {
+    // Act
+    JsonElement decoded = CborCodec.decode(hex(MESSAGES_FIXTURE));
+    ChatMessage first = gson.fromJson(decoded.getAsJsonObject().get("-Nmsg1"), ChatMessage.class);
+    ChatMessage second = gson.fromJson(decoded.getAsJsonObject().get("-Nmsg2"), ChatMessage.class);
+
+    // Assert
+    assertEquals(JsonParser.parseString(MESSAGES_JSON), decoded);
+    assertEquals("Bring snacks", first.getMessage());
+    assertEquals(1735689600123L, first.getTimestamp());
+    assertFalse(first.isEncrypted());
+    assertEquals("h\u00e9llo \uD83C\uDF89", second.getMessage());
+    assertTrue(second.isEncrypted());
+  }
+
+  @Test
+  public void testDecode_JacksonMessagesFixture_SmallerThanJson() {
+    int jsonBytes = MESSAGES_JSON.getBytes(StandardCharsets.UTF_8).length;
+    int cborBytes = hex(MESSAGES_FIXTURE).length;
+
+    assertTrue("CBOR should be smaller than JSON", cborBytes < jsonBytes);
+  }
+
+  @Test
+  public void testDecode_GroupsPayload_SmallerAndNotSlowerThanJson() throws IOException {
+    // Arrange
+    String json = buildGroupsPayload(200);
+    byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    byte[] cborBytes = CborCodec.encode(JsonParser.parseString(json));
+    assertEquals(JsonParser.parseString(json), CborCodec.decode(cborBytes));
+
+    // Act - best of several rounds after a warm-up, the way FirebaseServerClient reads each body
+    long jsonNanos = Long.MAX_VALUE;
+    long cborNanos = Long.MAX_VALUE;
+    for (int round = 0; round < DECODE_ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < DECODES_PER_ROUND; i++) {
+        try (Reader reader =
+            new InputStreamReader(new ByteArrayInputStream(jsonBytes), StandardCharsets.UTF_8)) {
+          JsonParser.parseReader(reader);
+        }
+      }
+      jsonNanos = Math.min(jsonNanos, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      for (int i = 0; i < DECODES_PER_ROUND; i++) {
+        CborCodec.decode(cborBytes);
+      }
+      cborNanos = Math.min(cborNanos, System.nanoTime() - start);
+    }
+
+    // Assert - the margin keeps the timing check stable on a loaded machine
+    String measured =
+        String.format(
+            Locale.US,
+            "JSON %d bytes, %d us/decode; CBOR %d bytes, %d us/decode",
+            jsonBytes.length,
+            jsonNanos / DECODES_PER_ROUND / 1000,
+            cborBytes.length,
+            cborNanos / DECODES_PER_ROUND / 1000);
+    assertTrue(
+        "CBOR should be smaller than JSON: " + measured, cborBytes.length < jsonBytes.length);
+    assertTrue("CBOR should decode about as fast as JSON: " + measured, cborNanos < jsonNanos * 2);
+  }
+
+  /** Builds a Groups response like the server's, keyed by group id with member and message keys. */
+  private static String buildGroupsPayload(int groupCount) {
+    JsonObject groups = new JsonObject();
+    for (int g = 1; g <= groupCount; g++) {
+      JsonObject group = new JsonObject();
+      group.addProperty("groupName", "Party " + g);
+      group.addProperty("groupKey", "group-" + g);
+      group.addProperty("groupLocation", "32.0853,34.7818");
+      group.addProperty("adminKey", "admin" + g + "@gmail com");
+      group.addProperty("createdAt", "2025-0" + (g % 9 + 1) + "-15 20:30");
+      group.addProperty("groupDays", String.valueOf(g % 28 + 1));
+      group.addProperty("groupMonths", "Aug");
+      group.addProperty("groupYears", "2025");
+      group.addProperty("groupHours", "21:00");
+      group.addProperty("groupImageUrl", "");
+      group.addProperty("groupPrice", String.valueOf(g * 10));
+      group.addProperty("groupType", g % 2);
+      group.addProperty("canAdd", g % 3 == 0);
+      group.addProperty("groupDescription", "Bring snacks and good vibes to party number " + g);
+
+      JsonObject friendKeys = new JsonObject();
+      JsonObject comingKeys = new JsonObject();
+      for (int f = 0; f < 12; f++) {
+        String key = "friend" + f + "@gmail com";
+        friendKeys.addProperty(key, true);
+        if (f % 2 == 0) {
+          comingKeys.addProperty(key, true);
+        }
+      }
+      group.add("FriendKeys", friendKeys);
+      group.add("ComingKeys", comingKeys);
+
+      JsonObject messageKeys = new JsonObject();
+      for (int m = 0; m < 30; m++) {
+        messageKeys.addProperty("-Nx" + g + "msg" + m + "AbCdEf", true);
+      }
+      group.add("MessageKeys", messageKeys);
+      groups.add("group-" + g, group);
+    }
+    return groups.toString();
+  }
+
+  private static byte[] hex(String hex) {
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+    }
+    return bytes;
+  }
+}
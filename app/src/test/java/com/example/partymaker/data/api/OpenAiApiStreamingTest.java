@@ -0,0 +1,301 @@
+package com.example.partymaker.data.api;
+
+import static org.junit.Assert.*;
+
+import com.example.partymaker.data.model.ChatMessageGpt;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for streamed OpenAiApi replies, served by a local stub server.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Tokens are delivered in order and joined into the full reply
+ *   <li>The first token arrives before the server has finished the reply
+ *   <li>The request asks for a stream
+ *   <li>Time-to-first-token is recorded
+ *   <li>HTTP errors are reported through the callback
+ *   <li>A stream cut off before [DONE] or a finish reason is reported as an error
+ * </ul>
+ */
+public class OpenAiApiStreamingTest {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private StubServer server;
+
+  @After
+  public void tearDown() throws IOException {
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Test
+  public void testStream_TokensDeliveredInOrder() throws Exception {
+    // Arrange
+    server = new StubServer(200, null, chunk("Hel"), chunk("lo"), chunk(" there"), "[DONE]");
+    RecordingCallback callback = new RecordingCallback();
+
+    // Act
+    new OpenAiApi("test-key", server.url()).streamMessage("Hi", callback);
+
+    // Assert
+    assertTrue(callback.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertNull(callback.error.get());
+    assertEquals(List.of("Hel", "lo", " there"), callback.tokens);
+    assertEquals("Hello there", callback.fullText.get());
+  }
+
+  @Test
+  public void testStream_FirstTokenArrivesBeforeReplyEnds() throws Exception {
+    // Arrange - the server holds back the rest of the reply until the client saw a token
+    CountDownLatch firstTokenSeen = new CountDownLatch(1);
+    server = new StubServer(200, firstTokenSeen, chunk("Party"), chunk(" time"), "[DONE]");
+    RecordingCallback callback = new RecordingCallback(firstTokenSeen);
+    long measuredBefore = OpenAiApi.getTimeToFirstTokenCount();
+
+    // Act
+    List<ChatMessageGpt> history = new ArrayList<>();
+    history.add(new ChatMessageGpt("system", "Be brief"));
+    history.add(new ChatMessageGpt("user", "Plan a party"));
+    new OpenAiApi("test-key", server.url()).streamMessageWithHistory(history, callback);
+
+    // Assert
+    assertTrue(callback.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals("Party time", callback.fullText.get());
+    assertEquals(measuredBefore + 1, OpenAiApi.getTimeToFirstTokenCount());
+
+    JSONObject request = new JSONObject(server.requestBody.get());
+    assertTrue(request.getBoolean("stream"));
+    assertEquals(2, request.getJSONArray("messages").length());
+  }
+
+  @Test
+  public void testStream_RoleOnlyChunkSkipped() throws Exception {
+    // Arrange
+    String roleChunk = "{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}";
+    String finishChunk = "{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}";
+    server = new StubServer(200, null, roleChunk, chunk("Yes"), finishChunk, "[DONE]");
+    RecordingCallback callback = new RecordingCallback();
+
+    // Act
+    new OpenAiApi("test-key", server.url()).streamMessage("Ready?", callback);
+
+    // Assert
+    assertTrue(callback.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Collections.singletonList("Yes"), callback.tokens);
+  }
+
+  @Test
+  public void testStream_HttpError_ReportsError() throws Exception {
+    // Arrange
+    server = new StubServer(500, null);
+    RecordingCallback callback = new RecordingCallback();
+
+    // Act
+    new OpenAiApi("test-key", server.url()).streamMessage("Hi", callback);
+
+    // Assert
+    assertTrue(callback.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertNotNull(callback.error.get());
+    assertTrue(callback.error.get().getMessage().contains("500"));
+    assertNull(callback.fullText.get());
+  }
+
+  @Test
+  public void testStream_ConnectionClosedMidStream_ReportsError() throws Exception {
+    // Arrange - the body ends when the server closes the socket, before the reply is finished
+    server = StubServer.closingMidStream(chunk("Bring"), chunk(" sna"));
+    RecordingCallback callback = new RecordingCallback();
+
+    // Act
+    new OpenAiApi("test-key", server.url()).streamMessage("Hi", callback);
+
+    // Assert
+    assertTrue(callback.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertNotNull(callback.error.get());
+    assertNull(callback.fullText.get());
+    assertEquals(List.of("Bring", " sna"), callback.tokens);
+  }
+
+  @Test
+  public void testStream_FinishReasonWithoutDone_Completes() throws Exception {
+    // Arrange
+    String finishChunk = "{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}";
+    server = StubServer.closingMidStream(chunk("Done"), finishChunk);
+    RecordingCallback callback = new RecordingCallback();
+
+    // Act
+    new OpenAiApi("test-key", server.url()).streamMessage("Hi", callback);
+
+    // Assert
+    assertTrue(callback.done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertNull(callback.error.get());
+    assertEquals("Done", callback.fullText.get());
+  }
+
+  private static String chunk(String content) {
+    return "{\"choices\":[{\"delta\":{\"content\":" + JSONObject.quote(content) + "}}]}";
+  }
+
+  /** Collects what the API delivers and counts down once the reply completes or fails. */
+  private static final class RecordingCallback implements OpenAiApi.StreamCallback {
+    final List<String> tokens = Collections.synchronizedList(new ArrayList<>());
+    final AtomicReference<String> fullText = new AtomicReference<>();
+    final AtomicReference<Exception> error = new AtomicReference<>();
+    final CountDownLatch done = new CountDownLatch(1);
+    private final CountDownLatch firstToken;
+
+    RecordingCallback() {
+      this(new CountDownLatch(1));
+    }
+
+    RecordingCallback(CountDownLatch firstToken) {
+      this.firstToken = firstToken;
+    }
+
+    @Override
+    public void onToken(String token) {
+      tokens.add(token);
+      firstToken.countDown();
+    }
+
+    @Override
+    public void onComplete(String text) {
+      fullText.set(text);
+      done.countDown();
+    }
+
+    @Override
+    public void onError(Exception e) {
+      error.set(e);
+      done.countDown();
+    }
+  }
+
+  /**
+   * Serves one chat completions request on a local port, writing each event as its own chunk. When
+   * a gate is given, only the first event is sent until the gate opens.
+   */
+  private static final class StubServer {
+    final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final ServerSocket socket;
+    private final boolean chunked;
+
+    StubServer(int status, CountDownLatch gate, String... events) throws IOException {
+      this(true, status, gate, events);
+    }
+
+    /**
+     * A server that sends the events without chunked encoding and then closes the socket, so the
+     * client sees a normal end of the body wherever the events stop.
+     */
+    static StubServer closingMidStream(String... events) throws IOException {
+      return new StubServer(false, 200, null, events);
+    }
+
+    private StubServer(boolean chunked, int status, CountDownLatch gate, String... events)
+        throws IOException {
+      this.chunked = chunked;
+      socket = new ServerSocket(0);
+      Thread thread =
+          new Thread(
+              () -> {
+                try (Socket connection = socket.accept()) {
+                  readRequest(connection);
+                  respond(connection.getOutputStream(), chunked, status, gate, events);
+                } catch (Exception e) {
+                  // The test fails on its own timeout
+                }
+              });
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    String url() {
+      return "http://127.0.0.1:" + socket.getLocalPort() + "/v1/chat/completions";
+    }
+
+    void close() throws IOException {
+      socket.close();
+    }
+
+    private void readRequest(Socket connection) throws IOException {
+      BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+      int contentLength = 0;
+      String line;
+      while ((line = reader.readLine()) != null && !line.isEmpty()) {
+        if (line.toLowerCase().startsWith("content-length:")) {
+          contentLength = Integer.parseInt(line.substring(15).trim());
+        }
+      }
+      char[] body = new char[contentLength];
+      int read = 0;
+      while (read < contentLength) {
+        int n = reader.read(body, read, contentLength - read);
+        if (n < 0) {
+          break;
+        }
+        read += n;
+      }
+      requestBody.set(new String(body, 0, read));
+    }
+
+    private static void respond(
+        OutputStream out, boolean chunked, int status, CountDownLatch gate, String... events)
+        throws Exception {
+      if (status != 200) {
+        writeAscii(
+            out, "HTTP/1.1 " + status + " Error\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+        return;
+      }
+      writeAscii(
+          out,
+          "HTTP/1.1 200 OK\r\n"
+              + "Content-Type: text/event-stream\r\n"
+              + (chunked ? "Transfer-Encoding: chunked\r\n" : "")
+              + "Connection: close\r\n\r\n");
+      for (int i = 0; i < events.length; i++) {
+        if (i == 1 && gate != null && !gate.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          return; // Never streamed: the client waits for the whole body
+        }
+        byte[] event = ("data: " + events[i] + "\n\n").getBytes(StandardCharsets.UTF_8);
+        if (!chunked) {
+          out.write(event);
+          out.flush();
+          continue;
+        }
+        writeAscii(out, Integer.toHexString(event.length) + "\r\n");
+        out.write(event);
+        writeAscii(out, "\r\n");
+      }
+      if (chunked) {
+        writeAscii(out, "0\r\n\r\n");
+      }
+    }
+
+    private static void writeAscii(OutputStream out, String text) throws IOException {
+      out.write(text.getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package com.example.partymaker.data.api;
+
+import static org.junit.Assert.*;
+
+import com.example.partymaker.utils.infrastructure.NetworkOptimizationManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for RequestBatcher, sending requests through the interceptor chain of the optimized
+ * OkHttp client to a local HTTP server.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Concurrent item reads are sent as one gzipped batch/get call
+ *   <li>A missing item fails like a single GET of it
+ *   <li>Concurrent writes are sent as one multi-path batch/update call
+ *   <li>Many concurrent writes share one call and each gets its own result
+ *   <li>A rejected batch fails every write in it
+ *   <li>A lone read is sent unchanged
+ * </ul>
+ */
+public class RequestBatcherTest {
+
+  private static final String API_PATH = "/api/firebase/";
+  private static final MediaType JSON = MediaType.parse("application/json");
+
+  /** A request as the server decoded it. */
+  private static final class Received {
+    final String method;
+    final String path;
+    final String contentEncoding;
+    final String body;
+
+    Received(String method, String path, String contentEncoding, String body) {
+      this.method = method;
+      this.path = path;
+      this.contentEncoding = contentEncoding;
+      this.body = body;
+    }
+  }
+
+  private final Gson gson = new Gson();
+  private final List<Received> received = new CopyOnWriteArrayList<>();
+  private HttpServer server;
+  private OkHttpClient client;
+  private ExecutorService executor;
+  private RequestBatcher batcher;
+  private String baseUrl;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(API_PATH, this::handle);
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + API_PATH;
+
+    File cacheDir = Files.createTempDirectory("request-batcher-test").toFile();
+    client = NetworkOptimizationManager.createOptimizedClient(cacheDir);
+    NetworkOptimizationManager.clearAllCaches();
+    executor = Executors.newCachedThreadPool();
+    batcher = new RequestBatcher(this::execute, executor);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    batcher.shutdown();
+    executor.shutdownNow();
+    client.cache().delete();
+    server.stop(0);
+  }
+
+  @Test
+  public void testRead_ConcurrentReadsSentAsOneGzippedBatch() throws Exception {
+    // Act
+    CompletableFuture<String> first = batcher.read("Groups/a");
+    CompletableFuture<String> second = batcher.read("Groups/b");
+    CompletableFuture<String> duplicate = batcher.read("Groups/a");
+
+    // Assert
+    assertEquals("{\"groupName\":\"Party a\"}", first.get());
+    assertEquals("{\"groupName\":\"Party b\"}", second.get());
+    assertSame(first, duplicate);
+    assertEquals(1, received.size());
+    Received batch = received.get(0);
+    assertEquals("POST", batch.method);
+    assertEquals(API_PATH + "batch/get", batch.path);
+    assertEquals("gzip", batch.contentEncoding);
+    JsonObject body = gson.fromJson(batch.body, JsonObject.class);
+    assertEquals(
+        Arrays.asList("Groups/a", "Groups/b"),
+        Arrays.asList(gson.fromJson(body.get("paths"), String[].class)));
+  }
+
+  @Test
+  public void testRead_MissingItemFailsLikeSingleGet() throws Exception {
+    // Act
+    CompletableFuture<String> found = batcher.read("Users/u1");
+    CompletableFuture<String> missing = batcher.read("Users/missing");
+
+    // Assert
+    assertEquals("{\"groupName\":\"Party u1\"}", found.get());
+    try {
+      missing.get();
+      fail("A missing item should fail");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause().getMessage().contains("Users/missing"));
+    }
+  }
+
+  @Test
+  public void testWrite_ConcurrentWritesSentAsOneMultiPathUpdate() throws Exception {
+    // Act
+    CompletableFuture<String> update = batcher.write("Groups/a", "PUT", "{\"groupName\":\"New\"}");
+    CompletableFuture<String> delete = batcher.write("Users/u1", "DELETE", null);
+    CompletableFuture.allOf(update, delete).get();
+
+    // Assert
+    assertEquals(1, received.size());
+    Received batch = received.get(0);
+    assertEquals("POST", batch.method);
+    assertEquals(API_PATH + "batch/update", batch.path);
+    assertEquals("gzip", batch.contentEncoding);
+    assertEquals("{\"Groups/a/groupName\":\"New\",\"Users/u1\":null}", batch.body);
+  }
+
+  @Test
+  public void testWrite_ManyConcurrentWritesSentAsOneCall() throws Exception {
+    // Arrange
+    int writes = 10;
+    List<CompletableFuture<String>> results = new ArrayList<>();
+
+    // Act
+    for (int i = 0; i < writes; i++) {
+      results.add(batcher.write("Groups/g" + i, "PUT", "{\"groupName\":\"Party " + i + "\"}"));
+    }
+    CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get();
+
+    // Assert
+    for (CompletableFuture<String> result : results) {
+      assertFalse(result.isCompletedExceptionally());
+    }
+    assertEquals(1, received.size());
+    assertEquals(API_PATH + "batch/update", received.get(0).path);
+    JsonObject body = gson.fromJson(received.get(0).body, JsonObject.class);
+    assertEquals(writes, body.size());
+    assertEquals("Party 7", body.get("Groups/g7/groupName").getAsString());
+  }
+
+  @Test
+  public void testWrite_RejectedBatchFailsEveryWrite() throws Exception {
+    // Arrange
+    CompletableFuture<String> accepted =
+        batcher.write("Groups/a", "PUT", "{\"groupName\":\"New\"}");
+    CompletableFuture<String> rejected = batcher.write("Groups/b", "PUT", "{\"rejected\":true}");
+
+    // Act
+    try {
+      CompletableFuture.allOf(accepted, rejected).get();
+      fail("A rejected batch should fail");
+    } catch (ExecutionException expected) {
+      // Both writes were in the batch
+    }
+
+    // Assert
+    assertTrue(accepted.isCompletedExceptionally());
+    assertTrue(rejected.isCompletedExceptionally());
+    assertEquals(1, received.size());
+  }
+
+  @Test
+  public void testRead_LoneReadSentUnchanged() throws Exception {
+    // Act
+    String group = batcher.read("Groups/solo").get();
+
+    // Assert
+    assertEquals("{\"groupName\":\"Party solo\"}", group);
+    assertEquals(1, received.size());
+    assertEquals("GET", received.get(0).method);
+    assertEquals(API_PATH + "Groups/solo", received.get(0).path);
+    assertNull(received.get(0).contentEncoding);
+  }
+
+  /** Sends a request the way FirebaseServerClient does, throwing on failure. */
+  private String execute(String endpoint, String method, String jsonBody) {
+    Request.Builder builder =
+        new Request.Builder().url(baseUrl + endpoint).header("Accept", "application/json");
+    if ("GET".equals(method)) {
+      builder.get();
+    } else {
+      builder.method(method, RequestBody.create(jsonBody != null ? jsonBody : "{}", JSON));
+    }
+    try (Response response = client.newCall(builder.build()).execute()) {
+      if (!response.isSuccessful()) {
+        throw new RuntimeException(
+            "Network request failed: " + endpoint, new IOException("HTTP " + response.code()));
+      }
+      return response.body().string();
+    } catch (IOException e) {
+      throw new RuntimeException("Network request failed: " + endpoint, e);
+    }
+  }
+
+  /** Decodes a request like the server's gzip filter, then answers like FirebaseController. */
+  private void handle(HttpExchange exchange) throws IOException {
+    String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+    InputStream in = exchange.getRequestBody();
+    if ("gzip".equalsIgnoreCase(contentEncoding)) {
+      in = new GZIPInputStream(in);
+    }
+    String body = readText(in);
+    String path = exchange.getRequestURI().getPath();
+    received.add(new Received(exchange.getRequestMethod(), path, contentEncoding, body));
+
+    String endpoint = path.substring(API_PATH.length());
+    String response;
+    if (endpoint.equals("batch/get")) {
+      JsonObject values = new JsonObject();
+      for (JsonElement element : gson.fromJson(body, JsonObject.class).getAsJsonArray("paths")) {
+        String item = element.getAsString();
+        values.add(item, item.endsWith("missing") ? null : itemOf(item));
+      }
+      response = values.toString();
+    } else if (endpoint.equals("batch/update") && body.contains("rejected")) {
+      exchange.sendResponseHeaders(400, -1);
+      exchange.close();
+      return;
+    } else if (endpoint.equals("batch/update")) {
+      response = "{}";
+    } else {
+      response = itemOf(endpoint).toString();
+    }
+
+    byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static JsonObject itemOf(String endpoint) {
+    JsonObject item = new JsonObject();
+    item.addProperty("groupName", "Party " + endpoint.substring(endpoint.indexOf('/') + 1));
+    return item;
+  }
+
+  private static String readText(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toString("UTF-8");
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import com.google.gson.Gson;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Unit tests for the map converters of Converters.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Maps read from JSON behave like the parsed HashMap
+ *   <li>Unused maps are written back as the same JSON
+ *   <li>Changed maps are encoded again
+ *   <li>Gson serializes a map that was never used
+ * </ul>
+ */
+public class ConvertersTest {
+
+  private static final String FRIEND_KEYS_JSON =
+      "{\"alice@gmail com\":true,\"bob@gmail com\":true}";
+
+  @Test
+  public void testFromJsonString_BehavesLikeParsedMap() {
+    // Act
+    HashMap<String, Object> map = Converters.fromJsonString(FRIEND_KEYS_JSON);
+
+    // Assert
+    assertEquals(2, map.size());
+    assertEquals(Boolean.TRUE, map.get("alice@gmail com"));
+    assertTrue(map.containsKey("bob@gmail com"));
+    assertEquals(new Gson().fromJson(FRIEND_KEYS_JSON, HashMap.class), map);
+  }
+
+  @Test
+  public void testMapToJsonString_UnusedMap_SameJson() {
+    HashMap<String, Object> map = Converters.fromJsonString(FRIEND_KEYS_JSON);
+
+    assertSame(FRIEND_KEYS_JSON, Converters.mapToJsonString(map));
+  }
+
+  @Test
+  public void testMapToJsonString_ChangedMap_Encoded() {
+    // Arrange
+    Map<String, Boolean> map = Converters.fromJsonStringToBoolean(FRIEND_KEYS_JSON);
+
+    // Act
+    map.remove("alice@gmail com");
+
+    // Assert
+    assertEquals("{\"bob@gmail com\":true}", Converters.booleanMapToJsonString(map));
+  }
+
+  @Test
+  public void testGson_UnusedMap_Serialized() {
+    // Arrange
+    Map<String, Object> holder = new HashMap<>();
+    holder.put("friendKeys", Converters.fromJsonString(FRIEND_KEYS_JSON));
+
+    // Act
+    String json = new Gson().toJson(holder);
+
+    // Assert
+    assertEquals("{\"friendKeys\":" + FRIEND_KEYS_JSON + "}", json);
+  }
+}
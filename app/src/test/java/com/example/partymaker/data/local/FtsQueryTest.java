@@ -0,0 +1,47 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for FtsQuery.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Every word becomes a quoted prefix term
+ *   <li>Punctuation and FTS operators are not passed through as syntax
+ *   <li>Column matches prefix every term with the column
+ *   <li>Text without words has no match expression
+ * </ul>
+ */
+public class FtsQueryTest {
+
+  @Test
+  public void testPrefixMatch_QuotesEveryWord() {
+    assertEquals("\"beach*\" \"party*\"", FtsQuery.prefixMatch("  beach party "));
+  }
+
+  @Test
+  public void testPrefixMatch_DropsSyntax() {
+    // Act
+    String match = FtsQuery.prefixMatch("tel-aviv OR \"café\"*");
+
+    // Assert
+    assertEquals("\"tel*\" \"aviv*\" \"OR*\" \"café*\"", match);
+  }
+
+  @Test
+  public void testPrefixMatch_Column() {
+    assertEquals(
+        "group_name:\"pool*\" group_name:\"party*\"",
+        FtsQuery.prefixMatch("group_name", "pool party"));
+  }
+
+  @Test
+  public void testPrefixMatch_NoWords_Null() {
+    assertNull(FtsQuery.prefixMatch(" -*- "));
+    assertNull(FtsQuery.prefixMatch(null));
+  }
+}
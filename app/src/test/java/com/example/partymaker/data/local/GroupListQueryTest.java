@@ -0,0 +1,105 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import org.junit.Test;
+
+/**
+ * Unit tests for GroupListQuery.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>The default query matches everything, nearest event first
+ *   <li>Search text is trimmed and escaped for LIKE
+ *   <li>Blank search text matches every name
+ *   <li>Upcoming-only queries start at the beginning of today
+ *   <li>The SQL only writes and binds the active filters
+ * </ul>
+ */
+public class GroupListQueryTest {
+
+  @Test
+  public void testDefault_MatchesEverything() {
+    GroupListQuery query = GroupListQuery.DEFAULT;
+
+    assertEquals(GroupListQuery.ANY_TYPE, query.getGroupType());
+    assertFalse(query.isFreeOnly());
+    assertEquals(0, query.getFromEpochMillis());
+    assertNull(query.getNameQuery());
+    assertEquals(GroupListQuery.SORT_DATE_NEAREST, query.getSortOrder());
+  }
+
+  @Test
+  public void testNameContains_EscapesLikeWildcards() {
+    // Act
+    GroupListQuery query = new GroupListQuery.Builder().nameContains("  100%_off\\ ").build();
+
+    // Assert
+    assertEquals("100\\%\\_off\\\\", query.getNameQuery());
+  }
+
+  @Test
+  public void testNameContains_Blank_MatchesEveryName() {
+    GroupListQuery query = new GroupListQuery.Builder().nameContains("   ").build();
+
+    assertNull(query.getNameQuery());
+  }
+
+  @Test
+  public void testUpcomingOnly_StartsToday() {
+    // Arrange
+    long expected =
+        LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    // Act
+    GroupListQuery query =
+        new GroupListQuery.Builder()
+            .upcomingOnly(true)
+            .freeOnly(true)
+            .groupType(1)
+            .sortOrder(GroupListQuery.SORT_PRICE_LOWEST)
+            .build();
+
+    // Assert
+    assertEquals(expected, query.getFromEpochMillis());
+    assertTrue(query.isFreeOnly());
+    assertEquals(1, query.getGroupType());
+    assertEquals(GroupListQuery.SORT_PRICE_LOWEST, query.getSortOrder());
+  }
+
+  @Test
+  public void testToUserGroupsSql_DefaultQuery_BindsOnlyUserKey() {
+    // Act
+    SimpleSQLiteQuery sql = GroupListQuery.DEFAULT.toUserGroupsSql("user-0");
+
+    // Assert
+    assertEquals(1, sql.getArgCount());
+    assertFalse(sql.getSql().contains("group_type = ?"));
+    assertTrue(sql.getSql().endsWith(" ORDER BY event_epoch_millis NULLS LAST, `groups`.rowid"));
+  }
+
+  @Test
+  public void testToUserGroupsSql_ActiveFilters_WrittenAndBound() {
+    // Act
+    SimpleSQLiteQuery sql =
+        new GroupListQuery.Builder()
+            .groupType(1)
+            .freeOnly(true)
+            .upcomingOnly(true)
+            .nameContains("beach")
+            .sortOrder(GroupListQuery.SORT_NAME_AZ)
+            .build()
+            .toUserGroupsSql("user-0");
+
+    // Assert - user key, type, start of today and name
+    assertEquals(4, sql.getArgCount());
+    assertTrue(sql.getSql().contains(" AND group_type = ?"));
+    assertTrue(sql.getSql().contains("lower(group_price) = 'free'"));
+    assertTrue(sql.getSql().contains(" AND event_epoch_millis >= ?"));
+    assertTrue(sql.getSql().endsWith(" ORDER BY group_name COLLATE NOCASE, `groups`.rowid"));
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import com.example.partymaker.data.model.Group;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.Test;
+
+/**
+ * Unit tests for GroupTimestamps.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>The derived columns follow the date strings of the group being written
+ *   <li>Dates that do not parse are stored as null and 0
+ *   <li>Reading the derived values does not parse
+ * </ul>
+ */
+public class GroupTimestampsTest {
+
+  private static long localMillis(int year, int month, int day, int hour, int minute) {
+    return LocalDateTime.of(year, month, day, hour, minute)
+        .atZone(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  @Test
+  public void testDerive_FollowsDateStrings() {
+    // Arrange
+    Group group = buildGroup("15", "August", "2025", "20:30");
+    group.setCreatedAt("2025-08-01 09:00");
+    GroupTimestamps.derive(group);
+    group.setGroupDays("16");
+
+    // Act
+    GroupTimestamps.derive(group);
+
+    // Assert
+    assertEquals(Long.valueOf(localMillis(2025, 8, 16, 20, 30)), group.getEventEpochMillis());
+    assertEquals(localMillis(2025, 8, 1, 9, 0), group.getCreatedAtMillis());
+  }
+
+  @Test
+  public void testDerive_InvalidDates_StoredAsUnknown() {
+    // Arrange
+    Group group = buildGroup("31", "February", "2025", "10:00");
+    group.setCreatedAt("yesterday");
+
+    // Act
+    GroupTimestamps.derive(group);
+
+    // Assert
+    assertNull(group.getEventEpochMillis());
+    assertEquals(0, group.getCreatedAtMillis());
+  }
+
+  @Test
+  public void testGetters_DoNotParse() {
+    // A group that was never written has no derived values, whatever its date strings
+    Group group = buildGroup("15", "August", "2025", "20:30");
+
+    assertNull(group.getEventEpochMillis());
+    assertEquals(0, group.getCreatedAtMillis());
+  }
+
+  private static Group buildGroup(String day, String month, String year, String hours) {
+    Group group = new Group();
+    group.setGroupKey("group-1");
+    group.setGroupDays(day);
+    group.setGroupMonths(month);
+    group.setGroupYears(year);
+    group.setGroupHours(hours);
+    return group;
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.partymaker.data.local;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+/**
+ * Unit tests for the statement grouping and plan checks of QueryProfiler.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>String and number literals are replaced by ?
+ *   <li>Bound lists of any length group together
+ *   <li>Numbers inside identifiers are kept
+ *   <li>Table scans are found in a query plan, index and full-text scans are not
+ * </ul>
+ */
+public class QueryProfilerTest {
+
+  @Test
+  public void testNormalize_LiteralsReplaced() {
+    // Act
+    String normalized =
+        QueryProfiler.normalize(
+            "SELECT * FROM groups\n  WHERE group_name = 'O''Brien''s party' AND group_type = 1"
+                + " LIMIT 20");
+
+    // Assert
+    assertEquals(
+        "SELECT * FROM groups WHERE group_name = ? AND group_type = ? LIMIT ?", normalized);
+  }
+
+  @Test
+  public void testNormalize_BoundLists_Grouped() {
+    String three = QueryProfiler.normalize("DELETE FROM users WHERE userKey IN (?,?,?)");
+    String five = QueryProfiler.normalize("DELETE FROM users WHERE userKey IN (?, ?, ?, ?, ?)");
+
+    assertEquals("DELETE FROM users WHERE userKey IN (?...)", three);
+    assertEquals(three, five);
+  }
+
+  @Test
+  public void testNormalize_IdentifierDigits_Kept() {
+    assertEquals(
+        "SELECT * FROM t1 JOIN idx_2 ON t1.id = idx_2.id WHERE x > ?",
+        QueryProfiler.normalize("SELECT * FROM t1 JOIN idx_2 ON t1.id = idx_2.id WHERE x > 1.5"));
+  }
+
+  @Test
+  public void testHasFullScan() {
+    assertTrue(QueryProfiler.hasFullScan(Collections.singletonList("SCAN groups")));
+    assertTrue(QueryProfiler.hasFullScan(Collections.singletonList("SCAN TABLE groups")));
+    assertFalse(
+        QueryProfiler.hasFullScan(
+            Arrays.asList(
+                "SEARCH chat_messages USING INDEX idx_message_group_time (groupKey=?)",
+                "SCAN groups USING INDEX idx_group_search",
+                "SCAN chat_messages_fts VIRTUAL TABLE INDEX 3:")));
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.partymaker.data.model;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import org.junit.Test;
+
+/**
+ * Unit tests for building group list rows from a Group.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Displayed columns are copied and members are counted like group_members rows
+ *   <li>A group without keys counts only its admin
+ *   <li>Rows with the same columns are equal, so lists skip rebinding them
+ * </ul>
+ */
+public class GroupListItemTest {
+
+  private static Group buildGroup() {
+    Group group = new Group();
+    group.setGroupKey("group-0");
+    group.setGroupName("Rooftop");
+    group.setGroupLocation("Haifa");
+    group.setGroupDays("14");
+    group.setGroupMonths("August");
+    group.setGroupYears("2025");
+    group.setGroupHours("21:00");
+    group.setGroupPrice("0");
+    group.setGroupType(Group.GROUP_TYPE_PUBLIC);
+    group.setAdminKey("admin");
+    HashMap<String, Object> friendKeys = new HashMap<>();
+    friendKeys.put("admin", true);
+    friendKeys.put("friend", true);
+    group.setFriendKeys(friendKeys);
+    HashMap<String, Object> comingKeys = new HashMap<>();
+    comingKeys.put("friend", true);
+    comingKeys.put("walk-in", true);
+    group.setComingKeys(comingKeys);
+    return group;
+  }
+
+  @Test
+  public void testFromGroup_CopiesColumnsAndCountsMembers() {
+    // Arrange
+    Group group = buildGroup();
+
+    // Act
+    GroupListItem item = GroupListItem.fromGroup(group);
+
+    // Assert
+    assertEquals("group-0", item.getGroupKey());
+    assertEquals("Rooftop", item.getGroupName());
+    assertEquals("Haifa", item.getGroupLocation());
+    assertEquals("14", item.getGroupDays());
+    assertEquals("August", item.getGroupMonths());
+    assertEquals("2025", item.getGroupYears());
+    assertEquals("21:00", item.getGroupHours());
+    assertEquals("0", item.getGroupPrice());
+    assertEquals(Group.GROUP_TYPE_PUBLIC, item.getGroupType());
+    assertEquals(GroupMember.fromGroup(group).size(), item.getMemberCount());
+    assertEquals(3, item.getMemberCount());
+    assertEquals(2, item.getComingCount());
+  }
+
+  @Test
+  public void testFromGroup_WithoutKeys_CountsAdmin() {
+    // Arrange
+    Group group = new Group();
+    group.setGroupKey("group-1");
+    group.setAdminKey("admin");
+    group.setFriendKeys(null);
+    group.setComingKeys(null);
+
+    // Act
+    GroupListItem item = GroupListItem.fromGroup(group);
+
+    // Assert
+    assertEquals(1, item.getMemberCount());
+    assertEquals(0, item.getComingCount());
+  }
+
+  @Test
+  public void testEquals_ComparesDisplayedColumns() {
+    // Arrange
+    GroupListItem item = GroupListItem.fromGroup(buildGroup());
+    Group renamed = buildGroup();
+    renamed.setGroupName("Rooftop II");
+
+    // Act & Assert
+    assertEquals(item, GroupListItem.fromGroup(buildGroup()));
+    assertEquals(item.hashCode(), GroupListItem.fromGroup(buildGroup()).hashCode());
+    assertNotEquals(item, GroupListItem.fromGroup(renamed));
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.partymaker.data.model;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for building group_members rows from a Group.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>The admin gets the admin role, friends the member role
+ *   <li>Coming keys set the coming flag, including for users missing from friend keys
+ *   <li>A group without keys only has its admin
+ * </ul>
+ */
+public class GroupMemberTest {
+
+  private static GroupMember find(List<GroupMember> members, String userKey) {
+    for (GroupMember member : members) {
+      if (member.getUserKey().equals(userKey)) {
+        return member;
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void testFromGroup_RolesAndComing() {
+    // Arrange
+    Group group = new Group();
+    group.setGroupKey("group-0");
+    group.setAdminKey("admin");
+    HashMap<String, Object> friendKeys = new HashMap<>();
+    friendKeys.put("admin", true);
+    friendKeys.put("friend", true);
+    friendKeys.put("guest", true);
+    group.setFriendKeys(friendKeys);
+    HashMap<String, Object> comingKeys = new HashMap<>();
+    comingKeys.put("friend", true);
+    comingKeys.put("walk-in", true);
+    group.setComingKeys(comingKeys);
+
+    // Act
+    List<GroupMember> members = GroupMember.fromGroup(group);
+
+    // Assert
+    assertEquals(4, members.size());
+    assertEquals(GroupMember.ROLE_ADMIN, find(members, "admin").getRole());
+    assertFalse(find(members, "admin").isComing());
+    assertEquals(GroupMember.ROLE_MEMBER, find(members, "friend").getRole());
+    assertTrue(find(members, "friend").isComing());
+    assertFalse(find(members, "guest").isComing());
+    assertTrue(find(members, "walk-in").isComing());
+    assertEquals("group-0", find(members, "walk-in").getGroupKey());
+  }
+
+  @Test
+  public void testFromGroup_NoKeys_OnlyAdmin() {
+    // Arrange
+    Group group = new Group();
+    group.setGroupKey("group-0");
+    group.setAdminKey("admin");
+    group.setFriendKeys(null);
+    group.setComingKeys(null);
+
+    // Act
+    List<GroupMember> members = GroupMember.fromGroup(group);
+
+    // Assert
+    assertEquals(1, members.size());
+    assertEquals(GroupMember.ROLE_ADMIN, members.get(0).getRole());
+  }
+}
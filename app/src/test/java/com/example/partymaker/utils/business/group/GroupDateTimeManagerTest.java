@@ -0,0 +1,71 @@
+package com.example.partymaker.utils.business.group;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.Test;
+
+/**
+ * Unit tests for the timestamp conversions of GroupDateTimeManager.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Month names and month numbers give the same event time
+ *   <li>A missing time means midnight
+ *   <li>Missing or invalid dates have no event time
+ *   <li>Creation timestamps stored as millis or as local date strings
+ * </ul>
+ */
+public class GroupDateTimeManagerTest {
+
+  private static long localMillis(int year, int month, int day, int hour, int minute) {
+    return LocalDateTime.of(year, month, day, hour, minute)
+        .atZone(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+  }
+
+  @Test
+  public void testToEpochMillis_MonthNameAndNumber_SameTime() {
+    // Arrange
+    long expected = localMillis(2025, 8, 15, 20, 30);
+
+    // Act & Assert
+    assertEquals(
+        Long.valueOf(expected), GroupDateTimeManager.toEpochMillis("15", "August", "2025", "20:30"));
+    assertEquals(
+        Long.valueOf(expected), GroupDateTimeManager.toEpochMillis("15", "8", "2025", "20:30"));
+    assertEquals(
+        Long.valueOf(expected),
+        new GroupDateTimeManager("15", "Aug", "2025", "20:30").toEpochMillis());
+  }
+
+  @Test
+  public void testToEpochMillis_NoTime_Midnight() {
+    Long millis = GroupDateTimeManager.toEpochMillis("1", "January", "2026", null);
+
+    assertEquals(Long.valueOf(localMillis(2026, 1, 1, 0, 0)), millis);
+  }
+
+  @Test
+  public void testToEpochMillis_InvalidDate_Null() {
+    assertNull(GroupDateTimeManager.toEpochMillis(null, "May", "2025", "10:00"));
+    assertNull(GroupDateTimeManager.toEpochMillis("31", "February", "2025", "10:00"));
+    assertNull(GroupDateTimeManager.toEpochMillis("1", "Month", "2025", "10:00"));
+    assertNull(GroupDateTimeManager.toEpochMillis("1", "13", "2025", "10:00"));
+  }
+
+  @Test
+  public void testToCreatedAtMillis_MillisAndDateString() {
+    assertEquals(1755289800000L, GroupDateTimeManager.toCreatedAtMillis("1755289800000"));
+    assertEquals(
+        localMillis(2025, 8, 15, 20, 30),
+        GroupDateTimeManager.toCreatedAtMillis("2025-08-15 20:30:00"));
+    assertEquals(
+        localMillis(2025, 8, 15, 20, 30), GroupDateTimeManager.toCreatedAtMillis("2025-08-15 20:30"));
+    assertEquals(0, GroupDateTimeManager.toCreatedAtMillis("yesterday"));
+    assertEquals(0, GroupDateTimeManager.toCreatedAtMillis(null));
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.partymaker.utils.infrastructure;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for LatencyHistogram.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Percentile accuracy within the bucket error bound
+ *   <li>Max and mean tracking
+ *   <li>Clamping of out-of-range values
+ *   <li>Lossless counting under concurrent recording
+ * </ul>
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void testGetPercentile_UniformValues_WithinErrorBound() {
+    // Arrange
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    // Assert
+    assertEquals("p50 should be close to 500", 500, histogram.getPercentile(50), 500 * 0.07);
+    assertEquals("p90 should be close to 900", 900, histogram.getPercentile(90), 900 * 0.07);
+    assertEquals("p99 should be close to 990", 990, histogram.getPercentile(99), 990 * 0.07);
+    assertEquals("Max should be exact", 1000, histogram.getMax());
+    assertEquals("Mean should be exact", 500.5, histogram.getMean(), 0.001);
+  }
+
+  @Test
+  public void testGetPercentile_Empty_ReturnsZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getPercentile(99));
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getMean(), 0);
+  }
+
+  @Test
+  public void testBucketIndex_EveryValueFitsItsBucket() {
+    for (long value = 0; value < (1 << 20); value++) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertTrue(
+          "Bucket upper bound should cover value " + value,
+          LatencyHistogram.highestEquivalentValue(index) >= value);
+      if (index > 0) {
+        assertTrue(
+            "Previous bucket should end below value " + value,
+            LatencyHistogram.highestEquivalentValue(index - 1) < value);
+      }
+    }
+  }
+
+  @Test
+  public void testRecord_OutOfRangeValues_AreClamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals("Both values should be counted", 2, histogram.getCount());
+    assertEquals("Negative value should be recorded as zero", 0, histogram.getPercentile(1));
+    assertTrue("Huge value should be clamped", histogram.getMax() < Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testRecord_ConcurrentThreads_CountsEveryValue() throws InterruptedException {
+    // Arrange
+    LatencyHistogram histogram = new LatencyHistogram();
+    int threads = 8;
+    int perThread = 50_000;
+    List<Thread> workers = new ArrayList<>();
+
+    // Act
+    for (int t = 0; t < threads; t++) {
+      Thread worker =
+          new Thread(
+              () -> {
+                for (int i = 0; i < perThread; i++) {
+                  histogram.record(i % 500);
+                }
+              });
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    // Assert
+    assertEquals("No recordings should be lost", threads * perThread, histogram.getCount());
+    assertEquals("Max should be the largest recorded value", 499, histogram.getMax());
+  }
+
+  @Test
+  public void testReset_ClearsAllValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(42);
+
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+}
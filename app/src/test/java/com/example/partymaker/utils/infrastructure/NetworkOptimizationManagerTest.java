@@ -0,0 +1,155 @@
+package com.example.partymaker.utils.infrastructure;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the memory tier of NetworkOptimizationManager, sending GETs through the optimized
+ * OkHttp client to a local HTTP server while a test clock ages the cached entries.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>A fresh entry is served without a request to the server
+ *   <li>A stale entry is served with a warning while one background request revalidates it
+ *   <li>An expired entry is dropped and fetched again before the call returns
+ * </ul>
+ */
+public class NetworkOptimizationManagerTest {
+
+  private static final String API_PATH = "/api/firebase/";
+  // Group reads are fresh for a minute and may be served stale for four more
+  private static final long GROUP_TTL_MS = 60_000;
+  private static final long GROUP_STALE_MS = 4 * 60_000;
+  private static final long WAIT_TIMEOUT_MS = 5_000;
+
+  private final AtomicLong now = new AtomicLong(1_000_000);
+  private final AtomicInteger requests = new AtomicInteger();
+  private volatile String groupName = "Before";
+  private HttpServer server;
+  private OkHttpClient client;
+  private String baseUrl;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(API_PATH, this::handle);
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + API_PATH;
+
+    NetworkOptimizationManager.setClock(now::get);
+    File cacheDir = Files.createTempDirectory("network-optimization-test").toFile();
+    client = NetworkOptimizationManager.createOptimizedClient(cacheDir);
+    NetworkOptimizationManager.clearAllCaches();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    NetworkOptimizationManager.clearAllCaches();
+    NetworkOptimizationManager.setClock(System::currentTimeMillis);
+    client.cache().delete();
+    server.stop(0);
+  }
+
+  @Test
+  public void testGet_FreshEntry_ServedFromMemory() throws Exception {
+    // Arrange
+    get("Groups/g1");
+    groupName = "After";
+    now.addAndGet(GROUP_TTL_MS);
+
+    // Act
+    try (Response response = client.newCall(request("Groups/g1")).execute()) {
+
+      // Assert
+      assertEquals("{\"groupName\":\"Before\"}", response.body().string());
+      assertNull(response.header("Warning"));
+    }
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void testGet_StaleEntry_ServedAndRevalidatedInBackground() throws Exception {
+    // Arrange
+    get("Groups/g1");
+    groupName = "After";
+    now.addAndGet(GROUP_TTL_MS + 1);
+
+    // Act
+    try (Response response = client.newCall(request("Groups/g1")).execute()) {
+
+      // Assert
+      assertEquals("{\"groupName\":\"Before\"}", response.body().string());
+      assertTrue(response.header("Warning").startsWith("110"));
+    }
+    // Reads while the revalidation is in flight get the stale entry and start no other request
+    long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+    String refreshed = get("Groups/g1");
+    while (!refreshed.contains("After") && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      refreshed = get("Groups/g1");
+    }
+    assertEquals("{\"groupName\":\"After\"}", refreshed);
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  public void testGet_ExpiredEntry_FetchedAgain() throws Exception {
+    // Arrange
+    get("Groups/g1");
+    groupName = "After";
+    now.addAndGet(GROUP_TTL_MS + GROUP_STALE_MS + 1);
+    // The disk tier ages by the wall clock, so clear it to reach the server
+    client.cache().evictAll();
+
+    // Act
+    try (Response response = client.newCall(request("Groups/g1")).execute()) {
+
+      // Assert
+      assertEquals("{\"groupName\":\"After\"}", response.body().string());
+      assertNull(response.header("Warning"));
+    }
+    assertEquals(2, requests.get());
+  }
+
+  private Request request(String endpoint) {
+    return new Request.Builder()
+        .url(baseUrl + endpoint)
+        .header("Accept", "application/json")
+        .get()
+        .build();
+  }
+
+  private String get(String endpoint) throws IOException {
+    try (Response response = client.newCall(request(endpoint)).execute()) {
+      return response.body().string();
+    }
+  }
+
+  /** Answers every GET with the current group name. */
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    byte[] bytes = ("{\"groupName\":\"" + groupName + "\"}").getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.partymaker.utils.infrastructure.network;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for CircuitBreaker.
+ *
+ * <p>Tests cover:
+ *
+ * <ul>
+ *   <li>Opening after the failure threshold and rejecting until the reset period passes
+ *   <li>Letting exactly one probe through once half-open
+ *   <li>Closing after a successful probe and opening again after a failed one
+ *   <li>Freeing the probe slot when a request is answered from a cache
+ * </ul>
+ */
+public class CircuitBreakerTest {
+
+  private static final int THRESHOLD = 3;
+  private static final long RESET_TIMEOUT_MS = 200;
+
+  @Test
+  public void testRecordResult_FailuresReachThreshold_Opens() {
+    // Arrange
+    CircuitBreaker breaker = new CircuitBreaker("test", THRESHOLD, 60_000);
+
+    // Act
+    for (int i = 0; i < THRESHOLD; i++) {
+      assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+      assertTrue(breaker.tryAcquirePermission());
+      breaker.recordResult(false);
+    }
+
+    // Assert
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertTrue(breaker.isRejecting());
+    assertFalse(breaker.tryAcquirePermission());
+  }
+
+  @Test
+  public void testRecordResult_SuccessResetsFailureCount() {
+    // Arrange
+    CircuitBreaker breaker = new CircuitBreaker("test", THRESHOLD, 60_000);
+    breaker.recordResult(false);
+    breaker.recordResult(false);
+
+    // Act
+    breaker.recordResult(true);
+    breaker.recordResult(false);
+    breaker.recordResult(false);
+
+    // Assert
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test
+  public void testTryAcquirePermission_AfterResetPeriod_LetsOneProbeThrough() throws Exception {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+    Thread.sleep(RESET_TIMEOUT_MS + 50);
+
+    // Act
+    boolean probe = breaker.tryAcquirePermission();
+    boolean second = breaker.tryAcquirePermission();
+
+    // Assert
+    assertTrue(probe);
+    assertFalse(second);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.isRejecting());
+  }
+
+  @Test
+  public void testRecordResult_ProbeSucceeds_Closes() throws Exception {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+    Thread.sleep(RESET_TIMEOUT_MS + 50);
+    assertTrue(breaker.tryAcquirePermission());
+
+    // Act
+    breaker.recordResult(true);
+
+    // Assert
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    assertFalse(breaker.isRejecting());
+    assertTrue(breaker.tryAcquirePermission());
+  }
+
+  @Test
+  public void testRecordResult_ProbeFails_OpensAgain() throws Exception {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+    Thread.sleep(RESET_TIMEOUT_MS + 50);
+    assertTrue(breaker.tryAcquirePermission());
+
+    // Act
+    breaker.recordResult(false);
+
+    // Assert
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquirePermission());
+  }
+
+  @Test
+  public void testReleasePermission_ProbeAnsweredFromCache_FreesProbeSlot() throws Exception {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+    Thread.sleep(RESET_TIMEOUT_MS + 50);
+    assertTrue(breaker.tryAcquirePermission());
+
+    // Act
+    breaker.releasePermission();
+
+    // Assert
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.tryAcquirePermission());
+  }
+
+  /** Creates a breaker and opens it with consecutive failures. */
+  private static CircuitBreaker openBreaker() {
+    CircuitBreaker breaker = new CircuitBreaker("test", THRESHOLD, RESET_TIMEOUT_MS);
+    for (int i = 0; i < THRESHOLD; i++) {
+      breaker.recordResult(false);
+    }
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    return breaker;
+  }
+}